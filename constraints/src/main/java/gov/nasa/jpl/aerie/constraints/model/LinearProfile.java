@@ -5,6 +5,7 @@ import gov.nasa.jpl.aerie.constraints.time.IntervalMap;
 import gov.nasa.jpl.aerie.constraints.time.Segment;
 import gov.nasa.jpl.aerie.constraints.time.Windows;
 import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.driver.engine.RealProfile;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
 import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
@@ -176,9 +177,23 @@ public final class LinearProfile implements Profile<LinearProfile>, Iterable<Seg
   }
 
   public static LinearProfile fromSimulatedProfile(final List<ProfileSegment<RealDynamics>> simulatedProfile) {
+    if (simulatedProfile instanceof RealProfile columns) return fromColumns(columns);
     return fromProfileHelper(Duration.ZERO, simulatedProfile, Optional::of);
   }
 
+  // Read a column-wise profile directly, rather than materializing each of its segments.
+  private static LinearProfile fromColumns(final RealProfile profile) {
+    final var result = new IntervalMap.Builder<LinearEquation>();
+    for (var i = 0; i < profile.size(); i += 1) {
+      final var start = profile.startOffset(i);
+      result.set(
+          Interval.between(start, Inclusive, start.plus(profile.extent(i)), Exclusive),
+          new LinearEquation(start, profile.initial(i), profile.rate(i)));
+    }
+
+    return new LinearProfile(result.build());
+  }
+
   public static LinearProfile fromExternalProfile(final Duration offsetFromPlanStart, final List<ProfileSegment<Optional<RealDynamics>>> externalProfile) {
     return fromProfileHelper(offsetFromPlanStart, externalProfile, $ -> $);
   }
@@ -0,0 +1,133 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.database.DatabaseTestHelper;
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.EventGraph;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import gov.nasa.jpl.aerie.merlin.server.models.ProfileSet;
+import gov.nasa.jpl.aerie.merlin.server.models.Timestamp;
+import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresResultsCellRepository.ResultsWriteMode;
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to write simulation results through batched inserts and through `COPY`.
+ * The two paths are checked to write the same rows by `ResultsBulkWriteTests`.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ResultsWriteBenchmark {
+  private static final File initSqlScriptFile = new File("../merlin-server/sql/merlin/init.sql");
+  private static final Timestamp simulationStart = new Timestamp(Instant.parse("2020-01-01T00:00:00Z"));
+
+  @Param({"INSERT", "COPY"})
+  public ResultsWriteMode writeMode;
+
+  @Param({"10000"})
+  public int rows;
+
+  private DatabaseTestHelper helper;
+  private Connection connection;
+
+  private Map<Duration, List<EventGraph<Pair<Integer, SerializedValue>>>> events;
+  private Map<Long, SpanRecord> spans;
+  private ProfileSet profiles;
+  private long datasetId;
+
+  @Setup(Level.Trial)
+  public void startDatabase() throws SQLException, IOException, InterruptedException {
+    this.helper = new DatabaseTestHelper(
+        "aerie_merlin_results_write_benchmark",
+        "Merlin Results Write Benchmark",
+        initSqlScriptFile);
+    this.helper.startDatabase();
+    this.connection = this.helper.connection();
+
+    this.events = new TreeMap<>();
+    this.spans = new HashMap<>();
+    final var realSegments = new ArrayList<ProfileSegment<Optional<RealDynamics>>>(this.rows);
+    final var discreteSegments = new ArrayList<ProfileSegment<Optional<SerializedValue>>>(this.rows);
+    for (var i = 0; i < this.rows; i += 1) {
+      this.events.put(
+          Duration.of(i, Duration.SECONDS),
+          List.of(EventGraph.atom(Pair.of(i % 8, SerializedValue.of("value " + i)))));
+      this.spans.put((long) i, new SpanRecord(
+          "Activity",
+          simulationStart.toInstant().plusSeconds(i),
+          Optional.of(Duration.of(1, Duration.SECONDS)),
+          Optional.empty(),
+          List.of(),
+          new ActivityAttributesRecord(Optional.of((long) i), Map.of("n", SerializedValue.of(i)), Optional.empty())));
+      realSegments.add(new ProfileSegment<>(Duration.SECOND, Optional.of(RealDynamics.linear(i, 0.5))));
+      discreteSegments.add(new ProfileSegment<>(Duration.SECOND, Optional.of(SerializedValue.of(i % 2 == 0))));
+    }
+    this.profiles = new ProfileSet(
+        Map.of("/real", Pair.of(ValueSchema.REAL, realSegments)),
+        Map.of("/discrete", Pair.of(ValueSchema.BOOLEAN, discreteSegments)));
+  }
+
+  @TearDown(Level.Trial)
+  public void stopDatabase() throws SQLException, IOException, InterruptedException {
+    this.helper.stopDatabase();
+  }
+
+  @Setup(Level.Invocation)
+  public void insertDataset() throws SQLException {
+    try (final var statement = this.connection.createStatement()) {
+      final var res = statement.executeQuery("INSERT INTO dataset DEFAULT VALUES RETURNING id;");
+      res.next();
+      this.datasetId = res.getLong("id");
+    }
+  }
+
+  @TearDown(Level.Iteration)
+  public void clearDatasets() throws SQLException {
+    this.helper.clearTable("dataset");
+  }
+
+  @Benchmark
+  public void writeEvents() throws SQLException {
+    PostgresResultsCellRepository.insertSimulationEvents(
+        this.connection, this.datasetId, this.events, simulationStart, this.writeMode);
+  }
+
+  @Benchmark
+  public Map<Long, Long> writeSpans() throws SQLException {
+    return PostgresResultsCellRepository.postSpans(
+        this.connection, this.datasetId, this.spans, simulationStart, this.writeMode);
+  }
+
+  @Benchmark
+  public void writeProfiles() throws SQLException {
+    switch (this.writeMode) {
+      case INSERT -> ProfileRepository.postResourceProfiles(this.connection, this.datasetId, this.profiles);
+      case COPY -> ProfileRepository.copyResourceProfiles(this.connection, this.datasetId, this.profiles);
+    }
+  }
+}
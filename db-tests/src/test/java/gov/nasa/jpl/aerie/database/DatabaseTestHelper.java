@@ -4,6 +4,7 @@ import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import org.junit.jupiter.api.Assumptions;
 
+import javax.sql.DataSource;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -14,6 +15,7 @@ import java.sql.SQLException;
  * Manages the test database.
  */
 public class DatabaseTestHelper {
+  private HikariDataSource dataSource;
   private Connection connection;
 
   private final String dbName;
@@ -78,9 +80,9 @@ public class DatabaseTestHelper {
 
     hikariConfig.setConnectionInitSql("set time zone 'UTC'");
 
-    final var hikariDataSource = new HikariDataSource(hikariConfig);
+    dataSource = new HikariDataSource(hikariConfig);
 
-    connection = hikariDataSource.getConnection();
+    connection = dataSource.getConnection();
   }
 
   /**
@@ -90,6 +92,7 @@ public class DatabaseTestHelper {
 
     Assumptions.assumeTrue(connection != null);
     connection.close();
+    dataSource.close();
 
     // Clear out all data from the database on test conclusion
     // This is done WITH (FORCE) so there aren't issues with trying
@@ -111,6 +114,10 @@ public class DatabaseTestHelper {
     return connection;
   }
 
+  public DataSource dataSource() {
+    return dataSource;
+  }
+
   public void clearTable(String table) throws SQLException {
     try (final var statement = connection.createStatement()) {
       statement.executeUpdate("TRUNCATE " + table + " CASCADE;");
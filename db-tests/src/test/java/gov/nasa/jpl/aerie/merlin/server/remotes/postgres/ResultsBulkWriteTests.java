@@ -0,0 +1,205 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.database.DatabaseTestHelper;
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.EventGraph;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import gov.nasa.jpl.aerie.merlin.server.models.ProfileSet;
+import gov.nasa.jpl.aerie.merlin.server.models.Timestamp;
+import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresResultsCellRepository.ResultsWriteMode;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MILLISECONDS;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the `COPY` writers store the same rows as the batched inserts they stand in for.
+ * Their relative throughput is measured by `ResultsWriteBenchmark`.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ResultsBulkWriteTests {
+  private static final File initSqlScriptFile = new File("../merlin-server/sql/merlin/init.sql");
+  private static final Timestamp simulationStart = new Timestamp(Instant.parse("2020-01-01T00:00:00Z"));
+
+  private DatabaseTestHelper helper;
+  private Connection connection;
+
+  @BeforeAll
+  void beforeAll() throws SQLException, IOException, InterruptedException {
+    helper = new DatabaseTestHelper(
+        "aerie_merlin_bulk_write_test",
+        "Merlin Bulk Write Tests",
+        initSqlScriptFile
+    );
+    helper.startDatabase();
+    connection = helper.connection();
+  }
+
+  @AfterAll
+  void afterAll() throws SQLException, IOException, InterruptedException {
+    helper.stopDatabase();
+    connection = null;
+    helper = null;
+  }
+
+  @AfterEach
+  void afterEach() throws SQLException {
+    helper.clearTable("dataset");
+  }
+
+  long insertDataset() throws SQLException {
+    try (final var statement = connection.createStatement()) {
+      final var res = statement.executeQuery("INSERT INTO dataset DEFAULT VALUES RETURNING id;");
+      res.next();
+      return res.getLong("id");
+    }
+  }
+
+  /** Read every column of every row returned by a query, as text. */
+  List<List<String>> rows(final String sql, final long... parameters) throws SQLException {
+    try (final var statement = connection.prepareStatement(sql)) {
+      for (var i = 0; i < parameters.length; i += 1) statement.setLong(i + 1, parameters[i]);
+      final var res = statement.executeQuery();
+      final var columns = res.getMetaData().getColumnCount();
+      final var rows = new ArrayList<List<String>>();
+      while (res.next()) {
+        final var row = new ArrayList<String>(columns);
+        for (var column = 1; column <= columns; column += 1) row.add(res.getString(column));
+        rows.add(row);
+      }
+      return rows;
+    }
+  }
+
+  @Test
+  void copiedEventsMatchInsertedEvents() throws SQLException {
+    final var events = new TreeMap<Duration, List<EventGraph<Pair<Integer, SerializedValue>>>>();
+    events.put(Duration.ZERO, List.of(
+        EventGraph.sequentially(
+            EventGraph.atom(Pair.of(0, SerializedValue.of("plain"))),
+            EventGraph.concurrently(
+                EventGraph.atom(Pair.of(1, SerializedValue.of(1.5))),
+                EventGraph.atom(Pair.of(0, SerializedValue.of("comma, \"quote\"\nnewline")))))));
+    events.put(Duration.of(1500, MILLISECONDS), List.of(
+        EventGraph.atom(Pair.of(1, SerializedValue.of(Map.of("key", SerializedValue.of(true))))),
+        EventGraph.atom(Pair.of(0, SerializedValue.NULL))));
+
+    final var insertDatasetId = insertDataset();
+    final var copyDatasetId = insertDataset();
+    PostgresResultsCellRepository.insertSimulationEvents(
+        connection, insertDatasetId, events, simulationStart, ResultsWriteMode.INSERT);
+    PostgresResultsCellRepository.insertSimulationEvents(
+        connection, copyDatasetId, events, simulationStart, ResultsWriteMode.COPY);
+
+    final var sql = """
+        SELECT real_time, transaction_index, causal_time, topic_index, value
+        FROM event
+        WHERE dataset_id = ?
+        ORDER BY real_time, transaction_index, causal_time;
+        """;
+    final var inserted = rows(sql, insertDatasetId);
+    assertEquals(5, inserted.size());
+    assertEquals(inserted, rows(sql, copyDatasetId));
+  }
+
+  @Test
+  void copiedSpansMatchInsertedSpans() throws SQLException {
+    final var attributes = new ActivityAttributesRecord(
+        Optional.of(7L),
+        Map.of("label", SerializedValue.of("comma, \"quote\"")),
+        Optional.of(SerializedValue.of(42)));
+    final var spans = Map.of(
+        1L, new SpanRecord(
+            "Finished",
+            simulationStart.toInstant().plusSeconds(10),
+            Optional.of(Duration.of(5, SECONDS)),
+            Optional.empty(),
+            List.of(2L),
+            attributes),
+        2L, new SpanRecord(
+            "Unfinished",
+            simulationStart.toInstant().plusSeconds(12),
+            Optional.empty(),
+            Optional.of(1L),
+            List.of(),
+            new ActivityAttributesRecord(Optional.empty(), Map.of(), Optional.empty())),
+        3L, new SpanRecord(
+            "BeforeStart",
+            simulationStart.toInstant().minusMillis(1500),
+            Optional.of(Duration.of(500, MILLISECONDS)),
+            Optional.empty(),
+            List.of(),
+            attributes));
+
+    final var insertDatasetId = insertDataset();
+    final var copyDatasetId = insertDataset();
+    final var insertedIds = PostgresResultsCellRepository.postSpans(
+        connection, insertDatasetId, spans, simulationStart, ResultsWriteMode.INSERT);
+    final var copiedIds = PostgresResultsCellRepository.postSpans(
+        connection, copyDatasetId, spans, simulationStart, ResultsWriteMode.COPY);
+    assertEquals(spans.keySet(), insertedIds.keySet());
+    assertEquals(spans.keySet(), copiedIds.keySet());
+
+    final var sql = """
+        SELECT start_offset, duration, type, attributes
+        FROM span
+        WHERE dataset_id = ? AND id = ?;
+        """;
+    for (final var id : spans.keySet()) {
+      final var inserted = rows(sql, insertDatasetId, insertedIds.get(id));
+      assertEquals(1, inserted.size());
+      assertEquals(inserted, rows(sql, copyDatasetId, copiedIds.get(id)));
+    }
+    assertEquals(
+        List.of("-00:00:01.5", "00:00:00.5", "BeforeStart"),
+        rows(sql, copyDatasetId, copiedIds.get(3L)).get(0).subList(0, 3));
+  }
+
+  @Test
+  void copiedProfilesMatchInsertedProfiles() throws SQLException {
+    final var profiles = new ProfileSet(
+        Map.of("/real", Pair.of(ValueSchema.REAL, List.of(
+            new ProfileSegment<>(Duration.of(10, SECONDS), Optional.of(RealDynamics.linear(1.0, 0.5))),
+            new ProfileSegment<>(Duration.of(2500, MILLISECONDS), Optional.empty()),
+            new ProfileSegment<>(Duration.of(10, SECONDS), Optional.of(RealDynamics.constant(-6.0)))))),
+        Map.of("/discrete", Pair.of(ValueSchema.STRING, List.of(
+            new ProfileSegment<>(Duration.of(5, SECONDS), Optional.of(SerializedValue.of("comma, \"quote\""))),
+            new ProfileSegment<>(Duration.of(15, SECONDS), Optional.of(SerializedValue.of("")))))));
+
+    final var insertDatasetId = insertDataset();
+    final var copyDatasetId = insertDataset();
+    ProfileRepository.postResourceProfiles(connection, insertDatasetId, profiles);
+    ProfileRepository.copyResourceProfiles(connection, copyDatasetId, profiles);
+
+    final var sql = """
+        SELECT p.name, p.type, p.duration, s.start_offset, s.dynamics, s.is_gap
+        FROM profile p
+        JOIN profile_segment s ON s.dataset_id = p.dataset_id AND s.profile_id = p.id
+        WHERE p.dataset_id = ?
+        ORDER BY p.name, s.start_offset;
+        """;
+    final var inserted = rows(sql, insertDatasetId);
+    assertEquals(5, inserted.size());
+    assertEquals(inserted, rows(sql, copyDatasetId));
+  }
+}
@@ -0,0 +1,258 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.database.DatabaseTestHelper;
+import gov.nasa.jpl.aerie.merlin.driver.SimulatedActivity;
+import gov.nasa.jpl.aerie.merlin.driver.SimulatedActivityId;
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.EventGraph;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import gov.nasa.jpl.aerie.merlin.server.models.ProfileSet;
+import gov.nasa.jpl.aerie.merlin.server.models.Timestamp;
+import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresResultsCellRepository.PostgresSimulationResultsHandle;
+import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresResultsCellRepository.ResultsWriteMode;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MILLISECONDS;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that handles onto the same simulation dataset share the components loaded through a {@link SimulationResultsCache}.
+ * Rows are deleted once loaded, so that a component served without reading the database is told apart from one read again.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SimulationResultsHandleTests {
+  private static final File initSqlScriptFile = new File("../merlin-server/sql/merlin/init.sql");
+  private static final List<String> PROFILE_NAMES = List.of("/real", "/discrete");
+
+  private DatabaseTestHelper helper;
+  private Connection connection;
+
+  @BeforeAll
+  void beforeAll() throws SQLException, IOException, InterruptedException {
+    helper = new DatabaseTestHelper(
+        "aerie_merlin_results_handle_test",
+        "Merlin Results Handle Tests",
+        initSqlScriptFile
+    );
+    helper.startDatabase();
+    connection = helper.connection();
+  }
+
+  @AfterAll
+  void afterAll() throws SQLException, IOException, InterruptedException {
+    helper.stopDatabase();
+    connection = null;
+    helper = null;
+  }
+
+  @AfterEach
+  void afterEach() throws SQLException {
+    helper.clearTable("dataset");
+  }
+
+  long insertDataset() throws SQLException {
+    try (final var statement = connection.createStatement()) {
+      final var res = statement.executeQuery("INSERT INTO dataset DEFAULT VALUES RETURNING id;");
+      res.next();
+      final var datasetId = res.getLong("id");
+
+      ProfileRepository.postResourceProfiles(connection, datasetId, ProfileSet.of(
+          Map.of("/real", Pair.of(ValueSchema.REAL, List.of(
+              new ProfileSegment<>(Duration.of(10, SECONDS), RealDynamics.linear(1.0, 0.5)),
+              new ProfileSegment<>(Duration.of(10, SECONDS), RealDynamics.constant(6.0))))),
+          Map.of("/discrete", Pair.of(ValueSchema.BOOLEAN, List.of(
+              new ProfileSegment<>(Duration.of(5, SECONDS), SerializedValue.of(false)),
+              new ProfileSegment<>(Duration.of(15, SECONDS), SerializedValue.of(true)))))));
+      try (final var insertTopicsAction = new InsertSimulationTopicsAction(connection)) {
+        insertTopicsAction.apply(datasetId, List.of(Triple.of(0, "/topic", ValueSchema.STRING)));
+      }
+      return datasetId;
+    }
+  }
+
+  /** Insert activities and events into the dataset, for reading back in windows. */
+  void insertActivitiesAndEvents(final long datasetId) throws SQLException {
+    final var simulationStart = new Timestamp(Instant.EPOCH);
+    PostgresResultsCellRepository.postActivities(connection, datasetId, Map.of(
+        new SimulatedActivityId(1), activity("Parent", 0, 20, null, List.of(2L, 3L)),
+        new SimulatedActivityId(2), activity("Child", 0, 2, 1L, List.of()),
+        new SimulatedActivityId(3), activity("Child", 12, 3, 1L, List.of()),
+        new SimulatedActivityId(4), activity("Other", 16, 4, null, List.of())
+    ), Map.of(), simulationStart, ResultsWriteMode.INSERT);
+
+    final var a = EventGraph.atom(Pair.of(0, SerializedValue.of("a")));
+    final var b = EventGraph.atom(Pair.of(1, SerializedValue.of("b")));
+    final var c = EventGraph.atom(Pair.of(0, SerializedValue.of("c")));
+    final var events = new TreeMap<Duration, List<EventGraph<Pair<Integer, SerializedValue>>>>();
+    events.put(Duration.ZERO, List.of(a));
+    events.put(Duration.of(5, SECONDS), List.of(EventGraph.sequentially(a, EventGraph.concurrently(b, c)), b));
+    events.put(Duration.of(12500, MILLISECONDS), List.of(c));
+    PostgresResultsCellRepository.insertSimulationEvents(connection, datasetId, events, simulationStart, ResultsWriteMode.INSERT);
+  }
+
+  static SimulatedActivity activity(
+      final String type,
+      final long startSeconds,
+      final long durationSeconds,
+      final Long parentId,
+      final List<Long> childIds
+  ) {
+    return new SimulatedActivity(
+        type,
+        Map.of(),
+        Instant.EPOCH.plusSeconds(startSeconds),
+        Duration.of(durationSeconds, SECONDS),
+        (parentId == null) ? null : new SimulatedActivityId(parentId),
+        childIds.stream().map(SimulatedActivityId::new).toList(),
+        Optional.empty(),
+        SerializedValue.of(Map.of()));
+  }
+
+  void deleteComponents(final long datasetId) throws SQLException {
+    try (final var statement = connection.createStatement()) {
+      statement.executeUpdate("DELETE FROM profile WHERE dataset_id = %d;".formatted(datasetId));
+      statement.executeUpdate("DELETE FROM topic WHERE dataset_id = %d;".formatted(datasetId));
+    }
+  }
+
+  PostgresSimulationResultsHandle handle(final long datasetId, final SimulationResultsCache cache) {
+    final var record = new SimulationDatasetRecord(
+        0,
+        datasetId,
+        SimulationStateRecord.success(),
+        false,
+        new Timestamp(Instant.EPOCH),
+        new Timestamp(Instant.EPOCH.plusSeconds(20)),
+        0);
+    return new PostgresSimulationResultsHandle(helper.dataSource(), record, cache);
+  }
+
+  @Test
+  void handlesOnOneDatasetShareLoadedComponents() throws SQLException {
+    final var datasetId = insertDataset();
+    final var cache = new SimulationResultsCache(1 << 20);
+
+    final var first = handle(datasetId, cache);
+    final var profiles = first.getProfiles(PROFILE_NAMES);
+    final var topics = first.getTopics();
+    deleteComponents(datasetId);
+
+    final var second = handle(datasetId, cache);
+    assertEquals(profiles, second.getProfiles(PROFILE_NAMES));
+    assertEquals(topics, second.getTopics());
+    assertEquals(1, topics.size());
+    assertEquals(new SimulationResultsCache.Stats(2, 2, 0, cache.stats().bytes()), cache.stats());
+  }
+
+  @Test
+  void windowedProfilesAreLoadedInFull() throws SQLException {
+    final var datasetId = insertDataset();
+    final var cache = new SimulationResultsCache(1 << 20);
+
+    final var windowed = handle(datasetId, cache).getProfiles(
+        Optional.of(List.of("/real")),
+        Duration.of(5, SECONDS),
+        Duration.of(15, SECONDS));
+    deleteComponents(datasetId);
+
+    final var profiles = handle(datasetId, cache).getProfiles(List.of("/real"));
+    assertEquals(2, profiles.realProfiles().get("/real").getRight().size());
+    assertEquals(profiles.window(Duration.of(5, SECONDS), Duration.of(15, SECONDS)), windowed);
+    assertEquals(1, cache.stats().hits());
+    assertEquals(1, cache.stats().misses());
+  }
+
+  @Test
+  void invalidationForcesReload() throws SQLException {
+    final var datasetId = insertDataset();
+    final var cache = new SimulationResultsCache(1 << 20);
+
+    final var loaded = handle(datasetId, cache).getProfiles(PROFILE_NAMES);
+    assertEquals(1, loaded.realProfiles().size());
+    assertEquals(1, loaded.discreteProfiles().size());
+    deleteComponents(datasetId);
+    cache.invalidate(datasetId);
+
+    final var reloaded = handle(datasetId, cache);
+    final var profiles = reloaded.getProfiles(PROFILE_NAMES);
+    assertTrue(profiles.realProfiles().isEmpty());
+    assertTrue(profiles.discreteProfiles().isEmpty());
+    assertTrue(reloaded.getTopics().isEmpty());
+    assertEquals(0, cache.stats().hits());
+    assertEquals(3, cache.stats().misses());
+  }
+
+  @Test
+  void windowedActivitiesMatchWhetherReadInWindowOrInFull() throws SQLException {
+    final var datasetId = insertDataset();
+    insertActivitiesAndEvents(datasetId);
+    final var start = Duration.of(10, SECONDS);
+    final var end = Duration.of(15, SECONDS);
+
+    // A cache which retains nothing never holds the activities in full, so only the window is read.
+    final var windowed = handle(datasetId, new SimulationResultsCache(0))
+        .getSimulatedActivities(Optional.empty(), start, end);
+
+    final var loaded = handle(datasetId, new SimulationResultsCache(1 << 20));
+    final var all = loaded.getSimulatedActivities();
+    assertEquals(4, all.size());
+    assertEquals(windowed, loaded.getSimulatedActivities(Optional.empty(), start, end));
+
+    // The first child ends before the window, and the unrelated activity starts after it.
+    assertEquals(Set.of("Parent", "Child"), Set.copyOf(windowed.values().stream().map(SimulatedActivity::type).toList()));
+    final var parentId = windowed.entrySet().stream()
+        .filter($ -> $.getValue().type().equals("Parent"))
+        .findFirst().orElseThrow().getKey();
+    final var childId = windowed.get(parentId).childIds().get(0);
+    assertEquals(1, windowed.get(parentId).childIds().size());
+    assertEquals(parentId, windowed.get(childId).parentId());
+
+    final var others = handle(datasetId, new SimulationResultsCache(0))
+        .getSimulatedActivities(Optional.of(Set.of("Other")), Duration.ZERO, Duration.of(20, SECONDS));
+    assertEquals(1, others.size());
+    assertEquals(others, loaded.getSimulatedActivities(Optional.of(Set.of("Other")), Duration.ZERO, Duration.of(20, SECONDS)));
+  }
+
+  @Test
+  void windowedEventsMatchWhetherReadInWindowOrInFull() throws SQLException {
+    final var datasetId = insertDataset();
+    insertActivitiesAndEvents(datasetId);
+    final var start = Duration.of(5, SECONDS);
+    final var end = Duration.of(15, SECONDS);
+
+    final var windowed = handle(datasetId, new SimulationResultsCache(0)).getEvents(Optional.of(Set.of(0)), start, end);
+
+    final var loaded = handle(datasetId, new SimulationResultsCache(1 << 20));
+    assertEquals(3, loaded.getSimulationResults().events.size());
+    assertEquals(windowed, loaded.getEvents(Optional.of(Set.of(0)), start, end));
+
+    final var a = EventGraph.atom(Pair.of(0, SerializedValue.of("a")));
+    final var c = EventGraph.atom(Pair.of(0, SerializedValue.of("c")));
+    assertEquals(Map.of(
+        Duration.of(5, SECONDS), List.of(EventGraph.sequentially(a, c)),
+        Duration.of(12500, MILLISECONDS), List.of(c)
+    ), windowed);
+  }
+}
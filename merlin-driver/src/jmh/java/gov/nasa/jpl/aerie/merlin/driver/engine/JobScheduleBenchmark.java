@@ -0,0 +1,114 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of rescheduling jobs, as happens whenever an emitted event invalidates a resource or condition,
+ * for the indexed {@link JobSchedule} and for the linear-removal priority queue it replaced.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JobScheduleBenchmark {
+  @Param({"1000", "10000", "100000"})
+  public int scheduledJobs;
+
+  private JobSchedule<Integer, SchedulingInstant> indexed;
+  private LinearRemovalSchedule<Integer, SchedulingInstant> linear;
+  private int[] jobs;
+  private long[] times;
+  private int next;
+
+  @Setup(Level.Iteration)
+  public void setup() {
+    final var random = new Random(0);
+
+    this.indexed = new JobSchedule<>();
+    this.linear = new LinearRemovalSchedule<>();
+    for (var job = 0; job < this.scheduledJobs; job += 1) {
+      final var time = SubInstant.Resources.at(Duration.of(random.nextInt(1_000_000), Duration.SECONDS));
+      this.indexed.schedule(job, time);
+      this.linear.schedule(job, time);
+    }
+
+    this.jobs = new int[1 << 16];
+    this.times = new long[1 << 16];
+    for (var i = 0; i < this.jobs.length; i += 1) {
+      this.jobs[i] = random.nextInt(this.scheduledJobs);
+      this.times[i] = random.nextInt(1_000_000);
+    }
+    this.next = 0;
+  }
+
+  @Benchmark
+  public void rescheduleIndexed() {
+    final var i = this.next++ & (this.jobs.length - 1);
+    this.indexed.schedule(this.jobs[i], SubInstant.Resources.at(Duration.of(this.times[i], Duration.SECONDS)));
+  }
+
+  @Benchmark
+  public void rescheduleLinear() {
+    final var i = this.next++ & (this.jobs.length - 1);
+    this.linear.schedule(this.jobs[i], SubInstant.Resources.at(Duration.of(this.times[i], Duration.SECONDS)));
+  }
+
+  @Benchmark
+  public void rescheduleAndExtractIndexed(final Blackhole blackhole) {
+    final var i = this.next++ & (this.jobs.length - 1);
+    this.indexed.schedule(this.jobs[i], SubInstant.Resources.at(Duration.of(this.times[i], Duration.SECONDS)));
+
+    // Put every extracted job back, so that the size of the schedule stays fixed.
+    final var batch = this.indexed.extractNextJobs(Duration.MAX_VALUE);
+    for (final var job : batch.jobs()) {
+      this.indexed.schedule(job, SubInstant.Resources.at(batch.offsetFromStart().plus(Duration.of(1_000_000, Duration.SECONDS))));
+    }
+    blackhole.consume(batch);
+  }
+
+  @Benchmark
+  public void rescheduleAndExtractLinear(final Blackhole blackhole) {
+    final var i = this.next++ & (this.jobs.length - 1);
+    this.linear.schedule(this.jobs[i], SubInstant.Resources.at(Duration.of(this.times[i], Duration.SECONDS)));
+
+    final var entry = this.linear.extractNext();
+    this.linear.schedule(entry.getRight(), SubInstant.Resources.at(entry.getLeft().project().plus(Duration.of(1_000_000, Duration.SECONDS))));
+    blackhole.consume(entry);
+  }
+
+  /** The schedule as formerly implemented, which searches the queue linearly to reschedule a job. */
+  private static final class LinearRemovalSchedule<JobRef, TimeRef extends SchedulingInstant> {
+    private final Map<JobRef, TimeRef> scheduledJobs = new HashMap<>();
+    private final PriorityQueue<Pair<TimeRef, JobRef>> queue = new PriorityQueue<>(Comparator.comparing(Pair::getLeft));
+
+    public void schedule(final JobRef job, final TimeRef time) {
+      final var oldTime = this.scheduledJobs.put(job, time);
+
+      if (oldTime != null) this.queue.remove(Pair.of(oldTime, job));
+      this.queue.add(Pair.of(time, job));
+    }
+
+    public Pair<TimeRef, JobRef> extractNext() {
+      final var entry = this.queue.remove();
+      this.scheduledJobs.remove(entry.getRight());
+      return entry;
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package gov.nasa.jpl.aerie.merlin.driver.timeline;
+
+import gov.nasa.jpl.aerie.merlin.driver.engine.TaskId;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.model.CellType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.EffectTrait;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of bringing a rarely-read cell up to date in a model with many cells,
+ * where only one commit in `cells` touches the cell being read,
+ * for the topic-indexed {@link TemporalEventSource.TemporalCursor} and for a scan over every time point.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TemporalCursorBenchmark {
+  @Param({"10", "100", "1000"})
+  public int cells;
+
+  @Param({"100000"})
+  public int commits;
+
+  private TemporalEventSource timeline;
+  private Topic<Long> readTopic;
+
+  private static final CellType<Long, long[]> counterType = new CellType<>() {
+    @Override
+    public EffectTrait<Long> getEffectType() {
+      return new EffectTrait<>() {
+        @Override
+        public Long empty() {
+          return 0L;
+        }
+
+        @Override
+        public Long sequentially(final Long prefix, final Long suffix) {
+          return prefix + suffix;
+        }
+
+        @Override
+        public Long concurrently(final Long left, final Long right) {
+          return left + right;
+        }
+      };
+    }
+
+    @Override
+    public long[] duplicate(final long[] state) {
+      return state.clone();
+    }
+
+    @Override
+    public void apply(final long[] state, final Long effect) {
+      state[0] += effect;
+    }
+
+    @Override
+    public void step(final long[] state, final Duration duration) {
+      state[1] += duration.in(Duration.MICROSECONDS);
+    }
+  };
+
+  @Setup
+  public void setup() {
+    final var topics = new Topic[this.cells];
+    for (var i = 0; i < this.cells; i += 1) topics[i] = new Topic<Long>();
+
+    @SuppressWarnings("unchecked")
+    final Topic<Long> readTopic = topics[0];
+    this.readTopic = readTopic;
+
+    final var provenance = TaskId.generate();
+    this.timeline = new TemporalEventSource();
+    for (var i = 0; i < this.commits; i += 1) {
+      @SuppressWarnings("unchecked")
+      final Topic<Long> topic = topics[i % this.cells];
+
+      this.timeline.add(Duration.SECOND);
+      this.timeline.add(EventGraph.atom(Event.create(topic, 1L, provenance)));
+    }
+  }
+
+  private Cell<long[]> newCell() {
+    return new Cell<>(counterType, new Selector<>(this.readTopic, $ -> $), new IterativeEventGraphEvaluator(), new long[2]);
+  }
+
+  @Benchmark
+  public Object indexedCursor() {
+    final var cell = this.newCell();
+    this.timeline.cursor().stepUp(cell);
+    return cell.getState();
+  }
+
+  @Benchmark
+  public Object linearScan() {
+    final var cell = this.newCell();
+    for (final var point : this.timeline) {
+      if (point instanceof TemporalEventSource.TimePoint.Delta p) {
+        cell.step(p.delta());
+      } else if (point instanceof TemporalEventSource.TimePoint.Commit p) {
+        if (cell.isInterestedIn(p.topics())) cell.apply(p.events());
+      }
+    }
+    return cell.getState();
+  }
+}
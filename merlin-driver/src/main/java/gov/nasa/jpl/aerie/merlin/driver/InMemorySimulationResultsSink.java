@@ -0,0 +1,141 @@
+package gov.nasa.jpl.aerie.merlin.driver;
+
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.EventGraph;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/** A sink which accumulates streamed results into a {@link SimulationResults}. */
+public final class InMemorySimulationResultsSink implements SimulationResultsSink {
+  private final Map<String, Pair<ValueSchema, List<ProfileSegment<RealDynamics>>>> realProfiles = new HashMap<>();
+  private final Map<String, Pair<ValueSchema, List<ProfileSegment<SerializedValue>>>> discreteProfiles = new HashMap<>();
+  private final Map<SimulatedActivityId, SimulatedActivity> simulatedActivities = new HashMap<>();
+  private final Map<SimulatedActivityId, UnfinishedActivity> unfinishedActivities = new HashMap<>();
+  private final TreeMap<Duration, List<EventGraph<Pair<Integer, SerializedValue>>>> events = new TreeMap<>();
+  private final Map<String, Long> suppressedSegments = new HashMap<>();
+  private long stateReads = 0;
+  private long stateCopies = 0;
+  private long taskSteps = 0;
+  private long taskStepNanos = 0;
+  private long longestTaskStepNanos = 0;
+  private List<Triple<Integer, String, ValueSchema>> topics = List.of();
+  private Optional<SimulationResults> results = Optional.empty();
+
+  @Override
+  public void topics(final List<Triple<Integer, String, ValueSchema>> topics) {
+    this.topics = List.copyOf(topics);
+  }
+
+  @Override
+  public void realProfile(final String name, final ValueSchema schema) {
+    this.realProfiles.put(name, Pair.of(schema, new ArrayList<>()));
+  }
+
+  @Override
+  public void discreteProfile(final String name, final ValueSchema schema) {
+    this.discreteProfiles.put(name, Pair.of(schema, new ArrayList<>()));
+  }
+
+  @Override
+  public void realProfileSegment(final String name, final ProfileSegment<RealDynamics> segment) {
+    this.realProfiles.get(name).getRight().add(segment);
+  }
+
+  @Override
+  public void discreteProfileSegment(final String name, final ProfileSegment<SerializedValue> segment) {
+    this.discreteProfiles.get(name).getRight().add(segment);
+  }
+
+  @Override
+  public void events(final Duration time, final EventGraph<Pair<Integer, SerializedValue>> events) {
+    this.events.computeIfAbsent(time, $ -> new ArrayList<>()).add(events);
+  }
+
+  @Override
+  public void simulatedActivity(final SimulatedActivityId id, final SimulatedActivity activity) {
+    this.simulatedActivities.put(id, activity);
+  }
+
+  @Override
+  public void unfinishedActivity(final SimulatedActivityId id, final UnfinishedActivity activity) {
+    this.unfinishedActivities.put(id, activity);
+  }
+
+  @Override
+  public void suppressedSegments(final String name, final long count) {
+    this.suppressedSegments.put(name, count);
+  }
+
+  @Override
+  public void stateReads(final long reads, final long copies) {
+    this.stateReads = reads;
+    this.stateCopies = copies;
+  }
+
+  @Override
+  public void taskSteps(final long steps, final long totalNanos, final long longestNanos) {
+    this.taskSteps = steps;
+    this.taskStepNanos = totalNanos;
+    this.longestTaskStepNanos = longestNanos;
+  }
+
+  @Override
+  public void finish(final Instant startTime, final Duration duration) {
+    this.results = Optional.of(new SimulationResults(
+        this.realProfiles,
+        this.discreteProfiles,
+        this.simulatedActivities,
+        this.unfinishedActivities,
+        startTime,
+        duration,
+        this.topics,
+        this.events));
+  }
+
+  /** The number of samples of each resource which were suppressed because they merely continued its latest segment. */
+  public Map<String, Long> suppressedSegments() {
+    return this.suppressedSegments;
+  }
+
+  /** The number of cell states read by the simulation's jobs. */
+  public long stateReads() {
+    return this.stateReads;
+  }
+
+  /** The number of copies of cell states made to serve the simulation's reads. */
+  public long stateCopies() {
+    return this.stateCopies;
+  }
+
+  /** The number of steps taken by the simulation's tasks. */
+  public long taskSteps() {
+    return this.taskSteps;
+  }
+
+  /** The total time spent running the simulation's tasks, in nanoseconds. */
+  public long taskStepNanos() {
+    return this.taskStepNanos;
+  }
+
+  /** The time spent running the longest task step, in nanoseconds. */
+  public long longestTaskStepNanos() {
+    return this.longestTaskStepNanos;
+  }
+
+  /** Get the accumulated results. Only available once the simulation has finished. */
+  public SimulationResults results() {
+    return this.results.orElseThrow(() -> new IllegalStateException("Simulation results are not yet complete"));
+  }
+}
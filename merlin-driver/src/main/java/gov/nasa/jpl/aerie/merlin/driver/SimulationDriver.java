@@ -1,6 +1,7 @@
 package gov.nasa.jpl.aerie.merlin.driver;
 
 import gov.nasa.jpl.aerie.merlin.driver.engine.SimulationEngine;
+import gov.nasa.jpl.aerie.merlin.driver.engine.SpillFile;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.LiveCells;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.TemporalEventSource;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
@@ -11,14 +12,21 @@ import gov.nasa.jpl.aerie.merlin.protocol.types.TaskStatus;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Unit;
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 public final class SimulationDriver {
+  /** The number of time points a truncating timeline may accumulate before the cells are caught up and it is truncated. */
+  private static final int TIMELINE_TRUNCATION_THRESHOLD = 1 << 14;
+
   public static <Model>
   SimulationResults simulate(
       final MissionModel<Model> missionModel,
@@ -42,89 +50,250 @@ public final class SimulationDriver {
       final Duration planDuration,
       final Consumer<Duration> simulationExtentConsumer
   ) {
-    try (final var engine = new SimulationEngine()) {
-      /* The top-level simulation timeline. */
-      var timeline = new TemporalEventSource();
-      var cells = new LiveCells(timeline, missionModel.getInitialCells());
-      /* The current real time. */
-      var elapsedTime = Duration.ZERO;
+    return simulate(missionModel, schedule, simulationStartTime, simulationDuration, planStartTime, planDuration, simulationExtentConsumer, 1);
+  }
 
-      simulationExtentConsumer.accept(elapsedTime);
+  /**
+   * Simulate a plan, performing up to `jobParallelism` of the jobs in each simulation step simultaneously.
+   *
+   * Results are independent of the parallelism chosen.
+   */
+  public static <Model>
+  SimulationResults simulate(
+      final MissionModel<Model> missionModel,
+      final Map<ActivityDirectiveId, ActivityDirective> schedule,
+      final Instant simulationStartTime,
+      final Duration simulationDuration,
+      final Instant planStartTime,
+      final Duration planDuration,
+      final Consumer<Duration> simulationExtentConsumer,
+      final int jobParallelism
+  ) {
+    return simulate(
+        missionModel, schedule,
+        simulationStartTime, simulationDuration, planStartTime, planDuration,
+        simulationExtentConsumer, jobParallelism, $ -> true, Optional.empty());
+  }
 
-      // Begin tracking all resources.
-      for (final var entry : missionModel.getResources().entrySet()) {
-        final var name = entry.getKey();
-        final var resource = entry.getValue();
+  /**
+   * Simulate a plan, tracking the profiles of only those resources whose names satisfy the given filter.
+   *
+   * Untracked resources are never sampled, and are absent from the results.
+   */
+  public static <Model>
+  SimulationResults simulate(
+      final MissionModel<Model> missionModel,
+      final Map<ActivityDirectiveId, ActivityDirective> schedule,
+      final Instant simulationStartTime,
+      final Duration simulationDuration,
+      final Instant planStartTime,
+      final Duration planDuration,
+      final Consumer<Duration> simulationExtentConsumer,
+      final int jobParallelism,
+      final Predicate<String> resourceFilter
+  ) {
+    return simulate(
+        missionModel, schedule,
+        simulationStartTime, simulationDuration, planStartTime, planDuration,
+        simulationExtentConsumer, jobParallelism, resourceFilter, Optional.empty());
+  }
 
-        engine.trackResource(name, resource, elapsedTime);
-      }
+  /**
+   * Simulate a plan, spilling resource profiles to a file in the given directory
+   * once more than `residentProfileSlabs` slabs of any one profile are full.
+   *
+   * This bounds the heap used by profiles for long simulations whose results must nonetheless be returned all at once.
+   * The spill file is deleted once results have been computed.
+   */
+  public static <Model>
+  SimulationResults simulate(
+      final MissionModel<Model> missionModel,
+      final Map<ActivityDirectiveId, ActivityDirective> schedule,
+      final Instant simulationStartTime,
+      final Duration simulationDuration,
+      final Instant planStartTime,
+      final Duration planDuration,
+      final Consumer<Duration> simulationExtentConsumer,
+      final int jobParallelism,
+      final Path spillDirectory,
+      final int residentProfileSlabs
+  ) {
+    try (final var spillFile = SpillFile.create(spillDirectory)) {
+      return simulate(
+          missionModel, schedule,
+          simulationStartTime, simulationDuration, planStartTime, planDuration,
+          simulationExtentConsumer, jobParallelism, $ -> true, Optional.of(Pair.of(spillFile, residentProfileSlabs)));
+    }
+  }
 
+  private static <Model>
+  SimulationResults simulate(
+      final MissionModel<Model> missionModel,
+      final Map<ActivityDirectiveId, ActivityDirective> schedule,
+      final Instant simulationStartTime,
+      final Duration simulationDuration,
+      final Instant planStartTime,
+      final Duration planDuration,
+      final Consumer<Duration> simulationExtentConsumer,
+      final int jobParallelism,
+      final Predicate<String> resourceFilter,
+      final Optional<Pair<SpillFile, Integer>> profileSpill
+  ) {
+    try (final var engine = new SimulationEngine(jobParallelism)) {
+      profileSpill.ifPresent($ -> engine.spillProfiles($.getLeft(), $.getRight()));
+
+      /* The top-level simulation timeline. */
+      final var timeline = new TemporalEventSource();
       // Specify a topic on which tasks can log the activity they're associated with.
       final var activityTopic = new Topic<ActivityDirectiveId>();
 
-      try {
-        // Start daemon task(s) immediately, before anything else happens.
-        engine.scheduleTask(Duration.ZERO, missionModel.getDaemon());
-        {
-          final var batch = engine.extractNextJobs(Duration.MAX_VALUE);
-          final var commit = engine.performJobs(batch.jobs(), cells, elapsedTime, Duration.MAX_VALUE);
-          timeline.add(commit);
-        }
+      final var elapsedTime = drive(
+          engine, timeline, activityTopic,
+          missionModel, schedule,
+          simulationStartTime, simulationDuration, planStartTime, planDuration,
+          simulationExtentConsumer, resourceFilter);
+
+      final var topics = missionModel.getTopics();
+      return SimulationEngine.computeResults(engine, simulationStartTime, elapsedTime, activityTopic, timeline, topics);
+    }
+  }
+
+  /**
+   * Simulate a plan, reporting results to the given sink as they are produced rather than accumulating them in memory.
+   *
+   * Child activities are assigned IDs which do not conflict with any directive in the plan.
+   * The timeline is truncated as the simulation proceeds, so memory use does not grow with the simulated duration.
+   */
+  public static <Model>
+  void simulate(
+      final MissionModel<Model> missionModel,
+      final Map<ActivityDirectiveId, ActivityDirective> schedule,
+      final Instant simulationStartTime,
+      final Duration simulationDuration,
+      final Instant planStartTime,
+      final Duration planDuration,
+      final Consumer<Duration> simulationExtentConsumer,
+      final int jobParallelism,
+      final SimulationResultsSink sink
+  ) {
+    try (final var engine = new SimulationEngine(jobParallelism)) {
+      /* The top-level simulation timeline. Every commit is streamed to the sink, so only the cells need its history. */
+      final var timeline = TemporalEventSource.truncating();
+      // Specify a topic on which tasks can log the activity they're associated with.
+      final var activityTopic = new Topic<ActivityDirectiveId>();
+
+      final var reservedActivityIds = new HashSet<Long>(schedule.size());
+      for (final var directiveId : schedule.keySet()) reservedActivityIds.add(directiveId.id());
+      engine.streamResults(sink, simulationStartTime, activityTopic, missionModel.getTopics(), reservedActivityIds);
+
+      final var elapsedTime = drive(
+          engine, timeline, activityTopic,
+          missionModel, schedule,
+          simulationStartTime, simulationDuration, planStartTime, planDuration,
+          simulationExtentConsumer, $ -> true);
+
+      engine.finishResults(elapsedTime);
+    }
+  }
+
+  /** Drive the engine from the start of simulation until the given duration has elapsed, returning the elapsed time. */
+  private static <Model>
+  Duration drive(
+      final SimulationEngine engine,
+      final TemporalEventSource timeline,
+      final Topic<ActivityDirectiveId> activityTopic,
+      final MissionModel<Model> missionModel,
+      final Map<ActivityDirectiveId, ActivityDirective> schedule,
+      final Instant simulationStartTime,
+      final Duration simulationDuration,
+      final Instant planStartTime,
+      final Duration planDuration,
+      final Consumer<Duration> simulationExtentConsumer,
+      final Predicate<String> resourceFilter
+  ) {
+    final var cells = new LiveCells(timeline, missionModel.getInitialCells());
+    /* The current real time. */
+    var elapsedTime = Duration.ZERO;
 
-        // Get all activities as close as possible to absolute time
-        // Schedule all activities.
-        // Using HashMap explicitly because it allows `null` as a key.
-        // `null` key means that an activity is not waiting on another activity to finish to know its start time
-        HashMap<ActivityDirectiveId, List<Pair<ActivityDirectiveId, Duration>>> resolved = new StartOffsetReducer(planDuration, schedule).compute();
-        if(resolved.size() != 0) {
-          resolved.put(
-              null,
-              StartOffsetReducer.adjustStartOffset(
-                  resolved.get(null),
-                  Duration.of(
-                      planStartTime.until(simulationStartTime, ChronoUnit.MICROS),
-                      Duration.MICROSECONDS)));
+    simulationExtentConsumer.accept(elapsedTime);
+
+    // Begin tracking the requested resources.
+    for (final var entry : missionModel.getResources().entrySet()) {
+      final var name = entry.getKey();
+      final var resource = entry.getValue();
+      if (!resourceFilter.test(name)) continue;
+
+      engine.trackResource(name, resource, elapsedTime);
+    }
+
+    try {
+      // Start daemon task(s) immediately, before anything else happens.
+      engine.scheduleTask(Duration.ZERO, missionModel.getDaemon());
+      {
+        final var batch = engine.extractNextJobs(Duration.MAX_VALUE);
+        final var commit = engine.performJobs(batch.jobs(), cells, elapsedTime, Duration.MAX_VALUE);
+        timeline.add(commit);
+        engine.commitResults(elapsedTime, commit);
+      }
+
+      // Get all activities as close as possible to absolute time
+      // Schedule all activities.
+      // Using HashMap explicitly because it allows `null` as a key.
+      // `null` key means that an activity is not waiting on another activity to finish to know its start time
+      HashMap<ActivityDirectiveId, List<Pair<ActivityDirectiveId, Duration>>> resolved = new StartOffsetReducer(planDuration, schedule).compute();
+      if(resolved.size() != 0) {
+        resolved.put(
+            null,
+            StartOffsetReducer.adjustStartOffset(
+                resolved.get(null),
+                Duration.of(
+                    planStartTime.until(simulationStartTime, ChronoUnit.MICROS),
+                    Duration.MICROSECONDS)));
+      }
+      // Filter out activities that are before simulationStartTime
+      resolved = StartOffsetReducer.filterOutNegativeStartOffset(resolved);
+
+      scheduleActivities(
+          schedule,
+          resolved,
+          missionModel,
+          engine,
+          activityTopic
+      );
+
+      // Drive the engine until we're out of time.
+      // TERMINATION: Actually, we might never break if real time never progresses forward.
+      while (true) {
+        final var batch = engine.extractNextJobs(simulationDuration);
+
+        // Increment real time, if necessary.
+        final var delta = batch.offsetFromStart().minus(elapsedTime);
+        elapsedTime = batch.offsetFromStart();
+        timeline.add(delta);
+        // TODO: Advance a dense time counter so that future tasks are strictly ordered relative to these,
+        //   even if they occur at the same real time.
+
+        simulationExtentConsumer.accept(elapsedTime);
+
+        if (batch.jobs().isEmpty() && batch.offsetFromStart().isEqualTo(simulationDuration)) {
+          break;
         }
-        // Filter out activities that are before simulationStartTime
-        resolved = StartOffsetReducer.filterOutNegativeStartOffset(resolved);
-
-        scheduleActivities(
-            schedule,
-            resolved,
-            missionModel,
-            engine,
-            activityTopic
-        );
-
-        // Drive the engine until we're out of time.
-        // TERMINATION: Actually, we might never break if real time never progresses forward.
-        while (true) {
-          final var batch = engine.extractNextJobs(simulationDuration);
-
-          // Increment real time, if necessary.
-          final var delta = batch.offsetFromStart().minus(elapsedTime);
-          elapsedTime = batch.offsetFromStart();
-          timeline.add(delta);
-          // TODO: Advance a dense time counter so that future tasks are strictly ordered relative to these,
-          //   even if they occur at the same real time.
-
-          simulationExtentConsumer.accept(elapsedTime);
-
-          if (batch.jobs().isEmpty() && batch.offsetFromStart().isEqualTo(simulationDuration)) {
-            break;
-          }
-
-          // Run the jobs in this batch.
-          final var commit = engine.performJobs(batch.jobs(), cells, elapsedTime, simulationDuration);
-          timeline.add(commit);
+
+        // Run the jobs in this batch.
+        final var commit = engine.performJobs(batch.jobs(), cells, elapsedTime, simulationDuration);
+        timeline.add(commit);
+        engine.commitResults(elapsedTime, commit);
+
+        if (timeline.isTruncating() && timeline.retainedSize() >= TIMELINE_TRUNCATION_THRESHOLD) {
+          cells.stepUpAll();
+          timeline.truncate();
         }
-      } catch (Throwable ex) {
-        throw new SimulationException(elapsedTime, simulationStartTime, ex);
       }
-
-      final var topics = missionModel.getTopics();
-      return SimulationEngine.computeResults(engine, simulationStartTime, elapsedTime, activityTopic, timeline, topics);
+    } catch (Throwable ex) {
+      throw new SimulationException(elapsedTime, simulationStartTime, ex);
     }
+
+    return elapsedTime;
   }
 
   public static <Model, Return>
@@ -1,6 +1,7 @@
 package gov.nasa.jpl.aerie.merlin.driver;
 
 import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.driver.engine.RealProfile;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.EventGraph;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
@@ -12,6 +13,7 @@ import org.apache.commons.lang3.tuple.Triple;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.SortedMap;
 
 public final class SimulationResults {
@@ -44,6 +46,16 @@ public final class SimulationResults {
     this.events = events;
   }
 
+  /**
+   * The profile of the named real-valued resource, stored column-wise.
+   *
+   * Profiles computed by the simulation engine are already stored this way;
+   * any others are converted on request.
+   */
+  public Optional<RealProfile> realProfile(final String name) {
+    return Optional.ofNullable(this.realProfiles.get(name)).map($ -> RealProfile.of($.getRight()));
+  }
+
   @Override
   public String toString() {
     return
@@ -0,0 +1,70 @@
+package gov.nasa.jpl.aerie.merlin.driver;
+
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.EventGraph;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A consumer of simulation results, fed incrementally while a simulation runs
+ * so that the results of a long simulation never need to be held in memory all at once.
+ *
+ * <p>The topics are reported first, and every profile is declared before any of its segments are reported.
+ * The segments of a profile are reported in order, as soon as the next segment begins (or the simulation ends).
+ * Events are reported once per commit to the timeline, in timeline order.
+ * An activity is reported once it terminates, after all of its child activities have been reported;
+ * activities still running when the simulation ends are reported as unfinished.
+ * Finally, {@link #finish(Instant, Duration)} is called exactly once.</p>
+ *
+ * <p>Sinks which buffer results may be asked to {@link #flush()} them at any point before the simulation finishes.</p>
+ *
+ * <p>Calls are never made concurrently.</p>
+ */
+public interface SimulationResultsSink {
+  void topics(List<Triple<Integer, String, ValueSchema>> topics);
+
+  void realProfile(String name, ValueSchema schema);
+
+  void discreteProfile(String name, ValueSchema schema);
+
+  void realProfileSegment(String name, ProfileSegment<RealDynamics> segment);
+
+  void discreteProfileSegment(String name, ProfileSegment<SerializedValue> segment);
+
+  void events(Duration time, EventGraph<Pair<Integer, SerializedValue>> events);
+
+  void simulatedActivity(SimulatedActivityId id, SimulatedActivity activity);
+
+  void unfinishedActivity(SimulatedActivityId id, UnfinishedActivity activity);
+
+  /**
+   * Report the number of samples of a resource which were not reported as segments,
+   * because they merely continued the resource's latest segment. Called for every profile before {@link #finish}.
+   */
+  default void suppressedSegments(String name, long count) {}
+
+  /**
+   * Report the number of cell states read by the simulation's jobs, and the number of copies of cell states made
+   * to serve those reads. Reads in excess of copies were served by a copy made for an earlier read.
+   * Called once, before {@link #finish}.
+   */
+  default void stateReads(long reads, long copies) {}
+
+  /**
+   * Report the number of steps taken by the simulation's tasks, the total time spent running them,
+   * and the time spent running the longest of them, in nanoseconds. Called once, before {@link #finish}.
+   */
+  default void taskSteps(long steps, long totalNanos, long longestNanos) {}
+
+  void finish(Instant startTime, Duration duration);
+
+  /** Write out any results buffered by this sink, so that they can be observed before the simulation finishes. */
+  default void flush() {}
+}
@@ -1,10 +1,25 @@
 package gov.nasa.jpl.aerie.merlin.driver.engine;
 
-import java.util.UUID;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A typed wrapper for condition IDs.
+ *
+ * IDs are assigned in increasing order from a process-wide counter, like {@link TaskId}s.
+ */
+public record ConditionId(long id) {
+  /** Orders conditions by creation. */
+  public static final Comparator<ConditionId> ORDER = Comparator.comparingLong(ConditionId::id);
+
+  private static final AtomicLong nextId = new AtomicLong(0);
 
-/** A typed wrapper for condition IDs. */
-public record ConditionId(String id) {
   public static ConditionId generate() {
-    return new ConditionId(UUID.randomUUID().toString());
+    return new ConditionId(nextId.getAndIncrement());
+  }
+
+  /** Reserve `count` consecutive IDs, returning the first of them. */
+  public static long reserve(final long count) {
+    return nextId.getAndAdd(count);
   }
 }
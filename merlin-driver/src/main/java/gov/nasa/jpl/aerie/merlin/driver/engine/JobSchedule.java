@@ -1,65 +1,160 @@
 package gov.nasa.jpl.aerie.merlin.driver.engine;
 
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
-import org.apache.commons.lang3.tuple.Pair;
 
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
+import java.util.Optional;
 import java.util.Set;
 
 public final class JobSchedule<JobRef, TimeRef extends SchedulingInstant> {
-  /** The scheduled time for each upcoming job. */
-  private final Map<JobRef, TimeRef> scheduledJobs = new HashMap<>();
-
-  /** A time-ordered queue of all tasks whose resumption time is concretely known. */
+  /** The scheduled time for each upcoming job, together with its position in the queue. */
+  private final Map<JobRef, Entry<JobRef, TimeRef>> scheduledJobs = new HashMap<>();
+
+  /**
+   * A time-ordered queue of all jobs whose resumption time is concretely known.
+   *
+   * This is a binary min-heap in which every entry records its own index,
+   * so that a job can be rescheduled or cancelled in logarithmic time without searching for it.
+   */
   @DerivedFrom("scheduledJobs")
-  private final PriorityQueue<Pair<TimeRef, JobRef>> queue = new PriorityQueue<>(Comparator.comparing(Pair::getLeft));
+  private final List<Entry<JobRef, TimeRef>> queue = new ArrayList<>();
 
-  public void schedule(final JobRef job, final TimeRef time) {
-    final var oldTime = this.scheduledJobs.put(job, time);
+  private static final class Entry<JobRef, TimeRef> {
+    private final JobRef job;
+    private TimeRef time;
+    private int index;
 
-    if (oldTime != null) this.queue.remove(Pair.of(oldTime, job));
-    this.queue.add(Pair.of(time, job));
+    private Entry(final JobRef job, final TimeRef time, final int index) {
+      this.job = job;
+      this.time = time;
+      this.index = index;
+    }
   }
 
-  public void unschedule(final JobRef job) {
-    final var oldTime = this.scheduledJobs.remove(job);
+  public synchronized void schedule(final JobRef job, final TimeRef time) {
+    final var entry = this.scheduledJobs.get(job);
+
+    if (entry == null) {
+      final var newEntry = new Entry<>(job, time, this.queue.size());
+      this.scheduledJobs.put(job, newEntry);
+      this.queue.add(newEntry);
+      this.siftUp(newEntry.index);
+    } else {
+      final var oldTime = entry.time;
+      entry.time = time;
+
+      // Decrease-key moves the entry toward the root; increase-key moves it toward the leaves.
+      if (time.compareTo(oldTime) < 0) {
+        this.siftUp(entry.index);
+      } else {
+        this.siftDown(entry.index);
+      }
+    }
+  }
 
-    if (oldTime != null) this.queue.remove(Pair.of(oldTime, job));
+  public synchronized void unschedule(final JobRef job) {
+    final var entry = this.scheduledJobs.remove(job);
+
+    if (entry != null) this.removeAt(entry.index);
   }
 
   public Batch<JobRef> extractNextJobs(final Duration maximumTime) {
     if (this.queue.isEmpty()) return new Batch<>(maximumTime, Collections.emptySet());
 
-    final var time = this.queue.peek().getKey();
+    final var time = this.queue.get(0).time;
     if (time.project().longerThan(maximumTime)) {
       return new Batch<>(maximumTime, Collections.emptySet());
     }
 
     // Ready all tasks at the soonest task time.
     final var readyJobs = new HashSet<JobRef>();
-    while (true) {
-      final var entry = this.queue.peek();
-      if (entry == null) break;
-      if (entry.getLeft().compareTo(time) > 0) break;
+    while (!this.queue.isEmpty()) {
+      final var entry = this.queue.get(0);
+      if (entry.time.compareTo(time) > 0) break;
 
-      this.scheduledJobs.remove(entry.getRight());
-      this.queue.remove();
+      this.scheduledJobs.remove(entry.job);
+      this.removeAt(0);
 
-      readyJobs.add(entry.getRight());
+      readyJobs.add(entry.job);
     }
 
     return new Batch<>(time.project(), readyJobs);
   }
 
+  public Optional<Duration> timeOfNextJobs() {
+    if (this.queue.isEmpty()) return Optional.empty();
+    return Optional.of(this.queue.get(0).time.project());
+  }
+
+  public JobSchedule<JobRef, TimeRef> duplicate() {
+    final var copy = new JobSchedule<JobRef, TimeRef>();
+    // Copying the heap array in order preserves the heap property, so no re-heapification is needed.
+    for (final var entry : this.queue) {
+      final var newEntry = new Entry<>(entry.job, entry.time, entry.index);
+      copy.scheduledJobs.put(newEntry.job, newEntry);
+      copy.queue.add(newEntry);
+    }
+    return copy;
+  }
+
   public void clear() {
     this.scheduledJobs.clear();
     this.queue.clear();
   }
 
+  private void removeAt(final int index) {
+    final var last = this.queue.remove(this.queue.size() - 1);
+    if (index == this.queue.size()) return;
+
+    // Fill the hole with the last entry, then restore the heap property in whichever direction it was violated.
+    this.place(last, index);
+    this.siftDown(index);
+    this.siftUp(last.index);
+  }
+
+  private void siftUp(int index) {
+    final var entry = this.queue.get(index);
+    while (index > 0) {
+      final var parentIndex = (index - 1) >>> 1;
+      final var parent = this.queue.get(parentIndex);
+      if (entry.time.compareTo(parent.time) >= 0) break;
+
+      this.place(parent, index);
+      index = parentIndex;
+    }
+    this.place(entry, index);
+  }
+
+  private void siftDown(int index) {
+    final var size = this.queue.size();
+    final var entry = this.queue.get(index);
+    while (true) {
+      var childIndex = 2 * index + 1;
+      if (childIndex >= size) break;
+
+      final var rightIndex = childIndex + 1;
+      if (rightIndex < size && this.queue.get(rightIndex).time.compareTo(this.queue.get(childIndex).time) < 0) {
+        childIndex = rightIndex;
+      }
+
+      final var child = this.queue.get(childIndex);
+      if (entry.time.compareTo(child.time) <= 0) break;
+
+      this.place(child, index);
+      index = childIndex;
+    }
+    this.place(entry, index);
+  }
+
+  private void place(final Entry<JobRef, TimeRef> entry, final int index) {
+    this.queue.set(index, entry);
+    entry.index = index;
+  }
+
   public record Batch<JobRef>(Duration offsetFromStart, Set<JobRef> jobs) {}
 }
@@ -16,6 +16,10 @@ implements Iterable<Profile.Segment<Dynamics>> {
     this.segments.append(new Segment<>(currentTime, dynamics));
   }
 
+  public Profile<Dynamics> duplicate() {
+    return new Profile<>(this.segments.duplicate());
+  }
+
   @Override
   public Iterator<Segment<Dynamics>> iterator() {
     return this.segments.iterator();
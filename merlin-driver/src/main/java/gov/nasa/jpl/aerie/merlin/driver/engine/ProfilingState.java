@@ -3,15 +3,278 @@ package gov.nasa.jpl.aerie.merlin.driver.engine;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Querier;
 import gov.nasa.jpl.aerie.merlin.protocol.model.Resource;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
 
+import java.util.Iterator;
+import java.util.Optional;
+
+/**
+ * The profile accumulated for a resource over the course of a simulation.
+ *
+ * Real-valued resources are recorded column-wise into a {@link RealProfile}, without serializing their dynamics.
+ * Other resources are serialized as they are recorded, since the serialized form is needed both to compare samples
+ * and to report results; when the profile may be spilled to disk, it is also the only form which can be written out
+ * and read back.
+ *
+ * A resource may be sampled again without its behavior having changed -- for instance, when an unrelated event
+ * on a topic it depends on invalidates it. A sample which merely continues the previous segment is suppressed,
+ * so that the profile only records real changes.
+ */
 /*package-local*/
-record ProfilingState<Dynamics> (Resource<Dynamics> resource, Profile<Dynamics> profile) {
+final class ProfilingState<Dynamics> {
+  private final Resource<Dynamics> resource;
+  private final Recording<Dynamics> recording;
+  private long suppressedSegments;
+
+  private ProfilingState(final Resource<Dynamics> resource, final Recording<Dynamics> recording, final long suppressedSegments) {
+    this.resource = resource;
+    this.recording = recording;
+    this.suppressedSegments = suppressedSegments;
+  }
+
   public static <DynamicsType>
   ProfilingState<DynamicsType> create(final Resource<DynamicsType> resource) {
-    return new ProfilingState<>(resource, new Profile<>());
+    if (resource.getType().equals("real")) return new ProfilingState<>(resource, new RealRecording<>(resource), 0);
+    return create(resource, Continuation.forResourceType(resource.getType()));
+  }
+
+  public static <DynamicsType>
+  ProfilingState<DynamicsType> create(final Resource<DynamicsType> resource, final Continuation continuation) {
+    return new ProfilingState<>(resource, new SerializedRecording<>(resource, continuation, new Profile<>()), 0);
+  }
+
+  /**
+   * Create a profile whose segments are spilled to the given file once more than `residentSlabs` slabs are full.
+   *
+   * Real-valued profiles are compact enough to be kept in memory, and are never spilled.
+   */
+  public static <DynamicsType>
+  ProfilingState<DynamicsType> spilling(final Resource<DynamicsType> resource, final SpillFile file, final int residentSlabs) {
+    if (resource.getType().equals("real")) return create(resource);
+
+    final var segments = SlabList.spilling(new SlabList.Spill<>(file, SerializedSegmentCodec.INSTANCE, residentSlabs));
+    final var continuation = Continuation.forResourceType(resource.getType());
+    return new ProfilingState<>(resource, new SerializedRecording<>(resource, continuation, new Profile<>(segments)), 0);
+  }
+
+  public Resource<Dynamics> resource() {
+    return this.resource;
+  }
+
+  public ProfilingState<Dynamics> duplicate() {
+    return new ProfilingState<>(this.resource, this.recording.duplicate(), this.suppressedSegments);
   }
 
+  /** Sample the resource and record its current dynamics, unless they merely continue the latest segment. */
   public void append(final Duration currentTime, final Querier querier) {
-    this.profile.append(currentTime, this.resource.getDynamics(querier));
+    if (!this.recording.append(currentTime, this.resource.getDynamics(querier))) this.suppressedSegments += 1;
+  }
+
+  /**
+   * Sample the resource without recording it, unless its dynamics merely continue the latest segment.
+   *
+   * The dynamics of the returned segment are a {@link RealDynamics} for real-valued resources,
+   * and a {@link SerializedValue} otherwise.
+   */
+  public Optional<Profile.Segment<?>> sample(final Duration currentTime, final Querier querier) {
+    final var segment = this.recording.sample(currentTime, this.resource.getDynamics(querier));
+    if (segment.isEmpty()) this.suppressedSegments += 1;
+    return segment;
+  }
+
+  /** The number of samples which were suppressed because they merely continued the latest segment. */
+  public long suppressedSegments() {
+    return this.suppressedSegments;
+  }
+
+  /** The number of segments recorded so far. */
+  public int size() {
+    return this.recording.size();
+  }
+
+  /** The segments of a real-valued resource recorded so far, with the last segment ending at the given time. */
+  public RealProfile realProfile(final Duration endTime) {
+    if (!(this.recording instanceof RealRecording<Dynamics> r)) {
+      throw new IllegalStateException("Resource of type `%s` does not have a real profile".formatted(this.resource.getType()));
+    }
+    return r.columns.toProfile(endTime);
+  }
+
+  /** Iterate over every segment of a non-real resource recorded so far, with its dynamics serialized. */
+  public Iterator<Profile.Segment<SerializedValue>> serializedSegments() {
+    if (!(this.recording instanceof SerializedRecording<Dynamics> r)) {
+      throw new IllegalStateException("Resource of type `%s` does not have a serialized profile".formatted(this.resource.getType()));
+    }
+    return r.profile.iterator();
+  }
+
+  private sealed interface Recording<Dynamics> {
+    /** Record a sample, returning false if it was suppressed. */
+    boolean append(Duration currentTime, Dynamics dynamics);
+
+    /** Note a sample as the latest without recording it, returning it unless it was suppressed. */
+    Optional<Profile.Segment<?>> sample(Duration currentTime, Dynamics dynamics);
+
+    int size();
+
+    Recording<Dynamics> duplicate();
+  }
+
+  private static final class SerializedRecording<Dynamics> implements Recording<Dynamics> {
+    private final Resource<Dynamics> resource;
+    private final Continuation continuation;
+    private final Profile<SerializedValue> profile;
+
+    /** The latest sample which was not suppressed, if any. */
+    private Profile.Segment<SerializedValue> latest;
+
+    public SerializedRecording(
+        final Resource<Dynamics> resource,
+        final Continuation continuation,
+        final Profile<SerializedValue> profile)
+    {
+      this(resource, continuation, profile, null);
+    }
+
+    private SerializedRecording(
+        final Resource<Dynamics> resource,
+        final Continuation continuation,
+        final Profile<SerializedValue> profile,
+        final Profile.Segment<SerializedValue> latest)
+    {
+      this.resource = resource;
+      this.continuation = continuation;
+      this.profile = profile;
+      this.latest = latest;
+    }
+
+    @Override
+    public boolean append(final Duration currentTime, final Dynamics dynamics) {
+      final var segment = this.sample(currentTime, dynamics);
+      segment.ifPresent($ -> this.profile.append(currentTime, this.latest.dynamics()));
+      return segment.isPresent();
+    }
+
+    @Override
+    public Optional<Profile.Segment<?>> sample(final Duration currentTime, final Dynamics dynamics) {
+      final var segment = new Profile.Segment<>(currentTime, this.resource.getOutputType().serialize(dynamics));
+      if (this.latest != null && this.continuation.continues(this.latest, segment)) return Optional.empty();
+
+      this.latest = segment;
+      return Optional.of(segment);
+    }
+
+    @Override
+    public int size() {
+      return this.profile.segments().size();
+    }
+
+    @Override
+    public SerializedRecording<Dynamics> duplicate() {
+      return new SerializedRecording<>(this.resource, this.continuation, this.profile.duplicate(), this.latest);
+    }
+  }
+
+  /**
+   * The recording of a real-valued resource.
+   *
+   * A sample is suppressed only if it lies exactly on the line described by the latest one,
+   * so a sample which differs from the latest line only by floating-point rounding is still recorded.
+   */
+  private static final class RealRecording<Dynamics> implements Recording<Dynamics> {
+    private final Resource<Dynamics> resource;
+    private final RealProfile.Columns columns;
+
+    private boolean hasLatest;
+    private long latestOffset;
+    private double latestInitial;
+    private double latestRate;
+
+    public RealRecording(final Resource<Dynamics> resource) {
+      this.resource = resource;
+      this.columns = new RealProfile.Columns();
+    }
+
+    private RealRecording(final RealRecording<Dynamics> other) {
+      this.resource = other.resource;
+      this.columns = other.columns.duplicate();
+      this.hasLatest = other.hasLatest;
+      this.latestOffset = other.latestOffset;
+      this.latestInitial = other.latestInitial;
+      this.latestRate = other.latestRate;
+    }
+
+    @Override
+    public boolean append(final Duration currentTime, final Dynamics dynamics) {
+      final var real = this.toReal(dynamics);
+      if (!this.advance(currentTime, real.initial, real.rate)) return false;
+
+      this.columns.append(currentTime, real.initial, real.rate);
+      return true;
+    }
+
+    @Override
+    public Optional<Profile.Segment<?>> sample(final Duration currentTime, final Dynamics dynamics) {
+      final var real = this.toReal(dynamics);
+      if (!this.advance(currentTime, real.initial, real.rate)) return Optional.empty();
+
+      return Optional.of(new Profile.Segment<>(currentTime, real));
+    }
+
+    /** Make the given sample the latest, unless it continues the latest one. */
+    private boolean advance(final Duration currentTime, final double initial, final double rate) {
+      final var offset = currentTime.in(Duration.MICROSECONDS);
+      if (this.hasLatest && rate == this.latestRate) {
+        final var elapsed = (double) (offset - this.latestOffset) / Duration.SECOND.in(Duration.MICROSECONDS);
+        if (initial == this.latestInitial + this.latestRate * elapsed) return false;
+      }
+
+      this.hasLatest = true;
+      this.latestOffset = offset;
+      this.latestInitial = initial;
+      this.latestRate = rate;
+      return true;
+    }
+
+    // Resources registered as real-valued through the framework already produce `RealDynamics`;
+    //   any others must serialize to the same shape.
+    private RealDynamics toReal(final Dynamics dynamics) {
+      if (dynamics instanceof RealDynamics real) return real;
+
+      final var serialized = this.resource.getOutputType().serialize(dynamics).asMap().orElseThrow();
+      final var initial = serialized.get("initial").asReal().orElseThrow();
+      final var rate = serialized.get("rate").asReal().orElseThrow();
+      return RealDynamics.linear(initial, rate);
+    }
+
+    @Override
+    public int size() {
+      return this.columns.size();
+    }
+
+    @Override
+    public RealRecording<Dynamics> duplicate() {
+      return new RealRecording<>(this);
+    }
+  }
+
+  /** Decides whether a newly-sampled segment describes the same behavior as the latest one, from its start onward. */
+  @FunctionalInterface
+  public interface Continuation {
+    boolean continues(Profile.Segment<SerializedValue> latest, Profile.Segment<SerializedValue> next);
+
+    /** Never suppress a sample. */
+    Continuation NEVER = (latest, next) -> false;
+
+    /** Suppress a sample whose (constant) value is the same as the latest one. */
+    Continuation CONSTANT = (latest, next) -> latest.dynamics().equals(next.dynamics());
+
+    static Continuation forResourceType(final String type) {
+      return switch (type) {
+        case "discrete" -> CONSTANT;
+        default -> NEVER;
+      };
+    }
   }
 }
@@ -0,0 +1,142 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * The profile of a real-valued resource, stored column-wise.
+ *
+ * The start offset, initial value, and rate of every segment are held in parallel primitive arrays,
+ * so a profile occupies the same handful of objects however many segments it has.
+ * The column accessors read the arrays directly; segments are only materialized as {@link ProfileSegment}s
+ * when the profile is accessed as a {@link List}.
+ */
+public final class RealProfile extends AbstractList<ProfileSegment<RealDynamics>> implements RandomAccess {
+  /** The start offset of each segment, in microseconds. */
+  private final long[] offsets;
+  private final double[] initials;
+  private final double[] rates;
+  private final int size;
+  /** The end of the last segment, in microseconds. */
+  private final long end;
+
+  private RealProfile(final long[] offsets, final double[] initials, final double[] rates, final int size, final long end) {
+    this.offsets = offsets;
+    this.initials = initials;
+    this.rates = rates;
+    this.size = size;
+    this.end = end;
+  }
+
+  /** Store an existing list of segments column-wise. */
+  public static RealProfile of(final List<ProfileSegment<RealDynamics>> segments) {
+    if (segments instanceof RealProfile profile) return profile;
+
+    final var columns = new Columns();
+    var offset = Duration.ZERO;
+    for (final var segment : segments) {
+      columns.append(offset, segment.dynamics().initial, segment.dynamics().rate);
+      offset = offset.plus(segment.extent());
+    }
+    return columns.toProfile(offset);
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public ProfileSegment<RealDynamics> get(final int index) {
+    return new ProfileSegment<>(this.extent(index), RealDynamics.linear(this.initial(index), this.rate(index)));
+  }
+
+  /** The offset of the given segment from the start of the profile. */
+  public Duration startOffset(final int index) {
+    Objects.checkIndex(index, this.size);
+    return Duration.of(this.offsets[index], Duration.MICROSECONDS);
+  }
+
+  /** The duration of the given segment. */
+  public Duration extent(final int index) {
+    Objects.checkIndex(index, this.size);
+    final var next = (index + 1 < this.size) ? this.offsets[index + 1] : this.end;
+    return Duration.of(next - this.offsets[index], Duration.MICROSECONDS);
+  }
+
+  /** The value of the resource at the start of the given segment. */
+  public double initial(final int index) {
+    Objects.checkIndex(index, this.size);
+    return this.initials[index];
+  }
+
+  /** The rate of change of the resource, per second, over the given segment. */
+  public double rate(final int index) {
+    Objects.checkIndex(index, this.size);
+    return this.rates[index];
+  }
+
+  /**
+   * The segments of a real profile as they are recorded, which grow as simulation proceeds.
+   *
+   * Elements of the columns are never overwritten once appended, so a {@link RealProfile} may read
+   * the columns in place while more segments are appended after it. Duplicates share their columns
+   * until either one is appended to, at which point it takes its own copy.
+   */
+  /*package-local*/ static final class Columns {
+    private static final int MINIMUM_CAPACITY = 16;
+
+    private long[] offsets;
+    private double[] initials;
+    private double[] rates;
+    private int size;
+    private boolean shared;
+
+    public Columns() {
+      this(new long[0], new double[0], new double[0], 0, false);
+    }
+
+    private Columns(final long[] offsets, final double[] initials, final double[] rates, final int size, final boolean shared) {
+      this.offsets = offsets;
+      this.initials = initials;
+      this.rates = rates;
+      this.size = size;
+      this.shared = shared;
+    }
+
+    public void append(final Duration startOffset, final double initial, final double rate) {
+      if (this.shared || this.size == this.offsets.length) {
+        final var capacity = Math.max(MINIMUM_CAPACITY, (this.size == this.offsets.length) ? 2 * this.size : this.offsets.length);
+        this.offsets = Arrays.copyOf(this.offsets, capacity);
+        this.initials = Arrays.copyOf(this.initials, capacity);
+        this.rates = Arrays.copyOf(this.rates, capacity);
+        this.shared = false;
+      }
+
+      this.offsets[this.size] = startOffset.in(Duration.MICROSECONDS);
+      this.initials[this.size] = initial;
+      this.rates[this.size] = rate;
+      this.size += 1;
+    }
+
+    public int size() {
+      return this.size;
+    }
+
+    public Columns duplicate() {
+      this.shared = true;
+      return new Columns(this.offsets, this.initials, this.rates, this.size, true);
+    }
+
+    /** View the segments recorded so far as a profile, with the last segment ending at the given time. */
+    public RealProfile toProfile(final Duration end) {
+      return new RealProfile(this.offsets, this.initials, this.rates, this.size, end.in(Duration.MICROSECONDS));
+    }
+  }
+}
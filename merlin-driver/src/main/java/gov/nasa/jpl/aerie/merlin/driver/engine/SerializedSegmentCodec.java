@@ -0,0 +1,129 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** A compact binary encoding of profile segments whose dynamics have already been serialized. */
+/*package-local*/
+final class SerializedSegmentCodec implements SlabList.Codec<Profile.Segment<SerializedValue>> {
+  public static final SerializedSegmentCodec INSTANCE = new SerializedSegmentCodec();
+
+  private static final byte NULL = 0;
+  private static final byte FALSE = 1;
+  private static final byte TRUE = 2;
+  private static final byte NUMERIC = 3;
+  private static final byte STRING = 4;
+  private static final byte MAP = 5;
+  private static final byte LIST = 6;
+
+  private SerializedSegmentCodec() {}
+
+  @Override
+  public void encode(final Profile.Segment<SerializedValue> segment, final ByteBuffer buffer) {
+    buffer.putLong(segment.startOffset().in(Duration.MICROSECONDS));
+    encodeValue(segment.dynamics(), buffer);
+  }
+
+  @Override
+  public Profile.Segment<SerializedValue> decode(final ByteBuffer buffer) {
+    final var startOffset = Duration.of(buffer.getLong(), Duration.MICROSECONDS);
+    return new Profile.Segment<>(startOffset, decodeValue(buffer));
+  }
+
+  private static void encodeValue(final SerializedValue value, final ByteBuffer buffer) {
+    value.match(new SerializedValue.Visitor<Void>() {
+      @Override
+      public Void onNull() {
+        buffer.put(NULL);
+        return null;
+      }
+
+      @Override
+      public Void onNumeric(final BigDecimal value) {
+        buffer.put(NUMERIC);
+        buffer.putInt(value.scale());
+        putBytes(buffer, value.unscaledValue().toByteArray());
+        return null;
+      }
+
+      @Override
+      public Void onBoolean(final boolean value) {
+        buffer.put((value) ? TRUE : FALSE);
+        return null;
+      }
+
+      @Override
+      public Void onString(final String value) {
+        buffer.put(STRING);
+        putBytes(buffer, value.getBytes(StandardCharsets.UTF_8));
+        return null;
+      }
+
+      @Override
+      public Void onMap(final Map<String, SerializedValue> value) {
+        buffer.put(MAP);
+        buffer.putInt(value.size());
+        for (final var entry : value.entrySet()) {
+          putBytes(buffer, entry.getKey().getBytes(StandardCharsets.UTF_8));
+          encodeValue(entry.getValue(), buffer);
+        }
+        return null;
+      }
+
+      @Override
+      public Void onList(final List<SerializedValue> value) {
+        buffer.put(LIST);
+        buffer.putInt(value.size());
+        for (final var element : value) encodeValue(element, buffer);
+        return null;
+      }
+    });
+  }
+
+  private static SerializedValue decodeValue(final ByteBuffer buffer) {
+    final var tag = buffer.get();
+    return switch (tag) {
+      case NULL -> SerializedValue.NULL;
+      case FALSE -> SerializedValue.of(false);
+      case TRUE -> SerializedValue.of(true);
+      case NUMERIC -> {
+        final var scale = buffer.getInt();
+        yield SerializedValue.of(new BigDecimal(new BigInteger(getBytes(buffer)), scale));
+      }
+      case STRING -> SerializedValue.of(new String(getBytes(buffer), StandardCharsets.UTF_8));
+      case MAP -> {
+        final var size = buffer.getInt();
+        final var map = new HashMap<String, SerializedValue>(size);
+        for (var i = 0; i < size; i += 1) map.put(new String(getBytes(buffer), StandardCharsets.UTF_8), decodeValue(buffer));
+        yield SerializedValue.of(map);
+      }
+      case LIST -> {
+        final var size = buffer.getInt();
+        final var list = new ArrayList<SerializedValue>(size);
+        for (var i = 0; i < size; i += 1) list.add(decodeValue(buffer));
+        yield SerializedValue.of(list);
+      }
+      default -> throw new IllegalStateException("Unknown serialized value tag: " + tag);
+    };
+  }
+
+  private static void putBytes(final ByteBuffer buffer, final byte[] bytes) {
+    buffer.putInt(bytes.length);
+    buffer.put(bytes);
+  }
+
+  private static byte[] getBytes(final ByteBuffer buffer) {
+    final var bytes = new byte[buffer.getInt()];
+    buffer.get(bytes);
+    return bytes;
+  }
+}
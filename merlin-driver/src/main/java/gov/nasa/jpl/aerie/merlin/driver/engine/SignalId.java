@@ -1,5 +1,7 @@
 package gov.nasa.jpl.aerie.merlin.driver.engine;
 
+import java.util.Comparator;
+
 /** A typed wrapper for signal IDs. */
 public sealed interface SignalId {
   /** A signal controlled by a task. */
@@ -15,4 +17,11 @@ public sealed interface SignalId {
   static ConditionSignalId forCondition(final ConditionId condition) {
     return new ConditionSignalId(condition);
   }
+
+  /** Orders task signals before condition signals, and each by the order in which its source was created. */
+  Comparator<SignalId> ORDER = (a, b) -> {
+    if (a instanceof TaskSignalId x && b instanceof TaskSignalId y) return TaskId.ORDER.compare(x.id(), y.id());
+    if (a instanceof ConditionSignalId x && b instanceof ConditionSignalId y) return ConditionId.ORDER.compare(x.id(), y.id());
+    return (a instanceof TaskSignalId) ? -1 : 1;
+  };
 }
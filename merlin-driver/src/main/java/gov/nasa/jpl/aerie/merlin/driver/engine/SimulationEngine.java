@@ -6,6 +6,7 @@ import gov.nasa.jpl.aerie.merlin.driver.SerializedActivity;
 import gov.nasa.jpl.aerie.merlin.driver.SimulatedActivity;
 import gov.nasa.jpl.aerie.merlin.driver.SimulatedActivityId;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationResultsSink;
 import gov.nasa.jpl.aerie.merlin.driver.UnfinishedActivity;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.Event;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.EventGraph;
@@ -25,6 +26,10 @@ import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
 import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
 import gov.nasa.jpl.aerie.merlin.protocol.types.TaskStatus;
 import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
 
@@ -33,17 +38,27 @@ import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 
 /**
@@ -51,30 +66,80 @@ import java.util.function.Consumer;
  */
 public final class SimulationEngine implements AutoCloseable {
   /** The set of all jobs waiting for time to pass. */
-  private final JobSchedule<JobId, SchedulingInstant> scheduledJobs = new JobSchedule<>();
+  private final JobSchedule<JobId, SchedulingInstant> scheduledJobs;
   /** The set of all jobs waiting on a given signal. */
-  private final Subscriptions<SignalId, TaskId> waitingTasks = new Subscriptions<>();
+  private final Subscriptions<SignalId, TaskId> waitingTasks;
   /** The set of conditions depending on a given set of topics. */
-  private final Subscriptions<Topic<?>, ConditionId> waitingConditions = new Subscriptions<>();
+  private final Subscriptions<Topic<?>, ConditionId> waitingConditions;
   /** The set of queries depending on a given set of topics. */
-  private final Subscriptions<Topic<?>, ResourceId> waitingResources = new Subscriptions<>();
+  private final Subscriptions<Topic<?>, ResourceId> waitingResources;
+
+  // The maps below may be updated by jobs running in parallel within a single batch (see `performJobs`),
+  //   so any map touched while stepping a job is a concurrent map.
 
   /** The execution state for every task. */
-  private final Map<TaskId, ExecutionState<?>> tasks = new HashMap<>();
+  private final Map<TaskId, ExecutionState<?>> tasks = new ConcurrentHashMap<>();
   /** The getter for each tracked condition. */
-  private final Map<ConditionId, Condition> conditions = new HashMap<>();
+  private final Map<ConditionId, Condition> conditions = new ConcurrentHashMap<>();
   /** The profiling state for each tracked resource. */
   private final Map<ResourceId, ProfilingState<?>> resources = new HashMap<>();
 
   /** The task that spawned a given task (if any). */
-  private final Map<TaskId, TaskId> taskParent = new HashMap<>();
+  private final Map<TaskId, TaskId> taskParent = new ConcurrentHashMap<>();
   /** The set of children for each task (if any). */
   @DerivedFrom("taskParent")
-  private final Map<TaskId, Set<TaskId>> taskChildren = new HashMap<>();
+  private final Map<TaskId, Set<TaskId>> taskChildren = new ConcurrentHashMap<>();
+
+  /** The consumer of results as they are produced, if results are streamed rather than retained. */
+  private Optional<ResultsStream> resultsStream = Optional.empty();
+  /** Where the profiles of tracked resources are spilled, if they are not kept entirely on the heap. */
+  private Optional<ProfileSpill> profileSpill = Optional.empty();
+  /** Whether tasks must be prepared to be duplicated (see {@link #duplicate}). */
+  private boolean tasksMayBeDuplicated = false;
 
   /** A thread pool that modeled tasks can use to keep track of their state between steps. */
   private final ExecutorService executor = getLoomOrFallback();
 
+  /** The number of jobs in a batch which may be performed simultaneously. */
+  private final int jobParallelism;
+  /** A thread pool on which the jobs in a batch are performed, if more than one may be performed at a time. */
+  private final Optional<ForkJoinPool> jobPool;
+
+  /** The number of cell states read by jobs, and of the copies made to serve them. */
+  private final TaskFrame.ReadCounts stateReads = new TaskFrame.ReadCounts();
+  /** The number of task steps taken by jobs, and how long those steps ran. */
+  private final StepTimes taskSteps = new StepTimes();
+
+  public SimulationEngine() {
+    this(1);
+  }
+
+  /**
+   * Create an engine which performs up to `jobParallelism` of the jobs in each batch simultaneously.
+   *
+   * A parallelism of 1 performs every job on the calling thread, one after another.
+   */
+  public SimulationEngine(final int jobParallelism) {
+    this(jobParallelism, new JobSchedule<>(), new Subscriptions<>(), new Subscriptions<>(), new Subscriptions<>());
+  }
+
+  private SimulationEngine(
+      final int jobParallelism,
+      final JobSchedule<JobId, SchedulingInstant> scheduledJobs,
+      final Subscriptions<SignalId, TaskId> waitingTasks,
+      final Subscriptions<Topic<?>, ConditionId> waitingConditions,
+      final Subscriptions<Topic<?>, ResourceId> waitingResources)
+  {
+    if (jobParallelism < 1) throw new IllegalArgumentException("Job parallelism must be positive, but was %d".formatted(jobParallelism));
+
+    this.jobParallelism = jobParallelism;
+    this.jobPool = (jobParallelism > 1) ? Optional.of(new ForkJoinPool(jobParallelism)) : Optional.empty();
+    this.scheduledJobs = scheduledJobs;
+    this.waitingTasks = waitingTasks;
+    this.waitingConditions = waitingConditions;
+    this.waitingResources = waitingResources;
+  }
+
   private static ExecutorService getLoomOrFallback() {
     // Try to use Loom's lightweight virtual threads, if possible. Otherwise, just use a thread pool.
     // This approach is inspired by that of Javalin 5.
@@ -102,7 +167,7 @@ public final class SimulationEngine implements AutoCloseable {
     if (startTime.isNegative()) throw new IllegalArgumentException("Cannot schedule a task before the start time of the simulation");
 
     final var task = TaskId.generate();
-    this.tasks.put(task, new ExecutionState.InProgress<>(startTime, state.create(this.executor)));
+    this.tasks.put(task, new ExecutionState.Pending<>(startTime, state));
     this.scheduledJobs.schedule(JobId.forTask(task), SubInstant.Tasks.at(startTime));
     return task;
   }
@@ -112,7 +177,11 @@ public final class SimulationEngine implements AutoCloseable {
   void trackResource(final String name, final Resource<Dynamics> resource, final Duration nextQueryTime) {
     final var id = new ResourceId(name);
 
-    this.resources.put(id, ProfilingState.create(resource));
+    final var state = this.profileSpill
+        .map($ -> ProfilingState.spilling(resource, $.file(), $.residentSlabs()))
+        .orElseGet(() -> ProfilingState.create(resource));
+    this.resources.put(id, state);
+    this.resultsStream.ifPresent($ -> $.declareProfile(id, state));
     this.scheduledJobs.schedule(JobId.forResource(id), SubInstant.Resources.at(nextQueryTime));
   }
 
@@ -158,25 +227,106 @@ public final class SimulationEngine implements AutoCloseable {
       final Duration currentTime,
       final Duration maximumTime
   ) {
+    // A batch is handed to us in no particular order, so we put it in one, to make the committed timeline
+    //   (and the IDs of any tasks created along the way) the same from one run to the next.
+    final var orderedJobs = new ArrayList<>(jobs);
+    orderedJobs.sort(JobId.ORDER);
+
+    if (this.jobPool.isPresent() && orderedJobs.size() > 1) {
+      return this.performJobsInParallel(this.jobPool.get(), orderedJobs, context, currentTime, maximumTime);
+    }
+
     var tip = EventGraph.<Event>empty();
-    for (final var job$ : jobs) {
-      tip = EventGraph.concurrently(tip, TaskFrame.run(job$, context, (job, frame) -> {
-        this.performJob(job, frame, currentTime, maximumTime);
+    for (final var job$ : orderedJobs) {
+      tip = EventGraph.concurrently(tip, TaskFrame.run(job$, context, this.stateReads, (job, frame) -> {
+        this.performJob(job, frame, IdSource.SHARED, currentTime, maximumTime);
       }));
     }
 
     return tip;
   }
 
+  // Every job in a batch runs against its own branch of `context`, and jobs in the same batch never share a task,
+  //   so each job's frame can be run on a separate thread. The resulting event graphs are then combined
+  //   in the same order as the sequential path, so the committed timeline is independent of thread timing.
+  // Jobs stepping tasks of the same family may still observe one another -- a parent awaiting its children checks
+  //   whether they have terminated, while a terminating child wakes its parent -- so the jobs of each family are
+  //   performed one after another, in batch order, on a single thread, exactly as on the sequential path.
+  // Each job also draws the IDs it hands out from a range reserved for it in batch order, so that they are ordered
+  //   exactly as they would be had the jobs been performed one after another.
+  private EventGraph<Event> performJobsInParallel(
+      final ForkJoinPool pool,
+      final List<JobId> jobs,
+      final LiveCells context,
+      final Duration currentTime,
+      final Duration maximumTime
+  ) {
+    final var families = new LinkedHashMap<JobId, List<Integer>>();
+    for (var i = 0; i < jobs.size(); i += 1) {
+      families.computeIfAbsent(this.familyOf(jobs.get(i)), $ -> new ArrayList<>()).add(i);
+    }
+
+    final var ids = IdSource.reserve(jobs.size());
+    final var frames = new ArrayList<Pair<List<Integer>, ForkJoinTask<List<EventGraph<Event>>>>>(families.size());
+    for (final var family : families.values()) {
+      frames.add(Pair.of(family, pool.submit(() -> {
+        final var graphs = new ArrayList<EventGraph<Event>>(family.size());
+        for (final var i : family) {
+          final var ids$ = ids.get(i);
+          graphs.add(TaskFrame.run(jobs.get(i), context, this.stateReads, (job, frame) -> {
+            this.performJob(job, frame, ids$, currentTime, maximumTime);
+          }));
+        }
+        return graphs;
+      })));
+    }
+
+    final var graphs = new ArrayList<EventGraph<Event>>(Collections.nCopies(jobs.size(), EventGraph.empty()));
+    for (final var frame : frames) {
+      final var family = frame.getLeft();
+      final var familyGraphs = frame.getRight().join();
+      for (var i = 0; i < family.size(); i += 1) graphs.set(family.get(i), familyGraphs.get(i));
+    }
+
+    var tip = EventGraph.<Event>empty();
+    for (final var graph : graphs) {
+      tip = EventGraph.concurrently(tip, graph);
+    }
+
+    return tip;
+  }
+
+  /** Identify the family of tasks a job belongs to by its root task, or by the job itself if it does not step a task. */
+  private JobId familyOf(final JobId job) {
+    if (!(job instanceof JobId.TaskJobId j)) return job;
+
+    var task = j.id();
+    for (var parent = this.taskParent.get(task); parent != null; parent = this.taskParent.get(parent)) {
+      task = parent;
+    }
+
+    return JobId.forTask(task);
+  }
+
   /** Performs a single job. */
   public void performJob(
       final JobId job,
       final TaskFrame<JobId> frame,
       final Duration currentTime,
       final Duration maximumTime
+  ) {
+    this.performJob(job, frame, IdSource.SHARED, currentTime, maximumTime);
+  }
+
+  private void performJob(
+      final JobId job,
+      final TaskFrame<JobId> frame,
+      final IdSource ids,
+      final Duration currentTime,
+      final Duration maximumTime
   ) {
     if (job instanceof JobId.TaskJobId j) {
-      this.stepTask(j.id(), frame, currentTime);
+      this.stepTask(j.id(), frame, ids, currentTime);
     } else if (job instanceof JobId.SignalJobId j) {
       this.stepSignalledTasks(j.id(), frame);
     } else if (job instanceof JobId.ConditionJobId j) {
@@ -190,22 +340,29 @@ public final class SimulationEngine implements AutoCloseable {
 
   /** Perform the next step of a modeled task. */
   public void stepTask(final TaskId task, final TaskFrame<JobId> frame, final Duration currentTime) {
+    this.stepTask(task, frame, IdSource.SHARED, currentTime);
+  }
+
+  private void stepTask(final TaskId task, final TaskFrame<JobId> frame, final IdSource ids, final Duration currentTime) {
     // The handler for each individual task stage is responsible
     //   for putting an updated lifecycle back into the task set.
     var lifecycle = this.tasks.remove(task);
 
-    stepTaskHelper(task, frame, currentTime, lifecycle);
+    stepTaskHelper(task, frame, ids, currentTime, lifecycle);
   }
 
   private <Return> void stepTaskHelper(
       final TaskId task,
       final TaskFrame<JobId> frame,
+      final IdSource ids,
       final Duration currentTime,
       final ExecutionState<Return> lifecycle)
   {
     // Extract the current modeling state.
-    if (lifecycle instanceof ExecutionState.InProgress<Return> e) {
-      stepEffectModel(task, e, frame, currentTime);
+    if (lifecycle instanceof ExecutionState.Pending<Return> e) {
+      stepEffectModel(task, e.start(this.executor), frame, ids, currentTime);
+    } else if (lifecycle instanceof ExecutionState.InProgress<Return> e) {
+      stepEffectModel(task, e, frame, ids, currentTime);
     } else if (lifecycle instanceof ExecutionState.AwaitingChildren<Return> e) {
       stepWaitingTask(task, e, frame, currentTime);
     } else {
@@ -219,11 +376,14 @@ public final class SimulationEngine implements AutoCloseable {
       final TaskId task,
       final ExecutionState.InProgress<Return> progress,
       final TaskFrame<JobId> frame,
+      final IdSource ids,
       final Duration currentTime
   ) {
     // Step the modeling state forward.
-    final var scheduler = new EngineScheduler(currentTime, task, frame);
+    final var scheduler = new EngineScheduler(currentTime, task, frame, ids);
+    final var stepStart = System.nanoTime();
     final var status = progress.state().step(scheduler);
+    this.taskSteps.add(System.nanoTime() - stepStart);
 
     // TODO: Report which topics this activity wrote to at this point in time. This is useful insight for any user.
     // TODO: Report which cells this activity read from at this point in time. This is useful insight for any user.
@@ -240,7 +400,7 @@ public final class SimulationEngine implements AutoCloseable {
       this.tasks.put(task, progress.continueWith(s.continuation()));
       this.scheduledJobs.schedule(JobId.forTask(task), SubInstant.Tasks.at(currentTime.plus(s.delay())));
     } else if (status instanceof TaskStatus.CallingTask<Return> s) {
-      final var target = TaskId.generate();
+      final var target = ids.nextTaskId();
       SimulationEngine.this.tasks.put(target, new ExecutionState.InProgress<>(currentTime, s.child().create(this.executor)));
       SimulationEngine.this.taskParent.put(target, task);
       SimulationEngine.this.taskChildren.computeIfAbsent(task, $ -> new HashSet<>()).add(target);
@@ -249,7 +409,7 @@ public final class SimulationEngine implements AutoCloseable {
       this.tasks.put(task, progress.continueWith(s.continuation()));
       this.waitingTasks.subscribeQuery(task, Set.of(SignalId.forTask(target)));
     } else if (status instanceof TaskStatus.AwaitingCondition<Return> s) {
-      final var condition = ConditionId.generate();
+      final var condition = ids.nextConditionId();
       this.conditions.put(condition, s.condition());
       this.scheduledJobs.schedule(JobId.forCondition(condition), SubInstant.Conditions.at(currentTime));
 
@@ -272,6 +432,7 @@ public final class SimulationEngine implements AutoCloseable {
     while (true) {
       if (awaiting.remainingChildren().isEmpty()) {
         this.tasks.put(task, awaiting.joinedAt(currentTime));
+        this.resultsStream.ifPresent($ -> $.terminatedTasks.add(task));
         frame.signal(JobId.forSignal(SignalId.forTask(task)));
         break;
       }
@@ -290,7 +451,8 @@ public final class SimulationEngine implements AutoCloseable {
 
   /** Cause any tasks waiting on the given signal to be resumed concurrently with other jobs in the current frame. */
   public void stepSignalledTasks(final SignalId signal, final TaskFrame<JobId> frame) {
-    final var tasks = this.waitingTasks.invalidateTopic(signal);
+    final var tasks = new ArrayList<>(this.waitingTasks.invalidateTopic(signal));
+    tasks.sort(TaskId.ORDER);
     for (final var task : tasks) frame.signal(JobId.forTask(task));
   }
 
@@ -326,7 +488,11 @@ public final class SimulationEngine implements AutoCloseable {
       final Duration currentTime
   ) {
     final var querier = new EngineQuerier(frame);
-    this.resources.get(resource).append(currentTime, querier);
+    if (this.resultsStream.isPresent()) {
+      this.resultsStream.get().append(resource, this.resources.get(resource), currentTime, querier);
+    } else {
+      this.resources.get(resource).append(currentTime, querier);
+    }
 
     this.waitingResources.subscribeQuery(resource, querier.referencedTopics);
 
@@ -346,6 +512,47 @@ public final class SimulationEngine implements AutoCloseable {
     }
 
     this.executor.shutdownNow();
+    this.jobPool.ifPresent(ForkJoinPool::shutdownNow);
+  }
+
+  /** Returns the time at which the next batch of jobs will be ready, if any jobs remain. */
+  public Optional<Duration> timeOfNextJobs() {
+    return this.scheduledJobs.timeOfNextJobs();
+  }
+
+  /**
+   * Produce an independent copy of this engine, including the execution state of every task
+   * and the profile accumulated so far for every resource.
+   *
+   * Returns empty if some task in progress cannot be duplicated.
+   * The copy owns its own thread pool, and must be closed independently of this engine.
+   */
+  public Optional<SimulationEngine> duplicate() {
+    final var copy = new SimulationEngine(
+        this.jobParallelism,
+        this.scheduledJobs.duplicate(),
+        this.waitingTasks.duplicate(),
+        this.waitingConditions.duplicate(),
+        this.waitingResources.duplicate());
+
+    for (final var entry : this.tasks.entrySet()) {
+      final var state$ = entry.getValue().duplicate(copy.executor);
+      if (state$.isEmpty()) {
+        copy.close();
+        return Optional.empty();
+      }
+
+      copy.tasks.put(entry.getKey(), state$.get());
+    }
+
+    copy.conditions.putAll(this.conditions);
+    this.resources.forEach((id, state) -> copy.resources.put(id, state.duplicate()));
+    copy.profileSpill = this.profileSpill;
+    copy.tasksMayBeDuplicated = this.tasksMayBeDuplicated;
+    copy.taskParent.putAll(this.taskParent);
+    this.taskChildren.forEach((task, children) -> copy.taskChildren.put(task, new HashSet<>(children)));
+
+    return Optional.of(copy);
   }
 
   /** Determine if a given task has fully completed. */
@@ -353,13 +560,14 @@ public final class SimulationEngine implements AutoCloseable {
     return (this.tasks.get(task) instanceof ExecutionState.Terminated);
   }
 
+  // Per-task information is keyed by the primitive task ID, to avoid boxing a key for every lookup.
   private record TaskInfo(
-      Map<String, ActivityDirectiveId> taskToPlannedDirective,
-      Map<String, SerializedActivity> input,
-      Map<String, SerializedValue> output
+      Long2ObjectMap<ActivityDirectiveId> taskToPlannedDirective,
+      Long2ObjectMap<SerializedActivity> input,
+      Long2ObjectMap<SerializedValue> output
   ) {
     public TaskInfo() {
-      this(new HashMap<>(), new HashMap<>(), new HashMap<>());
+      this(new Long2ObjectOpenHashMap<>(), new Long2ObjectOpenHashMap<>(), new Long2ObjectOpenHashMap<>());
     }
 
     public boolean isActivity(final TaskId id) {
@@ -425,6 +633,68 @@ public final class SimulationEngine implements AutoCloseable {
     }
   }
 
+  /**
+   * Report results to the given sink while the simulation runs, instead of retaining them for {@link #computeResults}.
+   *
+   * <p>This must be called before any resources are tracked or tasks are scheduled. Afterward, the driver must report
+   * every commit it adds to the timeline via {@link #commitResults}, and call {@link #finishResults} once at the end.</p>
+   *
+   * @param reservedActivityIds Activity IDs which must not be assigned to child activities,
+   *   typically the IDs of every directive in the plan.
+   */
+  public void streamResults(
+      final SimulationResultsSink sink,
+      final Instant startTime,
+      final Topic<ActivityDirectiveId> activityTopic,
+      final Iterable<SerializableTopic<?>> serializableTopics,
+      final Set<Long> reservedActivityIds
+  ) {
+    if (!this.tasks.isEmpty() || !this.resources.isEmpty()) {
+      throw new IllegalStateException("Results must be streamed from the start of simulation");
+    }
+
+    this.resultsStream = Optional.of(
+        new ResultsStream(sink, startTime, activityTopic, serializableTopics, Set.copyOf(reservedActivityIds)));
+  }
+
+  /**
+   * Spill the profiles of resources tracked from now on to the given file,
+   * keeping at most `residentSlabs` full slabs of each profile on the heap.
+   *
+   * The file must remain open until results have been computed from this engine (and any duplicate of it).
+   */
+  public void spillProfiles(final SpillFile file, final int residentSlabs) {
+    if (!this.resources.isEmpty()) {
+      throw new IllegalStateException("Profiles must be spilled from the start of simulation");
+    }
+
+    this.profileSpill = Optional.of(new ProfileSpill(file, residentSlabs));
+  }
+
+  private record ProfileSpill(SpillFile file, int residentSlabs) {}
+
+  /**
+   * Tell every task from now on that it may be duplicated, so that this engine can later be checkpointed via
+   * {@link #duplicate}. Some tasks keep a history of their progress only when told so.
+   */
+  public void allowTaskDuplication() {
+    if (!this.tasks.isEmpty()) {
+      throw new IllegalStateException("Task duplication must be allowed from the start of simulation");
+    }
+
+    this.tasksMayBeDuplicated = true;
+  }
+
+  /** Report the events committed to the timeline at the given time to the results sink, if any. */
+  public void commitResults(final Duration currentTime, final EventGraph<Event> commit) {
+    this.resultsStream.ifPresent($ -> $.commit(currentTime, commit));
+  }
+
+  /** Report any results still outstanding at the end of simulation to the results sink, if any. */
+  public void finishResults(final Duration elapsedTime) {
+    this.resultsStream.ifPresent($ -> $.finish(elapsedTime));
+  }
+
   /** Compute a set of results from the current state of simulation. */
   // TODO: Move result extraction out of the SimulationEngine.
   //   The Engine should only need to stream events of interest to a downstream consumer.
@@ -466,13 +736,13 @@ public final class SimulationEngine implements AutoCloseable {
             name,
             Pair.of(
                 resource.getOutputType().getSchema(),
-                serializeProfile(elapsedTime, state, SimulationEngine::extractRealDynamics)));
+                state.realProfile(elapsedTime)));
 
         case "discrete" -> discreteProfiles.put(
             name,
             Pair.of(
                 resource.getOutputType().getSchema(),
-                serializeProfile(elapsedTime, state, SimulationEngine::extractDiscreteDynamics)));
+                serializeProfile(elapsedTime, state)));
 
         default ->
             throw new IllegalArgumentException(
@@ -482,14 +752,17 @@ public final class SimulationEngine implements AutoCloseable {
 
 
     // Give every task corresponding to a child activity an ID that doesn't conflict with any root activity.
-    final var taskToSimulatedActivityId = new HashMap<String, SimulatedActivityId>(taskInfo.taskToPlannedDirective.size());
-    final var usedSimulatedActivityIds = new HashSet<>();
-    for (final var entry : taskInfo.taskToPlannedDirective.entrySet()) {
-      taskToSimulatedActivityId.put(entry.getKey(), new SimulatedActivityId(entry.getValue().id()));
+    final var taskToSimulatedActivityId = new Long2ObjectOpenHashMap<SimulatedActivityId>(taskInfo.taskToPlannedDirective.size());
+    final var usedSimulatedActivityIds = new LongOpenHashSet();
+    for (final var entry : Long2ObjectMaps.fastIterable(taskInfo.taskToPlannedDirective)) {
+      taskToSimulatedActivityId.put(entry.getLongKey(), new SimulatedActivityId(entry.getValue().id()));
       usedSimulatedActivityIds.add(entry.getValue().id());
     }
+    // Tasks are visited in creation order, so that child activities are numbered (and listed) the same way every time.
     long counter = 1L;
-    for (final var task : engine.tasks.keySet()) {
+    final var tasks = new ArrayList<>(engine.tasks.keySet());
+    tasks.sort(TaskId.ORDER);
+    for (final var task : tasks) {
       if (!taskInfo.isActivity(task)) continue;
       if (taskToSimulatedActivityId.containsKey(task.id())) continue;
 
@@ -498,9 +771,9 @@ public final class SimulationEngine implements AutoCloseable {
     }
 
     // Identify the nearest ancestor *activity* (excluding intermediate anonymous tasks).
-    final var activityParents = new HashMap<SimulatedActivityId, SimulatedActivityId>();
-    engine.tasks.forEach((task, state) -> {
-      if (!taskInfo.isActivity(task)) return;
+    final var activityParents = new LinkedHashMap<SimulatedActivityId, SimulatedActivityId>();
+    for (final var task : tasks) {
+      if (!taskInfo.isActivity(task)) continue;
 
       var parent = engine.taskParent.get(task);
       while (parent != null && !taskInfo.isActivity(parent)) {
@@ -510,7 +783,7 @@ public final class SimulationEngine implements AutoCloseable {
       if (parent != null) {
         activityParents.put(taskToSimulatedActivityId.get(task.id()), taskToSimulatedActivityId.get(parent.id()));
       }
-    });
+    }
 
     final var activityChildren = new HashMap<SimulatedActivityId, List<SimulatedActivityId>>();
     activityParents.forEach((task, parent) -> {
@@ -564,12 +837,8 @@ public final class SimulationEngine implements AutoCloseable {
       }
     });
 
-    final List<Triple<Integer, String, ValueSchema>> topics = new ArrayList<>();
     final var serializableTopicToId = new HashMap<SerializableTopic<?>, Integer>();
-    for (final var serializableTopic : serializableTopics) {
-      serializableTopicToId.put(serializableTopic, topics.size());
-      topics.add(Triple.of(topics.size(), serializableTopic.name(), serializableTopic.outputType().getSchema()));
-    }
+    final var topics = describeTopics(serializableTopics, serializableTopicToId);
 
     final var serializedTimeline = new TreeMap<Duration, List<EventGraph<Pair<Integer, SerializedValue>>>>();
     var time = Duration.ZERO;
@@ -577,18 +846,7 @@ public final class SimulationEngine implements AutoCloseable {
       if (point instanceof TemporalEventSource.TimePoint.Delta delta) {
         time = time.plus(delta.delta());
       } else if (point instanceof TemporalEventSource.TimePoint.Commit commit) {
-        final var serializedEventGraph = commit.events().substitute(
-            event -> {
-              EventGraph<Pair<Integer, SerializedValue>> output = EventGraph.empty();
-              for (final var serializableTopic : serializableTopics) {
-                Optional<SerializedValue> serializedEvent = trySerializeEvent(event, serializableTopic);
-                if (serializedEvent.isPresent()) {
-                  output = EventGraph.concurrently(output, EventGraph.atom(Pair.of(serializableTopicToId.get(serializableTopic), serializedEvent.get())));
-                }
-              }
-              return output;
-            }
-        ).evaluate(new EventGraph.IdentityTrait<>(), EventGraph::atom);
+        final var serializedEventGraph = serializeEvents(commit.events(), serializableTopics, serializableTopicToId);
         if (!(serializedEventGraph instanceof EventGraph.Empty)) {
           serializedTimeline
               .computeIfAbsent(time, x -> new ArrayList<>())
@@ -616,23 +874,49 @@ public final class SimulationEngine implements AutoCloseable {
   }
 
 
-  private static <EventType> Optional<SerializedValue> trySerializeEvent(Event event, SerializableTopic<EventType> serializableTopic) {
-    return event.extract(serializableTopic.topic(), serializableTopic.outputType()::serialize);
+  /** Assign an index to every serializable topic, in iteration order. */
+  private static List<Triple<Integer, String, ValueSchema>> describeTopics(
+      final Iterable<SerializableTopic<?>> serializableTopics,
+      final Map<SerializableTopic<?>, Integer> serializableTopicToId
+  ) {
+    final List<Triple<Integer, String, ValueSchema>> topics = new ArrayList<>();
+    for (final var serializableTopic : serializableTopics) {
+      serializableTopicToId.put(serializableTopic, topics.size());
+      topics.add(Triple.of(topics.size(), serializableTopic.name(), serializableTopic.outputType().getSchema()));
+    }
+    return topics;
+  }
+
+  private static EventGraph<Pair<Integer, SerializedValue>> serializeEvents(
+      final EventGraph<Event> events,
+      final Iterable<SerializableTopic<?>> serializableTopics,
+      final Map<SerializableTopic<?>, Integer> serializableTopicToId
+  ) {
+    return events.substitute(
+        event -> {
+          EventGraph<Pair<Integer, SerializedValue>> output = EventGraph.empty();
+          for (final var serializableTopic : serializableTopics) {
+            Optional<SerializedValue> serializedEvent = trySerializeEvent(event, serializableTopic);
+            if (serializedEvent.isPresent()) {
+              output = EventGraph.concurrently(output, EventGraph.atom(Pair.of(serializableTopicToId.get(serializableTopic), serializedEvent.get())));
+            }
+          }
+          return output;
+        }
+    ).evaluate(new EventGraph.IdentityTrait<>(), EventGraph::atom);
   }
 
-  private interface Translator<Target> {
-    <Dynamics> Target apply(Resource<Dynamics> resource, Dynamics dynamics);
+  private static <EventType> Optional<SerializedValue> trySerializeEvent(Event event, SerializableTopic<EventType> serializableTopic) {
+    return event.extract(serializableTopic.topic(), serializableTopic.outputType()::serialize);
   }
 
-  private static <Target, Dynamics>
-  List<ProfileSegment<Target>> serializeProfile(
+  private static List<ProfileSegment<SerializedValue>> serializeProfile(
       final Duration elapsedTime,
-      final ProfilingState<Dynamics> state,
-      final Translator<Target> translator
+      final ProfilingState<?> state
   ) {
-    final var profile = new ArrayList<ProfileSegment<Target>>(state.profile().segments().size());
+    final var profile = new ArrayList<ProfileSegment<SerializedValue>>(state.size());
 
-    final var iter = state.profile().segments().iterator();
+    final var iter = state.serializedSegments();
     if (iter.hasNext()) {
       var segment = iter.next();
       while (iter.hasNext()) {
@@ -640,30 +924,238 @@ public final class SimulationEngine implements AutoCloseable {
 
         profile.add(new ProfileSegment<>(
             nextSegment.startOffset().minus(segment.startOffset()),
-            translator.apply(state.resource(), segment.dynamics())));
+            segment.dynamics()));
         segment = nextSegment;
       }
 
       profile.add(new ProfileSegment<>(
           elapsedTime.minus(segment.startOffset()),
-          translator.apply(state.resource(), segment.dynamics())));
+          segment.dynamics()));
     }
 
     return profile;
   }
 
-  private static <Dynamics>
-  RealDynamics extractRealDynamics(final Resource<Dynamics> resource, final Dynamics dynamics) {
-    final var serializedSegment = resource.getOutputType().serialize(dynamics).asMap().orElseThrow();
-    final var initial = serializedSegment.get("initial").asReal().orElseThrow();
-    final var rate = serializedSegment.get("rate").asReal().orElseThrow();
+  /**
+   * Results reported to a sink as they are produced.
+   *
+   * Only the information needed to report results still to come is retained:
+   * the latest segment of each profile, and the attributes of activities which have not yet terminated.
+   */
+  private final class ResultsStream {
+    private final SimulationResultsSink sink;
+    private final Instant startTime;
+    private final Iterable<SerializableTopic<?>> serializableTopics;
+    private final Map<SerializableTopic<?>, Integer> serializableTopicToId = new HashMap<>();
+    private final TaskInfo.Trait trait;
+    private final TaskInfo taskInfo = new TaskInfo();
+
+    /** Activity IDs which must not be assigned to child activities. */
+    private final Set<Long> reservedActivityIds;
+    private long nextActivityId = 1L;
+    /** The ID of every activity which has started but not yet been reported. */
+    private final Map<TaskId, SimulatedActivityId> activityIds = new HashMap<>();
+    /** The children of every activity which has not yet been reported. */
+    private final Map<SimulatedActivityId, List<SimulatedActivityId>> activityChildren = new HashMap<>();
+
+    /** The latest segment of each profile, whose extent is not yet known. */
+    private final Map<ResourceId, Profile.Segment<?>> pendingSegments = new ConcurrentHashMap<>();
+    /** Tasks which have terminated since the last commit. */
+    private final Queue<TaskId> terminatedTasks = new ConcurrentLinkedQueue<>();
+
+    public ResultsStream(
+        final SimulationResultsSink sink,
+        final Instant startTime,
+        final Topic<ActivityDirectiveId> activityTopic,
+        final Iterable<SerializableTopic<?>> serializableTopics,
+        final Set<Long> reservedActivityIds
+    ) {
+      this.sink = sink;
+      this.startTime = startTime;
+      this.serializableTopics = serializableTopics;
+      this.trait = new TaskInfo.Trait(serializableTopics, activityTopic);
+      this.reservedActivityIds = reservedActivityIds;
+
+      this.sink.topics(describeTopics(serializableTopics, this.serializableTopicToId));
+    }
 
-    return RealDynamics.linear(initial, rate);
-  }
+    public synchronized void declareProfile(final ResourceId id, final ProfilingState<?> state) {
+      final var resource = state.resource();
+      switch (resource.getType()) {
+        case "real" -> this.sink.realProfile(id.id(), resource.getOutputType().getSchema());
+        case "discrete" -> this.sink.discreteProfile(id.id(), resource.getOutputType().getSchema());
+        default ->
+            throw new IllegalArgumentException(
+                "Resource `%s` has unknown type `%s`".formatted(id.id(), resource.getType()));
+      }
+    }
+
+    // Resources may be sampled by jobs running in parallel, so each resource's pending segment is swapped atomically,
+    //   and reports to the sink are serialized.
+    public <Dynamics> void append(
+        final ResourceId id,
+        final ProfilingState<Dynamics> state,
+        final Duration currentTime,
+        final Querier querier
+    ) {
+      final var segment$ = state.sample(currentTime, querier);
+      if (segment$.isEmpty()) return;
+
+      final var previous = this.pendingSegments.put(id, segment$.get());
+      if (previous != null) this.reportSegment(id, state.resource(), previous, currentTime);
+    }
+
+    private synchronized void reportSegment(
+        final ResourceId id,
+        final Resource<?> resource,
+        final Profile.Segment<?> segment,
+        final Duration endTime
+    ) {
+      final var extent = endTime.minus(segment.startOffset());
+      switch (resource.getType()) {
+        case "real" -> this.sink.realProfileSegment(
+            id.id(),
+            new ProfileSegment<>(extent, (RealDynamics) segment.dynamics()));
+        case "discrete" -> this.sink.discreteProfileSegment(
+            id.id(),
+            new ProfileSegment<>(extent, (SerializedValue) segment.dynamics()));
+        default ->
+            throw new IllegalArgumentException(
+                "Resource `%s` has unknown type `%s`".formatted(id.id(), resource.getType()));
+      }
+    }
+
+    public synchronized void commit(final Duration currentTime, final EventGraph<Event> commit) {
+      commit.evaluate(this.trait, this.trait::atom).accept(this.taskInfo);
+
+      final var serializedEvents = serializeEvents(commit, this.serializableTopics, this.serializableTopicToId);
+      if (!(serializedEvents instanceof EventGraph.Empty)) this.sink.events(currentTime, serializedEvents);
+
+      // An activity's attributes may have been emitted in the same commit as its termination,
+      //   so terminated activities can only be reported once their commit has been processed.
+      // Tasks may terminate in parallel jobs, so they are reported in creation order rather than termination order.
+      final var terminated = new ArrayList<TaskId>();
+      while (true) {
+        final var task = this.terminatedTasks.poll();
+        if (task == null) break;
+        terminated.add(task);
+      }
+      terminated.sort(TaskId.ORDER);
+
+      // A parent may terminate in the same commit as its last children, and its attributes are forgotten once reported,
+      //   so we must resolve every parent (and every parent's children) before reporting any of them.
+      final var activities = new ArrayList<Pair<TaskId, Optional<SimulatedActivityId>>>();
+      for (final var task : terminated) {
+        if (!this.taskInfo.isActivity(task)) continue;
+
+        final var activityId = this.activityIdOf(task);
+        final var parentId = this.parentActivityOf(task);
+        parentId.ifPresent($ -> this.activityChildren.computeIfAbsent($, $$ -> new ArrayList<>()).add(activityId));
+        activities.add(Pair.of(task, parentId));
+      }
+
+      for (final var entry : activities) {
+        final var task = entry.getLeft();
+        final var parentId = entry.getRight();
+        // SAFETY: Only terminated tasks are enqueued, and a task never leaves the terminated state.
+        final var state = (ExecutionState.Terminated<?>) SimulationEngine.this.tasks.get(task);
+        final var activityId = this.activityIdOf(task);
+
+        final var inputAttributes = this.taskInfo.input().remove(task.id());
+        final var outputAttributes = this.taskInfo.output().remove(task.id());
+        final var directiveId = this.taskInfo.taskToPlannedDirective().remove(task.id());
+
+        this.sink.simulatedActivity(activityId, new SimulatedActivity(
+            inputAttributes.getTypeName(),
+            inputAttributes.getArguments(),
+            this.startTime.plus(state.startOffset().in(Duration.MICROSECONDS), ChronoUnit.MICROS),
+            state.joinOffset().minus(state.startOffset()),
+            parentId.orElse(null),
+            Optional.ofNullable(this.activityChildren.remove(activityId)).orElseGet(Collections::emptyList),
+            (parentId.isPresent()) ? Optional.empty() : Optional.ofNullable(directiveId),
+            outputAttributes
+        ));
+        this.activityIds.remove(task);
+      }
+    }
+
+    public synchronized void finish(final Duration elapsedTime) {
+      this.pendingSegments.forEach((id, segment) -> {
+        this.reportSegment(id, SimulationEngine.this.resources.get(id).resource(), segment, elapsedTime);
+      });
+      this.pendingSegments.clear();
+      SimulationEngine.this.resources.forEach((id, state) -> {
+        this.sink.suppressedSegments(id.id(), state.suppressedSegments());
+      });
+      this.sink.stateReads(SimulationEngine.this.stateReads.reads(), SimulationEngine.this.stateReads.copies());
+      this.sink.taskSteps(
+          SimulationEngine.this.taskSteps.steps(),
+          SimulationEngine.this.taskSteps.totalNanos(),
+          SimulationEngine.this.taskSteps.longestNanos());
+
+      // Every activity which has not been reported is unfinished.
+      // Their children are not yet known, so we must resolve every parent before reporting any of them.
+      final var unfinished = new ArrayList<Pair<TaskId, Optional<SimulatedActivityId>>>();
+      final var tasks = new ArrayList<>(SimulationEngine.this.tasks.keySet());
+      tasks.sort(TaskId.ORDER);
+      for (final var task : tasks) {
+        if (!this.taskInfo.isActivity(task)) continue;
+
+        final var activityId = this.activityIdOf(task);
+        final var parentId = this.parentActivityOf(task);
+        parentId.ifPresent($ -> this.activityChildren.computeIfAbsent($, $$ -> new ArrayList<>()).add(activityId));
+        unfinished.add(Pair.of(task, parentId));
+      }
+
+      for (final var entry : unfinished) {
+        final var task = entry.getLeft();
+        final var parentId = entry.getRight();
+        final var activityId = this.activityIdOf(task);
+        final var inputAttributes = this.taskInfo.input().get(task.id());
+        final var directiveId = this.taskInfo.taskToPlannedDirective().get(task.id());
+
+        final Duration startOffset;
+        if (SimulationEngine.this.tasks.get(task) instanceof ExecutionState.InProgress<?> e) {
+          startOffset = e.startOffset();
+        } else if (SimulationEngine.this.tasks.get(task) instanceof ExecutionState.AwaitingChildren<?> e) {
+          startOffset = e.startOffset();
+        } else {
+          throw new Error("Unexpected execution state for unfinished activity %s".formatted(task));
+        }
+
+        this.sink.unfinishedActivity(activityId, new UnfinishedActivity(
+            inputAttributes.getTypeName(),
+            inputAttributes.getArguments(),
+            this.startTime.plus(startOffset.in(Duration.MICROSECONDS), ChronoUnit.MICROS),
+            parentId.orElse(null),
+            this.activityChildren.getOrDefault(activityId, Collections.emptyList()),
+            (parentId.isPresent()) ? Optional.empty() : Optional.ofNullable(directiveId)
+        ));
+      }
+
+      this.sink.finish(this.startTime, elapsedTime);
+    }
+
+    private SimulatedActivityId activityIdOf(final TaskId task) {
+      return this.activityIds.computeIfAbsent(task, $ -> {
+        final var directiveId = this.taskInfo.taskToPlannedDirective().get(task.id());
+        if (directiveId != null) return new SimulatedActivityId(directiveId.id());
+
+        // Give every task corresponding to a child activity an ID that doesn't conflict with any root activity.
+        while (this.reservedActivityIds.contains(this.nextActivityId)) this.nextActivityId++;
+        return new SimulatedActivityId(this.nextActivityId++);
+      });
+    }
+
+    // Identify the nearest ancestor *activity* (excluding intermediate anonymous tasks).
+    private Optional<SimulatedActivityId> parentActivityOf(final TaskId task) {
+      var parent = SimulationEngine.this.taskParent.get(task);
+      while (parent != null && !this.taskInfo.isActivity(parent)) {
+        parent = SimulationEngine.this.taskParent.get(parent);
+      }
 
-  private static <Dynamics>
-  SerializedValue extractDiscreteDynamics(final Resource<Dynamics> resource, final Dynamics dynamics) {
-    return resource.getOutputType().serialize(dynamics);
+      return Optional.ofNullable(parent).map(this::activityIdOf);
+    }
   }
 
   /** A handle for processing requests from a modeled resource or condition. */
@@ -685,8 +1177,7 @@ public final class SimulationEngine implements AutoCloseable {
       this.expiry = min(this.expiry, this.frame.getExpiry(query.query()));
       this.referencedTopics.add(query.topic());
 
-      // TODO: Cache the state (until the query returns) to avoid unnecessary copies
-      //  if the same state is requested multiple times in a row.
+      // The frame hands out the same copy for repeated reads, since a query emits no events.
       final var state$ = this.frame.getState(query.query());
 
       return state$.orElseThrow(IllegalArgumentException::new);
@@ -704,11 +1195,18 @@ public final class SimulationEngine implements AutoCloseable {
     private final Duration currentTime;
     private final TaskId activeTask;
     private final TaskFrame<JobId> frame;
-
-    public EngineScheduler(final Duration currentTime, final TaskId activeTask, final TaskFrame<JobId> frame) {
+    private final IdSource ids;
+
+    public EngineScheduler(
+        final Duration currentTime,
+        final TaskId activeTask,
+        final TaskFrame<JobId> frame,
+        final IdSource ids
+    ) {
       this.currentTime = Objects.requireNonNull(currentTime);
       this.activeTask = Objects.requireNonNull(activeTask);
       this.frame = Objects.requireNonNull(frame);
+      this.ids = Objects.requireNonNull(ids);
     }
 
     @Override
@@ -717,8 +1215,8 @@ public final class SimulationEngine implements AutoCloseable {
       @SuppressWarnings("unchecked")
       final var query = ((EngineCellId<?, State>) token);
 
-      // TODO: Cache the return value (until the next emit or until the task yields) to avoid unnecessary copies
-      //  if the same state is requested multiple times in a row.
+      // The frame hands out the same copy for repeated reads until the task next emits,
+      //   and the frame itself lasts only until the task yields.
       final var state$ = this.frame.getState(query.query());
       return state$.orElseThrow(IllegalArgumentException::new);
     }
@@ -733,12 +1231,17 @@ public final class SimulationEngine implements AutoCloseable {
 
     @Override
     public void spawn(final TaskFactory<?> state) {
-      final var task = TaskId.generate();
+      final var task = this.ids.nextTaskId();
       SimulationEngine.this.tasks.put(task, new ExecutionState.InProgress<>(this.currentTime, state.create(SimulationEngine.this.executor)));
       SimulationEngine.this.taskParent.put(task, this.activeTask);
       SimulationEngine.this.taskChildren.computeIfAbsent(this.activeTask, $ -> new HashSet<>()).add(task);
       this.frame.signal(JobId.forTask(task));
     }
+
+    @Override
+    public boolean mayDuplicateTasks() {
+      return SimulationEngine.this.tasksMayBeDuplicated;
+    }
   }
 
   /** A representation of a job processable by the {@link SimulationEngine}. */
@@ -770,14 +1273,138 @@ public final class SimulationEngine implements AutoCloseable {
     static ConditionJobId forCondition(final ConditionId condition) {
       return new ConditionJobId(condition);
     }
+
+    /** An arbitrary but fixed order on jobs, by kind and then by ID. */
+    Comparator<JobId> ORDER = (a, b) -> {
+      final var kinds = Integer.compare(kindOf(a), kindOf(b));
+      if (kinds != 0) return kinds;
+
+      if (a instanceof TaskJobId x && b instanceof TaskJobId y) {
+        return TaskId.ORDER.compare(x.id(), y.id());
+      } else if (a instanceof SignalJobId x && b instanceof SignalJobId y) {
+        return SignalId.ORDER.compare(x.id(), y.id());
+      } else if (a instanceof ResourceJobId x && b instanceof ResourceJobId y) {
+        return x.id().id().compareTo(y.id().id());
+      } else if (a instanceof ConditionJobId x && b instanceof ConditionJobId y) {
+        return ConditionId.ORDER.compare(x.id(), y.id());
+      } else {
+        throw new IllegalArgumentException("Unexpected subtype of %s: %s".formatted(JobId.class, a.getClass()));
+      }
+    };
+
+    private static int kindOf(final JobId job) {
+      if (job instanceof TaskJobId) return 0;
+      if (job instanceof SignalJobId) return 1;
+      if (job instanceof ResourceJobId) return 2;
+      return 3;
+    }
+  }
+
+  /**
+   * Where a job draws the IDs of the tasks and conditions it creates.
+   *
+   * Jobs performed one at a time draw from the process-wide counters. The jobs of a batch performed in parallel
+   * each draw from a range reserved for them in batch order, so that the IDs created during the batch are ordered
+   * the same way however the jobs' threads interleave.
+   */
+  private static final class IdSource {
+    /** The number of IDs of each kind reserved for each job of a batch performed in parallel. */
+    private static final long RANGE = 1L << 24;
+
+    private static final IdSource SHARED = new IdSource(0, 0);
+
+    private long nextTask;
+    private long nextCondition;
+    private final long endTask;
+    private final long endCondition;
+
+    private IdSource(final long firstTask, final long firstCondition) {
+      this.nextTask = firstTask;
+      this.nextCondition = firstCondition;
+      this.endTask = firstTask + RANGE;
+      this.endCondition = firstCondition + RANGE;
+    }
+
+    public static List<IdSource> reserve(final int jobs) {
+      final var firstTask = TaskId.reserve(jobs * RANGE);
+      final var firstCondition = ConditionId.reserve(jobs * RANGE);
+
+      final var sources = new ArrayList<IdSource>(jobs);
+      for (var i = 0; i < jobs; i += 1) sources.add(new IdSource(firstTask + i * RANGE, firstCondition + i * RANGE));
+      return sources;
+    }
+
+    public TaskId nextTaskId() {
+      if (this == SHARED) return TaskId.generate();
+      if (this.nextTask == this.endTask) throw new IllegalStateException(exhausted("tasks"));
+      return new TaskId(this.nextTask++);
+    }
+
+    public ConditionId nextConditionId() {
+      if (this == SHARED) return ConditionId.generate();
+      if (this.nextCondition == this.endCondition) throw new IllegalStateException(exhausted("conditions"));
+      return new ConditionId(this.nextCondition++);
+    }
+
+    private static String exhausted(final String kind) {
+      return "A job performed in parallel created more than %d %s at once".formatted(RANGE, kind);
+    }
+  }
+
+
+  /** The number of task steps taken, their total running time, and the running time of the longest of them. */
+  private static final class StepTimes {
+    private final LongAdder steps = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator longestNanos = new LongAccumulator(Math::max, 0);
+
+    public void add(final long nanos) {
+      this.steps.increment();
+      this.totalNanos.add(nanos);
+      this.longestNanos.accumulate(nanos);
+    }
+
+    public long steps() {
+      return this.steps.sum();
+    }
+
+    public long totalNanos() {
+      return this.totalNanos.sum();
+    }
+
+    public long longestNanos() {
+      return this.longestNanos.get();
+    }
   }
 
   /** The lifecycle stages every task passes through. */
   private sealed interface ExecutionState<Return> {
+    /** Produce an independent copy of this state, or empty if the underlying task cannot be copied. */
+    Optional<ExecutionState<Return>> duplicate(Executor executor);
+
+    /** The task has been scheduled, but has not yet taken its first step. */
+    record Pending<Return>(Duration startOffset, TaskFactory<Return> factory)
+        implements ExecutionState<Return>
+    {
+      public InProgress<Return> start(final Executor executor) {
+        return new InProgress<>(this.startOffset, this.factory.create(executor));
+      }
+
+      @Override
+      public Optional<ExecutionState<Return>> duplicate(final Executor executor) {
+        return Optional.of(this);
+      }
+    }
+
     /** The task is in its primary operational phase. */
     record InProgress<Return>(Duration startOffset, Task<Return> state)
         implements ExecutionState<Return>
     {
+      @Override
+      public Optional<ExecutionState<Return>> duplicate(final Executor executor) {
+        return this.state.duplicate(executor).map(this::continueWith);
+      }
+
       public AwaitingChildren<Return> completedAt(
           final Duration endOffset,
           final LinkedList<TaskId> remainingChildren) {
@@ -799,6 +1426,11 @@ public final class SimulationEngine implements AutoCloseable {
       public Terminated<Return> joinedAt(final Duration joinOffset) {
         return new Terminated<>(this.startOffset, this.endOffset, joinOffset);
       }
+
+      @Override
+      public Optional<ExecutionState<Return>> duplicate(final Executor executor) {
+        return Optional.of(new AwaitingChildren<>(this.startOffset, this.endOffset, new LinkedList<>(this.remainingChildren)));
+      }
     }
 
     /** The task and all its delegated children have completed. */
@@ -806,6 +1438,11 @@ public final class SimulationEngine implements AutoCloseable {
         Duration startOffset,
         Duration endOffset,
         Duration joinOffset
-    ) implements ExecutionState<Return> {}
+    ) implements ExecutionState<Return> {
+      @Override
+      public Optional<ExecutionState<Return>> duplicate(final Executor executor) {
+        return Optional.of(this);
+      }
+    }
   }
 }
@@ -3,42 +3,160 @@ package gov.nasa.jpl.aerie.merlin.driver.engine;
 import org.apache.commons.lang3.mutable.Mutable;
 import org.apache.commons.lang3.mutable.MutableObject;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * An append-only list comprising a chain of fixed-size slabs.
  *
  * The fixed-size slabs allow for better cache locality when traversing the list forward,
  * and the chain of links allows for cheap extension when a slab reaches capacity.
+ *
+ * Slabs at the front of the list may be released once their elements are no longer needed (see {@link #releaseBefore}).
+ * Every element keeps its original index regardless.
+ *
+ * A {@linkplain #spilling spilling} list keeps only a bounded number of full slabs on the heap.
+ * Older slabs are encoded into a {@link SpillFile}, and are read back and decoded whenever they are accessed.
  */
 public final class SlabList<T> implements Iterable<T> {
   /** ~4 KiB of elements (or at least, references thereof). */
   private static final int SLAB_SIZE = 1024;
 
-  private final Slab<T> head = new Slab<>();
+  /** Where full slabs are spilled, if they are not all kept on the heap. */
+  private final Optional<Spill<T>> spill;
+
+  /** The first slab which has not been released. */
+  private Slab<T> head = new Slab<>();
 
+  /** Every slab in the chain, in order, for random access by index. Released slabs are replaced by null. */
+  /*derived*/
+  private final ArrayList<Slab<T>> slabs = new ArrayList<>(List.of(this.head));
+  /*derived*/
+  private int releasedSlabs = 0;
+  /** The number of slabs at the front of the chain which have been spilled (or released). */
+  /*derived*/
+  private int spilledSlabs = 0;
   /*derived*/
   private Slab<T> tail = this.head;
   /*derived*/
   private int size = 0;
 
+  /** The spilled slab most recently read by {@link #get}, and its elements, so that repeated reads decode it only once. */
+  private Slab<T> pagedSlab = null;
+  private List<T> pagedElements = null;
+
+  public SlabList() {
+    this(Optional.empty());
+  }
+
+  private SlabList(final Optional<Spill<T>> spill) {
+    this.spill = spill;
+  }
+
+  /** Create an empty list which keeps at most `spill.residentSlabs()` full slabs on the heap. */
+  public static <T> SlabList<T> spilling(final Spill<T> spill) {
+    return new SlabList<>(Optional.of(spill));
+  }
+
   public void append(final T element) {
-    this.tail.elements().add(element);
+    this.tail.elements.add(element);
     this.size += 1;
 
     if (this.size % SLAB_SIZE == 0) {
       this.tail.next().setValue(new Slab<>());
       this.tail = this.tail.next().getValue();
+      this.slabs.add(this.tail);
+
+      this.spill.ifPresent(this::spillExcess);
+    }
+  }
+
+  private void spillExcess(final Spill<T> spill) {
+    // Every slab but the tail is full.
+    final var fullSlabs = this.slabs.size() - 1;
+
+    this.spilledSlabs = Math.max(this.spilledSlabs, this.releasedSlabs);
+    while (fullSlabs - this.spilledSlabs > spill.residentSlabs()) {
+      this.slabs.get(this.spilledSlabs++).spillTo(spill);
     }
   }
 
+  public T get(final int index) {
+    Objects.checkIndex(index, this.size);
+    if (index < this.firstRetained()) throw new IllegalStateException("Element %d has been released".formatted(index));
+
+    final var slab = this.slabs.get(index / SLAB_SIZE);
+    if (slab.region.isEmpty()) return slab.elements.get(index % SLAB_SIZE);
+
+    if (slab != this.pagedSlab) {
+      this.pagedElements = slab.elements();
+      this.pagedSlab = slab;
+    }
+    return this.pagedElements.get(index % SLAB_SIZE);
+  }
+
   public int size() {
     return this.size;
   }
 
+  /** The index of the first element which has not been released. */
+  public int firstRetained() {
+    return this.releasedSlabs * SLAB_SIZE;
+  }
+
+  /**
+   * Release every slab whose elements all precede the given index, so that they can be garbage collected.
+   *
+   * Released elements can no longer be accessed through this list, and iteration begins at the first retained element.
+   * Iterators created beforehand keep working, but keep the slabs they have yet to traverse alive.
+   */
+  public void releaseBefore(final int index) {
+    final var slabs = Math.min(index, this.size) / SLAB_SIZE;
+    while (this.releasedSlabs < slabs) this.slabs.set(this.releasedSlabs++, null);
+    this.head = this.slabs.get(this.releasedSlabs);
+    this.pagedSlab = null;
+    this.pagedElements = null;
+  }
+
+  /**
+   * Produce an independent copy of this list. The elements themselves are shared, not copied.
+   *
+   * Spilled slabs are never modified, so the copy refers to the same regions of the spill file rather than re-spilling.
+   */
+  public SlabList<T> duplicate() {
+    final var copy = new SlabList<T>(this.spill);
+
+    // Skip over the released slabs, so that every element keeps its index in the copy.
+    copy.slabs.clear();
+    for (var i = 0; i < this.releasedSlabs; i += 1) copy.slabs.add(null);
+    copy.slabs.add(copy.head);
+    copy.releasedSlabs = this.releasedSlabs;
+    copy.spilledSlabs = this.releasedSlabs;
+    copy.size = this.firstRetained();
+
+    for (var i = this.releasedSlabs; i < this.slabs.size(); i += 1) {
+      final var slab = this.slabs.get(i);
+      if (slab.region.isPresent()) {
+        copy.tail.spilledAt(slab.spill.orElseThrow(), slab.region.get());
+        copy.spilledSlabs += 1;
+        copy.size += SLAB_SIZE;
+        copy.tail.next().setValue(new Slab<>());
+        copy.tail = copy.tail.next().getValue();
+        copy.slabs.add(copy.tail);
+      } else {
+        for (final var element : slab.elements) copy.append(element);
+      }
+    }
+
+    return copy;
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (!(o instanceof SlabList<?> other)) return false;
@@ -64,24 +182,36 @@ public final class SlabList<T> implements Iterable<T> {
    */
   @Override
   public SlabIterator iterator() {
-    return new SlabIterator();
+    return new SlabIterator(this.head, 0);
+  }
+
+  /** Returns an iterator positioned after every element currently in the list. */
+  public SlabIterator iteratorAtEnd() {
+    return new SlabIterator(this.tail, this.tail.elements.size());
   }
 
   public final class SlabIterator implements Iterator<T> {
-    private Slab<T> slab = SlabList.this.head;
-    private int index = 0;
+    private Slab<T> slab;
+    /** The elements of the current slab, held here so that a spilled slab is only read back once per visit. */
+    private List<T> elements;
+    private int index;
 
-    private SlabIterator() {}
+    private SlabIterator(final Slab<T> slab, final int index) {
+      this.slab = slab;
+      this.elements = slab.elements();
+      this.index = index;
+    }
 
     @Override
     public boolean hasNext() {
-      if (this.index < this.slab.elements().size()) return true;
+      if (this.index < this.elements.size()) return true;
 
       final var nextSlab = this.slab.next().getValue();
-      if (nextSlab == null || nextSlab.elements().isEmpty()) return false;
+      if (nextSlab == null || nextSlab.isEmpty()) return false;
 
-      this.index -= this.slab.elements().size();
+      this.index -= this.elements.size();
       this.slab = nextSlab;
+      this.elements = nextSlab.elements();
 
       return true;
     }
@@ -90,13 +220,96 @@ public final class SlabList<T> implements Iterable<T> {
     public T next() {
       if (!hasNext()) throw new NoSuchElementException();
 
-      return this.slab.elements().get(this.index++);
+      return this.elements.get(this.index++);
+    }
+  }
+
+  /** Converts elements to and from the bytes they are spilled as. */
+  public interface Codec<T> {
+    /** Write the element to the buffer, throwing {@link BufferOverflowException} if it does not fit. */
+    void encode(T element, ByteBuffer buffer);
+
+    T decode(ByteBuffer buffer);
+  }
+
+  /**
+   * Where and how the full slabs of a list are spilled.
+   *
+   * @param file The file to which slabs are spilled. It may be shared between many lists.
+   * @param codec How each element is represented in the file.
+   * @param residentSlabs The number of full slabs kept on the heap, in addition to the slab being appended to.
+   */
+  public record Spill<T>(SpillFile file, Codec<T> codec, int residentSlabs) {
+    public Spill {
+      Objects.requireNonNull(file);
+      Objects.requireNonNull(codec);
+      if (residentSlabs < 0) throw new IllegalArgumentException("Resident slab count must not be negative, but was %d".formatted(residentSlabs));
     }
   }
 
-  record Slab<T>(ArrayList<T> elements, Mutable<Slab<T>> next) {
-    public Slab() {
-      this(new ArrayList<>(SLAB_SIZE), new MutableObject<>(null));
+  static final class Slab<T> {
+    private final Mutable<Slab<T>> next = new MutableObject<>(null);
+    /** The elements of this slab while it is on the heap, or null once it has been spilled. */
+    private ArrayList<T> elements = new ArrayList<>(SLAB_SIZE);
+    /** The region of the spill file holding this slab's elements, once it has been spilled. */
+    private Optional<SpillFile.Region> region = Optional.empty();
+    private Optional<Spill<T>> spill = Optional.empty();
+
+    public Mutable<Slab<T>> next() {
+      return this.next;
+    }
+
+    public boolean isEmpty() {
+      return this.region.isEmpty() && this.elements.isEmpty();
+    }
+
+    /** The elements of this slab, read back from the spill file if necessary. */
+    public List<T> elements() {
+      if (this.region.isEmpty()) return this.elements;
+
+      final var spill = this.spill.orElseThrow();
+      final var buffer = spill.file().read(this.region.get());
+      final var elements = new ArrayList<T>(SLAB_SIZE);
+      while (buffer.hasRemaining()) elements.add(spill.codec().decode(buffer));
+      return elements;
+    }
+
+    private void spillTo(final Spill<T> spill) {
+      var buffer = ByteBuffer.allocate(16 * SLAB_SIZE);
+      while (true) {
+        try {
+          for (final var element : this.elements) spill.codec().encode(element, buffer);
+          break;
+        } catch (final BufferOverflowException ex) {
+          buffer = ByteBuffer.allocate(2 * buffer.capacity());
+        }
+      }
+
+      this.spilledAt(spill, spill.file().write(buffer.flip()));
+    }
+
+    private void spilledAt(final Spill<T> spill, final SpillFile.Region region) {
+      this.spill = Optional.of(spill);
+      this.region = Optional.of(region);
+      this.elements = null;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (!(o instanceof Slab<?> other)) return false;
+
+      return Objects.equals(this.elements(), other.elements())
+          && Objects.equals(this.next.getValue(), other.next.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(this.elements(), this.next.getValue());
+    }
+
+    @Override
+    public String toString() {
+      return "Slab[elements=" + this.elements() + ", next=" + this.next.getValue() + ']';
     }
   }
 }
@@ -0,0 +1,123 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A scratch file to which data too large to keep on the heap can be written, and later read back.
+ *
+ * The file is deleted when it is closed. Files left behind by a process which exited without closing them
+ * may be removed with {@link #deleteStale(Path)} before any new spill file is created in their directory.
+ * Regions are only ever appended to the file, so a region once written never changes,
+ * and may be read by any number of lists sharing the file.
+ */
+public final class SpillFile implements AutoCloseable {
+  private static final String FILE_PREFIX = "simulation-";
+  private static final String FILE_SUFFIX = ".spill";
+
+  private final Path path;
+  private final FileChannel channel;
+  private long end = 0;
+
+  private SpillFile(final Path path, final FileChannel channel) {
+    this.path = path;
+    this.channel = channel;
+  }
+
+  /** Create a new, empty spill file in the given directory, creating the directory if necessary. */
+  public static SpillFile create(final Path directory) {
+    try {
+      Files.createDirectories(directory);
+      final var path = Files.createTempFile(directory, FILE_PREFIX, FILE_SUFFIX);
+
+      final var channel = FileChannel.open(
+          path,
+          StandardOpenOption.READ,
+          StandardOpenOption.WRITE,
+          StandardOpenOption.DELETE_ON_CLOSE);
+
+      return new SpillFile(path, channel);
+    } catch (final IOException ex) {
+      throw new UncheckedIOException("Failed to create a spill file in " + directory, ex);
+    }
+  }
+
+  /**
+   * Delete any spill files left in the given directory, as by a process which crashed while simulating.
+   *
+   * This must only be called while no spill files in the directory are in use.
+   */
+  public static void deleteStale(final Path directory) {
+    if (!Files.isDirectory(directory)) return;
+
+    try (final var stale = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+      for (final var path : stale) Files.deleteIfExists(path);
+    } catch (final IOException ex) {
+      throw new UncheckedIOException("Failed to delete stale spill files in " + directory, ex);
+    }
+  }
+
+  public Path path() {
+    return this.path;
+  }
+
+  /** The number of bytes written to this file so far. */
+  public synchronized long size() {
+    return this.end;
+  }
+
+  /** Append the remaining bytes of the given buffer to this file, and return the region they were written to. */
+  public synchronized Region write(final ByteBuffer bytes) {
+    final var region = new Region(this.end, bytes.remaining());
+
+    try {
+      var position = region.offset();
+      while (bytes.hasRemaining()) position += this.channel.write(bytes, position);
+    } catch (final IOException ex) {
+      throw new UncheckedIOException("Failed to write to spill file " + this.path, ex);
+    }
+
+    this.end += region.length();
+    return region;
+  }
+
+  /**
+   * Read a previously-written region of this file onto the heap.
+   *
+   * Regions are only a few kilobytes, so a positional read is cheaper than mapping each one into memory,
+   * and the buffer is released with the rest of the heap rather than waiting on the collector to unmap it.
+   */
+  public ByteBuffer read(final Region region) {
+    final var bytes = ByteBuffer.allocate(region.length());
+
+    try {
+      var position = region.offset();
+      while (bytes.hasRemaining()) {
+        final var read = this.channel.read(bytes, position);
+        if (read < 0) throw new EOFException("Region %s extends past the end of the file".formatted(region));
+        position += read;
+      }
+    } catch (final IOException ex) {
+      throw new UncheckedIOException("Failed to read from spill file " + this.path, ex);
+    }
+
+    return bytes.flip();
+  }
+
+  @Override
+  public void close() {
+    try {
+      this.channel.close();
+    } catch (final IOException ex) {
+      throw new UncheckedIOException("Failed to close spill file " + this.path, ex);
+    }
+  }
+
+  public record Region(long offset, int length) {}
+}
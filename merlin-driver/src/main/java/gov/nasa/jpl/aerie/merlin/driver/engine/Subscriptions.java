@@ -7,6 +7,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+// Queries may be (un)subscribed by jobs running concurrently within a single batch, so mutators are synchronized.
 public final class Subscriptions<TopicRef, QueryRef> {
   /** The set of topics depended upon by a given query. */
   private final Map<QueryRef, Set<TopicRef>> topicsByQuery = new HashMap<>();
@@ -16,7 +17,7 @@ public final class Subscriptions<TopicRef, QueryRef> {
   private final Map<TopicRef, Set<QueryRef>> queriesByTopic = new HashMap<>();
 
   // This method takes ownership of `topics`; the set should not be referenced after calling this method.
-  public void subscribeQuery(final QueryRef query, final Set<TopicRef> topics) {
+  public synchronized void subscribeQuery(final QueryRef query, final Set<TopicRef> topics) {
     this.topicsByQuery.put(query, topics);
 
     for (final var topic : topics) {
@@ -24,7 +25,7 @@ public final class Subscriptions<TopicRef, QueryRef> {
     }
   }
 
-  public void unsubscribeQuery(final QueryRef query) {
+  public synchronized void unsubscribeQuery(final QueryRef query) {
     final var topics = this.topicsByQuery.remove(query);
 
     for (final var topic : topics) {
@@ -36,7 +37,7 @@ public final class Subscriptions<TopicRef, QueryRef> {
     }
   }
 
-  public Set<QueryRef> invalidateTopic(final TopicRef topic) {
+  public synchronized Set<QueryRef> invalidateTopic(final TopicRef topic) {
     final var queries = Optional
         .ofNullable(this.queriesByTopic.remove(topic))
         .orElseGet(Collections::emptySet);
@@ -46,6 +47,13 @@ public final class Subscriptions<TopicRef, QueryRef> {
     return queries;
   }
 
+  public Subscriptions<TopicRef, QueryRef> duplicate() {
+    final var copy = new Subscriptions<TopicRef, QueryRef>();
+    this.topicsByQuery.forEach((query, topics) -> copy.topicsByQuery.put(query, new HashSet<>(topics)));
+    this.queriesByTopic.forEach((topic, queries) -> copy.queriesByTopic.put(topic, new HashSet<>(queries)));
+    return copy;
+  }
+
   public void clear() {
     this.topicsByQuery.clear();
     this.queriesByTopic.clear();
@@ -8,8 +8,11 @@ import gov.nasa.jpl.aerie.merlin.driver.timeline.Query;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiConsumer;
 
 /**
@@ -29,9 +32,20 @@ public final class TaskFrame<Job> {
   private LiveCells previousCells;
   private LiveCells cells;
 
-  private TaskFrame(final LiveCells context) {
+  /**
+   * The copy of each cell state most recently read through this frame, tagged with the number of events
+   * emitted before it was read. A copy is handed out again only if no event has been emitted since.
+   */
+  private final Map<Query<?>, Snapshot<?>> snapshots = new HashMap<>();
+  private int emitted = 0;
+  private final ReadCounts readCounts;
+
+  private record Snapshot<State>(int emitted, State state) {}
+
+  private TaskFrame(final LiveCells context, final ReadCounts readCounts) {
     this.previousCells = context;
     this.cells = new LiveCells(this.tip, this.previousCells);
+    this.readCounts = readCounts;
   }
 
   // Perform a job, then recursively perform any jobs it spawned.
@@ -41,14 +55,25 @@ public final class TaskFrame<Job> {
   //   illustrates the idea.
   public static <Job>
   EventGraph<Event> run(final Job job, final LiveCells context, final BiConsumer<Job, TaskFrame<Job>> executor) {
-    final var frame = new TaskFrame<Job>(context);
+    return run(job, context, new ReadCounts(), executor);
+  }
+
+  /** Perform a job as above, counting the cell states read by it and every job it spawned. */
+  public static <Job>
+  EventGraph<Event> run(
+      final Job job,
+      final LiveCells context,
+      final ReadCounts readCounts,
+      final BiConsumer<Job, TaskFrame<Job>> executor
+  ) {
+    final var frame = new TaskFrame<Job>(context, readCounts);
     executor.accept(job, frame);
 
     var tip = frame.tip.commit(EventGraph.empty());
     for (var i = frame.branches.size(); i > 0; i -= 1) {
       final var branch = frame.branches.get(i - 1);
 
-      final var branchEvents = run(branch.job, branch.context, executor);
+      final var branchEvents = run(branch.job, branch.context, readCounts, executor);
       tip = branch.base.commit(EventGraph.concurrently(tip, branchEvents));
     }
 
@@ -56,8 +81,30 @@ public final class TaskFrame<Job> {
   }
 
 
+  /**
+   * Get a copy of the current state of a cell.
+   *
+   * Reading a cell copies its state, so that the reader cannot disturb the cell.
+   * Until this frame emits another event, the same copy is returned for repeated reads of the same cell,
+   * unless its cell type has opted out of sharing copies between reads.
+   */
   public <State> Optional<State> getState(final Query<State> query) {
-    return this.cells.getState(query);
+    this.readCounts.reads.increment();
+
+    // SAFETY: Every snapshot for a query holds a state of that query's type.
+    @SuppressWarnings("unchecked")
+    final var snapshot = (Snapshot<State>) this.snapshots.get(query);
+    if (snapshot != null && snapshot.emitted() == this.emitted) return Optional.of(snapshot.state());
+
+    final var cell$ = this.cells.getCell(query);
+    if (cell$.isEmpty()) return Optional.empty();
+    final var cell = cell$.get();
+
+    this.readCounts.copies.increment();
+    final var state = cell.getState();
+    if (cell.sharesCopies()) this.snapshots.put(query, new Snapshot<>(this.emitted, state));
+
+    return Optional.of(state);
   }
 
   public Optional<Duration> getExpiry(final Query<?> query) {
@@ -66,6 +113,7 @@ public final class TaskFrame<Job> {
 
   public void emit(final Event event) {
     this.tip.add(event);
+    this.emitted += 1;
   }
 
   public void signal(final Job target) {
@@ -81,4 +129,18 @@ public final class TaskFrame<Job> {
       this.cells = new LiveCells(this.tip, this.previousCells);
     }
   }
+
+  /** The number of cell states read by jobs, and the number of copies of cell states made to serve those reads. */
+  public static final class ReadCounts {
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder copies = new LongAdder();
+
+    public long reads() {
+      return this.reads.sum();
+    }
+
+    public long copies() {
+      return this.copies.sum();
+    }
+  }
 }
@@ -1,10 +1,27 @@
 package gov.nasa.jpl.aerie.merlin.driver.engine;
 
-import java.util.UUID;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A typed wrapper for task IDs.
+ *
+ * IDs are assigned in increasing order from a process-wide counter, so they are cheap to generate and to hash,
+ * and they remain unique across every engine (including duplicated engines, which share their tasks' IDs).
+ * Their values differ from one simulation to the next, but within a simulation they are ordered by creation.
+ */
+public record TaskId(long id) {
+  /** Orders tasks by creation. */
+  public static final Comparator<TaskId> ORDER = Comparator.comparingLong(TaskId::id);
+
+  private static final AtomicLong nextId = new AtomicLong(0);
 
-/** A typed wrapper for task IDs. */
-public record TaskId(String id) {
   public static TaskId generate() {
-    return new TaskId(UUID.randomUUID().toString());
+    return new TaskId(nextId.getAndIncrement());
+  }
+
+  /** Reserve `count` consecutive IDs, returning the first of them. */
+  public static long reserve(final long count) {
+    return nextId.getAndAdd(count);
   }
 }
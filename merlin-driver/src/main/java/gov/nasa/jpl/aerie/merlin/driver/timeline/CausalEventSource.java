@@ -40,5 +40,14 @@ public final class CausalEventSource implements EventSource {
       cell.apply(points, this.index, size);
       this.index = size;
     }
+
+    @Override
+    public boolean isCurrent(final Cell<?> cell) {
+      while (this.index < size) {
+        if (cell.isInterestedIn(points[this.index].topic())) return false;
+        this.index += 1;
+      }
+      return true;
+    }
   }
 }
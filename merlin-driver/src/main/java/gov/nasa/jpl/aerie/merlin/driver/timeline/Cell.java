@@ -5,6 +5,7 @@ import gov.nasa.jpl.aerie.merlin.protocol.model.CellType;
 import gov.nasa.jpl.aerie.merlin.protocol.model.EffectTrait;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -55,10 +56,24 @@ public final class Cell<State> {
     return this.inner.cellType.duplicate(this.state);
   }
 
+  /** Whether a copy of this cell's state may be handed to several readers in turn (see {@link CellType#sharesCopies}). */
+  public boolean sharesCopies() {
+    return this.inner.cellType.sharesCopies();
+  }
+
+  public boolean isInterestedIn(final Topic<?> topic) {
+    return this.inner.selector.matches(topic);
+  }
+
   public boolean isInterestedIn(final Set<Topic<?>> topics) {
     return this.inner.selector.matchesAny(topics);
   }
 
+  /** The topics whose events may affect this cell. */
+  public List<Topic<?>> getTopics() {
+    return this.inner.selector.topics();
+  }
+
   @Override
   public String toString() {
     return this.state.toString();
@@ -5,5 +5,11 @@ public interface EventSource {
 
   interface Cursor {
     void stepUp(Cell<?> cell);
+
+    /**
+     * Determine whether stepping the given cell up would leave it unchanged,
+     * skipping over any pending points which cannot affect it.
+     */
+    boolean isCurrent(Cell<?> cell);
   }
 }
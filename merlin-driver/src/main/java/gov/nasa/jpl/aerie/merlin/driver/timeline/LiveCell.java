@@ -1,15 +1,40 @@
 package gov.nasa.jpl.aerie.merlin.driver.timeline;
 
+/**
+ * A cell kept up to date with a timeline as it is read.
+ *
+ * A live cell may begin by borrowing a cell owned by some ancestor timeline, whose history is fixed.
+ * The borrowed cell is shared, not copied, for as long as nothing on this timeline could affect it;
+ * the first time something does, the cell is copied and thereafter stepped independently.
+ */
 public final class LiveCell<State> {
-  private final Cell<State> cell;
+  private Cell<State> cell;
   private final EventSource.Cursor cursor;
+  private boolean borrowed;
 
-  public LiveCell(final Cell<State> cell, final EventSource.Cursor cursor) {
+  private LiveCell(final Cell<State> cell, final EventSource.Cursor cursor, final boolean borrowed) {
     this.cell = cell;
     this.cursor = cursor;
+    this.borrowed = borrowed;
+  }
+
+  public LiveCell(final Cell<State> cell, final EventSource.Cursor cursor) {
+    this(cell, cursor, false);
+  }
+
+  /** Share a cell owned by an ancestor timeline, which must not change while this live cell is in use. */
+  public static <State> LiveCell<State> borrowing(final Cell<State> cell, final EventSource.Cursor cursor) {
+    return new LiveCell<>(cell, cursor, true);
   }
 
   public Cell<State> get() {
+    if (this.borrowed) {
+      if (this.cursor.isCurrent(this.cell)) return this.cell;
+
+      this.cell = this.cell.duplicate();
+      this.borrowed = false;
+    }
+
     this.cursor.stepUp(this.cell);
     return this.cell;
   }
@@ -3,8 +3,10 @@ package gov.nasa.jpl.aerie.merlin.driver.timeline;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public final class LiveCells {
   // INVARIANT: Every Query<T> maps to a LiveCell<T>; that is, the type parameters are correlated.
@@ -35,7 +37,49 @@ public final class LiveCells {
     this.cells.put(query, new LiveCell<>(cell, this.source.cursor()));
   }
 
-  private <State> Optional<Cell<State>> getCell(final Query<State> query) {
+  /**
+   * Produce an independent copy of these cells, reading from the given copy of their timeline.
+   *
+   * Every cell is brought up to date before it is copied, so each copy begins reading at the current end of `source`.
+   * Cells which have not been materialized at this level are left to be pulled from the (shared) parent on demand.
+   */
+  public LiveCells duplicate(final TemporalEventSource source) {
+    final var copy = new LiveCells(source, this.parent);
+    for (final var entry : this.cells.entrySet()) {
+      copy.cells.put(entry.getKey(), new LiveCell<>(entry.getValue().get().duplicate(), source.cursorAtEnd()));
+    }
+    return copy;
+  }
+
+  /**
+   * Bring every cell up to date with the end of its timeline,
+   * first pulling in from the parent any cell which has not yet been materialized at this level.
+   *
+   * Afterward, every cursor held by these cells has observed the whole timeline, so it may be truncated.
+   */
+  public void stepUpAll() {
+    if (this.parent != null) {
+      final var queries = new HashSet<Query<?>>();
+      this.parent.collectQueries(queries);
+      for (final var query : queries) this.getCell(query);
+    }
+
+    for (final var cell : this.cells.values()) cell.get();
+  }
+
+  private void collectQueries(final Set<Query<?>> queries) {
+    queries.addAll(this.cells.keySet());
+    if (this.parent != null) this.parent.collectQueries(queries);
+  }
+
+  /**
+   * Get the cell answering the given query, brought up to date with the end of its timeline.
+   *
+   * A cell not yet materialized at this level is borrowed from the nearest ancestor which has it, without copying it.
+   * It is only copied once this level's timeline holds something which could affect it,
+   * so a read through a deep chain of levels costs one lookup per level the first time, and one lookup thereafter.
+   */
+  public <State> Optional<Cell<State>> getCell(final Query<State> query) {
     // First, check if we have this cell already.
     {
       // SAFETY: By the invariant, if there is an entry for this query, it is of type Cell<State>.
@@ -47,14 +91,22 @@ public final class LiveCells {
 
     // Otherwise, go ask our parent for the cell.
     if (this.parent == null) return Optional.empty();
-    final var cell$ = this.parent.getCell(query);
+    final var cell$ = this.parent.resolveCell(query);
     if (cell$.isEmpty()) return Optional.empty();
 
-    final var cell = new LiveCell<>(cell$.get().duplicate(), this.source.cursor());
+    // The parent's timeline is complete by the time we read from it, so its cell can be shared until we change it.
+    final var cell = LiveCell.borrowing(cell$.get(), this.source.cursor());
 
     // SAFETY: The query and cell share the same State type parameter.
     this.cells.put(query, cell);
 
     return Optional.of(cell.get());
   }
+
+  // A parent may be shared by several jobs running on different threads,
+  //   so bringing one of its cells up to date must happen atomically.
+  // Once it is up to date, a cell on a complete timeline is never changed again, so it may be read concurrently.
+  private synchronized <State> Optional<Cell<State>> resolveCell(final Query<State> query) {
+    return this.getCell(query);
+  }
 }
@@ -3,7 +3,9 @@ package gov.nasa.jpl.aerie.merlin.driver.timeline;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
 import gov.nasa.jpl.aerie.merlin.protocol.model.EffectTrait;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -33,6 +35,13 @@ public record Selector<Effect>(SelectorRow<?, Effect>... rows) {
     return accumulator;
   }
 
+  public boolean matches(final Topic<?> topic) {
+    for (final var row : this.rows) {
+      if (row.topic == topic) return true;
+    }
+    return false;
+  }
+
   public boolean matchesAny(final Collection<Topic<?>> topics) {
     // Bail out as fast as possible if we're in a trivial (and incredibly common) case.
     if (this.rows.length == 1) return topics.contains(this.rows[0].topic());
@@ -43,6 +52,12 @@ public record Selector<Effect>(SelectorRow<?, Effect>... rows) {
     return false;
   }
 
+  public List<Topic<?>> topics() {
+    final var topics = new ArrayList<Topic<?>>(this.rows.length);
+    for (final var row : this.rows) topics.add(row.topic);
+    return topics;
+  }
+
   public record SelectorRow<EventType, Effect>(Topic<EventType> topic, Function<EventType, Effect> transform) {
     public Optional<Effect> select(final Event event$) {
       return event$.extract(this.topic, this.transform);
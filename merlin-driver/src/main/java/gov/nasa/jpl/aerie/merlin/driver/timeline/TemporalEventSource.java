@@ -3,26 +3,153 @@ package gov.nasa.jpl.aerie.merlin.driver.timeline;
 import gov.nasa.jpl.aerie.merlin.driver.engine.SlabList;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
-public record TemporalEventSource(SlabList<TimePoint> points) implements EventSource, Iterable<TemporalEventSource.TimePoint> {
+/**
+ * A timeline of commits separated by spans of time.
+ *
+ * <p>
+ * Alongside the time points themselves, the timeline indexes the position of every commit by the topics it touches,
+ * and the total time elapsed before every time point. This lets a cursor jump from one commit relevant to its cell
+ * to the next, stepping the cell over all the intervening time at once, rather than visiting every time point.
+ * </p>
+ *
+ * <p>
+ * A {@linkplain #truncating() truncating} timeline keeps track of its cursors, so that the prefix of the timeline
+ * which every cursor has passed can be released with {@link #truncate()}. This bounds the memory used by a long
+ * simulation whose results are streamed out as they are committed, rather than computed from the timeline at the end.
+ * </p>
+ */
+public final class TemporalEventSource implements EventSource, Iterable<TemporalEventSource.TimePoint> {
+  private final SlabList<TimePoint> points;
+  /** The cursors reading from this timeline, if it may be truncated. */
+  private final Optional<List<TemporalCursor>> cursors;
+
+  /** The positions of the commits containing events on each topic, in increasing order. */
+  /*derived*/
+  private final Map<Topic<?>, IntArrayList> commitsByTopic;
+  /** The time elapsed (in microseconds) before each retained time point, starting from the first one. */
+  /*derived*/
+  private final LongArrayList elapsedBefore;
+  /** The position of the first time point which has not been truncated. */
+  /*derived*/
+  private int firstRetained;
+  /** The time elapsed (in microseconds) over the whole timeline. */
+  /*derived*/
+  private long elapsed;
+
   public TemporalEventSource() {
-    this(new SlabList<>());
+    this(new SlabList<>(), Optional.empty(), new Reference2ObjectOpenHashMap<>(), new LongArrayList(), 0, 0);
+  }
+
+  private TemporalEventSource(
+      final SlabList<TimePoint> points,
+      final Optional<List<TemporalCursor>> cursors,
+      final Map<Topic<?>, IntArrayList> commitsByTopic,
+      final LongArrayList elapsedBefore,
+      final int firstRetained,
+      final long elapsed)
+  {
+    this.points = points;
+    this.cursors = cursors;
+    this.commitsByTopic = commitsByTopic;
+    this.elapsedBefore = elapsedBefore;
+    this.firstRetained = firstRetained;
+    this.elapsed = elapsed;
+  }
+
+  /** Create an empty timeline whose observed prefix may be released with {@link #truncate()}. */
+  public static TemporalEventSource truncating() {
+    return new TemporalEventSource(
+        new SlabList<>(), Optional.of(new ArrayList<>()), new Reference2ObjectOpenHashMap<>(), new LongArrayList(), 0, 0);
+  }
+
+  public boolean isTruncating() {
+    return this.cursors.isPresent();
+  }
+
+  /** The number of time points held in memory. */
+  public int retainedSize() {
+    return this.points.size() - this.firstRetained;
+  }
+
+  /**
+   * Release every time point which every cursor on this timeline has already passed.
+   *
+   * Time points are released a slab at a time, so some may be retained even after every cursor has passed them.
+   * New cursors can only be created at the end of a truncated timeline.
+   */
+  public void truncate() {
+    final var cursors = this.cursors.orElseThrow(() -> new IllegalStateException("This timeline cannot be truncated"));
+
+    var watermark = this.points.size();
+    for (final var cursor : cursors) watermark = Math.min(watermark, cursor.position);
+
+    this.points.releaseBefore(watermark);
+    final var firstRetained = this.points.firstRetained();
+    if (firstRetained == this.firstRetained) return;
+
+    this.elapsedBefore.removeElements(0, firstRetained - this.firstRetained);
+    for (final var positions : this.commitsByTopic.values()) {
+      var index = IntArrays.binarySearch(positions.elements(), 0, positions.size(), firstRetained);
+      if (index < 0) index = -(index + 1);
+      positions.removeElements(0, index);
+    }
+
+    this.firstRetained = firstRetained;
+  }
+
+  public SlabList<TimePoint> points() {
+    return this.points;
   }
 
   public void add(final Duration delta) {
     if (delta.isZero()) return;
+
+    this.elapsedBefore.add(this.elapsed);
     this.points.append(new TimePoint.Delta(delta));
+    this.elapsed += delta.in(Duration.MICROSECONDS);
   }
 
   public void add(final EventGraph<Event> graph) {
     if (graph instanceof EventGraph.Empty) return;
-    this.points.append(new TimePoint.Commit(graph, extractTopics(graph)));
+
+    final var topics = extractTopics(graph);
+    final var position = this.points.size();
+    for (final var topic : topics) {
+      this.commitsByTopic.computeIfAbsent(topic, $ -> new IntArrayList()).add(position);
+    }
+
+    this.elapsedBefore.add(this.elapsed);
+    this.points.append(new TimePoint.Commit(graph, topics));
+  }
+
+  /** Produce an independent copy of this timeline, which can be extended without affecting this one. */
+  public TemporalEventSource duplicate() {
+    final var commitsByTopic = new Reference2ObjectOpenHashMap<Topic<?>, IntArrayList>(this.commitsByTopic.size());
+    this.commitsByTopic.forEach((topic, positions) -> commitsByTopic.put(topic, new IntArrayList(positions)));
+
+    return new TemporalEventSource(
+        this.points.duplicate(),
+        this.cursors.map($ -> new ArrayList<>()),
+        commitsByTopic,
+        new LongArrayList(this.elapsedBefore),
+        this.firstRetained,
+        this.elapsed);
   }
 
+  /** Iterate over every time point which has not been truncated. */
   @Override
   public Iterator<TimePoint> iterator() {
     return TemporalEventSource.this.points.iterator();
@@ -30,27 +157,92 @@ public record TemporalEventSource(SlabList<TimePoint> points) implements EventSo
 
   @Override
   public TemporalCursor cursor() {
-    return new TemporalCursor();
+    if (this.firstRetained > 0) throw new IllegalStateException("Cannot observe a timeline from its start once it has been truncated");
+    return this.register(new TemporalCursor(0));
+  }
+
+  /** Returns a cursor which will only observe time points added after this call. */
+  public TemporalCursor cursorAtEnd() {
+    return this.register(new TemporalCursor(this.points.size()));
+  }
+
+  private TemporalCursor register(final TemporalCursor cursor) {
+    this.cursors.ifPresent($ -> $.add(cursor));
+    return cursor;
+  }
+
+  private long elapsedBefore(final int position) {
+    final var index = position - this.firstRetained;
+    return (index < this.elapsedBefore.size()) ? this.elapsedBefore.getLong(index) : this.elapsed;
+  }
+
+  /** Find the position of the first commit at or after `from` and before `to` touching any of the given topics. */
+  private int nextCommit(final List<Topic<?>> topics, final int from, final int to) {
+    var next = to;
+    for (final var topic : topics) {
+      final var positions = this.commitsByTopic.get(topic);
+      if (positions == null) continue;
+
+      var index = IntArrays.binarySearch(positions.elements(), 0, positions.size(), from);
+      if (index < 0) index = -(index + 1);
+      if (index < positions.size()) next = Math.min(next, positions.getInt(index));
+    }
+    return next;
   }
 
   public final class TemporalCursor implements Cursor {
-    private final SlabList<TimePoint>.SlabIterator iterator = TemporalEventSource.this.points.iterator();
+    /** The position of the next time point this cursor has not yet observed. */
+    private int position;
+
+    /** The topics of interest to the last cell stepped by this cursor. */
+    private Cell<?> lastCell = null;
+    private List<Topic<?>> lastTopics = List.of();
 
-    private TemporalCursor() {}
+    private TemporalCursor(final int position) {
+      this.position = position;
+    }
 
     @Override
     public void stepUp(final Cell<?> cell) {
-      while (this.iterator.hasNext()) {
-        final var point = this.iterator.next();
-
-        if (point instanceof TimePoint.Delta p) {
-          cell.step(p.delta());
-        } else if (point instanceof TimePoint.Commit p) {
-          if (cell.isInterestedIn(p.topics())) cell.apply(p.events());
-        } else {
-          throw new IllegalStateException();
+      final var topics = this.topicsOf(cell);
+
+      final var end = TemporalEventSource.this.points.size();
+      while (this.position < end) {
+        final var next = nextCommit(topics, this.position, end);
+
+        // Every time point between here and the next relevant commit is either irrelevant or a span of time,
+        //   so all of those spans can be stepped over at once.
+        final var delta = elapsedBefore(next) - elapsedBefore(this.position);
+        if (delta != 0) cell.step(Duration.of(delta, Duration.MICROSECONDS));
+
+        if (next < end) {
+          if (!(TemporalEventSource.this.points.get(next) instanceof TimePoint.Commit p)) throw new IllegalStateException();
+          cell.apply(p.events());
         }
+
+        this.position = Math.min(next + 1, end);
+      }
+    }
+
+    @Override
+    public boolean isCurrent(final Cell<?> cell) {
+      final var end = TemporalEventSource.this.points.size();
+      if (this.position == end) return true;
+
+      // Any passage of time may affect the cell, as may any commit touching one of its topics.
+      if (elapsedBefore(this.position) != TemporalEventSource.this.elapsed) return false;
+      if (nextCommit(this.topicsOf(cell), this.position, end) < end) return false;
+
+      this.position = end;
+      return true;
+    }
+
+    private List<Topic<?>> topicsOf(final Cell<?> cell) {
+      if (cell != this.lastCell) {
+        this.lastCell = cell;
+        this.lastTopics = cell.getTopics();
       }
+      return this.lastTopics;
     }
   }
 
@@ -7,20 +7,27 @@ import gov.nasa.jpl.aerie.merlin.protocol.model.CellType;
 import gov.nasa.jpl.aerie.merlin.protocol.model.EffectTrait;
 import gov.nasa.jpl.aerie.merlin.protocol.model.OutputType;
 import gov.nasa.jpl.aerie.merlin.protocol.model.Resource;
+import gov.nasa.jpl.aerie.merlin.protocol.model.Task;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.TaskStatus;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Unit;
 import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import static gov.nasa.jpl.aerie.merlin.driver.AnchorSimulationTest.AnchorsSimulationDriverTests.AnchorTestModel;
 import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MILLISECONDS;
 import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.duration;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public final class CellExpiryTest {
   @Test
@@ -28,36 +35,132 @@ public final class CellExpiryTest {
   public void testResourceProfilingByExpiry() {
     final var model = makeModel("/key", "value", MILLISECONDS.times(500));
 
+    final var now = Instant.now();
+    final var sink = new InMemorySimulationResultsSink();
+    SimulationDriver.simulate(model, Map.of(), now, Duration.SECONDS.times(5), now, Duration.SECONDS.times(5), $ -> {}, 1, sink);
+
+    // The resource is re-sampled every time the cell expires, but its value never changes,
+    // so every sample after the first continues the same segment.
+    assertEquals(10L, (long) sink.suppressedSegments().get("/key"));
+
+    final var expected = List.of(new ProfileSegment<>(duration(5, Duration.SECONDS), SerializedValue.of("value")));
+    assertEquals(expected, sink.results().discreteProfiles.get("/key").getRight());
+  }
+
+  @Test
+  @DisplayName("Cell state reads, and the copies made to serve them, are reported to the sink")
+  public void testStateReadsAreReported() {
+    final var now = Instant.now();
+    final var withoutDaemon = new InMemorySimulationResultsSink();
+    SimulationDriver.simulate(
+        makeModel("/key", "value", MILLISECONDS.times(500)),
+        Map.of(), now, Duration.SECONDS.times(5), now, Duration.SECONDS.times(5), $ -> {}, 1, withoutDaemon);
+    final var withDaemon = new InMemorySimulationResultsSink();
+    SimulationDriver.simulate(
+        makeModel("/key", "value", MILLISECONDS.times(500), 3),
+        Map.of(), now, Duration.SECONDS.times(5), now, Duration.SECONDS.times(5), $ -> {}, 1, withDaemon);
+
+    // Every resource sample reads the cell as well.
+    assertEquals(11, withoutDaemon.stateReads());
+    // The daemon reads the cell three times without emitting, so every read after the first shares its copy.
+    assertEquals(withoutDaemon.stateReads() + 3, withDaemon.stateReads());
+    assertEquals(withoutDaemon.stateCopies() + 1, withDaemon.stateCopies());
+  }
+
+  @Test
+  @DisplayName("Task steps, and how long they ran, are reported to the sink")
+  public void testTaskStepsAreReported() {
+    final var now = Instant.now();
+    final var withoutDaemon = new InMemorySimulationResultsSink();
+    SimulationDriver.simulate(
+        makeModel("/key", "value", MILLISECONDS.times(500)),
+        Map.of(), now, Duration.SECONDS.times(5), now, Duration.SECONDS.times(5), $ -> {}, 1, withoutDaemon);
+    final var withDaemon = new InMemorySimulationResultsSink();
+    SimulationDriver.simulate(
+        makeModel("/key", "value", MILLISECONDS.times(500), 3),
+        Map.of(), now, Duration.SECONDS.times(5), now, Duration.SECONDS.times(5), $ -> {}, 1, withDaemon);
+
+    // The daemon completes in a single step.
+    assertEquals(withoutDaemon.taskSteps() + 1, withDaemon.taskSteps());
+    assertTrue(withDaemon.longestTaskStepNanos() >= 0);
+    assertTrue(withDaemon.taskStepNanos() >= withDaemon.longestTaskStepNanos());
+  }
+
+  @Test
+  @DisplayName("Resource profiles are not re-recorded when a re-query yields the same value")
+  public void testResourceProfileCoalescing() {
+    final var model = makeModel("/key", "value", MILLISECONDS.times(500));
+
     final var now = Instant.now();
     final var results = SimulationDriver.simulate(model, Map.of(), now, Duration.SECONDS.times(5), now, Duration.SECONDS.times(5));
 
     final var actual = results.discreteProfiles.get("/key").getRight();
+    final var expected = List.of(new ProfileSegment<>(duration(5, Duration.SECONDS), SerializedValue.of("value")));
 
-    final var expected = List.of(
-        new ProfileSegment<>(duration(500, MILLISECONDS), SerializedValue.of("value")),
-        new ProfileSegment<>(duration(500, MILLISECONDS), SerializedValue.of("value")),
+    assertEquals(expected, actual);
+  }
 
-        new ProfileSegment<>(duration(500, MILLISECONDS), SerializedValue.of("value")),
-        new ProfileSegment<>(duration(500, MILLISECONDS), SerializedValue.of("value")),
+  @Test
+  @DisplayName("Streamed resource profiles match those computed at the end of simulation")
+  public void testStreamedResourceProfiles() {
+    final var model = makeModel("/key", "value", MILLISECONDS.times(500));
 
-        new ProfileSegment<>(duration(500, MILLISECONDS), SerializedValue.of("value")),
-        new ProfileSegment<>(duration(500, MILLISECONDS), SerializedValue.of("value")),
+    final var now = Instant.now();
+    final var expected = SimulationDriver.simulate(model, Map.of(), now, Duration.SECONDS.times(5), now, Duration.SECONDS.times(5));
 
-        new ProfileSegment<>(duration(500, MILLISECONDS), SerializedValue.of("value")),
-        new ProfileSegment<>(duration(500, MILLISECONDS), SerializedValue.of("value")),
+    final var sink = new InMemorySimulationResultsSink();
+    SimulationDriver.simulate(model, Map.of(), now, Duration.SECONDS.times(5), now, Duration.SECONDS.times(5), $ -> {}, 1, sink);
+    final var actual = sink.results();
 
-        new ProfileSegment<>(duration(500, MILLISECONDS), SerializedValue.of("value")),
-        new ProfileSegment<>(duration(500, MILLISECONDS), SerializedValue.of("value")),
+    assertEquals(expected.discreteProfiles, actual.discreteProfiles);
+    assertEquals(expected.realProfiles, actual.realProfiles);
+    assertEquals(expected.duration, actual.duration);
+  }
 
-        new ProfileSegment<>(Duration.ZERO, SerializedValue.of("value")));
+  @Test
+  @DisplayName("Streamed activities and events match those computed at the end of simulation")
+  public void testStreamedActivitiesAndEvents() {
+    final var arguments = Map.of("unusedArg", SerializedValue.of("test-param"));
+    final var schedule = new HashMap<ActivityDirectiveId, ActivityDirective>();
+    for (var i = 0; i < 10; i += 1) {
+      // Directives start throughout the simulation, so that the later ones are unfinished when it ends.
+      final var type = (i % 2 == 0) ? "DecomposingActivityDirective" : "DelayActivityDirective";
+      schedule.put(
+          new ActivityDirectiveId(i),
+          new ActivityDirective(Duration.MINUTES.times(i), new SerializedActivity(type, arguments), null, true));
+    }
 
-    assertEquals(expected, actual);
+    final var now = Instant.now();
+    final var duration = Duration.MINUTES.times(10);
+    final var expected = SimulationDriver.simulate(AnchorTestModel, schedule, now, duration, now, duration);
+
+    final var sink = new InMemorySimulationResultsSink();
+    SimulationDriver.simulate(AnchorTestModel, schedule, now, duration, now, duration, $ -> {}, 1, sink);
+    final var actual = sink.results();
+
+    assertFalse(expected.simulatedActivities.isEmpty());
+    assertFalse(expected.unfinishedActivities.isEmpty());
+    assertFalse(expected.events.isEmpty());
+    assertEquals(expected.simulatedActivities, actual.simulatedActivities);
+    assertEquals(expected.unfinishedActivities, actual.unfinishedActivities);
+    assertEquals(expected.topics, actual.topics);
+    assertEquals(expected.events, actual.events);
   }
 
   private MissionModel<?> makeModel(
       final String resourceName,
       final String resourceValue,
       final Duration expiry
+  ) {
+    return makeModel(resourceName, resourceValue, expiry, 0);
+  }
+
+  /** As above, with a daemon which reads the cell the given number of times before completing. */
+  private MissionModel<?> makeModel(
+      final String resourceName,
+      final String resourceValue,
+      final Duration expiry,
+      final int daemonReads
   ) {
     final var initializer = new MissionModelBuilder();
 
@@ -139,6 +242,12 @@ public final class CellExpiryTest {
     };
 
     initializer.resource(resourceName, resource);
+    if (daemonReads > 0) {
+      initializer.daemon(executor -> Task.stateless(scheduler -> {
+        for (var i = 0; i < daemonReads; i += 1) scheduler.get(ref);
+        return TaskStatus.completed(Unit.UNIT);
+      }));
+    }
 
     return initializer.build(ref, new DirectiveTypeRegistry<>(Map.of()));
   }
@@ -0,0 +1,252 @@
+package gov.nasa.jpl.aerie.merlin.driver;
+
+import gov.nasa.jpl.aerie.merlin.driver.timeline.LiveCells;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Scheduler;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.model.DirectiveType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.InputType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.OutputType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.TaskFactory;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.TaskStatus;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Unit;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static gov.nasa.jpl.aerie.merlin.driver.AnchorSimulationTest.AnchorsSimulationDriverTests.AnchorTestModel;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class ParallelSimulationTest {
+  private final Instant planStart = Instant.EPOCH;
+  private final Duration oneDay = Duration.of(24, Duration.HOURS);
+  private final Map<String, SerializedValue> arguments = Map.of("unusedArg", SerializedValue.of("test-param"));
+  private final SerializedActivity serializedDelayDirective = new SerializedActivity("DelayActivityDirective", arguments);
+  private final SerializedActivity serializedDecompositionDirective = new SerializedActivity("DecomposingActivityDirective", arguments);
+
+  @Test
+  @DisplayName("Simulation results are independent of the job parallelism")
+  public void resultsAreIndependentOfParallelism() {
+    // Many directives start at the same times, so that every batch holds many jobs,
+    //   and the decomposing directives spawn children whose IDs depend on the order the jobs are performed in.
+    final var schedule = new HashMap<ActivityDirectiveId, ActivityDirective>();
+    for (var i = 0; i < 200; i += 1) {
+      final var directive = (i % 2 == 0) ? serializedDecompositionDirective : serializedDelayDirective;
+      schedule.put(
+          new ActivityDirectiveId(i),
+          new ActivityDirective(Duration.of(i % 5, Duration.MINUTES), directive, null, true));
+    }
+    for (var i = 200; i < 300; i += 1) {
+      schedule.put(
+          new ActivityDirectiveId(i),
+          new ActivityDirective(Duration.ZERO, serializedDecompositionDirective, new ActivityDirectiveId(i - 200), false));
+    }
+
+    final var expected = simulate(AnchorTestModel, schedule, 1);
+    for (final var parallelism : new int[] {2, 8}) {
+      assertSameResults(expected, simulate(AnchorTestModel, schedule, parallelism));
+    }
+  }
+
+  @Test
+  @DisplayName("Tasks finishing alongside their children are joined as they are sequentially")
+  public void joinsAreIndependentOfParallelism() {
+    // Every directive spawns one child and calls another, which spawns a grandchild just as it finishes.
+    //   Both the called child and the grandchild then await their children in the same batch, on either side of a job
+    //   stepping another of the directive's descendants, so where the directive resumes shows in the committed events.
+    final var schedule = new HashMap<ActivityDirectiveId, ActivityDirective>();
+    for (var i = 0; i < 50; i += 1) {
+      schedule.put(
+          new ActivityDirectiveId(i),
+          new ActivityDirective(Duration.ZERO, new SerializedActivity("Nested", Map.of()), null, true));
+    }
+
+    // Which job observes the grandchild terminating depends on thread timing, so try many times.
+    final var expected = simulate(NestedTestModel, schedule, 1);
+    for (var run = 0; run < 50; run += 1) {
+      assertSameResults(expected, simulate(NestedTestModel, schedule, 8));
+    }
+  }
+
+  private static void assertSameResults(final SimulationResults expected, final SimulationResults actual) {
+    assertEquals(expected.startTime, actual.startTime);
+    assertEquals(expected.duration, actual.duration);
+    assertEquals(expected.realProfiles, actual.realProfiles);
+    assertEquals(expected.discreteProfiles, actual.discreteProfiles);
+    assertEquals(expected.simulatedActivities, actual.simulatedActivities);
+    assertEquals(expected.unfinishedActivities, actual.unfinishedActivities);
+    assertEquals(expected.topics, actual.topics);
+    assertEquals(expected.events, actual.events);
+  }
+
+  private SimulationResults simulate(
+      final MissionModel<?> model,
+      final Map<ActivityDirectiveId, ActivityDirective> schedule,
+      final int parallelism
+  ) {
+    return SimulationDriver.simulate(
+        model,
+        schedule,
+        this.planStart,
+        this.oneDay,
+        this.planStart,
+        this.oneDay,
+        $ -> {},
+        parallelism);
+  }
+
+  private static final Topic<String> nestedInputTopic = new Topic<>();
+  private static final Topic<String> nestedOutputTopic = new Topic<>();
+  private static final Topic<String> logTopic = new Topic<>();
+
+  private static final OutputType<String> nameOutputType = new OutputType<>() {
+    @Override
+    public ValueSchema getSchema() {
+      return ValueSchema.ofStruct(Map.of("name", ValueSchema.STRING));
+    }
+
+    @Override
+    public SerializedValue serialize(final String value) {
+      return SerializedValue.of(Map.of("name", SerializedValue.of(value)));
+    }
+  };
+
+  private static final OutputType<String> logOutputType = new OutputType<>() {
+    @Override
+    public ValueSchema getSchema() {
+      return ValueSchema.STRING;
+    }
+
+    @Override
+    public SerializedValue serialize(final String value) {
+      return SerializedValue.of(value);
+    }
+  };
+
+  /** An activity which finishes a minute after it starts. */
+  private static TaskFactory<Unit> leaf(final String name) {
+    return executor -> scheduler -> {
+      scheduler.emit(name, nestedInputTopic);
+      return TaskStatus.delayed(Duration.MINUTE, $ -> finish($, name));
+    };
+  }
+
+  /** An activity which finishes as soon as it starts. */
+  private static TaskFactory<Unit> instant(final String name) {
+    return executor -> scheduler -> {
+      scheduler.emit(name, nestedInputTopic);
+      return finish(scheduler, name);
+    };
+  }
+
+  /** An activity which waits a minute, then steps once more at the same instant before it finishes. */
+  private static TaskFactory<Unit> lingering(final String name) {
+    return executor -> scheduler -> {
+      scheduler.emit(name, nestedInputTopic);
+      return TaskStatus.delayed(Duration.MINUTE, $ -> TaskStatus.delayed(Duration.ZERO, $$ -> finish($$, name)));
+    };
+  }
+
+  /** An activity which spawns a lingering child as soon as it starts. */
+  private static TaskFactory<Unit> spawnsEarly(final String name) {
+    return executor -> scheduler -> {
+      scheduler.emit(name, nestedInputTopic);
+      scheduler.spawn(lingering(name + ".child"));
+      return finish(scheduler, name);
+    };
+  }
+
+  /** An activity which spawns an instant child after a minute, as it finishes. */
+  private static TaskFactory<Unit> spawnsLate(final String name) {
+    return executor -> scheduler -> {
+      scheduler.emit(name, nestedInputTopic);
+      return TaskStatus.delayed(Duration.MINUTE, $ -> {
+        $.spawn(instant(name + ".child"));
+        return finish($, name);
+      });
+    };
+  }
+
+  private static TaskStatus<Unit> finish(final Scheduler scheduler, final String name) {
+    scheduler.emit(name, logTopic);
+    scheduler.emit(name, nestedOutputTopic);
+    return TaskStatus.completed(Unit.UNIT);
+  }
+
+  private static final DirectiveType<Object, Object, Unit> nestedDirective = new DirectiveType<>() {
+    @Override
+    public InputType<Object> getInputType() {
+      return new InputType<>() {
+        @Override
+        public List<Parameter> getParameters() {
+          return List.of();
+        }
+
+        @Override
+        public List<String> getRequiredParameters() {
+          return List.of();
+        }
+
+        @Override
+        public Object instantiate(final Map<String, SerializedValue> arguments) {
+          return new Object();
+        }
+
+        @Override
+        public Map<String, SerializedValue> getArguments(final Object value) {
+          return Map.of();
+        }
+
+        @Override
+        public List<ValidationNotice> getValidationFailures(final Object value) {
+          return List.of();
+        }
+      };
+    }
+
+    @Override
+    public OutputType<Unit> getOutputType() {
+      return new OutputType<>() {
+        @Override
+        public ValueSchema getSchema() {
+          return ValueSchema.ofStruct(Map.of());
+        }
+
+        @Override
+        public SerializedValue serialize(final Unit value) {
+          return SerializedValue.of(Map.of());
+        }
+      };
+    }
+
+    @Override
+    public TaskFactory<Unit> getTaskFactory(final Object model, final Object directive) {
+      return executor -> scheduler -> {
+        scheduler.emit("root", nestedInputTopic);
+        scheduler.spawn(spawnsEarly("spawned"));
+        return TaskStatus.calling(spawnsLate("called"), $ -> {
+          // The task this spawns draws its ID from whichever job resumed the directive.
+          $.spawn(leaf("late"));
+          return finish($, "root");
+        });
+      };
+    }
+  };
+
+  private static final MissionModel<Object> NestedTestModel = new MissionModel<>(
+      new Object(),
+      new LiveCells(null),
+      Map.of(),
+      List.of(
+          new MissionModel.SerializableTopic<>("ActivityType.Input.Nested", nestedInputTopic, nameOutputType),
+          new MissionModel.SerializableTopic<>("ActivityType.Output.Nested", nestedOutputTopic, nameOutputType),
+          new MissionModel.SerializableTopic<>("log", logTopic, logOutputType)),
+      List.of(),
+      new DirectiveTypeRegistry<>(Map.of("Nested", nestedDirective)));
+}
@@ -0,0 +1,74 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.Size;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class JobScheduleTest {
+  @Test
+  public void rescheduledJobsMoveInBothDirections() {
+    final var schedule = new JobSchedule<String, SchedulingInstant>();
+    schedule.schedule("a", SubInstant.Tasks.at(Duration.of(5, Duration.SECONDS)));
+    schedule.schedule("b", SubInstant.Tasks.at(Duration.of(3, Duration.SECONDS)));
+    schedule.schedule("c", SubInstant.Tasks.at(Duration.of(4, Duration.SECONDS)));
+
+    schedule.schedule("a", SubInstant.Tasks.at(Duration.of(1, Duration.SECONDS)));
+    schedule.schedule("b", SubInstant.Tasks.at(Duration.of(9, Duration.SECONDS)));
+    schedule.unschedule("c");
+
+    assertEquals(
+        new JobSchedule.Batch<>(Duration.of(1, Duration.SECONDS), Set.of("a")),
+        schedule.extractNextJobs(Duration.MAX_VALUE));
+    assertEquals(
+        new JobSchedule.Batch<>(Duration.of(9, Duration.SECONDS), Set.of("b")),
+        schedule.extractNextJobs(Duration.MAX_VALUE));
+    assertEquals(
+        new JobSchedule.Batch<>(Duration.MAX_VALUE, Set.of()),
+        schedule.extractNextJobs(Duration.MAX_VALUE));
+  }
+
+  // Each operation is encoded as {kind, job, time}: kind 0 unschedules, any other kind (re)schedules.
+  @Property
+  public void extractsJobsInTimeOrder(
+      @ForAll @Size(max = 200) final List<@Size(value = 3) List<@IntRange(max = 20) Integer>> operations)
+  {
+    final var schedule = new JobSchedule<Integer, SchedulingInstant>();
+    final var expected = new HashMap<Integer, SchedulingInstant>();
+
+    for (final var operation : operations) {
+      final var job = operation.get(1);
+      if (operation.get(0) == 0) {
+        schedule.unschedule(job);
+        expected.remove(job);
+      } else {
+        final var time = SubInstant.Tasks.at(Duration.of(operation.get(2), Duration.SECONDS));
+        schedule.schedule(job, time);
+        expected.put(job, time);
+      }
+    }
+
+    final var duplicate = schedule.duplicate();
+    for (final var actual : List.of(schedule, duplicate)) {
+      final var remaining = new HashMap<>(expected);
+      while (!remaining.isEmpty()) {
+        final var earliest = remaining.values().stream().min(SchedulingInstant::compareTo).orElseThrow();
+        final var jobs = new HashSet<Integer>();
+        remaining.forEach((job, time) -> { if (time.equals(earliest)) jobs.add(job); });
+        jobs.forEach(remaining::remove);
+
+        assertEquals(new JobSchedule.Batch<>(earliest.project(), jobs), actual.extractNextJobs(Duration.MAX_VALUE));
+      }
+      assertEquals(Set.of(), actual.extractNextJobs(Duration.MAX_VALUE).jobs());
+    }
+  }
+}
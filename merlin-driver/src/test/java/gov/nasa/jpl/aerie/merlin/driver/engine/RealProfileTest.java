@@ -0,0 +1,46 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class RealProfileTest {
+  @Test
+  public void columnsMatchMaterializedSegments() {
+    final var columns = new RealProfile.Columns();
+    columns.append(Duration.ZERO, 1.0, 0.0);
+    columns.append(Duration.of(2, SECONDS), 1.0, 0.5);
+    columns.append(Duration.of(5, SECONDS), 2.5, -1.0);
+
+    final var profile = columns.toProfile(Duration.of(10, SECONDS));
+    final var expected = List.of(
+        new ProfileSegment<>(Duration.of(2, SECONDS), RealDynamics.constant(1.0)),
+        new ProfileSegment<>(Duration.of(3, SECONDS), RealDynamics.linear(1.0, 0.5)),
+        new ProfileSegment<>(Duration.of(5, SECONDS), RealDynamics.linear(2.5, -1.0)));
+
+    assertEquals(expected, profile);
+    assertEquals(Duration.of(5, SECONDS), profile.startOffset(2));
+    assertEquals(0.5, profile.rate(1));
+    assertEquals(profile, RealProfile.of(expected));
+  }
+
+  @Test
+  public void duplicatesAreIsolated() {
+    final var columns = new RealProfile.Columns();
+    columns.append(Duration.ZERO, 1.0, 0.0);
+    final var before = columns.toProfile(Duration.of(1, SECONDS));
+
+    final var copy = columns.duplicate();
+    columns.append(Duration.of(1, SECONDS), 2.0, 0.0);
+    copy.append(Duration.of(1, SECONDS), 3.0, 0.0);
+
+    assertEquals(2.0, columns.toProfile(Duration.of(2, SECONDS)).initial(1));
+    assertEquals(3.0, copy.toProfile(Duration.of(2, SECONDS)).initial(1));
+    assertEquals(1, before.size());
+  }
+}
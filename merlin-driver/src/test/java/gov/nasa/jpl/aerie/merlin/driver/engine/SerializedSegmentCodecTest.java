@@ -0,0 +1,44 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public final class SerializedSegmentCodecTest {
+  @Test
+  public void segmentsAreDecodedAsEncoded() {
+    final var segments = List.of(
+        new Profile.Segment<>(Duration.ZERO, SerializedValue.NULL),
+        new Profile.Segment<>(Duration.of(1, Duration.MICROSECONDS), SerializedValue.of(true)),
+        new Profile.Segment<>(Duration.of(2, Duration.SECONDS), SerializedValue.of(false)),
+        new Profile.Segment<>(Duration.of(3, Duration.SECONDS), SerializedValue.of(-42)),
+        new Profile.Segment<>(Duration.of(4, Duration.SECONDS), SerializedValue.of(new BigDecimal("-1234567890123456789.000001"))),
+        new Profile.Segment<>(Duration.of(5, Duration.SECONDS), SerializedValue.of("")),
+        new Profile.Segment<>(Duration.of(6, Duration.SECONDS), SerializedValue.of("naïve, \"quoted\"\n")),
+        new Profile.Segment<>(Duration.of(7, Duration.SECONDS), SerializedValue.of(List.of())),
+        new Profile.Segment<>(Duration.of(8, Duration.SECONDS), SerializedValue.of(Map.of(
+            "list", SerializedValue.of(List.of(SerializedValue.of(1.5), SerializedValue.NULL)),
+            "map", SerializedValue.of(Map.of("nested", SerializedValue.of("value"))),
+            "empty", SerializedValue.of(Map.of())))),
+        new Profile.Segment<>(Duration.MAX_VALUE, SerializedValue.of(Long.MIN_VALUE)));
+
+    final var buffer = ByteBuffer.allocate(4096);
+    for (final var segment : segments) SerializedSegmentCodec.INSTANCE.encode(segment, buffer);
+    buffer.flip();
+
+    final var decoded = new ArrayList<Profile.Segment<SerializedValue>>();
+    while (buffer.hasRemaining()) decoded.add(SerializedSegmentCodec.INSTANCE.decode(buffer));
+
+    assertEquals(segments, decoded);
+    assertFalse(buffer.hasRemaining());
+  }
+}
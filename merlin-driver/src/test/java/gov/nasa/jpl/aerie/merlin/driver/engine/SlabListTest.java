@@ -0,0 +1,186 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import gov.nasa.jpl.aerie.merlin.driver.DirectiveTypeRegistry;
+import gov.nasa.jpl.aerie.merlin.driver.MissionModel;
+import gov.nasa.jpl.aerie.merlin.driver.MissionModelBuilder;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationDriver;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Querier;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.model.CellType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.EffectTrait;
+import gov.nasa.jpl.aerie.merlin.protocol.model.OutputType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.Resource;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MILLISECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class SlabListTest {
+  private static final SlabList.Codec<Long> LONGS = new SlabList.Codec<>() {
+    @Override
+    public void encode(final Long element, final ByteBuffer buffer) {
+      buffer.putLong(element);
+    }
+
+    @Override
+    public Long decode(final ByteBuffer buffer) {
+      return buffer.getLong();
+    }
+  };
+
+  @Test
+  public void spilledElementsAreReadBack(@TempDir final Path directory) {
+    try (final var file = SpillFile.create(directory)) {
+      final var list = SlabList.spilling(new SlabList.Spill<>(file, LONGS, 1));
+      for (var i = 0L; i < 5000; i += 1) list.append(i);
+
+      // Of the four full slabs, all but the last have been spilled.
+      assertEquals(3 * 1024 * Long.BYTES, file.size());
+
+      final var elements = new ArrayList<Long>();
+      for (final var element : list) elements.add(element);
+      assertEquals(5000, elements.size());
+      for (var i = 0; i < 5000; i += 1) assertEquals(i, (long) elements.get(i));
+
+      for (var i = 0; i < 5000; i += 1) assertEquals(i, (long) list.get(i));
+      assertEquals(10L, (long) list.get(10));
+      assertEquals(4999L, (long) list.get(4999));
+    }
+  }
+
+  @Test
+  public void duplicateSharesSpilledSlabs(@TempDir final Path directory) {
+    try (final var file = SpillFile.create(directory)) {
+      final var list = SlabList.spilling(new SlabList.Spill<>(file, LONGS, 0));
+      for (var i = 0L; i < 3000; i += 1) list.append(i);
+      final var spilled = file.size();
+
+      final var copy = list.duplicate();
+      assertEquals(spilled, file.size());
+
+      copy.append(3000L);
+      list.append(-1L);
+      assertEquals(3000L, (long) copy.get(3000));
+      assertEquals(-1L, (long) list.get(3000));
+      assertEquals(1500L, (long) copy.get(1500));
+      assertEquals(spilled, file.size());
+    }
+  }
+
+  @Test
+  public void spilledProfilesMatchResidentProfiles(@TempDir final Path directory) {
+    final var start = Instant.EPOCH;
+    final var duration = Duration.SECONDS.times(5);
+
+    final var expected = SimulationDriver.simulate(makeCountingModel(), Map.of(), start, duration, start, duration);
+    final var actual = SimulationDriver.simulate(
+        makeCountingModel(), Map.of(), start, duration, start, duration, $ -> {}, 1, directory, 0);
+
+    // The profile must span several slabs for any of them to be spilled.
+    assertTrue(expected.discreteProfiles.get("/count").getRight().size() > 3 * 1024);
+    assertEquals(expected.discreteProfiles, actual.discreteProfiles);
+    assertEquals(expected.realProfiles, actual.realProfiles);
+  }
+
+  /** A model with a single discrete resource, re-queried every millisecond, which reports a new value each time. */
+  private static MissionModel<?> makeCountingModel() {
+    final var initializer = new MissionModelBuilder();
+
+    final var ref = initializer.allocate(
+        new Object(),
+        new CellType<>() {
+          @Override
+          public Object duplicate(final Object o) {
+            // no internal state
+            return o;
+          }
+
+          @Override
+          public void apply(final Object o, final Object o2) {
+            // no internal state
+          }
+
+          @Override
+          public void step(final Object o, final Duration duration) {
+            // no internal state
+          }
+
+          @Override
+          public Optional<Duration> getExpiry(final Object o) {
+            return Optional.of(MILLISECONDS);
+          }
+
+          @Override
+          public EffectTrait<Object> getEffectType() {
+            return new EffectTrait<>() {
+              @Override
+              public Object empty() {
+                return new Object();
+              }
+
+              @Override
+              public Object sequentially(final Object prefix, final Object suffix) {
+                return empty();
+              }
+
+              @Override
+              public Object concurrently(final Object left, final Object right) {
+                return empty();
+              }
+            };
+          }
+        },
+        $ -> $,
+        new Topic<>()
+    );
+
+    final var resource = new Resource<Long>() {
+      private long queries = 0;
+
+      @Override
+      public OutputType<Long> getOutputType() {
+        return new OutputType<>() {
+          @Override
+          public ValueSchema getSchema() {
+            return ValueSchema.ofStruct(Map.of("count", ValueSchema.INT, "label", ValueSchema.STRING));
+          }
+
+          @Override
+          public SerializedValue serialize(final Long value) {
+            return SerializedValue.of(Map.of(
+                "count", SerializedValue.of(value),
+                "label", SerializedValue.of((value % 2 == 0) ? "even" : "odd")));
+          }
+        };
+      }
+
+      @Override
+      public String getType() {
+        return "discrete";
+      }
+
+      @Override
+      public Long getDynamics(final Querier querier) {
+        // Color this resource with the expiry of the cell.
+        querier.getState(ref);
+        return this.queries++;
+      }
+    };
+
+    initializer.resource("/count", resource);
+
+    return initializer.build(ref, new DirectiveTypeRegistry<>(Map.of()));
+  }
+}
@@ -0,0 +1,37 @@
+package gov.nasa.jpl.aerie.merlin.driver.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class SpillFileTest {
+  @Test
+  public void closedFileIsDeleted(@TempDir final Path directory) {
+    final var file = SpillFile.create(directory);
+    file.close();
+
+    assertFalse(Files.exists(file.path()));
+  }
+
+  @Test
+  public void staleFilesAreDeleted(@TempDir final Path directory) throws IOException {
+    final var stale = Files.createFile(directory.resolve("simulation-1234.spill"));
+    final var unrelated = Files.createFile(directory.resolve("model.jar"));
+
+    SpillFile.deleteStale(directory);
+
+    assertFalse(Files.exists(stale));
+    assertTrue(Files.exists(unrelated));
+  }
+
+  @Test
+  public void missingDirectoryHasNoStaleFiles(@TempDir final Path directory) {
+    SpillFile.deleteStale(directory.resolve("spill"));
+  }
+}
@@ -26,6 +26,8 @@ import org.junit.jupiter.api.Test;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public final class TaskFrameTest {
   private static final TaskId ORIGIN = TaskId.generate();
@@ -48,6 +50,61 @@ public final class TaskFrameTest {
   }
 
 
+  @Test
+  public void repeatedReadsShareACopyUntilTheNextEmit() {
+    final var topic = new Topic<Integer>();
+    final var query = new Query<MutableObject<EventGraph<Integer>>>();
+
+    final var cells = new LiveCells(new CausalEventSource());
+    cells.put(query, new Cell<>(
+        new MutableGraphCellType<Integer>(),
+        new Selector<>(topic, EventGraph::atom),
+        new RecursiveEventGraphEvaluator(),
+        new MutableObject<>(EventGraph.empty())));
+
+    final var readCounts = new TaskFrame.ReadCounts();
+    TaskFrame.run(0, cells, readCounts, (job, frame) -> {
+      final var first = frame.getState(query).orElseThrow();
+      assertSame(first, frame.getState(query).orElseThrow());
+
+      frame.emit(Event.create(topic, 1, ORIGIN));
+      final var second = frame.getState(query).orElseThrow();
+      assertNotSame(first, second);
+      assertEquals("1", second.getValue().toString());
+    });
+
+    assertEquals(3, readCounts.reads());
+    assertEquals(2, readCounts.copies());
+  }
+
+  @Test
+  public void cellTypesMayOptOutOfSharingCopies() {
+    final var topic = new Topic<Integer>();
+    final var query = new Query<MutableObject<EventGraph<Integer>>>();
+
+    final var cellType = new MutableGraphCellType<Integer>() {
+      @Override
+      public boolean sharesCopies() {
+        return false;
+      }
+    };
+
+    final var cells = new LiveCells(new CausalEventSource());
+    cells.put(query, new Cell<>(
+        cellType,
+        new Selector<>(topic, EventGraph::atom),
+        new RecursiveEventGraphEvaluator(),
+        new MutableObject<>(EventGraph.empty())));
+
+    final var readCounts = new TaskFrame.ReadCounts();
+    TaskFrame.run(0, cells, readCounts, (job, frame) -> {
+      assertNotSame(frame.getState(query).orElseThrow(), frame.getState(query).orElseThrow());
+    });
+
+    assertEquals(2, readCounts.copies());
+  }
+
+
 	@Property
   @Label("TaskFrame should faithfully reassemble event graphs")
   public void producedGraphIsCorrect(@ForAll("fanout") EventGraph<Integer> graph) {
@@ -242,7 +299,7 @@ public final class TaskFrameTest {
   }
 
   /** A cell applicator that sequentially appends graphs to an accumulator graph. */
-  private static final class MutableGraphCellType<T> implements CellType<EventGraph<T>, MutableObject<EventGraph<T>>> {
+  private static class MutableGraphCellType<T> implements CellType<EventGraph<T>, MutableObject<EventGraph<T>>> {
     @Override
     public EffectTrait<EventGraph<T>> getEffectType() {
       return new EventGraph.IdentityTrait<T>();
@@ -0,0 +1,112 @@
+package gov.nasa.jpl.aerie.merlin.driver.timeline;
+
+import gov.nasa.jpl.aerie.merlin.driver.engine.TaskId;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.model.CellType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.EffectTrait;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public final class LiveCellsTest {
+  private static final TaskId provenance = TaskId.generate();
+
+  /** A cell which sums the events it sees. */
+  private static final CellType<Long, long[]> sumType = new CellType<>() {
+    @Override
+    public EffectTrait<Long> getEffectType() {
+      return new EffectTrait<>() {
+        @Override
+        public Long empty() {
+          return 0L;
+        }
+
+        @Override
+        public Long sequentially(final Long prefix, final Long suffix) {
+          return prefix + suffix;
+        }
+
+        @Override
+        public Long concurrently(final Long left, final Long right) {
+          return left + right;
+        }
+      };
+    }
+
+    @Override
+    public long[] duplicate(final long[] state) {
+      return state.clone();
+    }
+
+    @Override
+    public void apply(final long[] state, final Long effect) {
+      state[0] += effect;
+    }
+  };
+
+  private static LiveCells root(final Query<long[]> query, final Topic<Long> topic) {
+    final var cells = new LiveCells(new CausalEventSource());
+    cells.put(query, new Cell<>(sumType, new Selector<>(topic, $ -> $), new IterativeEventGraphEvaluator(), new long[1]));
+    return cells;
+  }
+
+  private static long sum(final LiveCells cells, final Query<long[]> query) {
+    return cells.getState(query).orElseThrow()[0];
+  }
+
+  @Test
+  public void unaffectedCellsAreSharedThroughTheChain() {
+    final var topic = new Topic<Long>();
+    final var other = new Topic<Long>();
+    final var query = new Query<long[]>();
+    final var root = root(query, topic);
+
+    // Build a deep chain of levels, none of which touch the cell.
+    var cells = root;
+    for (var i = 0; i < 100; i += 1) {
+      final var events = new CausalEventSource();
+      events.add(Event.create(other, 1L, provenance));
+      cells = new LiveCells(events, cells);
+    }
+
+    assertSame(root.getCell(query).orElseThrow(), cells.getCell(query).orElseThrow());
+  }
+
+  @Test
+  public void branchesAreIsolated() {
+    final var topic = new Topic<Long>();
+    final var query = new Query<long[]>();
+    final var root = root(query, topic);
+
+    final var leftEvents = new CausalEventSource();
+    final var left = new LiveCells(leftEvents, root);
+    final var rightEvents = new CausalEventSource();
+    final var right = new LiveCells(rightEvents, root);
+
+    // Both branches begin by sharing the root's cell.
+    assertSame(left.getCell(query).orElseThrow(), right.getCell(query).orElseThrow());
+
+    leftEvents.add(Event.create(topic, 1L, provenance));
+    assertEquals(1, sum(left, query));
+    assertEquals(0, sum(right, query));
+    assertEquals(0, sum(root, query));
+    assertNotSame(left.getCell(query).orElseThrow(), root.getCell(query).orElseThrow());
+
+    rightEvents.add(Event.create(topic, 10L, provenance));
+    assertEquals(1, sum(left, query));
+    assertEquals(10, sum(right, query));
+    assertEquals(0, sum(root, query));
+
+    // A branch off a branch sees its parent's history, but not its sibling's.
+    final var nestedEvents = new CausalEventSource();
+    final var nested = new LiveCells(nestedEvents, left);
+    assertEquals(1, sum(nested, query));
+
+    nestedEvents.add(Event.create(topic, 100L, provenance));
+    assertEquals(101, sum(nested, query));
+    assertEquals(1, sum(left, query));
+    assertEquals(10, sum(right, query));
+  }
+}
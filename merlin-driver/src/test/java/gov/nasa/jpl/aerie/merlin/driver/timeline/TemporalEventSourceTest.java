@@ -0,0 +1,117 @@
+package gov.nasa.jpl.aerie.merlin.driver.timeline;
+
+import gov.nasa.jpl.aerie.merlin.driver.engine.TaskId;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.model.CellType;
+import gov.nasa.jpl.aerie.merlin.protocol.model.EffectTrait;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class TemporalEventSourceTest {
+  private static final TaskId provenance = TaskId.generate();
+
+  /** A cell which counts the events it sees and the microseconds it is stepped over. */
+  private static final CellType<Long, long[]> counterType = new CellType<>() {
+    @Override
+    public EffectTrait<Long> getEffectType() {
+      return new EffectTrait<>() {
+        @Override
+        public Long empty() {
+          return 0L;
+        }
+
+        @Override
+        public Long sequentially(final Long prefix, final Long suffix) {
+          return prefix + suffix;
+        }
+
+        @Override
+        public Long concurrently(final Long left, final Long right) {
+          return left + right;
+        }
+      };
+    }
+
+    @Override
+    public long[] duplicate(final long[] state) {
+      return state.clone();
+    }
+
+    @Override
+    public void apply(final long[] state, final Long effect) {
+      state[0] += effect;
+    }
+
+    @Override
+    public void step(final long[] state, final Duration duration) {
+      state[1] += duration.in(Duration.MICROSECONDS);
+    }
+  };
+
+  private static Cell<long[]> counter(final Topic<Long> topic) {
+    return new Cell<>(counterType, new Selector<>(topic, $ -> $), new IterativeEventGraphEvaluator(), new long[2]);
+  }
+
+  private static void emit(final TemporalEventSource timeline, final Topic<Long> topic, final int times) {
+    for (var i = 0; i < times; i += 1) {
+      timeline.add(Duration.SECOND);
+      timeline.add(EventGraph.atom(Event.create(topic, 1L, provenance)));
+    }
+  }
+
+  @Test
+  public void cursorsSkipIrrelevantCommits() {
+    final var read = new Topic<Long>();
+    final var other = new Topic<Long>();
+    final var timeline = new TemporalEventSource();
+
+    emit(timeline, read, 3);
+    emit(timeline, other, 5);
+    emit(timeline, read, 2);
+
+    final var cell = counter(read);
+    timeline.cursor().stepUp(cell);
+
+    assertArrayEquals(new long[] {5, 10_000_000}, cell.getState());
+  }
+
+  @Test
+  public void truncationReleasesOnlyWhatEveryCursorHasPassed() {
+    final var fast = new Topic<Long>();
+    final var slow = new Topic<Long>();
+    final var timeline = TemporalEventSource.truncating();
+
+    final var fastCell = counter(fast);
+    final var slowCell = counter(slow);
+    final var fastCursor = timeline.cursor();
+    final var slowCursor = timeline.cursor();
+
+    emit(timeline, fast, 5_000);
+    emit(timeline, slow, 5);
+
+    fastCursor.stepUp(fastCell);
+    timeline.truncate();
+    assertEquals(10_010, timeline.retainedSize());
+
+    slowCursor.stepUp(slowCell);
+    timeline.truncate();
+    assertTrue(timeline.retainedSize() < 1024);
+    assertThrows(IllegalStateException.class, timeline::cursor);
+
+    // Cursors continue from where they left off, and duplicates keep every position.
+    emit(timeline, slow, 5);
+    final var copy = timeline.duplicate();
+    emit(copy, slow, 5);
+
+    slowCursor.stepUp(slowCell);
+    fastCursor.stepUp(fastCell);
+    assertArrayEquals(new long[] {10, 5_010_000_000L}, slowCell.getState());
+    assertArrayEquals(new long[] {5_000, 5_010_000_000L}, fastCell.getState());
+    assertEquals(timeline.points().size() + 10, copy.points().size());
+  }
+}
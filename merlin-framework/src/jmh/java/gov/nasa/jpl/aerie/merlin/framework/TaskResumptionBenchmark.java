@@ -0,0 +1,105 @@
+package gov.nasa.jpl.aerie.merlin.framework;
+
+import gov.nasa.jpl.aerie.merlin.protocol.driver.CellId;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Scheduler;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.model.Task;
+import gov.nasa.jpl.aerie.merlin.protocol.model.TaskFactory;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.TaskStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static gov.nasa.jpl.aerie.merlin.framework.ModelActions.delay;
+import static gov.nasa.jpl.aerie.merlin.framework.ModelActions.emit;
+
+/**
+ * Measures the cost of driving a daemon-like task through `yields` delays to completion,
+ * for each of the ways a task can be written with the framework.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskResumptionBenchmark {
+  @Param({"10", "100", "1000"})
+  public int yields;
+
+  private static final Topic<Integer> topic = new Topic<>();
+
+  private final Scheduler scheduler = new Scheduler() {
+    @Override
+    public <State> State get(final CellId<State> cellId) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <Event> void emit(final Event event, final Topic<Event> topic) {}
+
+    @Override
+    public void spawn(final TaskFactory<?> task) {
+      throw new UnsupportedOperationException();
+    }
+  };
+
+  private final Scoped<Context> rootContext = Scoped.create();
+  private ExecutorService executor;
+
+  @Setup
+  public void setup() {
+    this.executor = Executors.newCachedThreadPool();
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.executor.shutdownNow();
+  }
+
+  private void loop() {
+    for (var i = 0; i < this.yields; i += 1) {
+      this.rootContext.get().emit(i, topic);
+      this.rootContext.get().delay(Duration.SECOND);
+    }
+  }
+
+  private Step<Integer> stepFrom(final int i) {
+    if (i == this.yields) return Step.done(i);
+
+    this.rootContext.get().emit(i, topic);
+    return Step.delay(Duration.SECOND, () -> this.stepFrom(i + 1));
+  }
+
+  private <T> T run(Task<T> task) {
+    while (true) {
+      final var status = task.step(this.scheduler);
+      if (status instanceof TaskStatus.Completed<T> s) return s.returnValue();
+      else if (status instanceof TaskStatus.Delayed<T> s) task = s.continuation();
+      else throw new IllegalStateException("Unexpected task status: " + status);
+    }
+  }
+
+  @Benchmark
+  public Object threaded() {
+    return this.run(new ThreadedTask<>(this.executor, this.rootContext, () -> { this.loop(); return this.yields; }));
+  }
+
+  @Benchmark
+  public Object replaying() {
+    return this.run(new ReplayingTask<>(this.rootContext, () -> { this.loop(); return this.yields; }));
+  }
+
+  @Benchmark
+  public Object stepping() {
+    return this.run(new SteppingTask<>(this.rootContext, () -> this.stepFrom(0)));
+  }
+}
@@ -0,0 +1,102 @@
+package gov.nasa.jpl.aerie.merlin.framework;
+
+import gov.nasa.jpl.aerie.merlin.protocol.driver.CellId;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Scheduler;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.model.Task;
+import gov.nasa.jpl.aerie.merlin.protocol.model.TaskFactory;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.TaskStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of a single step of a {@link ThreadedTask}, which is dominated by handing control
+ * to the task thread and back, and compares the {@link Handoff} it uses against the capacity-one queues it replaced.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ThreadedTaskHandoffBenchmark {
+  private final Scheduler scheduler = new Scheduler() {
+    @Override
+    public <State> State get(final CellId<State> cellId) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <Event> void emit(final Event event, final Topic<Event> topic) {}
+
+    @Override
+    public void spawn(final TaskFactory<?> task) {
+      throw new UnsupportedOperationException();
+    }
+  };
+
+  private ExecutorService executor;
+  private Task<?> task;
+
+  private final Handoff<Object> handoffRequests = new Handoff<>();
+  private final Handoff<Object> handoffResponses = new Handoff<>();
+  private final ArrayBlockingQueue<Object> queueRequests = new ArrayBlockingQueue<>(1);
+  private final ArrayBlockingQueue<Object> queueResponses = new ArrayBlockingQueue<>(1);
+
+  @Setup
+  public void setup() {
+    this.executor = Executors.newCachedThreadPool();
+
+    final var rootContext = Scoped.<Context>create();
+    this.task = new ThreadedTask<>(this.executor, rootContext, () -> {
+      while (true) rootContext.get().delay(Duration.SECOND);
+    });
+
+    this.executor.execute(() -> {
+      try {
+        while (true) this.handoffResponses.put(this.handoffRequests.take());
+      } catch (final InterruptedException ignored) {
+      }
+    });
+    this.executor.execute(() -> {
+      try {
+        while (true) this.queueResponses.put(this.queueRequests.take());
+      } catch (final InterruptedException ignored) {
+      }
+    });
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.task.release();
+    this.executor.shutdownNow();
+  }
+
+  @Benchmark
+  public Object threadedTaskStep() {
+    final var status = this.task.step(this.scheduler);
+    if (status instanceof TaskStatus.Delayed<?> s) this.task = s.continuation();
+    return status;
+  }
+
+  @Benchmark
+  public Object handoffRoundTrip() throws InterruptedException {
+    this.handoffRequests.put(this);
+    return this.handoffResponses.take();
+  }
+
+  @Benchmark
+  public Object queueRoundTrip() throws InterruptedException {
+    this.queueRequests.put(this);
+    return this.queueResponses.take();
+  }
+}
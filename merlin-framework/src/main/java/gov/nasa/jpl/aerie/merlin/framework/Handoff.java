@@ -0,0 +1,61 @@
+package gov.nasa.jpl.aerie.merlin.framework;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A single-slot mailbox through which one thread hands a value to another.
+ *
+ * <p>
+ * This is lighter than a capacity-one blocking queue: there is no lock to acquire,
+ * and a receiver that arrives after the value is put never parks at all.
+ * At most one value may be in the mailbox at a time, and at most one thread may wait on it at a time,
+ * which is exactly the discipline followed by a task thread and its host, who take turns.
+ * </p>
+ */
+/* package-local */
+final class Handoff<T> {
+  /**
+   * The number of times a receiver polls the slot before parking, in case its partner responds promptly.
+   * On a single processor, spinning only delays the partner, so the receiver parks straight away.
+   */
+  private static final int SPINS = (Runtime.getRuntime().availableProcessors() > 1) ? 64 : 0;
+
+  private final AtomicReference<T> slot = new AtomicReference<>(null);
+  private volatile Thread receiver = null;
+
+  public void put(final T value) {
+    if (!this.slot.compareAndSet(null, value)) {
+      throw new IllegalStateException("Cannot hand off a value before the previous one has been taken");
+    }
+
+    // If the receiver has not yet registered, it will see the value when it checks the slot after registering.
+    final var receiver = this.receiver;
+    if (receiver != null) LockSupport.unpark(receiver);
+  }
+
+  public T take() throws InterruptedException {
+    for (var i = 0; i < SPINS; i += 1) {
+      final var value = this.poll();
+      if (value != null) return value;
+      Thread.onSpinWait();
+    }
+
+    this.receiver = Thread.currentThread();
+    try {
+      while (true) {
+        final var value = this.poll();
+        if (value != null) return value;
+
+        LockSupport.park(this);
+        if (Thread.interrupted()) throw new InterruptedException();
+      }
+    } finally {
+      this.receiver = null;
+    }
+  }
+
+  private T poll() {
+    return (this.slot.get() == null) ? null : this.slot.getAndSet(null);
+  }
+}
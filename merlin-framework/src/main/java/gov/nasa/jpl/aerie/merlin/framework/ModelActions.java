@@ -36,6 +36,10 @@ public /*non-final*/ class ModelActions {
     });
   }
 
+  public static <T> TaskFactory<T> stepping(final Supplier<Step<T>> task) {
+    return executor -> new SteppingTask<>(ModelActions.context, task);
+  }
+
 
   public static <T> void emit(final T event, final Topic<T> topic) {
     context.get().emit(event, topic);
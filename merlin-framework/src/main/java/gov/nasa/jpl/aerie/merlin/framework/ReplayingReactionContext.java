@@ -8,6 +8,7 @@ import gov.nasa.jpl.aerie.merlin.protocol.model.TaskFactory;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import org.apache.commons.lang3.mutable.MutableInt;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Function;
@@ -99,6 +100,10 @@ final class ReplayingReactionContext implements Context {
   }
 
   public record Memory(List<Object> reads, MutableInt writes) {
+    public Memory duplicate() {
+      return new Memory(new ArrayList<>(this.reads), new MutableInt(this.writes.getValue()));
+    }
+
     public void clear() {
       this.reads().clear();
       this.writes().setValue(0);
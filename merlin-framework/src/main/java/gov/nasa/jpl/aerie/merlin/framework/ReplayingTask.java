@@ -9,17 +9,28 @@ import org.apache.commons.lang3.mutable.MutableInt;
 
 import java.util.ArrayList;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
 public final class ReplayingTask<Return> implements Task<Return> {
   private final Scoped<Context> rootContext;
   private final Supplier<Return> task;
 
-  private final ReplayingReactionContext.Memory memory = new ReplayingReactionContext.Memory(new ArrayList<>(), new MutableInt(0));
+  private final ReplayingReactionContext.Memory memory;
 
   public ReplayingTask(final Scoped<Context> rootContext, final Supplier<Return> task) {
+    this(rootContext, task, new ReplayingReactionContext.Memory(new ArrayList<>(), new MutableInt(0)));
+  }
+
+  private ReplayingTask(
+      final Scoped<Context> rootContext,
+      final Supplier<Return> task,
+      final ReplayingReactionContext.Memory memory)
+  {
     this.rootContext = Objects.requireNonNull(rootContext);
     this.task = Objects.requireNonNull(task);
+    this.memory = Objects.requireNonNull(memory);
   }
 
   @Override
@@ -38,6 +49,12 @@ public final class ReplayingTask<Return> implements Task<Return> {
     }
   }
 
+  @Override
+  public Optional<Task<Return>> duplicate(final Executor executor) {
+    // All of our progress lives in our memory, so a copy with the same memory replays to the same point.
+    return Optional.of(new ReplayingTask<>(this.rootContext, this.task, this.memory.duplicate()));
+  }
+
   private final class ReplayingTaskHandle implements TaskHandle {
     public TaskStatus<Return> status = null;
 
@@ -0,0 +1,73 @@
+package gov.nasa.jpl.aerie.merlin.framework;
+
+import gov.nasa.jpl.aerie.merlin.protocol.model.TaskFactory;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Unit;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * What a {@link SteppingTask} does once the work of its current step is done:
+ * either complete with a value, or yield and resume with the given continuation.
+ *
+ * <p>
+ * A continuation may emit events, spawn tasks, and read resources, but must express any
+ * yield (delay, wait, or call) by returning a step rather than performing it directly.
+ * </p>
+ */
+public sealed interface Step<Return> {
+  record Done<Return>(Return value) implements Step<Return> {}
+
+  record Delay<Return>(Duration duration, Supplier<Step<Return>> next) implements Step<Return> {
+    public Delay {
+      Objects.requireNonNull(duration);
+      Objects.requireNonNull(next);
+    }
+  }
+
+  record WaitUntil<Return>(Condition condition, Supplier<Step<Return>> next) implements Step<Return> {
+    public WaitUntil {
+      Objects.requireNonNull(condition);
+      Objects.requireNonNull(next);
+    }
+  }
+
+  record Call<Return>(TaskFactory<?> child, Supplier<Step<Return>> next) implements Step<Return> {
+    public Call {
+      Objects.requireNonNull(child);
+      Objects.requireNonNull(next);
+    }
+  }
+
+  static <Return> Step<Return> done(final Return value) {
+    return new Done<>(value);
+  }
+
+  static Step<Unit> done() {
+    return new Done<>(Unit.UNIT);
+  }
+
+  static <Return> Step<Return> delay(final Duration duration, final Supplier<Step<Return>> next) {
+    return new Delay<>(duration, next);
+  }
+
+  static <Return> Step<Return> waitUntil(final Condition condition, final Supplier<Step<Return>> next) {
+    return new WaitUntil<>(condition, next);
+  }
+
+  static <Return> Step<Return> call(final TaskFactory<?> child, final Supplier<Step<Return>> next) {
+    return new Call<>(child, next);
+  }
+
+  /** Perform `body` now and every `period` thereafter, forever. */
+  static Step<Unit> every(final Duration period, final Runnable body) {
+    return new Supplier<Step<Unit>>() {
+      @Override
+      public Step<Unit> get() {
+        body.run();
+        return delay(period, this);
+      }
+    }.get();
+  }
+}
@@ -0,0 +1,84 @@
+package gov.nasa.jpl.aerie.merlin.framework;
+
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Scheduler;
+import gov.nasa.jpl.aerie.merlin.protocol.model.Task;
+import gov.nasa.jpl.aerie.merlin.protocol.model.TaskFactory;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.TaskStatus;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * A task written as a chain of {@link Step}s, which resumes by running only the continuation of its latest yield.
+ *
+ * <p>
+ * Unlike a {@link ReplayingTask}, which re-executes its body from the start on every resumption,
+ * the work done by a stepping task before a yield is never repeated, so a task which yields `k` times
+ * performs `O(k)` work in total. Unlike a {@link ThreadedTask}, no thread is held while the task is suspended.
+ * </p>
+ */
+public final class SteppingTask<Return> implements Task<Return> {
+  private final Scoped<Context> rootContext;
+  private final Supplier<Step<Return>> next;
+
+  public SteppingTask(final Scoped<Context> rootContext, final Supplier<Step<Return>> next) {
+    this.rootContext = Objects.requireNonNull(rootContext);
+    this.next = Objects.requireNonNull(next);
+  }
+
+  @Override
+  public TaskStatus<Return> step(final Scheduler scheduler) {
+    final var context = new ThreadedReactionContext(this.rootContext, scheduler, YieldForbidden);
+
+    final Step<Return> step;
+    try (final var restore = this.rootContext.set(context)) {
+      step = Objects.requireNonNull(this.next.get(), "A step must not be null");
+    }
+
+    if (step instanceof Step.Done<Return> s) {
+      return TaskStatus.completed(s.value());
+    } else if (step instanceof Step.Delay<Return> s) {
+      return TaskStatus.delayed(s.duration(), new SteppingTask<>(this.rootContext, s.next()));
+    } else if (step instanceof Step.WaitUntil<Return> s) {
+      final var condition = s.condition();
+      return TaskStatus.awaiting(
+          (now, atLatest) -> {
+            try (final var restore = this.rootContext.set(new QueryContext(now))) {
+              return condition.nextSatisfied(true, Duration.ZERO, atLatest);
+            }
+          },
+          new SteppingTask<>(this.rootContext, s.next()));
+    } else if (step instanceof Step.Call<Return> s) {
+      return TaskStatus.calling(s.child(), new SteppingTask<>(this.rootContext, s.next()));
+    } else {
+      throw new IllegalStateException("Unknown step type: " + step.getClass());
+    }
+  }
+
+  @Override
+  public Optional<Task<Return>> duplicate(final Executor executor) {
+    // All of our progress lives in our continuation, which is never mutated by stepping,
+    //   so a copy resumes from the same point -- provided the continuation does not close over mutable state.
+    return Optional.of(new SteppingTask<>(this.rootContext, this.next));
+  }
+
+  private static final TaskHandle YieldForbidden = new TaskHandle() {
+    @Override
+    public Scheduler delay(final Duration delay) {
+      throw new IllegalStateException("A stepping task must delay by returning `Step.delay`");
+    }
+
+    @Override
+    public Scheduler call(final TaskFactory<?> child) {
+      throw new IllegalStateException("A stepping task must call by returning `Step.call`");
+    }
+
+    @Override
+    public Scheduler await(final gov.nasa.jpl.aerie.merlin.protocol.model.Condition condition) {
+      throw new IllegalStateException("A stepping task must wait by returning `Step.waitUntil`");
+    }
+  };
+}
@@ -1,13 +1,17 @@
 package gov.nasa.jpl.aerie.merlin.framework;
 
+import gov.nasa.jpl.aerie.merlin.protocol.driver.CellId;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Scheduler;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
 import gov.nasa.jpl.aerie.merlin.protocol.model.Task;
 import gov.nasa.jpl.aerie.merlin.protocol.model.TaskFactory;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import gov.nasa.jpl.aerie.merlin.protocol.types.TaskStatus;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.Optional;
 import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
@@ -16,16 +20,47 @@ public final class ThreadedTask<Return> implements Task<Return> {
   private final Supplier<Return> task;
   private final Executor executor;
 
-  private final ArrayBlockingQueue<TaskRequest> hostToTask = new ArrayBlockingQueue<>(1);
-  private final ArrayBlockingQueue<TaskResponse<Return>> taskToHost = new ArrayBlockingQueue<>(1);
+  private final Handoff<TaskRequest> hostToTask = new Handoff<>();
+  private final Handoff<TaskResponse<Return>> taskToHost = new Handoff<>();
+
+  /**
+   * Every cell state the task has read so far, in order, so that a duplicate can replay up to this point.
+   * Reads are only logged if the host may ask for a duplicate, and the log is dropped once the task terminates.
+   */
+  private final List<Object> reads;
+  /** Whether reads are being logged; decided by the host when the task is first stepped. */
+  private boolean logsReads;
+  /** The number of logged reads made before the task last yielded, which is all a duplicate may replay. */
+  private int readsBeforeYield;
+  /** The number of times the task has yielded control back to the host. */
+  private int yields = 0;
+  /** The number of yields which must be replayed (against `reads`) before this task makes any new progress. */
+  private final int replayedYields;
+  /** The number of logged reads which have been replayed so far. */
+  private int replayedReads = 0;
 
   private Lifecycle lifecycle = Lifecycle.Inactive;
   private Return returnValue;
 
   public ThreadedTask(final Executor executor, final Scoped<Context> rootContext, final Supplier<Return> task) {
+    this(executor, rootContext, task, new ArrayList<>(), 0);
+  }
+
+  private ThreadedTask(
+      final Executor executor,
+      final Scoped<Context> rootContext,
+      final Supplier<Return> task,
+      final List<Object> reads,
+      final int replayedYields)
+  {
     this.rootContext = Objects.requireNonNull(rootContext);
     this.task = Objects.requireNonNull(task);
     this.executor = Objects.requireNonNull(executor);
+    this.reads = Objects.requireNonNull(reads);
+    this.readsBeforeYield = reads.size();
+    this.replayedYields = replayedYields;
+    // A duplicate cannot have been made without a log, so it keeps logging for duplicates of its own.
+    this.logsReads = (replayedYields > 0);
   }
 
   @Override
@@ -35,6 +70,7 @@ public final class ThreadedTask<Return> implements Task<Return> {
         return TaskStatus.completed(this.returnValue);
       } else if (this.lifecycle == Lifecycle.Inactive) {
         this.lifecycle = Lifecycle.Running;
+        this.logsReads |= scheduler.mayDuplicateTasks();
         beginAsync();
       }
 
@@ -42,8 +78,8 @@ public final class ThreadedTask<Return> implements Task<Return> {
       //   It should be sufficiently long as to allow the user-defined task to do its job.
       //   The `put()` call is fine -- we know the thread will immediately wait
       //   for a new request as soon as it puts a response to the last request.
-      // TODO: Track metrics for how long a task runs before responding.
-      //   This will help to tune the timeout.
+      //   The engine times every step, which includes how long the task runs before responding,
+      //   and reports the longest of them to the results sink. This will help to tune the timeout.
       this.hostToTask.put(new TaskRequest.Resume(scheduler));
       final var response = this.taskToHost.take();
 
@@ -53,11 +89,15 @@ public final class ThreadedTask<Return> implements Task<Return> {
         if (status instanceof TaskStatus.Completed<Return> s) {
           this.lifecycle = Lifecycle.Terminated;
           this.returnValue = s.returnValue();
+          this.reads.clear();
+        } else {
+          this.readsBeforeYield = this.reads.size();
         }
 
         return status;
       } else if (response instanceof TaskResponse.Failure<Return> r) {
         this.lifecycle = Lifecycle.Terminated;
+        this.reads.clear();
 
         // We re-throw the received exception to avoid interfering with `catch` blocks
         //   that might be looking for this specific exception, but we add a new exception
@@ -102,11 +142,7 @@ public final class ThreadedTask<Return> implements Task<Return> {
         response = new TaskResponse.Failure<>(ex);
       }
 
-      try {
-        ThreadedTask.this.taskToHost.put(response);
-      } catch (final InterruptedException ex) {
-        throw new Error("Merlin task unexpectedly interrupted", ex);
-      }
+      ThreadedTask.this.taskToHost.put(response);
     });
   }
 
@@ -126,16 +162,92 @@ public final class ThreadedTask<Return> implements Task<Return> {
     }
 
     this.lifecycle = Lifecycle.Inactive;
+    this.reads.clear();
+  }
+
+  // A thread cannot be copied, so the duplicate runs the task from the beginning on a thread of its own,
+  //   answering every read from the log of states seen by this task and discarding every effect,
+  //   until it has yielded as many times as this task has. Only then does it hand control back to the host.
+  // This relies on the task being deterministic, just like `ReplayingTask`.
+  @Override
+  public Optional<Task<Return>> duplicate(final Executor executor) {
+    if (this.lifecycle == Lifecycle.Terminated) {
+      final var copy = new ThreadedTask<>(executor, this.rootContext, this.task, new ArrayList<>(), 0);
+      copy.lifecycle = Lifecycle.Terminated;
+      copy.returnValue = this.returnValue;
+      return Optional.of(copy);
+    }
+
+    // Without a log of its reads, a task which has made progress cannot be replayed.
+    if (this.lifecycle == Lifecycle.Running && !this.logsReads) return Optional.empty();
+
+    // The task thread is parked between steps, so the host has exclusive access to `reads` and `yields` here.
+    // A duplicate which has not yet been stepped has yet to replay its own history, so it must pass all of it on.
+    return Optional.of(new ThreadedTask<>(
+        executor,
+        this.rootContext,
+        this.task,
+        new ArrayList<>(this.reads.subList(0, this.readsBeforeYield)),
+        Math.max(this.yields, this.replayedYields)));
+  }
+
+  /** Intercepts the task's interactions with the host, so that a duplicated task can replay its history. */
+  private final class ReplayingScheduler implements Scheduler {
+    private final Scheduler scheduler;
+
+    public ReplayingScheduler(final Scheduler scheduler) {
+      this.scheduler = scheduler;
+    }
+
+    private boolean isReplaying() {
+      return (ThreadedTask.this.yields < ThreadedTask.this.replayedYields);
+    }
+
+    @Override
+    public <State> State get(final CellId<State> cellId) {
+      if (isReplaying()) {
+        // SAFETY: Tasks are deterministic, and last time we got to this read, we logged a State.
+        @SuppressWarnings("unchecked")
+        final var state = (State) ThreadedTask.this.reads.get(this.nextRead());
+        return state;
+      }
+
+      final var state = this.scheduler.get(cellId);
+      if (ThreadedTask.this.logsReads) ThreadedTask.this.reads.add(state);
+      return state;
+    }
+
+    @Override
+    public <Event> void emit(final Event event, final Topic<Event> topic) {
+      if (isReplaying()) return;
+      this.scheduler.emit(event, topic);
+    }
+
+    @Override
+    public void spawn(final TaskFactory<?> task) {
+      if (isReplaying()) return;
+      this.scheduler.spawn(task);
+    }
+
+    @Override
+    public boolean mayDuplicateTasks() {
+      return this.scheduler.mayDuplicateTasks();
+    }
+
+    private int nextRead() {
+      return ThreadedTask.this.replayedReads++;
+    }
   }
 
   private final class ThreadedTaskHandle implements TaskHandle {
     private boolean isAborting = false;
+    private Scheduler scheduler = null;
 
     public TaskResponse<Return> run(final TaskRequest request) {
       if (request instanceof TaskRequest.Resume resume) {
-        final var scheduler = resume.scheduler;
+        this.scheduler = new ReplayingScheduler(resume.scheduler);
 
-        final var context = new ThreadedReactionContext(ThreadedTask.this.rootContext, scheduler, this);
+        final var context = new ThreadedReactionContext(ThreadedTask.this.rootContext, this.scheduler, this);
 
         try (final var restore = ThreadedTask.this.rootContext.set(context)) {
           return new TaskResponse.Success<>(TaskStatus.completed(ThreadedTask.this.task.get()));
@@ -158,6 +270,13 @@ public final class ThreadedTask<Return> implements Task<Return> {
       // If we're in the middle of aborting, just keep trying to bail out.
       if (this.isAborting) throw TaskAbort;
 
+      // If we're still replaying history, the host has already seen this yield; carry on without it.
+      if (ThreadedTask.this.yields < ThreadedTask.this.replayedYields) {
+        ThreadedTask.this.yields += 1;
+        return this.scheduler;
+      }
+      ThreadedTask.this.yields += 1;
+
       // Get the next request from the driver.
       final TaskRequest request;
       try {
@@ -169,7 +288,8 @@ public final class ThreadedTask<Return> implements Task<Return> {
 
       if (request instanceof TaskRequest.Resume resumeRequest) {
         // We've been told to continue executing.
-        return resumeRequest.scheduler;
+        this.scheduler = new ReplayingScheduler(resumeRequest.scheduler);
+        return this.scheduler;
       } else if (request instanceof TaskRequest.Abort) {
         // We've been told to bail out and release this thread ASAP.
         //
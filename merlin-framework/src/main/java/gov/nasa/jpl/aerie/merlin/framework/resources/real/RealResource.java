@@ -5,6 +5,7 @@ import gov.nasa.jpl.aerie.merlin.framework.Resource;
 import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
 
 import java.util.Objects;
+import java.util.Optional;
 
 public interface RealResource extends Resource<RealDynamics> {
   static RealResource scaleBy(final double scalar, final RealResource resource) {
@@ -54,4 +55,50 @@ public interface RealResource extends Resource<RealDynamics> {
           : dynamics.whenNotBetween(lower, upper, atEarliest, atLatest);
     };
   }
+
+  default Condition isAtLeast(final double threshold) {
+    return this.isLessThan(threshold).not();
+  }
+
+  default Condition isAtMost(final double threshold) {
+    return this.isGreaterThan(threshold).not();
+  }
+
+  default Condition isGreaterThan(final double threshold) {
+    return (positive, atEarliest, atLatest) -> {
+      final var dynamics = this.getDynamics();
+
+      return (positive)
+          ? dynamics.whenGreaterThan(threshold, atEarliest, atLatest)
+          : dynamics.whenAtMost(threshold, atEarliest, atLatest);
+    };
+  }
+
+  default Condition isLessThan(final double threshold) {
+    return (positive, atEarliest, atLatest) -> {
+      final var dynamics = this.getDynamics();
+
+      return (positive)
+          ? dynamics.whenLessThan(threshold, atEarliest, atLatest)
+          : dynamics.whenAtLeast(threshold, atEarliest, atLatest);
+    };
+  }
+
+  /** Whether the resource is strictly increasing. Linear dynamics have a constant rate, so this holds throughout or never. */
+  default Condition isIncreasing() {
+    return (positive, atEarliest, atLatest) -> {
+      final var increasing = this.getDynamics().rate > 0;
+
+      return Optional.of(atEarliest).filter(t -> !atLatest.shorterThan(t) && increasing == positive);
+    };
+  }
+
+  /** Whether the resource is strictly decreasing. Linear dynamics have a constant rate, so this holds throughout or never. */
+  default Condition isDecreasing() {
+    return (positive, atEarliest, atLatest) -> {
+      final var decreasing = this.getDynamics().rate < 0;
+
+      return Optional.of(atEarliest).filter(t -> !atLatest.shorterThan(t) && decreasing == positive);
+    };
+  }
 }
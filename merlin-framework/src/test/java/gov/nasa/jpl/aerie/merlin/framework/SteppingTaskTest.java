@@ -0,0 +1,84 @@
+package gov.nasa.jpl.aerie.merlin.framework;
+
+import gov.nasa.jpl.aerie.merlin.protocol.driver.CellId;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Scheduler;
+import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.model.TaskFactory;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.TaskStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class SteppingTaskTest {
+  private static final Topic<Integer> topic = new Topic<>();
+
+  private static Scheduler recordingScheduler(final List<Object> emitted) {
+    return new Scheduler() {
+      @Override
+      public <State> State get(final CellId<State> query) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public <Event> void emit(final Event event, final Topic<Event> topic) {
+        emitted.add(event);
+      }
+
+      @Override
+      public void spawn(final TaskFactory<?> task) {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  @Test
+  @DisplayName("Each resumption runs only the continuation of the latest yield")
+  public void testResumesWithoutReplaying() {
+    final var context = Scoped.<Context>create();
+    final var emitted = new ArrayList<>();
+    final var runs = new int[3];
+
+    final var task = new SteppingTask<>(context, () -> {
+      runs[0] += 1;
+      context.get().emit(0, topic);
+      return Step.delay(Duration.SECOND, () -> {
+        runs[1] += 1;
+        context.get().emit(1, topic);
+        return Step.delay(Duration.SECOND, () -> {
+          runs[2] += 1;
+          return Step.done("done");
+        });
+      });
+    });
+
+    final var first = assertInstanceOf(TaskStatus.Delayed.class, task.step(recordingScheduler(emitted)));
+    final var second = assertInstanceOf(TaskStatus.Delayed.class, first.continuation().step(recordingScheduler(emitted)));
+    final var third = assertInstanceOf(TaskStatus.Completed.class, second.continuation().step(recordingScheduler(emitted)));
+
+    assertEquals("done", third.returnValue());
+    assertEquals(List.of(0, 1), emitted);
+    assertEquals(1, runs[0]);
+    assertEquals(1, runs[1]);
+    assertEquals(1, runs[2]);
+  }
+
+  @Test
+  @DisplayName("Yielding directly from a step is rejected")
+  public void testDirectYieldIsRejected() {
+    final var context = Scoped.<Context>create();
+
+    final var task = new SteppingTask<>(context, () -> {
+      context.get().delay(Duration.SECOND);
+      return Step.done();
+    });
+
+    assertThrows(IllegalStateException.class, () -> task.step(recordingScheduler(new ArrayList<>())));
+  }
+}
@@ -3,13 +3,21 @@ package gov.nasa.jpl.aerie.merlin.framework;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.CellId;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Scheduler;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.model.Task;
 import gov.nasa.jpl.aerie.merlin.protocol.model.TaskFactory;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.TaskStatus;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Unit;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Executors;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 public final class ThreadedTaskTest {
@@ -49,6 +57,72 @@ public final class ThreadedTaskTest {
     }
   }
 
+  @Test
+  @DisplayName("Duplicates of a not-yet-stepped duplicate resume where the original task left off")
+  public void testDuplicateOfDuplicate() {
+    final var topic = new Topic<Integer>();
+    final var pool = Executors.newCachedThreadPool();
+    try {
+      Task<Unit> task = ModelActions.threaded(() -> {
+        for (var i = 0; i < 5; i += 1) {
+          ModelActions.emit(i, topic);
+          ModelActions.delay(Duration.SECOND);
+        }
+      }).create(pool);
+
+      final var emitted = new ArrayList<Integer>();
+      for (var i = 0; i < 2; i += 1) {
+        task = ((TaskStatus.Delayed<Unit>) task.step(new EmittingScheduler(emitted, true))).continuation();
+      }
+      assertEquals(List.of(0, 1), emitted);
+
+      // A checkpoint holds a duplicate which is never stepped itself, but may be duplicated any number of times.
+      final var checkpoint = task.duplicate(pool).orElseThrow();
+      for (var i = 0; i < 2; i += 1) {
+        emitted.clear();
+        stepToCompletion(checkpoint.duplicate(pool).orElseThrow(), new EmittingScheduler(emitted, true));
+        assertEquals(List.of(2, 3, 4), emitted);
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  @DisplayName("A task which was not told it may be duplicated declines to be duplicated once it has made progress")
+  public void testDuplicateWithoutHistory() {
+    final var pool = Executors.newCachedThreadPool();
+    try {
+      final var task = ModelActions.threaded(() -> ModelActions.delay(Duration.SECOND)).create(pool);
+      final var status = (TaskStatus.Delayed<Unit>) task.step(new EmittingScheduler(new ArrayList<>(), false));
+
+      assertTrue(status.continuation().duplicate(pool).isEmpty());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private static void stepToCompletion(Task<Unit> task, final Scheduler scheduler) {
+    while (task.step(scheduler) instanceof TaskStatus.Delayed<Unit> s) task = s.continuation();
+  }
+
+  private record EmittingScheduler(List<Integer> emitted, boolean mayDuplicateTasks) implements Scheduler {
+    @Override
+    public <State> State get(final CellId<State> query) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <Event> void emit(final Event event, final Topic<Event> topic) {
+      this.emitted.add((Integer) event);
+    }
+
+    @Override
+    public void spawn(final TaskFactory<?> task) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
   private static void assertSuppressed(final Class<? extends Throwable> expected, final Throwable ex) {
     for (final var suppressed : ex.getSuppressed()) {
       if (expected.isAssignableFrom(suppressed.getClass())) return;
@@ -8,4 +8,14 @@ public interface Scheduler {
   <Event> void emit(Event event, Topic<Event> topic);
 
   void spawn(TaskFactory<?> task);
+
+  /**
+   * Whether the driver may later ask the calling task for a copy of itself
+   * (see {@link gov.nasa.jpl.aerie.merlin.protocol.model.Task#duplicate}).
+   *
+   * <p>A task which must keep a history of its interactions in order to be copied need only keep it when this holds.</p>
+   */
+  default boolean mayDuplicateTasks() {
+    return false;
+  }
 }
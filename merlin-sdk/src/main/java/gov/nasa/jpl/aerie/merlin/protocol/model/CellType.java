@@ -18,4 +18,14 @@ public interface CellType<Effect, State> {
   default Optional<Duration> getExpiry(final State state) {
     return Optional.empty();
   }
+
+  /**
+   * Whether a copy of a state made by {@link #duplicate} may be handed to several readers in turn.
+   *
+   * Readers are expected not to modify the states they are given.
+   * A cell type whose states are modified by their readers should return false, so that every read gets a fresh copy.
+   */
+  default boolean sharesCopies() {
+    return true;
+  }
 }
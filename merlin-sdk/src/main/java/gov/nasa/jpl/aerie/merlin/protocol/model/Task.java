@@ -3,6 +3,9 @@ package gov.nasa.jpl.aerie.merlin.protocol.model;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Scheduler;
 import gov.nasa.jpl.aerie.merlin.protocol.types.TaskStatus;
 
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
 public interface Task<Return> {
   /**
    * Perform one step of the task, returning the next step of the task and the conditions under which to perform it.
@@ -23,4 +26,42 @@ public interface Task<Return> {
    * nor shall {@link #step(Scheduler)} be called after this method.</p>
    */
   default void release() {}
+
+  /**
+   * Produce an independent copy of this task, positioned at the same point in its execution.
+   *
+   * <p>Stepping the copy must be observationally equivalent to stepping this task, and must not affect this task
+   * in any way. A driver may use this capability to checkpoint a simulation and later resume from that checkpoint.
+   * Any system resources the copy needs must be allocated from the given executor.</p>
+   *
+   * <p>Tasks which cannot be copied return an empty value; drivers must then fall back to re-simulating
+   * from the beginning. A task which was never told that it may be copied
+   * (see {@link gov.nasa.jpl.aerie.merlin.protocol.driver.Scheduler#mayDuplicateTasks()}) may decline as well.</p>
+   */
+  default Optional<Task<Return>> duplicate(final Executor executor) {
+    return Optional.empty();
+  }
+
+  /**
+   * Declare that a task holds no state of its own between steps, so that it may be shared freely between copies
+   * of a simulation.
+   */
+  static <Return> Task<Return> stateless(final Task<Return> task) {
+    return new Task<>() {
+      @Override
+      public TaskStatus<Return> step(final Scheduler scheduler) {
+        return task.step(scheduler);
+      }
+
+      @Override
+      public void release() {
+        task.release();
+      }
+
+      @Override
+      public Optional<Task<Return>> duplicate(final Executor executor) {
+        return Optional.of(this);
+      }
+    };
+  }
 }
@@ -2,6 +2,7 @@ package gov.nasa.jpl.aerie.merlin.protocol.types;
 
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 /**
  * A description of a time-dependent behavior for real-valued resources that may vary continuously.
@@ -41,56 +42,139 @@ public final class RealDynamics {
   }
 
 
+  /** The value described by these dynamics at the given time. */
+  public double valueAt(final Duration time) {
+    return this.initial + this.rate * time.ratioOver(Duration.SECONDS);
+  }
+
+  /** The time at which these dynamics are next no less than the given threshold, if any. */
+  public Optional<Duration>
+  whenAtLeast(final double threshold, final Duration atEarliest, final Duration atLatest) {
+    return this.whenBetween(threshold, Double.POSITIVE_INFINITY, atEarliest, atLatest);
+  }
+
+  /** The time at which these dynamics are next no greater than the given threshold, if any. */
+  public Optional<Duration>
+  whenAtMost(final double threshold, final Duration atEarliest, final Duration atLatest) {
+    return this.whenBetween(Double.NEGATIVE_INFINITY, threshold, atEarliest, atLatest);
+  }
+
+  /** The time at which these dynamics are next strictly greater than the given threshold, if any. */
+  public Optional<Duration>
+  whenGreaterThan(final double threshold, final Duration atEarliest, final Duration atLatest) {
+    return this.whenNotBetween(Double.NEGATIVE_INFINITY, threshold, atEarliest, atLatest);
+  }
+
+  /** The time at which these dynamics are next strictly less than the given threshold, if any. */
+  public Optional<Duration>
+  whenLessThan(final double threshold, final Duration atEarliest, final Duration atLatest) {
+    return this.whenNotBetween(threshold, Double.POSITIVE_INFINITY, atEarliest, atLatest);
+  }
+
+  /**
+   * The earliest time between `atEarliest` and `atLatest`, inclusive, at which these dynamics lie within `[min, max]`.
+   *
+   * <p>
+   *   The result is exact to the microsecond: the value at the returned time is within the interval,
+   *   and the value one microsecond earlier is not (unless that lies before `atEarliest`).
+   * </p>
+   */
   public Optional<Duration>
   whenBetween(final double min, final double max, final Duration atEarliest, final Duration atLatest) {
-    if (this.rate == 0) {
-      if (this.initial < min || max < this.initial) {
-        return Optional.empty();
-      } else {
-        return Optional.of(atEarliest);
-      }
+    if (atLatest.shorterThan(atEarliest)) return Optional.empty();
+
+    final double valueAtEarliest = this.valueAt(atEarliest);
+    if (min <= valueAtEarliest && valueAtEarliest <= max) return Optional.of(atEarliest);
+
+    // The value must be moving toward the interval in order to ever enter it.
+    if (this.rate > 0 && valueAtEarliest < min) {
+      return this.whenCrossing(min, atEarliest, atLatest).filter(t -> this.valueAt(t) <= max);
+    } else if (this.rate < 0 && max < valueAtEarliest) {
+      return this.whenCrossing(max, atEarliest, atLatest).filter(t -> min <= this.valueAt(t));
+    } else {
+      return Optional.empty();
     }
+  }
 
-    final double valueAtEarliest = this.initial + this.rate * atEarliest.in(Duration.SECONDS);
-    final double valueAtLatest = this.initial + this.rate * atLatest.in(Duration.SECONDS);
-    final Duration entry;
-    if (min <= valueAtEarliest && valueAtEarliest <= max) {
-      entry = atEarliest;
-    } else if (this.rate > 0) {
-      if (valueAtLatest < min || max < valueAtEarliest) return Optional.empty();
-      entry = Duration.roundUpward((min - this.initial) / this.rate, Duration.SECONDS);
-    } else /* this.rate < 0 */ {
-      if (valueAtEarliest < min || max < valueAtLatest) return Optional.empty();
-      entry = Duration.roundUpward((max - this.initial) / this.rate, Duration.SECONDS);
+  /**
+   * The earliest time between `atEarliest` and `atLatest`, inclusive, at which these dynamics lie outside `[min, max]`.
+   *
+   * <p>
+   *   The result is exact to the microsecond, as for {@link #whenBetween(double, double, Duration, Duration)}.
+   * </p>
+   */
+  public Optional<Duration>
+  whenNotBetween(final double min, final double max, final Duration atEarliest, final Duration atLatest) {
+    if (atLatest.shorterThan(atEarliest)) return Optional.empty();
+
+    final double valueAtEarliest = this.valueAt(atEarliest);
+    if (valueAtEarliest < min || max < valueAtEarliest) return Optional.of(atEarliest);
+
+    // The value leaves the (closed) interval just after it crosses the bound it is moving toward.
+    if (this.rate > 0 && max < Double.POSITIVE_INFINITY) {
+      return this.whenPast(max, atEarliest, atLatest);
+    } else if (this.rate < 0 && Double.NEGATIVE_INFINITY < min) {
+      return this.whenPast(min, atEarliest, atLatest);
+    } else {
+      return Optional.empty();
     }
+  }
 
-    return Optional.of(entry);
+  /** The earliest time in the given window at which the (non-constant) value has reached the given bound. */
+  private Optional<Duration> whenCrossing(final double bound, final Duration atEarliest, final Duration atLatest) {
+    return this.earliest(
+        (this.rate > 0) ? (t -> bound <= this.valueAt(t)) : (t -> this.valueAt(t) <= bound),
+        bound,
+        atEarliest,
+        atLatest);
   }
 
-  public Optional<Duration>
-  whenNotBetween(final double min, final double max, final Duration atEarliest, final Duration atLatest) {
-    if (this.rate == 0) {
-      if (min <= this.initial && this.initial <= max) {
-        return Optional.empty();
+  /** The earliest time in the given window at which the (non-constant) value has moved strictly past the given bound. */
+  private Optional<Duration> whenPast(final double bound, final Duration atEarliest, final Duration atLatest) {
+    return this.earliest(
+        (this.rate > 0) ? (t -> bound < this.valueAt(t)) : (t -> this.valueAt(t) < bound),
+        bound,
+        atEarliest,
+        atLatest);
+  }
+
+  /**
+   * Find the earliest time in the given window satisfying a predicate which, once true, remains true,
+   * and which is known not to hold at the start of the window.
+   *
+   * The crossing time of the bound is computed in closed form and used as the first guess. Since the value at that time
+   * is subject to rounding, the guess is then checked, and corrected by bisection if it is off by even a microsecond.
+   */
+  private Optional<Duration> earliest(
+      final Predicate<Duration> satisfied,
+      final double bound,
+      final Duration atEarliest,
+      final Duration atLatest)
+  {
+    if (!satisfied.test(atLatest)) return Optional.empty();
+
+    // Invariant: the predicate does not hold at `lo`, and holds at `hi`.
+    var lo = atEarliest;
+    var hi = atLatest;
+
+    final double crossing = (bound - this.initial) / this.rate * Duration.SECOND.dividedBy(Duration.MICROSECOND);
+    if (crossing > lo.in(Duration.MICROSECONDS) && crossing < hi.in(Duration.MICROSECONDS)) {
+      final var guess = Duration.of((long) Math.ceil(crossing), Duration.MICROSECONDS);
+      if (!satisfied.test(guess)) {
+        lo = guess;
+      } else if (!satisfied.test(guess.minus(Duration.EPSILON))) {
+        return Optional.of(guess);
       } else {
-        return Optional.of(atEarliest);
+        hi = guess.minus(Duration.EPSILON);
       }
     }
 
-    final double valueAtEarliest = this.initial + this.rate * atEarliest.in(Duration.SECONDS);
-    final double valueAtLatest = this.initial + this.rate * atLatest.in(Duration.SECONDS);
-    final Duration entry;
-    if (valueAtEarliest < min || max < valueAtEarliest) {
-      entry = atEarliest;
-    } else if (this.rate > 0) {
-      if (valueAtLatest <= max) return Optional.empty();
-      entry = Duration.roundUpward((max - this.initial) / this.rate, Duration.SECONDS);
-    } else /* this.rate < 0 */ {
-      if (valueAtLatest >= min) return Optional.empty();
-      entry = Duration.roundUpward((min - this.initial) / this.rate, Duration.SECONDS);
+    while (hi.minus(lo).longerThan(Duration.EPSILON)) {
+      final var mid = lo.plus(hi.minus(lo).dividedBy(2));
+      if (satisfied.test(mid)) hi = mid;
+      else lo = mid;
     }
-
-    return Optional.of(entry);
+    return Optional.of(hi);
   }
 
 
@@ -0,0 +1,68 @@
+package gov.nasa.jpl.aerie.merlin.protocol.types;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.EPSILON;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.HOUR;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MILLISECONDS;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.SECONDS;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.ZERO;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.duration;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class RealDynamicsTest {
+  @Test
+  public void testCrossingIsExactToTheMicrosecond() {
+    // 0.1 is not exactly representable, so the closed-form crossing time is subject to rounding.
+    final var dynamics = RealDynamics.linear(0.0, 0.1);
+    final var entry = dynamics.whenAtLeast(0.3, ZERO, HOUR).orElseThrow();
+
+    assertTrue(dynamics.valueAt(entry) >= 0.3);
+    assertTrue(dynamics.valueAt(entry.minus(EPSILON)) < 0.3);
+  }
+
+  @Test
+  public void testCrossingWithinFractionalSeconds() {
+    final var dynamics = RealDynamics.linear(10.0, -4.0);
+
+    assertEquals(Optional.of(duration(2250, MILLISECONDS)), dynamics.whenAtMost(1.0, ZERO, HOUR));
+    assertEquals(Optional.of(duration(2250, MILLISECONDS).plus(EPSILON)), dynamics.whenLessThan(1.0, ZERO, HOUR));
+  }
+
+  @Test
+  public void testStrictThresholdIsPastTheBound() {
+    final var dynamics = RealDynamics.linear(0.0, 1.0);
+
+    assertEquals(Optional.of(duration(5, SECONDS)), dynamics.whenAtLeast(5.0, ZERO, HOUR));
+    assertEquals(Optional.of(duration(5, SECONDS).plus(EPSILON)), dynamics.whenGreaterThan(5.0, ZERO, HOUR));
+    assertEquals(Optional.of(duration(5, SECONDS).plus(EPSILON)), dynamics.whenNotBetween(0.0, 5.0, ZERO, HOUR));
+  }
+
+  @Test
+  public void testCrossingOutsideWindow() {
+    final var dynamics = RealDynamics.linear(0.0, 1.0);
+
+    assertEquals(Optional.empty(), dynamics.whenAtLeast(5.0, ZERO, duration(5, SECONDS).minus(EPSILON)));
+    assertEquals(Optional.empty(), dynamics.whenAtMost(-1.0, ZERO, HOUR));
+    assertEquals(Optional.of(duration(6, SECONDS)), dynamics.whenAtLeast(5.0, duration(6, SECONDS), HOUR));
+  }
+
+  @Test
+  public void testBetweenEnteredFromEitherSide() {
+    assertEquals(Optional.of(duration(2, SECONDS)), RealDynamics.linear(0.0, 1.0).whenBetween(2.0, 3.0, ZERO, HOUR));
+    assertEquals(Optional.of(duration(7, SECONDS)), RealDynamics.linear(10.0, -1.0).whenBetween(2.0, 3.0, ZERO, HOUR));
+    assertEquals(Optional.empty(), RealDynamics.linear(10.0, 1.0).whenBetween(2.0, 3.0, ZERO, HOUR));
+    assertEquals(Optional.empty(), RealDynamics.constant(10.0).whenBetween(2.0, 3.0, ZERO, HOUR));
+  }
+
+  @Test
+  public void testBetweenSkippedWithinOneMicrosecond() {
+    // The value passes through the interval entirely between two consecutive microseconds.
+    final var dynamics = RealDynamics.linear(0.0, 1.0e6);
+
+    assertEquals(Optional.empty(), dynamics.whenBetween(1.2, 1.8, ZERO, HOUR));
+  }
+}
@@ -52,7 +52,14 @@ function toJson(unwrappedErr: any){
   }
 }
 
+// Replies name the request they answer, if it had an id, so that the server can tell if it has fallen out of step with us.
+function reply(status: 'success' | 'error' | 'panic', requestId: number | undefined, payload: string) {
+  process.stdout.write((requestId === undefined ? status : `${status} ${requestId}`) + '\n');
+  process.stdout.write(payload + '\n');
+}
+
 async function handleRequest(data: Buffer) {
+  let requestId: number | undefined = undefined;
   try {
     // Test the health of the service by responding to "ping" with "pong".
     if (data.toString() === 'ping') {
@@ -60,11 +67,14 @@ async function handleRequest(data: Buffer) {
       lineReader.once('line', handleRequest);
       return;
     }
-    const { constraintCode, missionModelGeneratedCode, expectedReturnType } = JSON.parse(data.toString()) as {
+    const request = JSON.parse(data.toString()) as {
+      requestId?: number;
       constraintCode: string;
       missionModelGeneratedCode: string;
       expectedReturnType: string;
     };
+    const { constraintCode, missionModelGeneratedCode, expectedReturnType } = request;
+    requestId = request.requestId;
 
     const additionalSourceFiles: { 'filename': string, 'contents': string}[] = [
       { 'filename': 'constraints-ast.ts', 'contents': constraintsAST },
@@ -86,9 +96,7 @@ async function handleRequest(data: Buffer) {
     );
 
     if (result.isErr()) {
-      const secondLine = JSON.stringify(result.unwrapErr().map(err => toJson(err))) + '\n';
-      process.stdout.write('error\n')
-      process.stdout.write(secondLine);
+      reply('error', requestId, JSON.stringify(result.unwrapErr().map(err => toJson(err))));
       lineReader.once('line', handleRequest);
       return;
     }
@@ -105,11 +113,9 @@ async function handleRequest(data: Buffer) {
     if (stringified === undefined) {
       throw Error(JSON.stringify(result.unwrap()) + ' was not JSON serializable');
     }
-    process.stdout.write('success\n')
-    process.stdout.write(stringified + '\n');
+    reply('success', requestId, stringified);
   } catch (error: any) {
-    process.stdout.write('panic\n');
-    process.stdout.write(JSON.stringify(error.stack ?? error.message) + ' attempted to handle: ' + data.toString() + '\n');
+    reply('panic', requestId, JSON.stringify(error.stack ?? error.message) + ' attempted to handle: ' + data.toString());
   }
   lineReader.once('line', handleRequest);
 }
@@ -17,6 +17,7 @@ import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresMissionModelRep
 import gov.nasa.jpl.aerie.permissions.PermissionsService;
 import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresPlanRepository;
 import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresResultsCellRepository;
+import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.SimulationResultsCache;
 import gov.nasa.jpl.aerie.merlin.server.services.CachedSimulationService;
 import gov.nasa.jpl.aerie.merlin.server.services.ConstraintAction;
 import gov.nasa.jpl.aerie.merlin.server.services.ConstraintsDSLCompilationService;
@@ -40,7 +41,9 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Optional;
 
 public final class AerieAppDriver {
 
@@ -52,14 +55,18 @@ public final class AerieAppDriver {
     final var missionModelController = new LocalMissionModelService(
         configuration.merlinFileStore(),
         stores.missionModels(),
-        configuration.untruePlanStart());
+        configuration.untruePlanStart(),
+        configuration.residentProfileSlabs());
     final var planController = new LocalPlanService(stores.plans());
 
     final var typescriptCodeGenerationService = new TypescriptCodeGenerationServiceAdapter(missionModelController, planController);
 
     final ConstraintsDSLCompilationService constraintsDSLCompilationService;
     try {
-      constraintsDSLCompilationService = new ConstraintsDSLCompilationService(typescriptCodeGenerationService);
+      constraintsDSLCompilationService = new ConstraintsDSLCompilationService(
+          typescriptCodeGenerationService,
+          configuration.constraintsDslCompilerProcesses(),
+          configuration.constraintsDslCompilerTimeout());
     } catch (IOException e) {
       throw new Error("Failed to start ConstraintsDSLCompilationService", e);
     }
@@ -144,7 +151,10 @@ public final class AerieAppDriver {
       return new Stores(
           new PostgresPlanRepository(hikariDataSource),
           new PostgresMissionModelRepository(hikariDataSource),
-          new PostgresResultsCellRepository(hikariDataSource),
+          new PostgresResultsCellRepository(
+              hikariDataSource,
+              PostgresResultsCellRepository.ResultsWriteMode.INSERT,
+              new SimulationResultsCache(config.resultsCacheBytes())),
           new PostgresConstraintRepository(hikariDataSource));
     } else {
       throw new UnexpectedSubtypeError(Store.class, store);
@@ -169,7 +179,11 @@ public final class AerieAppDriver {
                           getEnv("MERLIN_DB", "aerie_merlin")),
         Instant.parse(getEnv("UNTRUE_PLAN_START", "")),
         URI.create(getEnv("HASURA_GRAPHQL_URL", "http://localhost:8080/v1/graphql")),
-        getEnv("HASURA_GRAPHQL_ADMIN_SECRET", "")
+        getEnv("HASURA_GRAPHQL_ADMIN_SECRET", ""),
+        Long.parseLong(getEnv("MERLIN_RESULTS_CACHE_BYTES", String.valueOf(256L * 1024 * 1024))),
+        Integer.parseInt(getEnv("CONSTRAINTS_DSL_COMPILER_PROCESSES", "2")),
+        Duration.ofSeconds(Long.parseLong(getEnv("CONSTRAINTS_DSL_COMPILER_TIMEOUT_SECONDS", "120"))),
+        Optional.of(getEnv("MERLIN_RESIDENT_PROFILE_SLABS", "")).filter($ -> !$.isBlank()).map(Integer::parseInt)
     );
   }
 }
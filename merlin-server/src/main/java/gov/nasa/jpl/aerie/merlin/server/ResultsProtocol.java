@@ -2,9 +2,11 @@ package gov.nasa.jpl.aerie.merlin.server;
 
 import gov.nasa.jpl.aerie.merlin.driver.SimulationFailure;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationResultsSink;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import gov.nasa.jpl.aerie.merlin.server.models.SimulationResultsHandle;
 
+import java.time.Instant;
 import java.util.function.Consumer;
 
 public final class ResultsProtocol {
@@ -40,6 +42,13 @@ public final class ResultsProtocol {
     //   of the underlying resource in order to deallocate it.
     void succeedWith(SimulationResults results);
 
+    // Results may instead be written while the simulation runs, through the sink returned by `streamResults`.
+    //   Once the sink has been finished, the writer must complete with `succeedWithStreamedResults()`,
+    //   or with `failWith()` if the simulation did not complete.
+    SimulationResultsSink streamResults(Instant simulationStartTime);
+
+    void succeedWithStreamedResults();
+
     void failWith(SimulationFailure reason);
 
     default void failWith(final Consumer<SimulationFailure.Builder> builderConsumer) {
@@ -2,8 +2,10 @@ package gov.nasa.jpl.aerie.merlin.server.config;
 
 import java.net.URI;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Objects;
+import java.util.Optional;
 
 public record AppConfiguration (
     int httpPort,
@@ -12,11 +14,18 @@ public record AppConfiguration (
     Store store,
     Instant untruePlanStart,
     URI hasuraGraphqlURI,
-    String hasuraGraphQlAdminSecret
+    String hasuraGraphQlAdminSecret,
+    long resultsCacheBytes,
+    int constraintsDslCompilerProcesses,
+    Duration constraintsDslCompilerTimeout,
+    Optional<Integer> residentProfileSlabs
 ) {
   public AppConfiguration {
     Objects.requireNonNull(merlinFileStore);
     Objects.requireNonNull(store);
     Objects.requireNonNull(untruePlanStart);
+    Objects.requireNonNull(constraintsDslCompilerTimeout);
+    Objects.requireNonNull(residentProfileSlabs);
+    if (residentProfileSlabs.filter($ -> $ < 0).isPresent()) throw new IllegalArgumentException("residentProfileSlabs must not be negative");
   }
 }
@@ -17,7 +17,9 @@ import static gov.nasa.jpl.aerie.json.Uncurry.tuple;
 import static gov.nasa.jpl.aerie.json.Uncurry.untuple;
 import static gov.nasa.jpl.aerie.merlin.driver.json.SerializedValueJsonParser.serializedValueP;
 import static gov.nasa.jpl.aerie.merlin.server.http.MerlinParsers.datasetIdP;
+import static gov.nasa.jpl.aerie.merlin.server.http.MerlinParsers.durationP;
 import static gov.nasa.jpl.aerie.merlin.server.http.MerlinParsers.planIdP;
+import static gov.nasa.jpl.aerie.merlin.server.http.MerlinParsers.positiveIntP;
 import static gov.nasa.jpl.aerie.merlin.server.http.MerlinParsers.simulationDatasetIdP;
 import static gov.nasa.jpl.aerie.merlin.server.http.MerlinParsers.timestampP;
 import static gov.nasa.jpl.aerie.merlin.server.http.ProfileParsers.profileSetP;
@@ -54,6 +56,30 @@ public abstract class HasuraParsers {
                           .field("planId", planIdP)
                           .map(HasuraAction.PlanInput::new, HasuraAction.PlanInput::planId));
 
+  public static final JsonParser<HasuraAction<HasuraAction.ResourceSamplesInput>> hasuraResourceSamplesActionP
+      = hasuraActionF(
+      productP
+          .field("planId", planIdP)
+          .optionalField("startOffset", nullableP(durationP))
+          .optionalField("endOffset", nullableP(durationP))
+          .optionalField("resourceNames", nullableP(listP(stringP)))
+          .optionalField("maxSamples", nullableP(positiveIntP))
+          .map(
+              untuple((planId, startOffset, endOffset, resourceNames, maxSamples) -> new HasuraAction.ResourceSamplesInput(
+                  planId,
+                  startOffset.flatMap($ -> $),
+                  endOffset.flatMap($ -> $),
+                  resourceNames.flatMap($ -> $),
+                  maxSamples.flatMap($ -> $))),
+              $ -> tuple(
+                  $.planId(),
+                  Optional.of($.startOffset()),
+                  Optional.of($.endOffset()),
+                  Optional.of($.resourceNames()),
+                  Optional.of($.maxSamples()))
+          )
+  );
+
   public static final JsonParser<HasuraAction<HasuraAction.ConstraintViolationsInput>> hasuraConstraintsViolationsActionP
       = hasuraActionF(
       productP
@@ -39,6 +39,7 @@ import static gov.nasa.jpl.aerie.merlin.server.http.HasuraParsers.hasuraMissionM
 import static gov.nasa.jpl.aerie.merlin.server.http.HasuraParsers.hasuraMissionModelArgumentsActionP;
 import static gov.nasa.jpl.aerie.merlin.server.http.HasuraParsers.hasuraMissionModelEventTriggerP;
 import static gov.nasa.jpl.aerie.merlin.server.http.HasuraParsers.hasuraPlanActionP;
+import static gov.nasa.jpl.aerie.merlin.server.http.HasuraParsers.hasuraResourceSamplesActionP;
 import static gov.nasa.jpl.aerie.merlin.server.http.HasuraParsers.hasuraExtendExternalDatasetActionP;
 import static io.javalin.apibuilder.ApiBuilder.before;
 import static io.javalin.apibuilder.ApiBuilder.path;
@@ -202,12 +203,18 @@ public final class MerlinBindings implements Plugin {
 
   private void getResourceSamples(final Context ctx) {
     try {
-      final var body = parseJson(ctx.body(), hasuraPlanActionP);
-      final var planId = body.input().planId();
+      final var body = parseJson(ctx.body(), hasuraResourceSamplesActionP);
+      final var input = body.input();
+      final var planId = input.planId();
 
       this.checkPermissions(Action.resource_samples, body.session(), planId);
 
-      final var resourceSamples = this.simulationAction.getResourceSamples(planId);
+      final var resourceSamples = this.simulationAction.getResourceSamples(
+          planId,
+          input.startOffset(),
+          input.endOffset(),
+          input.resourceNames(),
+          input.maxSamples());
       ctx.result(ResponseSerializers.serializeResourceSamples(resourceSamples).toString());
     } catch (final InvalidJsonException ex) {
       ctx.status(400).result(ResponseSerializers.serializeInvalidJsonException(ex).toString());
@@ -57,6 +57,34 @@ public abstract class MerlinParsers {
     }
   };
 
+  public static final JsonParser<Integer> positiveIntP = new JsonParser<>() {
+    @Override
+    public JsonObject getSchema(final SchemaCache anchors) {
+      return Json
+          .createObjectBuilder(intP.getSchema())
+          .add("minimum", 1)
+          .build();
+    }
+
+    @Override
+    public JsonParseResult<Integer> parse(final JsonValue json) {
+      final var result = intP.parse(json);
+      if (result instanceof JsonParseResult.Success<Integer> s) {
+        if (s.result() < 1) return JsonParseResult.failure("expected positive int");
+        return s;
+      } else if (result instanceof JsonParseResult.Failure<?> f) {
+        return f.cast();
+      } else {
+        throw new UnexpectedSubtypeError(JsonParseResult.class, result);
+      }
+    }
+
+    @Override
+    public JsonValue unparse(final Integer value) {
+      return intP.unparse(value);
+    }
+  };
+
   public static final JsonParser<Duration> durationP
       = longP
       . map(
@@ -1,15 +1,19 @@
 package gov.nasa.jpl.aerie.merlin.server.models;
 
 import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
 import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
 import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 import static gov.nasa.jpl.aerie.json.Uncurry.untuple;
@@ -37,6 +41,67 @@ public record ProfileSet(
     );
   }
 
+  /**
+   * Restrict every profile to the window `[start, end]` of simulation time, so that each profile's first segment
+   * begins at `start`. The profiles are taken to begin at the start of simulation.
+   */
+  public ProfileSet window(final Duration start, final Duration end) {
+    return new ProfileSet(
+        windowAll(this.realProfiles, start, end, ProfileSet::advanceReal),
+        windowAll(this.discreteProfiles, start, end, (value, elapsed) -> value));
+  }
+
+  private static <T> Map<String, Pair<ValueSchema, List<ProfileSegment<Optional<T>>>>> windowAll(
+      final Map<String, Pair<ValueSchema, List<ProfileSegment<Optional<T>>>>> profileMap,
+      final Duration start,
+      final Duration end,
+      final BiFunction<T, Duration, T> advance
+  ) {
+    final var windowed = new HashMap<String, Pair<ValueSchema, List<ProfileSegment<Optional<T>>>>>(profileMap.size());
+    profileMap.forEach((name, profile) -> windowed.put(
+        name,
+        Pair.of(profile.getLeft(), window(profile.getRight(), Duration.ZERO, start, end, advance))));
+    return windowed;
+  }
+
+  /**
+   * Restrict a profile whose first segment begins at `origin` to the window `[start, end]`.
+   *
+   * The first segment of the result begins at `start` (or at `origin`, if that is later), with its dynamics advanced
+   * by the time which was cut from its front; the last segment ends no later than `end`.
+   */
+  public static <T> List<ProfileSegment<Optional<T>>> window(
+      final List<ProfileSegment<Optional<T>>> segments,
+      final Duration origin,
+      final Duration start,
+      final Duration end,
+      final BiFunction<T, Duration, T> advance
+  ) {
+    final var windowed = new ArrayList<ProfileSegment<Optional<T>>>();
+    var segmentStart = origin;
+    for (final var segment : segments) {
+      final var segmentEnd = segmentStart.plus(segment.extent());
+      if (!segmentStart.shorterThan(end) && !windowed.isEmpty()) break;
+
+      if (segmentEnd.longerThan(start)) {
+        final var clippedStart = Duration.max(segmentStart, start);
+        final var clippedEnd = Duration.min(segmentEnd, end);
+        final var cut = clippedStart.minus(segmentStart);
+        windowed.add(new ProfileSegment<>(
+            Duration.max(clippedEnd.minus(clippedStart), Duration.ZERO),
+            segment.dynamics().map($ -> advance.apply($, cut))));
+      }
+      segmentStart = segmentEnd;
+    }
+    return windowed;
+  }
+
+  /** Real dynamics as they stand once the given amount of time has elapsed. */
+  public static RealDynamics advanceReal(final RealDynamics dynamics, final Duration elapsed) {
+    if (elapsed.isZero()) return dynamics;
+    return RealDynamics.linear(dynamics.initial + dynamics.rate * elapsed.ratioOver(Duration.SECONDS), dynamics.rate);
+  }
+
   public static <T> Map<String, Pair<ValueSchema, List<ProfileSegment<Optional<T>>>>> wrapInOptional(
       final Map<String, Pair<ValueSchema, List<ProfileSegment<T>>>> profileMap
   ) {
@@ -3,12 +3,32 @@ package gov.nasa.jpl.aerie.merlin.server.models;
 import gov.nasa.jpl.aerie.merlin.driver.SimulatedActivity;
 import gov.nasa.jpl.aerie.merlin.driver.SimulatedActivityId;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.EventGraph;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
+/**
+ * Access to the results of a completed simulation.
+ *
+ * <p>
+ *   {@link #getSimulationResults()} assembles every component of the results, which may be expensive for large
+ *   simulations. Callers which need only some components should prefer the narrower accessors.
+ * </p>
+ */
 public interface SimulationResultsHandle {
   SimulationDatasetId getSimulationDatasetId();
 
@@ -20,5 +40,98 @@ public interface SimulationResultsHandle {
 
   ProfileSet getProfiles(final List<String> profileNames);
 
+  /**
+   * Get the named profiles, or every profile if none are named, restricted to the window `[start, end]`
+   * of simulation time. The first segment of each profile begins at `start`.
+   */
+  ProfileSet getProfiles(final Optional<List<String>> profileNames, final Duration start, final Duration end);
+
   Map<SimulatedActivityId, SimulatedActivity> getSimulatedActivities();
+
+  /**
+   * Get the simulated activities of the given types, or of every type if none are given,
+   * which overlap the window `[start, end]` of simulation time.
+   * Each activity only lists those of its children which are also returned.
+   */
+  default Map<SimulatedActivityId, SimulatedActivity> getSimulatedActivities(
+      final Optional<Set<String>> types,
+      final Duration start,
+      final Duration end
+  ) {
+    return filterActivities(this.getSimulatedActivities(), this.startTime(), types, start, end);
+  }
+
+  default List<Triple<Integer, String, ValueSchema>> getTopics() {
+    return this.getSimulationResults().topics;
+  }
+
+  /**
+   * Get the events emitted on the given topics, or on every topic if none are given,
+   * within the window `[start, end]` of simulation time.
+   */
+  default SortedMap<Duration, List<EventGraph<Pair<Integer, SerializedValue>>>> getEvents(
+      final Optional<Set<Integer>> topics,
+      final Duration start,
+      final Duration end
+  ) {
+    return filterEvents(this.getSimulationResults().events, topics, start, end);
+  }
+
+  static Map<SimulatedActivityId, SimulatedActivity> filterActivities(
+      final Map<SimulatedActivityId, SimulatedActivity> activities,
+      final Instant simulationStart,
+      final Optional<Set<String>> types,
+      final Duration start,
+      final Duration end
+  ) {
+    final var filtered = new HashMap<SimulatedActivityId, SimulatedActivity>();
+    activities.forEach((id, activity) -> {
+      if (types.isPresent() && !types.get().contains(activity.type())) return;
+
+      final var activityStart = Duration.of(simulationStart.until(activity.start(), ChronoUnit.MICROS), Duration.MICROSECONDS);
+      if (activityStart.longerThan(end) || activityStart.plus(activity.duration()).shorterThan(start)) return;
+
+      filtered.put(id, activity);
+    });
+
+    // As when only the window is read from the database, each activity only lists those of its children which were kept.
+    filtered.replaceAll((id, activity) -> new SimulatedActivity(
+        activity.type(),
+        activity.arguments(),
+        activity.start(),
+        activity.duration(),
+        activity.parentId(),
+        activity.childIds().stream().filter(filtered::containsKey).toList(),
+        activity.directiveId(),
+        activity.computedAttributes()));
+    return filtered;
+  }
+
+  /** Restrict events to a window of time and a set of topics, preserving the causal order among those which remain. */
+  static SortedMap<Duration, List<EventGraph<Pair<Integer, SerializedValue>>>> filterEvents(
+      final Map<Duration, List<EventGraph<Pair<Integer, SerializedValue>>>> events,
+      final Optional<Set<Integer>> topics,
+      final Duration start,
+      final Duration end
+  ) {
+    final var filtered = new TreeMap<Duration, List<EventGraph<Pair<Integer, SerializedValue>>>>();
+    events.forEach((time, graphs) -> {
+      if (time.shorterThan(start) || time.longerThan(end)) return;
+      if (topics.isEmpty()) {
+        filtered.put(time, graphs);
+        return;
+      }
+
+      final var kept = new ArrayList<EventGraph<Pair<Integer, SerializedValue>>>(graphs.size());
+      for (final var graph : graphs) {
+        final var restricted = graph.evaluate(
+            new EventGraph.IdentityTrait<Pair<Integer, SerializedValue>>(),
+            event -> topics.get().contains(event.getLeft()) ? EventGraph.atom(event) : EventGraph.empty());
+        if (!(restricted instanceof EventGraph.Empty)) kept.add(restricted);
+      }
+      if (!kept.isEmpty()) filtered.put(time, kept);
+    });
+    return filtered;
+  }
+
 }
@@ -1,9 +1,11 @@
 package gov.nasa.jpl.aerie.merlin.server.remotes;
 
+import gov.nasa.jpl.aerie.merlin.driver.InMemorySimulationResultsSink;
 import gov.nasa.jpl.aerie.merlin.driver.SimulatedActivity;
 import gov.nasa.jpl.aerie.merlin.driver.SimulatedActivityId;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationFailure;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationResultsSink;
 import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
@@ -86,6 +88,7 @@ public final class InMemoryResultsCellRepository implements ResultsCellRepositor
   public static final class InMemoryCell implements ResultsProtocol.OwnerRole {
     private volatile boolean canceled = false;
     private volatile ResultsProtocol.State state = new ResultsProtocol.State.Incomplete(0);
+    private Optional<InMemorySimulationResultsSink> stream = Optional.empty();
     public final PlanId planId;
     public final long planRevision;
 
@@ -119,6 +122,19 @@ public final class InMemoryResultsCellRepository implements ResultsCellRepositor
       this.state = new ResultsProtocol.State.Success(0, new InMemorySimulationResultsHandle(results));
     }
 
+    @Override
+    public SimulationResultsSink streamResults(final Instant simulationStartTime) {
+      final var sink = new InMemorySimulationResultsSink();
+      this.stream = Optional.of(sink);
+      return sink;
+    }
+
+    @Override
+    public void succeedWithStreamedResults() {
+      final var sink = this.stream.orElseThrow(() -> new IllegalStateException("No results have been streamed"));
+      this.succeedWith(sink.results());
+    }
+
     @Override
     public void failWith(final SimulationFailure reason) {
       if (!(this.state instanceof ResultsProtocol.State.Incomplete)) {
@@ -184,6 +200,14 @@ public final class InMemoryResultsCellRepository implements ResultsCellRepositor
       return ProfileSet.of(realProfiles, discreteProfiles);
     }
 
+    @Override
+    public ProfileSet getProfiles(final Optional<List<String>> profileNames, final Duration start, final Duration end) {
+      final var profiles = (profileNames.isPresent())
+          ? this.getProfiles(profileNames.get())
+          : ProfileSet.of(this.simulationResults.realProfiles, this.simulationResults.discreteProfiles);
+      return profiles.window(start, end);
+    }
+
     @Override
     public Map<SimulatedActivityId, SimulatedActivity> getSimulatedActivities() {
       return this.simulationResults.simulatedActivities;
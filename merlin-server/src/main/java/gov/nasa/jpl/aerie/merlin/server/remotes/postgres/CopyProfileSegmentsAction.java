@@ -0,0 +1,62 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.json.JsonParser;
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import org.intellij.lang.annotations.Language;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Writes profile segments through a single `COPY` for any number of profiles.
+ *
+ * Segments are added with {@link #add}, and are only guaranteed to be written once {@link #apply()} is called.
+ */
+/*package-local*/ final class CopyProfileSegmentsAction implements AutoCloseable {
+  private static final @Language("SQL") String sql = """
+      copy profile_segment (dataset_id, profile_id, start_offset, dynamics, is_gap)
+      from stdin with (format csv)
+    """;
+
+  private final CsvCopyWriter writer;
+
+  public CopyProfileSegmentsAction(final Connection connection) {
+    this.writer = new CsvCopyWriter(connection, sql);
+  }
+
+  /** Add segments to a profile, starting from the given offset. Returns the offset at which the last segment ends. */
+  public <Dynamics> Duration add(
+      final long datasetId,
+      final ProfileRecord profileRecord,
+      final Duration startOffset,
+      final List<ProfileSegment<Optional<Dynamics>>> segments,
+      final JsonParser<Dynamics> dynamicsP
+  ) throws SQLException {
+    var accumulatedOffset = startOffset;
+    for (final var segment : segments) {
+      this.writer.field(datasetId).field(profileRecord.id()).field(accumulatedOffset);
+      if (segment.dynamics().isPresent()) {
+        this.writer.field(dynamicsP.unparse(segment.dynamics().get()).toString()).field(false);
+      } else {
+        this.writer.field("null").field(true);
+      }
+      this.writer.endRow();
+
+      accumulatedOffset = Duration.add(accumulatedOffset, segment.extent());
+    }
+
+    return accumulatedOffset;
+  }
+
+  public void apply() throws SQLException {
+    this.writer.finish();
+  }
+
+  @Override
+  public void close() throws SQLException {
+    this.writer.close();
+  }
+}
@@ -0,0 +1,58 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.merlin.driver.timeline.EventGraph;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import org.apache.commons.lang3.tuple.Pair;
+import org.intellij.lang.annotations.Language;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static gov.nasa.jpl.aerie.merlin.driver.json.SerializedValueJsonParser.serializedValueP;
+
+/** Writes simulation events through `COPY`, with the same rows as {@link InsertSimulationEventsAction}. */
+/*package-local*/ final class CopySimulationEventsAction implements AutoCloseable {
+  private static final @Language("SQL") String sql = """
+      copy event (dataset_id, real_time, transaction_index, causal_time, topic_index, value)
+      from stdin with (format csv)
+    """;
+
+  private final CsvCopyWriter writer;
+
+  public CopySimulationEventsAction(final Connection connection) {
+    this.writer = new CsvCopyWriter(connection, sql);
+  }
+
+  public void apply(
+      final long datasetId,
+      final Map<Duration, List<EventGraph<Pair<Integer, SerializedValue>>>> eventPoints
+  ) throws SQLException {
+    for (final var eventPoint : eventPoints.entrySet()) {
+      final var time = eventPoint.getKey();
+      final var transactions = eventPoint.getValue();
+      for (int transactionIndex = 0; transactionIndex < transactions.size(); transactionIndex++) {
+        for (final var entry : EventGraphFlattener.flatten(transactions.get(transactionIndex))) {
+          final var event = entry.getRight();
+
+          this.writer
+              .field(datasetId)
+              .field(time)
+              .field(transactionIndex)
+              .field(entry.getLeft())
+              .field(event.getLeft())
+              .field(serializedValueP.unparse(event.getRight()).toString())
+              .endRow();
+        }
+      }
+    }
+    this.writer.finish();
+  }
+
+  @Override
+  public void close() throws SQLException {
+    this.writer.close();
+  }
+}
@@ -0,0 +1,86 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.server.models.Timestamp;
+import org.intellij.lang.annotations.Language;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresParsers.activityAttributesP;
+
+/**
+ * Writes spans through `COPY`, with the same rows as {@link PostSpansAction}.
+ *
+ * `COPY` cannot return generated keys, so span identifiers are drawn from the table's sequence up front
+ * and written explicitly.
+ */
+/*package-local*/ final class CopySpansAction implements AutoCloseable {
+  private static final @Language("SQL") String reserveIdsSql = """
+      select nextval(pg_get_serial_sequence('span', 'id'))
+      from generate_series(1, ?)
+    """;
+
+  private static final @Language("SQL") String sql = """
+      copy span (id, dataset_id, start_offset, duration, type, attributes)
+      from stdin with (format csv)
+    """;
+
+  private final PreparedStatement reserveIdsStatement;
+  private final CsvCopyWriter writer;
+
+  public CopySpansAction(final Connection connection) throws SQLException {
+    this.reserveIdsStatement = connection.prepareStatement(reserveIdsSql);
+    this.writer = new CsvCopyWriter(connection, sql);
+  }
+
+  public Map<Long, Long> apply(
+      final long datasetId,
+      final Map<Long, SpanRecord> spans,
+      final Timestamp simulationStart
+  ) throws SQLException {
+    final var simIdToPostgresId = new HashMap<Long, Long>(spans.size());
+    if (spans.isEmpty()) return simIdToPostgresId;
+
+    this.reserveIdsStatement.setInt(1, spans.size());
+    try (final var resultSet = this.reserveIdsStatement.executeQuery()) {
+      for (final var id : spans.keySet()) {
+        if (!resultSet.next()) throw new Error("Not enough span IDs reserved for bulk insertion.");
+        simIdToPostgresId.put(id, resultSet.getLong(1));
+      }
+    }
+
+    for (final var entry : spans.entrySet()) {
+      final var span = entry.getValue();
+      final var startOffset = Duration.of(
+          simulationStart.microsUntil(new Timestamp(span.start())),
+          Duration.MICROSECONDS);
+
+      this.writer
+          .field(simIdToPostgresId.get(entry.getKey()))
+          .field(datasetId)
+          .field(startOffset);
+      if (span.duration().isPresent()) {
+        this.writer.field(span.duration().get());
+      } else {
+        this.writer.nullField();
+      }
+      this.writer
+          .field(span.type())
+          .field(activityAttributesP.unparse(span.attributes()).toString())
+          .endRow();
+    }
+    this.writer.finish();
+
+    return simIdToPostgresId;
+  }
+
+  @Override
+  public void close() throws SQLException {
+    this.reserveIdsStatement.close();
+    this.writer.close();
+  }
+}
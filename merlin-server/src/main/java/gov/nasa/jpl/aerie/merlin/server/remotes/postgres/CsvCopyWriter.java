@@ -0,0 +1,108 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import org.intellij.lang.annotations.Language;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Streams rows into a table through a `COPY ... FROM STDIN (FORMAT csv)` statement.
+ *
+ * <p>
+ * Rows are sent to the server in chunks as they are written, so memory use does not grow with the number of rows.
+ * The copy is not begun until the first row is written, and the connection cannot be used for anything else
+ * until the copy has been finished or the writer closed.
+ * </p>
+ */
+/*package-local*/ final class CsvCopyWriter implements AutoCloseable {
+  private static final int CHUNK_SIZE = 1 << 16;
+
+  private final Connection connection;
+  private final @Language("SQL") String sql;
+  private final StringBuilder buffer = new StringBuilder(CHUNK_SIZE);
+  private CopyIn copy = null;
+  private boolean rowStarted = false;
+
+  public CsvCopyWriter(final Connection connection, final @Language("SQL") String sql) {
+    this.connection = connection;
+    this.sql = sql;
+  }
+
+  public CsvCopyWriter field(final String value) {
+    this.separate();
+    // Quote every value, so that empty strings are not confused with nulls.
+    this.buffer.append('"');
+    for (var i = 0; i < value.length(); i += 1) {
+      final var c = value.charAt(i);
+      if (c == '"') this.buffer.append('"');
+      this.buffer.append(c);
+    }
+    this.buffer.append('"');
+    return this;
+  }
+
+  public CsvCopyWriter field(final long value) {
+    this.separate();
+    this.buffer.append(value);
+    return this;
+  }
+
+  public CsvCopyWriter field(final boolean value) {
+    this.separate();
+    this.buffer.append(value);
+    return this;
+  }
+
+  public CsvCopyWriter field(final Duration value) {
+    this.separate();
+    this.buffer.append(PreparedStatements.formatDuration(value));
+    return this;
+  }
+
+  public CsvCopyWriter nullField() {
+    this.separate();
+    return this;
+  }
+
+  public void endRow() throws SQLException {
+    this.buffer.append('\n');
+    this.rowStarted = false;
+    if (this.buffer.length() >= CHUNK_SIZE) this.sendBuffer();
+  }
+
+  /** Complete the copy, returning the number of rows written. */
+  public long finish() throws SQLException {
+    if (this.copy == null && this.buffer.isEmpty()) return 0;
+
+    this.sendBuffer();
+    final var rows = this.copy.endCopy();
+    this.copy = null;
+    return rows;
+  }
+
+  private void separate() {
+    if (this.rowStarted) this.buffer.append(',');
+    this.rowStarted = true;
+  }
+
+  private void sendBuffer() throws SQLException {
+    if (this.copy == null) {
+      this.copy = this.connection.unwrap(PGConnection.class).getCopyAPI().copyIn(this.sql);
+    }
+
+    final var bytes = this.buffer.toString().getBytes(StandardCharsets.UTF_8);
+    this.copy.writeToCopy(bytes, 0, bytes.length);
+    this.buffer.setLength(0);
+  }
+
+  @Override
+  public void close() throws SQLException {
+    // An unfinished copy must be abandoned, or the connection is left unusable.
+    if (this.copy != null && this.copy.isActive()) this.copy.cancelCopy();
+    this.copy = null;
+  }
+}
@@ -0,0 +1,103 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.json.JsonParser;
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.server.models.ProfileSet;
+import org.intellij.lang.annotations.Language;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresParsers.getJsonColumn;
+
+/**
+ * Like {@link GetProfileSegmentsAction}, but only reads the segments of a profile which overlap a window of time.
+ *
+ * The segments are found by a range scan over the `(dataset_id, profile_id, start_offset)` key: the last segment
+ * beginning no later than the start of the window, followed by every segment beginning before its end.
+ */
+/*package-local*/ final class GetProfileSegmentsInWindowAction implements AutoCloseable {
+  private final @Language("SQL") String sql = """
+      with first_segment as (
+        select coalesce(max(prior.start_offset), interval '0') as start_offset
+        from profile_segment as prior
+        where
+          prior.dataset_id = ? and
+          prior.profile_id = ? and
+          prior.start_offset <= ?::interval
+      )
+      select
+        seg.start_offset,
+        seg.dynamics,
+        seg.is_gap
+      from profile_segment as seg, first_segment
+      where
+        seg.dataset_id = ? and
+        seg.profile_id = ? and
+        seg.start_offset >= first_segment.start_offset and
+        (seg.start_offset < ?::interval or seg.start_offset = first_segment.start_offset)
+      order by seg.start_offset asc
+    """;
+  private final PreparedStatement statement;
+
+  public GetProfileSegmentsInWindowAction(final Connection connection) throws SQLException {
+    this.statement = connection.prepareStatement(sql);
+  }
+
+  /**
+   * Get the segments of a profile within the window `[start, end]`, as per
+   * {@link ProfileSet#window(List, Duration, Duration, Duration, BiFunction)}.
+   */
+  public <Dynamics> List<ProfileSegment<Optional<Dynamics>>> get(
+      final long datasetId,
+      final long profileId,
+      final Duration profileDuration,
+      final JsonParser<Dynamics> dynamicsP,
+      final Duration start,
+      final Duration end,
+      final BiFunction<Dynamics, Duration, Dynamics> advance
+  ) throws SQLException {
+    PreparedStatements.setIntervalStyle(statement.getConnection(), PreparedStatements.PGIntervalStyle.ISO8601);
+    this.statement.setLong(1, datasetId);
+    this.statement.setLong(2, profileId);
+    PreparedStatements.setDuration(this.statement, 3, start);
+    this.statement.setLong(4, datasetId);
+    this.statement.setLong(5, profileId);
+    PreparedStatements.setDuration(this.statement, 6, end);
+    final var resultSet = statement.executeQuery();
+
+    final var offsets = new ArrayList<Duration>();
+    final var dynamics = new ArrayList<Optional<Dynamics>>();
+    while (resultSet.next()) {
+      offsets.add(PostgresParsers.parseDurationISO8601(resultSet.getString(1)));
+      if (!resultSet.getBoolean("is_gap")) {
+        dynamics.add(Optional.of(getJsonColumn(resultSet, "dynamics", dynamicsP)
+            .getSuccessOrThrow(failureReason -> new Error("Corrupt profile dynamics: " + failureReason.reason()))));
+      } else {
+        dynamics.add(Optional.empty());
+      }
+    }
+    if (offsets.isEmpty()) return List.of();
+
+    // Any segment beyond the last one read begins no earlier than the end of the window,
+    //   so the last segment may be taken to run to the end of the profile before the window is applied.
+    final var segments = new ArrayList<ProfileSegment<Optional<Dynamics>>>(offsets.size());
+    for (var i = 0; i < offsets.size(); i += 1) {
+      final var next = (i + 1 < offsets.size()) ? offsets.get(i + 1) : Duration.max(profileDuration, offsets.get(i));
+      segments.add(new ProfileSegment<>(next.minus(offsets.get(i)), dynamics.get(i)));
+    }
+
+    return ProfileSet.window(segments, offsets.get(0), start, end, advance);
+  }
+
+  @Override
+  public void close() throws SQLException {
+    this.statement.close();
+  }
+}
@@ -47,6 +47,14 @@ import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresParsers.
     this.statement.setLong(1, datasetId);
     final var resultSet = this.statement.executeQuery();
 
+    return readEventPoints(resultSet);
+  }
+
+  /** Read event rows (as selected by {@link #sql}) into the event graphs they describe at each time point. */
+  /*package-local*/ static SortedMap<Duration, List<EventGraph<Pair<Integer, SerializedValue>>>> readEventPoints(
+      final ResultSet resultSet
+  ) throws SQLException
+  {
     final var transactionsByTimePoint = readResultSet(resultSet);
 
     final var eventPoints = new TreeMap<Duration, List<EventGraph<Pair<Integer, SerializedValue>>>>();
@@ -0,0 +1,69 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.merlin.driver.timeline.EventGraph;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import org.apache.commons.lang3.tuple.Pair;
+import org.intellij.lang.annotations.Language;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * Like {@link GetSimulationEventsAction}, but only reads the events within a window of time,
+ * optionally restricted to a set of topics.
+ *
+ * The window is found by a range scan over the `(dataset_id, real_time, ...)` key. Events on other topics are omitted
+ * from each event graph, while the causal order among the remaining events is preserved.
+ */
+/*package-local*/ final class GetSimulationEventsInWindowAction implements AutoCloseable {
+  @Language("SQL") private final String sql = """
+        select
+          e.real_time,
+          e.transaction_index,
+          e.causal_time,
+          e.topic_index,
+          e.value
+        from event as e
+        where
+          e.dataset_id = ? and
+          e.real_time >= ?::interval and
+          e.real_time <= ?::interval and
+          (? or e.topic_index = any(?))
+      """;
+
+  private final PreparedStatement statement;
+
+  public GetSimulationEventsInWindowAction(final Connection connection) throws SQLException {
+    this.statement = connection.prepareStatement(this.sql);
+  }
+
+  public SortedMap<Duration, List<EventGraph<Pair<Integer, SerializedValue>>>> get(
+      final long datasetId,
+      final Optional<Set<Integer>> topics,
+      final Duration start,
+      final Duration end
+  ) throws SQLException
+  {
+    this.statement.setLong(1, datasetId);
+    PreparedStatements.setDuration(this.statement, 2, start);
+    PreparedStatements.setDuration(this.statement, 3, end);
+    this.statement.setBoolean(4, topics.isEmpty());
+    this.statement.setArray(5, this.statement.getConnection().createArrayOf(
+        "integer",
+        topics.map(Set::toArray).orElseGet(() -> new Object[0])));
+    final var resultSet = this.statement.executeQuery();
+
+    return GetSimulationEventsAction.readEventPoints(resultSet);
+  }
+
+  @Override
+  public void close() throws SQLException {
+    this.statement.close();
+  }
+}
@@ -6,6 +6,7 @@ import org.intellij.lang.annotations.Language;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
@@ -39,39 +40,47 @@ import static gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresParsers.
   }
 
   public Map<Long, SpanRecord> get(final long datasetId, final Timestamp simulationStart) throws SQLException {
-    final var spans = new HashMap<Long, SpanRecord>();
-
     this.statement.setLong(1, datasetId);
     try (final var resultSet = statement.executeQuery()) {
-      while (resultSet.next()) {
-        final var id = resultSet.getLong(1);
-        final var type = resultSet.getString(2);
-        final Optional<Long> parentId = resultSet.getObject(3) == null ? Optional.empty() : Optional.of(resultSet.getLong(3));
-        final var startOffset = parseOffset(resultSet, 4);
-        final var start = simulationStart.toInstant().plus(startOffset.in(MICROSECONDS), ChronoUnit.MICROS);
-        final var duration = resultSet.getObject(5) == null ? Optional.<Duration>empty() : Optional.of(parseOffset(
-            resultSet,
-            5));
-        final var attributes = getJsonColumn(resultSet, "attributes", activityAttributesP)
-            .getSuccessOrThrow(
-              failureReason -> new Error("Corrupt activity arguments cannot be parsed: " + failureReason.reason()));
-        final var initialChildIds = new ArrayList<Long>();
+      return readSpans(resultSet, simulationStart);
+    }
+  }
+
+  /** Read span rows (as selected by {@link #sql}) into records, linking each span to those of its children which were read. */
+  /*package-local*/ static Map<Long, SpanRecord> readSpans(final ResultSet resultSet, final Timestamp simulationStart)
+  throws SQLException
+  {
+    final var spans = new HashMap<Long, SpanRecord>();
+
+    while (resultSet.next()) {
+      final var id = resultSet.getLong(1);
+      final var type = resultSet.getString(2);
+      final Optional<Long> parentId = resultSet.getObject(3) == null ? Optional.empty() : Optional.of(resultSet.getLong(3));
+      final var startOffset = parseOffset(resultSet, 4);
+      final var start = simulationStart.toInstant().plus(startOffset.in(MICROSECONDS), ChronoUnit.MICROS);
+      final var duration = resultSet.getObject(5) == null ? Optional.<Duration>empty() : Optional.of(parseOffset(
+          resultSet,
+          5));
+      final var attributes = getJsonColumn(resultSet, "attributes", activityAttributesP)
+          .getSuccessOrThrow(
+            failureReason -> new Error("Corrupt activity arguments cannot be parsed: " + failureReason.reason()));
+      final var initialChildIds = new ArrayList<Long>();
 
-        spans.put(id, new SpanRecord(
-            type,
-            start,
-            duration,
-            parentId,
-            initialChildIds,
-            attributes
-        ));
-      }
+      spans.put(id, new SpanRecord(
+          type,
+          start,
+          duration,
+          parentId,
+          initialChildIds,
+          attributes
+      ));
     }
 
     // Since child IDs are not stored, we assign them by examining the parent ID of each activity
     spans.forEach(
         (id, activity) -> activity
             .parentId()
+            .filter(spans::containsKey)
             .ifPresent(parentId -> spans.get(parentId).childIds().add(id)));
 
     return spans;
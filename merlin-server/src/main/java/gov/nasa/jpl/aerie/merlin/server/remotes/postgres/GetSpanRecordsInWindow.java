@@ -0,0 +1,66 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.server.models.Timestamp;
+import org.intellij.lang.annotations.Language;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Like {@link GetSpanRecords}, but only reads the spans overlapping a window of time, optionally restricted to a set of types.
+ *
+ * A span whose parent is not read is returned without it, so the child IDs of each span only include the spans read.
+ * Spans which have not finished are taken to extend indefinitely.
+ */
+/*package-local*/ final class GetSpanRecordsInWindow implements AutoCloseable {
+  private final @Language("SQL") String sql = """
+      select
+        a.id,
+        a.type,
+        a.parent_id,
+        a.start_offset,
+        a.duration,
+        a.attributes
+      from span as a
+      where
+        a.dataset_id = ? and
+        a.start_offset <= ?::interval and
+        (a.duration is null or a.start_offset + a.duration >= ?::interval) and
+        (? or a.type = any(?))
+    """;
+
+  private final PreparedStatement statement;
+
+  public GetSpanRecordsInWindow(final Connection connection) throws SQLException {
+    this.statement = connection.prepareStatement(sql);
+  }
+
+  public Map<Long, SpanRecord> get(
+      final long datasetId,
+      final Timestamp simulationStart,
+      final Optional<Set<String>> types,
+      final Duration start,
+      final Duration end
+  ) throws SQLException {
+    this.statement.setLong(1, datasetId);
+    PreparedStatements.setDuration(this.statement, 2, end);
+    PreparedStatements.setDuration(this.statement, 3, start);
+    this.statement.setBoolean(4, types.isEmpty());
+    this.statement.setArray(5, this.statement.getConnection().createArrayOf(
+        "text",
+        types.map(Set::toArray).orElseGet(() -> new Object[0])));
+    try (final var resultSet = statement.executeQuery()) {
+      return GetSpanRecords.readSpans(resultSet, simulationStart);
+    }
+  }
+
+  @Override
+  public void close() throws SQLException {
+    this.statement.close();
+  }
+}
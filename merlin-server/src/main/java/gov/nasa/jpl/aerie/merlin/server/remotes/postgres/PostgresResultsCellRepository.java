@@ -5,9 +5,12 @@ import gov.nasa.jpl.aerie.merlin.driver.SimulatedActivity;
 import gov.nasa.jpl.aerie.merlin.driver.SimulatedActivityId;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationFailure;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationResultsSink;
 import gov.nasa.jpl.aerie.merlin.driver.UnfinishedActivity;
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.EventGraph;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
 import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
 import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
 import gov.nasa.jpl.aerie.merlin.server.ResultsProtocol;
@@ -28,19 +31,45 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.stream.Collectors;
 
 public final class PostgresResultsCellRepository implements ResultsCellRepository {
   private static final Logger logger = LoggerFactory.getLogger(PostgresResultsCellRepository.class);
 
+  /** How simulation results are written into the profile segment, event, and span tables. */
+  public enum ResultsWriteMode {
+    /** Batched `insert` statements, one row at a time. */
+    INSERT,
+    /** `COPY ... FROM STDIN`, which avoids the per-row statement overhead of inserts. */
+    COPY
+  }
+
   private final DataSource dataSource;
+  private final ResultsWriteMode writeMode;
+  private final SimulationResultsCache resultsCache;
 
   public PostgresResultsCellRepository(final DataSource dataSource) {
+    this(dataSource, ResultsWriteMode.INSERT);
+  }
+
+  public PostgresResultsCellRepository(final DataSource dataSource, final ResultsWriteMode writeMode) {
+    this(dataSource, writeMode, new SimulationResultsCache(0));
+  }
+
+  public PostgresResultsCellRepository(
+      final DataSource dataSource,
+      final ResultsWriteMode writeMode,
+      final SimulationResultsCache resultsCache
+  ) {
     this.dataSource = dataSource;
+    this.writeMode = writeMode;
+    this.resultsCache = resultsCache;
   }
 
   @Override
@@ -78,7 +107,9 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
       return new PostgresResultsCell(
           this.dataSource,
           simulation,
-          dataset.datasetId());
+          dataset.datasetId(),
+          this.writeMode,
+          this.resultsCache);
     } catch (final SQLException ex) {
       throw new DatabaseException("Failed to allocation simulation cell", ex);
     }
@@ -107,7 +138,9 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
       return Optional.of(new PostgresResultsCell(
           this.dataSource,
           simulation,
-          datasetId));
+          datasetId,
+          this.writeMode,
+          this.resultsCache));
     } catch(UnclaimableSimulationException ex) {
       return Optional.empty();
     } catch(final SQLException | DatabaseException ex) {
@@ -127,7 +160,7 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
       if (datasetId$.isEmpty()) return Optional.empty();
 
       final var datasetId = datasetId$.get();
-      return Optional.of(new PostgresResultsCell(this.dataSource, simulation, datasetId));
+      return Optional.of(new PostgresResultsCell(this.dataSource, simulation, datasetId, this.writeMode, this.resultsCache));
     } catch (final SQLException ex) {
       throw new DatabaseException("Failed to get simulation", ex);
     }
@@ -261,6 +294,20 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
     }
   }
 
+  private static SortedMap<Duration, List<EventGraph<Pair<Integer, SerializedValue>>>>
+  getSimulationEvents(
+      final Connection connection,
+      final long datasetId,
+      final Optional<Set<Integer>> topics,
+      final Duration start,
+      final Duration end
+  ) throws SQLException
+  {
+    try (final var getSimulationEventsAction = new GetSimulationEventsInWindowAction(connection)) {
+      return getSimulationEventsAction.get(datasetId, topics, start, end);
+    }
+  }
+
   private static Pair<Map<SimulatedActivityId, SimulatedActivity>, Map<SimulatedActivityId, UnfinishedActivity>> getActivities(
       final Connection connection,
       final long datasetId,
@@ -268,57 +315,84 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
   ) throws SQLException
   {
     try (final var getActivitiesAction = new GetSpanRecords(connection)) {
-      final var activityRecords = getActivitiesAction.get(datasetId, startTime);
-
-      // Remap all activity IDs to reflect lifted directive IDs
-      final var simulatedActivities = new HashMap<SimulatedActivityId, SimulatedActivity>();
-      final var unfinishedActivities = new HashMap<SimulatedActivityId, UnfinishedActivity>();
-      for (final var entry : activityRecords.entrySet()) {
-        final var pgId = entry.getKey();
-        final var record = entry.getValue();
-        final var activityInstanceId = new SimulatedActivityId(pgId);
-
-        // Only records with duration and computed attributes represent simulated activities
-        if (record.duration().isPresent() && record.attributes().computedAttributes().isPresent()) {
-          simulatedActivities.put(activityInstanceId, new SimulatedActivity(
-              record.type(),
-              record.attributes().arguments(),
-              record.start(),
-              record.duration().get(),
-              record.parentId().map(SimulatedActivityId::new).orElse(null),
-              record.childIds().stream().map(SimulatedActivityId::new).collect(Collectors.toList()),
-              record.attributes().directiveId().map(ActivityDirectiveId::new),
-              record.attributes().computedAttributes().get()
-          ));
-        } else {
-          unfinishedActivities.put(activityInstanceId, new UnfinishedActivity(
-              record.type(),
-              record.attributes().arguments(),
-              record.start(),
-              record.parentId().map(SimulatedActivityId::new).orElse(null),
-              record.childIds().stream().map(SimulatedActivityId::new).collect(Collectors.toList()),
-              record.attributes().directiveId().map(ActivityDirectiveId::new)
-          ));
-        }
-      }
+      return toActivities(getActivitiesAction.get(datasetId, startTime));
+    }
+  }
 
-      return Pair.of(simulatedActivities, unfinishedActivities);
+  private static Pair<Map<SimulatedActivityId, SimulatedActivity>, Map<SimulatedActivityId, UnfinishedActivity>> getActivities(
+      final Connection connection,
+      final long datasetId,
+      final Timestamp startTime,
+      final Optional<Set<String>> types,
+      final Duration start,
+      final Duration end
+  ) throws SQLException
+  {
+    try (final var getActivitiesAction = new GetSpanRecordsInWindow(connection)) {
+      return toActivities(getActivitiesAction.get(datasetId, startTime, types, start, end));
     }
   }
 
+  private static Pair<Map<SimulatedActivityId, SimulatedActivity>, Map<SimulatedActivityId, UnfinishedActivity>> toActivities(
+      final Map<Long, SpanRecord> activityRecords
+  ) {
+    // Remap all activity IDs to reflect lifted directive IDs
+    final var simulatedActivities = new HashMap<SimulatedActivityId, SimulatedActivity>();
+    final var unfinishedActivities = new HashMap<SimulatedActivityId, UnfinishedActivity>();
+    for (final var entry : activityRecords.entrySet()) {
+      final var pgId = entry.getKey();
+      final var record = entry.getValue();
+      final var activityInstanceId = new SimulatedActivityId(pgId);
+
+      // Only records with duration and computed attributes represent simulated activities
+      if (record.duration().isPresent() && record.attributes().computedAttributes().isPresent()) {
+        simulatedActivities.put(activityInstanceId, new SimulatedActivity(
+            record.type(),
+            record.attributes().arguments(),
+            record.start(),
+            record.duration().get(),
+            record.parentId().map(SimulatedActivityId::new).orElse(null),
+            record.childIds().stream().map(SimulatedActivityId::new).collect(Collectors.toList()),
+            record.attributes().directiveId().map(ActivityDirectiveId::new),
+            record.attributes().computedAttributes().get()
+        ));
+      } else {
+        unfinishedActivities.put(activityInstanceId, new UnfinishedActivity(
+            record.type(),
+            record.attributes().arguments(),
+            record.start(),
+            record.parentId().map(SimulatedActivityId::new).orElse(null),
+            record.childIds().stream().map(SimulatedActivityId::new).collect(Collectors.toList()),
+            record.attributes().directiveId().map(ActivityDirectiveId::new)
+        ));
+      }
+    }
+
+    return Pair.of(simulatedActivities, unfinishedActivities);
+  }
+
   private static void postSimulationResults(
       final Connection connection,
       final long datasetId,
-      final SimulationResults results
+      final SimulationResults results,
+      final ResultsWriteMode writeMode
   ) throws SQLException, NoSuchSimulationDatasetException
   {
     final var simulationStart = new Timestamp(results.startTime);
     final var profileSet = ProfileSet.of(results.realProfiles, results.discreteProfiles);
-    ProfileRepository.postResourceProfiles(connection, datasetId, profileSet);
-    postActivities(connection, datasetId, results.simulatedActivities, results.unfinishedActivities, simulationStart);
+    switch (writeMode) {
+      case INSERT -> ProfileRepository.postResourceProfiles(connection, datasetId, profileSet);
+      case COPY -> ProfileRepository.copyResourceProfiles(connection, datasetId, profileSet);
+    }
+    postActivities(connection, datasetId, results.simulatedActivities, results.unfinishedActivities, simulationStart, writeMode);
     insertSimulationTopics(connection, datasetId, results.topics);
-    insertSimulationEvents(connection, datasetId, results.events, simulationStart);
+    insertSimulationEvents(connection, datasetId, results.events, simulationStart, writeMode);
+    setSimulationSucceeded(connection, datasetId);
+  }
 
+  private static void setSimulationSucceeded(final Connection connection, final long datasetId)
+  throws SQLException, NoSuchSimulationDatasetException
+  {
     try (final var setSimulationStateAction = new SetSimulationStateAction(connection)) {
       setSimulationStateAction.apply(datasetId, SimulationStateRecord.success());
     }
@@ -336,30 +410,57 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
     }
   }
 
-  private static void insertSimulationEvents(
+  /*package-local*/ static void insertSimulationEvents(
       Connection connection,
       long datasetId,
       Map<Duration, List<EventGraph<Pair<Integer, SerializedValue>>>> events,
-      Timestamp simulationStart) throws SQLException
+      Timestamp simulationStart,
+      ResultsWriteMode writeMode) throws SQLException
   {
-    try (
-        final var insertSimulationEventsAction = new InsertSimulationEventsAction(connection)
-    ) {
-        insertSimulationEventsAction.apply(datasetId, events, simulationStart);
+    switch (writeMode) {
+      case INSERT -> {
+        try (final var insertSimulationEventsAction = new InsertSimulationEventsAction(connection)) {
+          insertSimulationEventsAction.apply(datasetId, events, simulationStart);
+        }
+      }
+      case COPY -> {
+        try (final var copySimulationEventsAction = new CopySimulationEventsAction(connection)) {
+          copySimulationEventsAction.apply(datasetId, events);
+        }
+      }
     }
   }
 
-  private static void postActivities(
+  /*package-local*/ static Map<Long, Long> postSpans(
+      final Connection connection,
+      final long datasetId,
+      final Map<Long, SpanRecord> spans,
+      final Timestamp simulationStart,
+      final ResultsWriteMode writeMode
+  ) throws SQLException {
+    return switch (writeMode) {
+      case INSERT -> {
+        try (final var postSpansAction = new PostSpansAction(connection)) {
+          yield postSpansAction.apply(datasetId, spans, simulationStart);
+        }
+      }
+      case COPY -> {
+        try (final var copySpansAction = new CopySpansAction(connection)) {
+          yield copySpansAction.apply(datasetId, spans, simulationStart);
+        }
+      }
+    };
+  }
+
+  /*package-local*/ static void postActivities(
       final Connection connection,
       final long datasetId,
       final Map<SimulatedActivityId, SimulatedActivity> simulatedActivities,
       final Map<SimulatedActivityId, UnfinishedActivity> unfinishedActivities,
-      final Timestamp simulationStart
+      final Timestamp simulationStart,
+      final ResultsWriteMode writeMode
   ) throws SQLException {
-    try (
-        final var postActivitiesAction = new PostSpansAction(connection);
-        final var updateSimulatedActivityParentsAction = new UpdateSimulatedActivityParentsAction(connection)
-    ) {
+    try (final var updateSimulatedActivityParentsAction = new UpdateSimulatedActivityParentsAction(connection)) {
       final var simulatedActivityRecords = simulatedActivities.entrySet().stream()
           .collect(Collectors.toMap(
               e -> e.getKey().id(),
@@ -371,10 +472,12 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
               e -> unfinishedActivityToRecord(e.getValue())));
       allActivityRecords.putAll(simulatedActivityRecords);
 
-      final var simIdToPgId = postActivitiesAction.apply(
+      final var simIdToPgId = postSpans(
+          connection,
           datasetId,
           allActivityRecords,
-          simulationStart);
+          simulationStart,
+          writeMode);
 
       updateSimulatedActivityParentsAction.apply(
           datasetId,
@@ -383,7 +486,7 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
     }
   }
 
-  private static SpanRecord simulatedActivityToRecord(final SimulatedActivity activity) {
+  /*package-local*/ static SpanRecord simulatedActivityToRecord(final SimulatedActivity activity) {
     return new SpanRecord(
         activity.type(),
         activity.start(),
@@ -396,7 +499,7 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
           Optional.of(activity.computedAttributes())));
   }
 
-  private static SpanRecord unfinishedActivityToRecord(final UnfinishedActivity activity) {
+  /*package-local*/ static SpanRecord unfinishedActivityToRecord(final UnfinishedActivity activity) {
     return new SpanRecord(
         activity.type(),
         activity.start(),
@@ -413,15 +516,46 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
     private final DataSource dataSource;
     private final SimulationRecord simulation;
     private final long datasetId;
+    private final ResultsWriteMode writeMode;
+    private final SimulationResultsCache resultsCache;
+
+    /**
+     * The connection through which results are streamed, if any.
+     *
+     * Streamed results are written outside of any transaction, so that they become visible as they are written.
+     * The dataset only enters the success state once every result has been written.
+     */
+    private Optional<Connection> streamConnection = Optional.empty();
 
     public PostgresResultsCell(
         final DataSource dataSource,
         final SimulationRecord simulation,
         final long datasetId
+    ) {
+      this(dataSource, simulation, datasetId, ResultsWriteMode.INSERT);
+    }
+
+    public PostgresResultsCell(
+        final DataSource dataSource,
+        final SimulationRecord simulation,
+        final long datasetId,
+        final ResultsWriteMode writeMode
+    ) {
+      this(dataSource, simulation, datasetId, writeMode, new SimulationResultsCache(0));
+    }
+
+    public PostgresResultsCell(
+        final DataSource dataSource,
+        final SimulationRecord simulation,
+        final long datasetId,
+        final ResultsWriteMode writeMode,
+        final SimulationResultsCache resultsCache
     ) {
       this.dataSource = dataSource;
       this.simulation = simulation;
       this.datasetId = datasetId;
+      this.writeMode = writeMode;
+      this.resultsCache = resultsCache;
     }
 
     @Override
@@ -435,6 +569,20 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
           result = Optional.empty();
         } else {
           final var record = record$.get();
+          // Only the results of a successful simulation are cached, and they never change thereafter.
+          if (record.state().status() != SimulationStateRecord.Status.SUCCESS) {
+            this.resultsCache.invalidate(datasetId);
+          } else {
+            final var stats = this.resultsCache.stats();
+            logger.debug(
+                "Simulation results cache: {} hits, {} misses ({}% hit rate), {} evictions, {} bytes held",
+                stats.hits(),
+                stats.misses(),
+                Math.round(100 * stats.hitRate()),
+                stats.evictions(),
+                stats.bytes());
+          }
+
           result = Optional.of(
               switch (record.state().status()) {
                 case PENDING -> new State.Pending(record.simulationDatasetId());
@@ -443,7 +591,7 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
                     .orElseThrow(() -> new Error("Unexpected state: %s request state has no failure message".formatted(record.state().status()))));
                 case SUCCESS -> new State.Success(
                     record.simulationDatasetId(),
-                    new PostgresSimulationResultsHandle(dataSource, record));
+                    new PostgresSimulationResultsHandle(dataSource, record, this.resultsCache));
               });
         }
 
@@ -455,6 +603,7 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
 
     @Override
     public void cancel() {
+      this.resultsCache.invalidate(datasetId);
       try (final var connection = dataSource.getConnection()) {
         cancelSimulation(connection, datasetId);
       } catch(final SQLException ex) {
@@ -483,7 +632,38 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
     public void succeedWith(final SimulationResults results) {
       try (final var connection = dataSource.getConnection();
            final var transactionContext = new TransactionContext(connection)) {
-        postSimulationResults(connection, datasetId, results);
+        postSimulationResults(connection, datasetId, results, writeMode);
+        deleteSimulationExtent(connection, datasetId);
+        transactionContext.commit();
+      } catch (final SQLException ex) {
+        throw new DatabaseException("Failed to store simulation results", ex);
+      } catch (final NoSuchSimulationDatasetException ex) {
+        // A cell should only be created for a valid, existing dataset
+        // A dataset should only be deleted by its cell
+        throw new Error("Cell references nonexistent simulation dataset");
+      }
+    }
+
+    @Override
+    public SimulationResultsSink streamResults(final Instant simulationStartTime) {
+      try {
+        final var connection = dataSource.getConnection();
+        this.streamConnection = Optional.of(connection);
+        return new PostgresSimulationResultsSink(connection, datasetId, simulationStartTime, writeMode);
+      } catch (final SQLException ex) {
+        throw new DatabaseException("Failed to begin streaming simulation results", ex);
+      }
+    }
+
+    @Override
+    public void succeedWithStreamedResults() {
+      final var streamConnection = this.streamConnection
+          .orElseThrow(() -> new IllegalStateException("No results have been streamed"));
+      this.streamConnection = Optional.empty();
+
+      try (final var connection = streamConnection;
+           final var transactionContext = new TransactionContext(connection)) {
+        setSimulationSucceeded(connection, datasetId);
         deleteSimulationExtent(connection, datasetId);
         transactionContext.commit();
       } catch (final SQLException ex) {
@@ -497,6 +677,10 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
 
     @Override
     public void failWith(final SimulationFailure reason) {
+      // Any results streamed so far are left in place, but the dataset will never be marked as successful.
+      this.closeStream();
+      this.resultsCache.invalidate(datasetId);
+
       try (final var connection = dataSource.getConnection();
            final var transactionContext = new TransactionContext(connection)) {
         failSimulation(connection, datasetId, reason);
@@ -523,16 +707,49 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
         throw new Error("Cell references nonexistent simulation dataset");
       }
     }
+
+    private void closeStream() {
+      if (this.streamConnection.isEmpty()) return;
+
+      try {
+        this.streamConnection.get().close();
+      } catch (final SQLException ex) {
+        // The simulation is failing regardless, so don't let this mask the reason.
+        logger.warn("Failed to close simulation results stream for dataset {}", datasetId, ex);
+      } finally {
+        this.streamConnection = Optional.empty();
+      }
+    }
   }
 
+  /**
+   * A handle onto simulation results stored in the database.
+   *
+   * Each component of the results is read only when first asked for. Profiles, activities, and topics are kept in
+   * the {@link SimulationResultsCache} entry for the dataset, which is shared by every handle onto the same dataset;
+   * events are kept for the life of the handle. Profiles are kept by name, so a request for a few profiles does not
+   * read the rest. A request for a window of the profiles reads and keeps them in full, then windows them,
+   * unless the cache retains nothing, in which case only the window is read. A request for a window of the activities
+   * or events which have not been read in full is answered by reading only that window, without keeping it.
+   */
   public static class PostgresSimulationResultsHandle implements SimulationResultsHandle {
 
-    SimulationDatasetRecord record;
-    DataSource dataSource;
+    private final SimulationDatasetRecord record;
+    private final DataSource dataSource;
+    private final SimulationResultsCache cache;
+    private final SimulationResultsCache.Entry entry;
+
+    private SortedMap<Duration, List<EventGraph<Pair<Integer, SerializedValue>>>> events = null;
 
-    public PostgresSimulationResultsHandle(DataSource dataSource, SimulationDatasetRecord record) {
+    public PostgresSimulationResultsHandle(
+        final DataSource dataSource,
+        final SimulationDatasetRecord record,
+        final SimulationResultsCache cache
+    ) {
       this.dataSource = dataSource;
       this.record = record;
+      this.cache = cache;
+      this.entry = cache.get(record.datasetId());
     }
 
     @Override
@@ -543,24 +760,26 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
     @Override
     public SimulationResults getSimulationResults() {
       try (final var connection = this.dataSource.getConnection()) {
-        final var startTimestamp = record.simulationStartTime();
-        final var simulationStart = startTimestamp.toInstant();
-        final var simulationDuration = Duration.of(
-            startTimestamp.microsUntil(record.simulationEndTime()),
-            Duration.MICROSECONDS);
-
-        final var profiles = ProfileRepository.getProfiles(connection, record.datasetId());
-        final var activities = getActivities(connection, record.datasetId(), startTimestamp);
-        final var topics = getSimulationTopics(connection, record.datasetId());
-        final var events = getSimulationEvents(connection, record.datasetId());
+        final Map<String, Pair<ValueSchema, List<ProfileSegment<Optional<RealDynamics>>>>> realProfiles;
+        final Map<String, Pair<ValueSchema, List<ProfileSegment<Optional<SerializedValue>>>>> discreteProfiles;
+        final Pair<Map<SimulatedActivityId, SimulatedActivity>, Map<SimulatedActivityId, UnfinishedActivity>> activities;
+        final List<Triple<Integer, String, ValueSchema>> topics;
+        synchronized (this.entry) {
+          this.loadAllProfiles(connection);
+          realProfiles = new HashMap<>(this.entry.realProfiles);
+          discreteProfiles = new HashMap<>(this.entry.discreteProfiles);
+          activities = this.loadActivities(connection);
+          topics = this.loadTopics(connection);
+        }
+        final var events = this.loadEvents(connection);
 
         return new SimulationResults(
-            ProfileSet.unwrapOptional(profiles.realProfiles()),
-            ProfileSet.unwrapOptional(profiles.discreteProfiles()),
+            ProfileSet.unwrapOptional(realProfiles),
+            ProfileSet.unwrapOptional(discreteProfiles),
             activities.getLeft(),
             activities.getRight(),
-            simulationStart,
-            simulationDuration,
+            this.startTime(),
+            this.duration(),
             topics,
             events
         );
@@ -571,21 +790,126 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
 
     @Override
     public ProfileSet getProfiles(final List<String> profileNames) {
+      synchronized (this.entry) {
+        final var missing = this.entry.allProfilesLoaded
+            ? List.<String>of()
+            : profileNames.stream().filter($ -> !this.entry.loadedProfileNames.contains($)).distinct().toList();
+
+        if (missing.isEmpty()) {
+          this.cache.recordHit();
+        } else {
+          this.cache.recordMiss();
+          try (final var connection = this.dataSource.getConnection()) {
+            final var profiles = ProfileRepository.getProfiles(connection, record.datasetId(), missing);
+            this.entry.loadedProfileNames.addAll(missing);
+            this.addProfiles(profiles);
+          } catch (SQLException e) {
+            throw new RuntimeException(e);
+          }
+        }
+
+        return this.cachedProfiles(profileNames);
+      }
+    }
+
+    @Override
+    public ProfileSet getProfiles(final Optional<List<String>> profileNames, final Duration start, final Duration end) {
+      synchronized (this.entry) {
+        final var loaded = this.entry.allProfilesLoaded
+            || profileNames.map(this.entry.loadedProfileNames::containsAll).orElse(false);
+        // Profiles read for a cache which retains nothing would not outlive this handle, so only the window is read.
+        if (!loaded && !this.cache.retainsEntries()) return this.readProfileWindow(profileNames, start, end);
+      }
+
+      final var profiles = (profileNames.isPresent())
+          ? this.getProfiles(profileNames.get())
+          : this.getAllProfiles();
+      return profiles.window(start, end);
+    }
+
+    private ProfileSet getAllProfiles() {
+      synchronized (this.entry) {
+        if (this.entry.allProfilesLoaded) {
+          this.cache.recordHit();
+        } else {
+          this.cache.recordMiss();
+          try (final var connection = this.dataSource.getConnection()) {
+            this.loadAllProfiles(connection);
+          } catch (SQLException e) {
+            throw new RuntimeException(e);
+          }
+        }
+        return new ProfileSet(new HashMap<>(this.entry.realProfiles), new HashMap<>(this.entry.discreteProfiles));
+      }
+    }
+
+    @Override
+    public Map<SimulatedActivityId, SimulatedActivity> getSimulatedActivities() {
+      synchronized (this.entry) {
+        if (this.entry.activities != null) {
+          this.cache.recordHit();
+          return this.entry.activities.getLeft();
+        }
+
+        this.cache.recordMiss();
+        try (final var connection = this.dataSource.getConnection()) {
+          return this.loadActivities(connection).getLeft();
+        } catch (SQLException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    }
+
+    @Override
+    public Map<SimulatedActivityId, SimulatedActivity> getSimulatedActivities(
+        final Optional<Set<String>> types,
+        final Duration start,
+        final Duration end
+    ) {
+      synchronized (this.entry) {
+        if (this.entry.activities != null) {
+          this.cache.recordHit();
+          return SimulationResultsHandle.filterActivities(this.entry.activities.getLeft(), this.startTime(), types, start, end);
+        }
+      }
+
+      this.cache.recordMiss();
       try (final var connection = this.dataSource.getConnection()) {
-        return ProfileRepository.getProfiles(connection, record.datasetId(), profileNames);
+        return getActivities(connection, record.datasetId(), record.simulationStartTime(), types, start, end).getLeft();
       } catch (SQLException e) {
         throw new RuntimeException(e);
       }
     }
 
     @Override
-    public Map<SimulatedActivityId, SimulatedActivity> getSimulatedActivities() {
+    public List<Triple<Integer, String, ValueSchema>> getTopics() {
+      synchronized (this.entry) {
+        if (this.entry.topics != null) {
+          this.cache.recordHit();
+          return this.entry.topics;
+        }
+
+        this.cache.recordMiss();
+        try (final var connection = this.dataSource.getConnection()) {
+          return this.loadTopics(connection);
+        } catch (SQLException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    }
+
+    @Override
+    public synchronized SortedMap<Duration, List<EventGraph<Pair<Integer, SerializedValue>>>> getEvents(
+        final Optional<Set<Integer>> topics,
+        final Duration start,
+        final Duration end
+    ) {
+      if (this.events != null) {
+        return SimulationResultsHandle.filterEvents(this.events, topics, start, end);
+      }
+
       try (final var connection = this.dataSource.getConnection()) {
-        final var activities = getActivities(
-            connection,
-            record.datasetId(),
-            record.simulationStartTime());
-        return activities.getLeft();
+        return getSimulationEvents(connection, record.datasetId(), topics, start, end);
       } catch (SQLException e) {
         throw new RuntimeException(e);
       }
@@ -602,5 +926,77 @@ public final class PostgresResultsCellRepository implements ResultsCellRepositor
           record.simulationStartTime().microsUntil(record.simulationEndTime()),
           Duration.MICROSECONDS);
     }
+
+    private ProfileSet readProfileWindow(final Optional<List<String>> profileNames, final Duration start, final Duration end) {
+      this.cache.recordMiss();
+      try (final var connection = this.dataSource.getConnection()) {
+        return ProfileRepository.getProfiles(connection, record.datasetId(), profileNames, start, end);
+      } catch (SQLException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    // The methods below must be called while holding the lock on `this.entry`.
+
+    private ProfileSet cachedProfiles(final List<String> profileNames) {
+      final var realProfiles = new HashMap<String, Pair<ValueSchema, List<ProfileSegment<Optional<RealDynamics>>>>>();
+      final var discreteProfiles = new HashMap<String, Pair<ValueSchema, List<ProfileSegment<Optional<SerializedValue>>>>>();
+      for (final var name : profileNames) {
+        if (this.entry.realProfiles.containsKey(name)) realProfiles.put(name, this.entry.realProfiles.get(name));
+        if (this.entry.discreteProfiles.containsKey(name)) discreteProfiles.put(name, this.entry.discreteProfiles.get(name));
+      }
+      return new ProfileSet(realProfiles, discreteProfiles);
+    }
+
+    private void addProfiles(final ProfileSet profiles) {
+      var bytes = 0L;
+      for (final var profile : profiles.realProfiles().entrySet()) {
+        if (this.entry.realProfiles.put(profile.getKey(), profile.getValue()) == null) {
+          bytes += SimulationResultsCache.estimateRealProfileBytes(profile.getValue().getRight());
+        }
+      }
+      for (final var profile : profiles.discreteProfiles().entrySet()) {
+        if (this.entry.discreteProfiles.put(profile.getKey(), profile.getValue()) == null) {
+          bytes += SimulationResultsCache.estimateDiscreteProfileBytes(profile.getValue().getRight());
+        }
+      }
+      this.grow(bytes);
+    }
+
+    private void loadAllProfiles(final Connection connection) throws SQLException {
+      if (this.entry.allProfilesLoaded) return;
+
+      this.addProfiles(ProfileRepository.getProfiles(connection, record.datasetId()));
+      this.entry.allProfilesLoaded = true;
+    }
+
+    private Pair<Map<SimulatedActivityId, SimulatedActivity>, Map<SimulatedActivityId, UnfinishedActivity>>
+    loadActivities(final Connection connection) throws SQLException {
+      if (this.entry.activities == null) {
+        this.entry.activities = getActivities(connection, record.datasetId(), record.simulationStartTime());
+        this.grow(SimulationResultsCache.estimateActivitiesBytes(this.entry.activities));
+      }
+      return this.entry.activities;
+    }
+
+    private List<Triple<Integer, String, ValueSchema>> loadTopics(final Connection connection) throws SQLException {
+      if (this.entry.topics == null) {
+        this.entry.topics = getSimulationTopics(connection, record.datasetId());
+        this.grow(SimulationResultsCache.estimateTopicsBytes(this.entry.topics));
+      }
+      return this.entry.topics;
+    }
+
+    private void grow(final long bytes) {
+      this.entry.bytes += bytes;
+      this.cache.resize(record.datasetId(), this.entry, this.entry.bytes);
+    }
+
+    private synchronized SortedMap<Duration, List<EventGraph<Pair<Integer, SerializedValue>>>> loadEvents(final Connection connection)
+    throws SQLException
+    {
+      if (this.events == null) this.events = getSimulationEvents(connection, record.datasetId());
+      return this.events;
+    }
   }
 }
@@ -0,0 +1,315 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.json.JsonParser;
+import gov.nasa.jpl.aerie.merlin.driver.SimulatedActivity;
+import gov.nasa.jpl.aerie.merlin.driver.SimulatedActivityId;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationResultsSink;
+import gov.nasa.jpl.aerie.merlin.driver.UnfinishedActivity;
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.EventGraph;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import gov.nasa.jpl.aerie.merlin.server.models.Timestamp;
+import gov.nasa.jpl.aerie.merlin.server.remotes.postgres.PostgresResultsCellRepository.ResultsWriteMode;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static gov.nasa.jpl.aerie.merlin.driver.json.SerializedValueJsonParser.serializedValueP;
+import static gov.nasa.jpl.aerie.merlin.server.http.ProfileParsers.realDynamicsP;
+
+/**
+ * Writes simulation results into a simulation dataset as they are produced, in batches of bounded size.
+ *
+ * <p>Only the results not yet written, and the database identifiers of the spans written so far, are held in memory.
+ * Spans are linked to their parents once the simulation finishes, since children are reported before their parents.</p>
+ *
+ * <p>The sink writes through the given connection, and does not manage transactions or the simulation's state.</p>
+ */
+public final class PostgresSimulationResultsSink implements SimulationResultsSink {
+  /** The number of buffered rows of any one kind which triggers a write to the database. */
+  private static final int BATCH_SIZE = 1_000;
+
+  private static final Logger logger = LoggerFactory.getLogger(PostgresSimulationResultsSink.class);
+
+  private final Connection connection;
+  private final long datasetId;
+  private final Timestamp simulationStart;
+  private final ResultsWriteMode writeMode;
+
+  /** The number of profile samples the simulation suppressed as continuations of a resource's latest segment. */
+  private long suppressedSegments = 0;
+  /** The number of cell states read by the simulation's jobs, and the number of copies made to serve them. */
+  private long stateReads = 0;
+  private long stateCopies = 0;
+  /** The number of steps taken by the simulation's tasks, and how long they ran in total and at longest. */
+  private long taskSteps = 0;
+  private long taskStepNanos = 0;
+  private long longestTaskStepNanos = 0;
+
+  private final Map<String, ProfileRecord> profileRecords = new HashMap<>();
+  private final Map<String, List<ProfileSegment<Optional<RealDynamics>>>> pendingRealSegments = new HashMap<>();
+  private final Map<String, List<ProfileSegment<Optional<SerializedValue>>>> pendingDiscreteSegments = new HashMap<>();
+  private int pendingSegmentCount = 0;
+
+  private final TreeMap<Duration, List<EventGraph<Pair<Integer, SerializedValue>>>> pendingEvents = new TreeMap<>();
+  private int pendingEventCount = 0;
+  private Duration latestEventTime = Duration.ZERO;
+
+  private final Map<Long, SpanRecord> pendingSpans = new HashMap<>();
+  private final Map<Long, Long> simIdToPgId = new HashMap<>();
+  private final Map<Long, Long> simIdToParentSimId = new HashMap<>();
+
+  public PostgresSimulationResultsSink(final Connection connection, final long datasetId, final Instant simulationStart) {
+    this(connection, datasetId, simulationStart, ResultsWriteMode.INSERT);
+  }
+
+  public PostgresSimulationResultsSink(
+      final Connection connection,
+      final long datasetId,
+      final Instant simulationStart,
+      final ResultsWriteMode writeMode
+  ) {
+    this.connection = connection;
+    this.datasetId = datasetId;
+    this.simulationStart = new Timestamp(simulationStart);
+    this.writeMode = writeMode;
+  }
+
+  @Override
+  public void topics(final List<Triple<Integer, String, ValueSchema>> topics) {
+    try (final var insertSimulationTopicsAction = new InsertSimulationTopicsAction(this.connection)) {
+      insertSimulationTopicsAction.apply(this.datasetId, topics);
+    } catch (final SQLException ex) {
+      throw new DatabaseException("Failed to insert simulation topics", ex);
+    }
+  }
+
+  @Override
+  public void realProfile(final String name, final ValueSchema schema) {
+    this.postProfile(Map.of(name, Pair.of(schema, List.of())), Map.of());
+    this.pendingRealSegments.put(name, new ArrayList<>());
+  }
+
+  @Override
+  public void discreteProfile(final String name, final ValueSchema schema) {
+    this.postProfile(Map.of(), Map.of(name, Pair.of(schema, List.of())));
+    this.pendingDiscreteSegments.put(name, new ArrayList<>());
+  }
+
+  private void postProfile(
+      final Map<String, Pair<ValueSchema, List<ProfileSegment<Optional<RealDynamics>>>>> realProfiles,
+      final Map<String, Pair<ValueSchema, List<ProfileSegment<Optional<SerializedValue>>>>> discreteProfiles
+  ) {
+    try (final var postProfilesAction = new PostProfilesAction(this.connection)) {
+      this.profileRecords.putAll(postProfilesAction.apply(this.datasetId, realProfiles, discreteProfiles));
+    } catch (final SQLException ex) {
+      throw new DatabaseException("Failed to insert profile", ex);
+    }
+  }
+
+  @Override
+  public void realProfileSegment(final String name, final ProfileSegment<RealDynamics> segment) {
+    this.pendingRealSegments.get(name).add(new ProfileSegment<>(segment.extent(), Optional.of(segment.dynamics())));
+    if (++this.pendingSegmentCount >= BATCH_SIZE) this.flushSegments();
+  }
+
+  @Override
+  public void discreteProfileSegment(final String name, final ProfileSegment<SerializedValue> segment) {
+    this.pendingDiscreteSegments.get(name).add(new ProfileSegment<>(segment.extent(), Optional.of(segment.dynamics())));
+    if (++this.pendingSegmentCount >= BATCH_SIZE) this.flushSegments();
+  }
+
+  @Override
+  public void events(final Duration time, final EventGraph<Pair<Integer, SerializedValue>> events) {
+    // Transactions are indexed within their time point, so a time point must be written all at once.
+    // Time only moves forward, so every time point before this one is complete.
+    if (this.pendingEventCount >= BATCH_SIZE) this.flushEvents(this.pendingEvents.headMap(time));
+
+    this.pendingEvents.computeIfAbsent(time, $ -> new ArrayList<>()).add(events);
+    this.pendingEventCount += 1;
+    this.latestEventTime = time;
+  }
+
+  @Override
+  public void simulatedActivity(final SimulatedActivityId id, final SimulatedActivity activity) {
+    this.addSpan(id, PostgresResultsCellRepository.simulatedActivityToRecord(activity));
+  }
+
+  @Override
+  public void unfinishedActivity(final SimulatedActivityId id, final UnfinishedActivity activity) {
+    this.addSpan(id, PostgresResultsCellRepository.unfinishedActivityToRecord(activity));
+  }
+
+  private void addSpan(final SimulatedActivityId id, final SpanRecord record) {
+    this.pendingSpans.put(id.id(), record);
+    record.parentId().ifPresent($ -> this.simIdToParentSimId.put(id.id(), $));
+    if (this.pendingSpans.size() >= BATCH_SIZE) this.flushSpans();
+  }
+
+  @Override
+  public void suppressedSegments(final String name, final long count) {
+    this.suppressedSegments += count;
+  }
+
+  @Override
+  public void stateReads(final long reads, final long copies) {
+    this.stateReads = reads;
+    this.stateCopies = copies;
+  }
+
+  @Override
+  public void taskSteps(final long steps, final long totalNanos, final long longestNanos) {
+    this.taskSteps = steps;
+    this.taskStepNanos = totalNanos;
+    this.longestTaskStepNanos = longestNanos;
+  }
+
+  @Override
+  public void finish(final Instant startTime, final Duration duration) {
+    logger.debug("Suppressed {} redundant profile segments for simulation dataset {}", this.suppressedSegments, this.datasetId);
+    logger.debug("Served {} cell state reads with {} copies for simulation dataset {}", this.stateReads, this.stateCopies, this.datasetId);
+    logger.debug(
+        "Ran {} task steps in {} ns, the longest taking {} ns, for simulation dataset {}",
+        this.taskSteps, this.taskStepNanos, this.longestTaskStepNanos, this.datasetId);
+
+    this.flushSegments();
+    this.flushEvents(this.pendingEvents);
+    this.flushSpans();
+
+    try (
+        final var updateProfileDurationAction = new UpdateProfileDurationAction(this.connection);
+        final var updateSimulatedActivityParentsAction = new UpdateSimulatedActivityParentsAction(this.connection)
+    ) {
+      for (final var record : this.profileRecords.values()) {
+        updateProfileDurationAction.apply(this.datasetId, record.id(), record.duration());
+      }
+
+      updateSimulatedActivityParentsAction.applyParents(this.datasetId, this.simIdToParentSimId, this.simIdToPgId);
+    } catch (final SQLException ex) {
+      throw new DatabaseException("Failed to complete simulation results", ex);
+    }
+  }
+
+  @Override
+  public void flush() {
+    this.flushSegments();
+    this.flushEvents(this.pendingEvents.headMap(this.latestEventTime));
+    this.flushSpans();
+  }
+
+  private void flushSegments() {
+    if (this.pendingSegmentCount == 0) return;
+
+    try {
+      switch (this.writeMode) {
+        case INSERT -> {
+          try (final var appendProfileSegmentsAction = new AppendProfileSegmentsAction(this.connection)) {
+            this.appendSegments(appendProfileSegmentsAction::apply);
+          }
+        }
+        case COPY -> {
+          try (final var copyProfileSegmentsAction = new CopyProfileSegmentsAction(this.connection)) {
+            this.appendSegments(new SegmentAppender() {
+              @Override
+              public <Dynamics> Duration append(
+                  final long datasetId,
+                  final ProfileRecord record,
+                  final List<ProfileSegment<Optional<Dynamics>>> segments,
+                  final JsonParser<Dynamics> dynamicsP
+              ) throws SQLException {
+                return copyProfileSegmentsAction.add(datasetId, record, record.duration(), segments, dynamicsP);
+              }
+            });
+            copyProfileSegmentsAction.apply();
+          }
+        }
+      }
+    } catch (final SQLException ex) {
+      throw new DatabaseException("Failed to insert profile segments", ex);
+    }
+
+    this.pendingSegmentCount = 0;
+  }
+
+  private interface SegmentAppender {
+    <Dynamics> Duration append(
+        long datasetId,
+        ProfileRecord record,
+        List<ProfileSegment<Optional<Dynamics>>> segments,
+        JsonParser<Dynamics> dynamicsP
+    ) throws SQLException;
+  }
+
+  private void appendSegments(final SegmentAppender appender) throws SQLException {
+    for (final var entry : this.pendingRealSegments.entrySet()) {
+      this.appendSegments(appender, entry.getKey(), entry.getValue(), realDynamicsP);
+    }
+    for (final var entry : this.pendingDiscreteSegments.entrySet()) {
+      this.appendSegments(appender, entry.getKey(), entry.getValue(), serializedValueP);
+    }
+  }
+
+  private <Dynamics> void appendSegments(
+      final SegmentAppender appender,
+      final String name,
+      final List<ProfileSegment<Optional<Dynamics>>> segments,
+      final JsonParser<Dynamics> dynamicsP
+  ) throws SQLException {
+    if (segments.isEmpty()) return;
+
+    // The profile record tracks the offset at which the next segment begins.
+    final var record = this.profileRecords.get(name);
+    final var newDuration = appender.append(this.datasetId, record, segments, dynamicsP);
+    this.profileRecords.put(name, new ProfileRecord(record.id(), record.datasetId(), record.name(), record.type(), newDuration));
+    segments.clear();
+  }
+
+  private void flushEvents(final Map<Duration, List<EventGraph<Pair<Integer, SerializedValue>>>> events) {
+    if (events.isEmpty()) return;
+
+    try {
+      PostgresResultsCellRepository.insertSimulationEvents(
+          this.connection,
+          this.datasetId,
+          events,
+          this.simulationStart,
+          this.writeMode);
+    } catch (final SQLException ex) {
+      throw new DatabaseException("Failed to insert simulation events", ex);
+    }
+
+    for (final var transactions : events.values()) this.pendingEventCount -= transactions.size();
+    events.clear();
+  }
+
+  private void flushSpans() {
+    if (this.pendingSpans.isEmpty()) return;
+
+    try {
+      this.simIdToPgId.putAll(PostgresResultsCellRepository.postSpans(
+          this.connection,
+          this.datasetId,
+          this.pendingSpans,
+          this.simulationStart,
+          this.writeMode));
+    } catch (final SQLException ex) {
+      throw new DatabaseException("Failed to insert spans", ex);
+    }
+
+    this.pendingSpans.clear();
+  }
+}
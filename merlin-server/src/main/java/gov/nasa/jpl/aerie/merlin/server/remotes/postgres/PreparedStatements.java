@@ -69,8 +69,16 @@ public final class PreparedStatements {
   }
 
   public static void setDuration(final PreparedStatement statement, final int parameter, final Duration argument) throws SQLException {
-    final var micros = argument.in(Duration.MICROSECONDS);
-    statement.setString(parameter, "PT%d.%06dS".formatted(micros / 1_000_000, micros % 1_000_000));
+    statement.setString(parameter, formatDuration(argument));
+  }
+
+  /** Format a duration as an ISO 8601 interval. The sign is carried by the seconds, as in `PT-1.500000S`. */
+  public static String formatDuration(final Duration duration) {
+    final var micros = duration.in(Duration.MICROSECONDS);
+    return "PT%s%d.%06dS".formatted(
+        (micros < 0) ? "-" : "",
+        Math.abs(micros / 1_000_000),
+        Math.abs(micros % 1_000_000));
   }
 
   public static void setParameters(final PreparedStatement statement, final int parameter, final List<Parameter> parameters)
@@ -86,6 +86,50 @@ import static gov.nasa.jpl.aerie.merlin.server.http.ProfileParsers.realDynamicsP
     return new ProfileSet(realProfiles, discreteProfiles);
   }
 
+  /**
+   * Get the named profiles, or every profile if none are named, restricted to the window `[start, end]`.
+   * Only the segments overlapping the window are read.
+   */
+  static ProfileSet getProfiles(
+      final Connection connection,
+      final long datasetId,
+      final Optional<List<String>> names,
+      final Duration start,
+      final Duration end
+  ) throws SQLException {
+    final var realProfiles = new HashMap<String, Pair<ValueSchema, List<ProfileSegment<Optional<RealDynamics>>>>>();
+    final var discreteProfiles = new HashMap<String, Pair<ValueSchema, List<ProfileSegment<Optional<SerializedValue>>>>>();
+
+    final var profileRecords = (names.isPresent())
+        ? getProfileRecords(connection, datasetId, names.get())
+        : getProfileRecords(connection, datasetId);
+    try (final var getProfileSegmentsAction = new GetProfileSegmentsInWindowAction(connection)) {
+      for (final var record : profileRecords) {
+        switch (record.type().getLeft()) {
+          case "real" -> realProfiles.put(
+              record.name(),
+              Pair.of(
+                  record.type().getRight(),
+                  getProfileSegmentsAction.get(
+                      record.datasetId(), record.id(), record.duration(), realDynamicsP, start, end, ProfileSet::advanceReal)
+              )
+          );
+          case "discrete" -> discreteProfiles.put(
+              record.name(),
+              Pair.of(
+                  record.type().getRight(),
+                  getProfileSegmentsAction.get(
+                      record.datasetId(), record.id(), record.duration(), serializedValueP, start, end, (value, elapsed) -> value)
+              )
+          );
+          default -> throw new Error("Unrecognized profile type");
+        }
+      }
+    }
+
+    return new ProfileSet(realProfiles, discreteProfiles);
+  }
+
   static Map<String, ValueSchema> getProfileSchemas(
       final Connection connection,
       final long datasetId
@@ -175,6 +219,43 @@ import static gov.nasa.jpl.aerie.merlin.server.http.ProfileParsers.realDynamicsP
     }
   }
 
+  /** Like {@link #postResourceProfiles}, but writes every profile's segments through a single `COPY`. */
+  static void copyResourceProfiles(
+      final Connection connection,
+      final long datasetId,
+      final ProfileSet profileSet
+  ) throws SQLException
+  {
+    try (
+        final var postProfilesAction = new PostProfilesAction(connection);
+        final var copyProfileSegmentsAction = new CopyProfileSegmentsAction(connection)
+    ) {
+      final var profileRecords = postProfilesAction.apply(
+          datasetId,
+          profileSet.realProfiles(),
+          profileSet.discreteProfiles());
+      for (final var entry : profileRecords.entrySet()) {
+        final var record = entry.getValue();
+        switch (record.type().getLeft()) {
+          case "real" -> copyProfileSegmentsAction.add(
+              datasetId,
+              record,
+              Duration.ZERO,
+              profileSet.realProfiles().get(entry.getKey()).getRight(),
+              realDynamicsP);
+          case "discrete" -> copyProfileSegmentsAction.add(
+              datasetId,
+              record,
+              Duration.ZERO,
+              profileSet.discreteProfiles().get(entry.getKey()).getRight(),
+              serializedValueP);
+          default -> throw new Error("Unrecognized profile type " + record.type().getLeft());
+        }
+      }
+      copyProfileSegmentsAction.apply();
+    }
+  }
+
   static void appendResourceProfiles(
       final Connection connection,
       final long datasetId,
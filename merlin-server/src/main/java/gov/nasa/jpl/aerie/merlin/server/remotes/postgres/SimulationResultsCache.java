@@ -0,0 +1,209 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import gov.nasa.jpl.aerie.merlin.driver.SimulatedActivity;
+import gov.nasa.jpl.aerie.merlin.driver.SimulatedActivityId;
+import gov.nasa.jpl.aerie.merlin.driver.UnfinishedActivity;
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A cache of the decoded components of completed simulation results, keyed by simulation dataset,
+ * so that repeated requests against an unchanged dataset need not read and decode the same rows again.
+ *
+ * <p>
+ * The cache is bounded by an estimate of the memory held by its entries, rather than by their number,
+ * since the results of one long simulation may outweigh those of many short ones. An entry grows as the components
+ * of its dataset are loaded; the least recently used entries are evicted once the estimate exceeds the capacity.
+ * A cache with a capacity of zero retains nothing.
+ * </p>
+ *
+ * <p>
+ * The results of a dataset do not change once its simulation has succeeded, so an entry need only be
+ * invalidated when its dataset is seen to be in any other state.
+ * </p>
+ */
+public final class SimulationResultsCache {
+  public record Stats(long hits, long misses, long evictions, long bytes) {
+    public double hitRate() {
+      final var lookups = this.hits + this.misses;
+      return (lookups == 0) ? 0.0 : (double) this.hits / lookups;
+    }
+  }
+
+  /**
+   * The components of one dataset's results loaded so far.
+   * Readers and writers of these fields must hold the entry's lock.
+   */
+  /*package-local*/ static final class Entry {
+    final Map<String, Pair<ValueSchema, List<ProfileSegment<Optional<RealDynamics>>>>> realProfiles = new HashMap<>();
+    final Map<String, Pair<ValueSchema, List<ProfileSegment<Optional<SerializedValue>>>>> discreteProfiles = new HashMap<>();
+    /** The names of the profiles which have been looked up, including those found not to exist. */
+    final Set<String> loadedProfileNames = new HashSet<>();
+    boolean allProfilesLoaded = false;
+
+    Pair<Map<SimulatedActivityId, SimulatedActivity>, Map<SimulatedActivityId, UnfinishedActivity>> activities = null;
+    List<Triple<Integer, String, ValueSchema>> topics = null;
+
+    /** An estimate of the memory held by the components loaded so far, in bytes. */
+    long bytes = 0;
+  }
+
+  private record Slot(Entry entry, long bytes) {}
+
+  private final long capacityBytes;
+  private final LinkedHashMap<Long, Slot> slots = new LinkedHashMap<>(16, 0.75f, true);
+  private long totalBytes = 0;
+  private long hits = 0;
+  private long misses = 0;
+  private long evictions = 0;
+
+  public SimulationResultsCache(final long capacityBytes) {
+    if (capacityBytes < 0) throw new IllegalArgumentException("capacity must be non-negative, but was " + capacityBytes);
+    this.capacityBytes = capacityBytes;
+  }
+
+  /** Whether entries are kept beyond the handles which hold them. */
+  /*package-local*/ boolean retainsEntries() {
+    return this.capacityBytes > 0;
+  }
+
+  /** Get the entry for a dataset, creating an empty one if none is cached. */
+  /*package-local*/ synchronized Entry get(final long datasetId) {
+    final var slot = this.slots.get(datasetId);
+    if (slot != null) return slot.entry();
+
+    final var entry = new Entry();
+    if (this.capacityBytes > 0) this.slots.put(datasetId, new Slot(entry, 0));
+    return entry;
+  }
+
+  /**
+   * Account for the current size of a dataset's entry, evicting the least recently used entries if the cache is over capacity.
+   * If the entry is larger than the whole cache, it is evicted itself; its holders may continue to use it.
+   */
+  /*package-local*/ synchronized void resize(final long datasetId, final Entry entry, final long bytes) {
+    final var slot = this.slots.get(datasetId);
+    if (slot == null || slot.entry() != entry) return;
+
+    this.slots.put(datasetId, new Slot(entry, bytes));
+    this.totalBytes += bytes - slot.bytes();
+
+    final var iterator = this.slots.entrySet().iterator();
+    while (this.totalBytes > this.capacityBytes && iterator.hasNext()) {
+      final var eldest = iterator.next();
+      this.totalBytes -= eldest.getValue().bytes();
+      this.evictions += 1;
+      iterator.remove();
+    }
+  }
+
+  public synchronized void invalidate(final long datasetId) {
+    final var slot = this.slots.remove(datasetId);
+    if (slot != null) this.totalBytes -= slot.bytes();
+  }
+
+  /*package-local*/ synchronized void recordHit() {
+    this.hits += 1;
+  }
+
+  /*package-local*/ synchronized void recordMiss() {
+    this.misses += 1;
+  }
+
+  public synchronized Stats stats() {
+    return new Stats(this.hits, this.misses, this.evictions, this.totalBytes);
+  }
+
+  // The estimates below are deliberately rough: they only need to rank datasets by weight,
+  //   and to keep the cache's total within a small factor of its capacity.
+
+  /*package-local*/ static long estimateRealProfileBytes(final List<ProfileSegment<Optional<RealDynamics>>> segments) {
+    return 64 + 72L * segments.size();
+  }
+
+  /*package-local*/ static long estimateDiscreteProfileBytes(final List<ProfileSegment<Optional<SerializedValue>>> segments) {
+    var bytes = 64L;
+    for (final var segment : segments) {
+      bytes += 48 + segment.dynamics().map(SimulationResultsCache::estimateBytes).orElse(0L);
+    }
+    return bytes;
+  }
+
+  /*package-local*/ static long estimateActivitiesBytes(
+      final Pair<Map<SimulatedActivityId, SimulatedActivity>, Map<SimulatedActivityId, UnfinishedActivity>> activities
+  ) {
+    var bytes = 128L;
+    for (final var activity : activities.getLeft().values()) {
+      bytes += 192 + estimateStringBytes(activity.type()) + 16L * activity.childIds().size();
+      bytes += estimateBytes(SerializedValue.of(activity.arguments())) + estimateBytes(activity.computedAttributes());
+    }
+    for (final var activity : activities.getRight().values()) {
+      bytes += 160 + estimateStringBytes(activity.type()) + 16L * activity.childIds().size();
+      bytes += estimateBytes(SerializedValue.of(activity.arguments()));
+    }
+    return bytes;
+  }
+
+  /*package-local*/ static long estimateTopicsBytes(final List<Triple<Integer, String, ValueSchema>> topics) {
+    var bytes = 64L;
+    for (final var topic : topics) bytes += 128 + estimateStringBytes(topic.getMiddle());
+    return bytes;
+  }
+
+  /*package-local*/ static long estimateBytes(final SerializedValue value) {
+    return value.match(new SerializedValue.Visitor<>() {
+      @Override
+      public Long onNull() {
+        return 16L;
+      }
+
+      @Override
+      public Long onNumeric(final BigDecimal value) {
+        return 56L;
+      }
+
+      @Override
+      public Long onBoolean(final boolean value) {
+        return 16L;
+      }
+
+      @Override
+      public Long onString(final String value) {
+        return 16 + estimateStringBytes(value);
+      }
+
+      @Override
+      public Long onMap(final Map<String, SerializedValue> value) {
+        var bytes = 64L;
+        for (final var entry : value.entrySet()) {
+          bytes += 32 + estimateStringBytes(entry.getKey()) + entry.getValue().match(this);
+        }
+        return bytes;
+      }
+
+      @Override
+      public Long onList(final List<SerializedValue> value) {
+        var bytes = 40L;
+        for (final var element : value) bytes += 8 + element.match(this);
+        return bytes;
+      }
+    });
+  }
+
+  private static long estimateStringBytes(final String value) {
+    return 40 + value.length();
+  }
+}
@@ -47,6 +47,29 @@ import java.util.Map;
     }
   }
 
+  /** Link each span to its parent, given the simulated ID of the parent of every span which has one. */
+  public void applyParents(
+      final long datasetId,
+      final Map<Long, Long> simIdToParentSimId,
+      final Map<Long, Long> simIdToPgId
+  ) throws SQLException {
+    for (final var entry : simIdToParentSimId.entrySet()) {
+      this.statement.setLong(1, simIdToPgId.get(entry.getValue()));
+      this.statement.setLong(2, datasetId);
+      this.statement.setLong(3, simIdToPgId.get(entry.getKey()));
+
+      this.statement.addBatch();
+    }
+    try {
+      final var results = this.statement.executeBatch();
+      for (final var result : results) {
+        if (result != 1) throw new FailedUpdateException("span");
+      }
+    } finally {
+      this.statement.clearBatch();
+    }
+  }
+
   @Override
   public void close() throws SQLException {
     this.statement.close();
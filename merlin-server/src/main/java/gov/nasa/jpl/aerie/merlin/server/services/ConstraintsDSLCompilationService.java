@@ -9,6 +9,8 @@ import gov.nasa.jpl.aerie.merlin.server.http.InvalidJsonException;
 import gov.nasa.jpl.aerie.merlin.server.models.ConstraintsCompilationError;
 import gov.nasa.jpl.aerie.constraints.json.ConstraintParsers;
 import gov.nasa.jpl.aerie.merlin.server.models.PlanId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.json.Json;
 import javax.json.JsonObject;
@@ -16,84 +18,148 @@ import javax.json.stream.JsonParsingException;
 import java.io.File;
 import java.io.IOException;
 import java.io.StringReader;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Optional;
 
 public class ConstraintsDSLCompilationService {
+  private static final Logger log = LoggerFactory.getLogger(ConstraintsDSLCompilationService.class);
+  private static final int COMPILATION_CACHE_CAPACITY = 1024;
+  private static final Duration DEFAULT_COMPILER_TIMEOUT = Duration.ofMinutes(2);
 
-  private final Process nodeProcess;
+  public record Stats(long hits, long misses) {
+    public double hitRate() {
+      final var lookups = this.hits + this.misses;
+      return (lookups == 0) ? 0.0 : (double) this.hits / lookups;
+    }
+  }
+
+  // A definition compiles to the same result against the same generated types,
+  //   so results are shared by every plan whose types are the same.
+  private record CompilationKey(String constraintTypescript, String generatedTypesChecksum) {}
+
+  private final ConstraintsDSLCompilerPool compilerPool;
   private final TypescriptCodeGenerationServiceAdapter typescriptCodeGenerationService;
+  private final Map<CompilationKey, ConstraintsDSLCompilationResult> compilationCache =
+      new LinkedHashMap<>(COMPILATION_CACHE_CAPACITY, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<CompilationKey, ConstraintsDSLCompilationResult> eldest) {
+          return this.size() > COMPILATION_CACHE_CAPACITY;
+        }
+      };
+  private long hits = 0;
+  private long misses = 0;
 
   public ConstraintsDSLCompilationService(final TypescriptCodeGenerationServiceAdapter typescriptCodeGenerationService)
   throws IOException
+  {
+    this(typescriptCodeGenerationService, 1);
+  }
+
+  public ConstraintsDSLCompilationService(
+      final TypescriptCodeGenerationServiceAdapter typescriptCodeGenerationService,
+      final int compilerProcesses
+  ) throws IOException
+  {
+    this(typescriptCodeGenerationService, compilerProcesses, DEFAULT_COMPILER_TIMEOUT);
+  }
+
+  /**
+   * @param compilerProcesses the number of compiler subprocesses to run, and so the number of compilations which may run at once
+   * @param compilerTimeout how long a compiler subprocess may take to answer before it is killed and restarted
+   */
+  public ConstraintsDSLCompilationService(
+      final TypescriptCodeGenerationServiceAdapter typescriptCodeGenerationService,
+      final int compilerProcesses,
+      final Duration compilerTimeout
+  ) throws IOException
   {
     this.typescriptCodeGenerationService = typescriptCodeGenerationService;
     final var constraintsDslCompilerRoot = System.getenv("CONSTRAINTS_DSL_COMPILER_ROOT");
     final var constraintsDslCompilerCommand = System.getenv("CONSTRAINTS_DSL_COMPILER_COMMAND");
     final var nodePath = System.getenv("NODE_PATH");
-    this.nodeProcess = new ProcessBuilder(nodePath, "--experimental-vm-modules", constraintsDslCompilerCommand)
+    final var processBuilder = new ProcessBuilder(nodePath, "--experimental-vm-modules", constraintsDslCompilerCommand)
         .redirectError(ProcessBuilder.Redirect.INHERIT)
-        .directory(new File(constraintsDslCompilerRoot))
-        .start();
-
-    final var inputStream = this.nodeProcess.outputWriter();
-    inputStream.write("ping\n");
-    inputStream.flush();
-    if (!Objects.equals(this.nodeProcess.inputReader().readLine(), "pong")) {
-      throw new Error("Could not create node subprocess");
-    }
+        .directory(new File(constraintsDslCompilerRoot));
+
+    this.compilerPool = new ConstraintsDSLCompilerPool(processBuilder, compilerProcesses, compilerTimeout);
   }
 
   public void close() {
-    this.nodeProcess.destroy();
+    this.compilerPool.close();
   }
 
   /**
-   * NOTE: This method is not re-entrant (assumes only one call to this method is running at any given time)
+   * Compile a constraint definition against the types generated for a mission model and plan.
+   *
+   * Results, including compilation errors, are cached by the definition and the generated types it was compiled against.
    */
-  synchronized public ConstraintsDSLCompilationResult compileConstraintsDSL(final String missionModelId, final Optional<PlanId> planId, final String constraintTypescript)
+  public ConstraintsDSLCompilationResult compileConstraintsDSL(final String missionModelId, final Optional<PlanId> planId, final String constraintTypescript)
   throws MissionModelService.NoSuchMissionModelException, NoSuchPlanException
   {
-    final var missionModelGeneratedCode = this.typescriptCodeGenerationService.generateTypescriptTypes(missionModelId, planId);
+    final var generatedTypes = this.typescriptCodeGenerationService.getGeneratedTypes(missionModelId, planId);
+    final var key = new CompilationKey(constraintTypescript, generatedTypes.checksum());
+
+    synchronized (this.compilationCache) {
+      final var cached = this.compilationCache.get(key);
+      if (cached != null) {
+        this.hits += 1;
+        return cached;
+      }
+    }
+
+    final var result = this.compile(constraintTypescript, generatedTypes.code());
+    synchronized (this.compilationCache) {
+      this.compilationCache.put(key, result);
+      this.misses += 1;
+    }
+
+    final var compilerStats = this.compilerPool.stats();
+    log.debug(
+        "Constraints DSL compilers: {} waiting, {} requests, {} restarts, {} timeouts, {} ms mean wait, {} ms mean compilation",
+        compilerStats.queueDepth(),
+        compilerStats.requests(),
+        compilerStats.restarts(),
+        compilerStats.timeouts(),
+        Math.round(compilerStats.meanWaitMillis()),
+        Math.round(compilerStats.meanRequestMillis()));
+
+    return result;
+  }
+
+  public Stats stats() {
+    synchronized (this.compilationCache) {
+      return new Stats(this.hits, this.misses);
+    }
+  }
+
+  private ConstraintsDSLCompilationResult compile(final String constraintTypescript, final String missionModelGeneratedCode) {
     final JsonObject messageJson = Json.createObjectBuilder()
         .add("constraintCode", constraintTypescript)
         .add("missionModelGeneratedCode", missionModelGeneratedCode)
         .add("expectedReturnType", "Constraint")
         .build();
-    /*
-     * PROTOCOL:
-     *   denote this java program as JAVA, and the node subprocess as NODE
-     *
-     *   JAVA -- stdin --> NODE: { "constraintCode": "sourcecode", "missionModelGeneratedCode": "generatedcode" } \n
-     *   NODE -- stdout --> JAVA: one of "success\n", "error\n", or "panic\n"
-     *   NODE -- stdout --> JAVA: payload associated with success, error, or panic, must be exactly one line terminated with \n
-     * */
-    final var inputWriter = this.nodeProcess.outputWriter();
-    final var outputReader = this.nodeProcess.inputReader();
     try {
-      inputWriter.write(messageJson +"\n");
-      inputWriter.flush();
-      final var status = outputReader.readLine();
-      return switch (status) {
-        case "panic" -> throw new Error(outputReader.readLine());
+      final var reply = this.compilerPool.request(messageJson);
+      return switch (reply.status()) {
+        case "panic" -> throw new Error(reply.payload());
         case "error" -> {
-          final var output = outputReader.readLine();
           try {
-            yield new ConstraintsDSLCompilationResult.Error(parseJson(output, ConstraintsCompilationError.constraintsErrorJsonP));
+            yield new ConstraintsDSLCompilationResult.Error(parseJson(reply.payload(), ConstraintsCompilationError.constraintsErrorJsonP));
           } catch (InvalidJsonException | InvalidEntityException e) {
-            throw new Error("Could not parse error JSON returned from typescript: " + output, e);
+            throw new Error("Could not parse error JSON returned from typescript: " + reply.payload(), e);
           }
         }
         case "success" -> {
-          final var output = outputReader.readLine();
           try {
-            yield new ConstraintsDSLCompilationResult.Success(parseJson(output, ConstraintParsers.constraintP));
+            yield new ConstraintsDSLCompilationResult.Success(parseJson(reply.payload(), ConstraintParsers.constraintP));
           } catch (InvalidJsonException | InvalidEntityException e) {
-            throw new Error("Could not parse success JSON returned from typescript: " + output, e);
+            throw new Error("Could not parse success JSON returned from typescript: " + reply.payload(), e);
           }
         }
-        default -> throw new Error("constraints dsl compiler returned unexpected status: " + status);
+        default -> throw new Error("constraints dsl compiler returned unexpected status: " + reply.status());
       };
     } catch (IOException e) {
       throw new Error(e);
@@ -0,0 +1,237 @@
+package gov.nasa.jpl.aerie.merlin.server.services;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed number of constraints DSL compiler subprocesses, each of which handles one request at a time,
+ * so that compilations requested by different callers may run in parallel.
+ *
+ * <p>
+ * Each request is tagged with an id, which the compiler repeats in its reply. A compiler whose reply does not match
+ * its request, whose pipe fails, or which does not reply within the reply timeout, is killed; a compiler found to have
+ * exited is restarted before it is next used.
+ * </p>
+ */
+/*package-local*/ final class ConstraintsDSLCompilerPool implements AutoCloseable {
+  public record Reply(String status, String payload) {}
+
+  public record Stats(int queueDepth, long requests, long restarts, long timeouts, long totalWaitNanos, long totalRequestNanos) {
+    public double meanWaitMillis() {
+      return (this.requests == 0) ? 0.0 : this.totalWaitNanos / 1e6 / this.requests;
+    }
+
+    public double meanRequestMillis() {
+      return (this.requests == 0) ? 0.0 : this.totalRequestNanos / 1e6 / this.requests;
+    }
+  }
+
+  private final ProcessBuilder processBuilder;
+  private final Duration replyTimeout;
+  /** Kills compilers which have not replied in time, so that a read blocked on a hung compiler fails. */
+  private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    final var thread = new Thread(runnable, "constraints-dsl-compiler-watchdog");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private final BlockingQueue<Compiler> idle = new LinkedBlockingQueue<>();
+  private final Set<Compiler> compilers = new HashSet<>();
+  private final AtomicLong nextRequestId = new AtomicLong(0);
+
+  private int queueDepth = 0;
+  private long requests = 0;
+  private long restarts = 0;
+  private long timeouts = 0;
+  private long totalWaitNanos = 0;
+  private long totalRequestNanos = 0;
+
+  /**
+   * @param replyTimeout how long a compiler may take to reply to a request (or to its startup ping) before it is killed
+   */
+  public ConstraintsDSLCompilerPool(final ProcessBuilder processBuilder, final int size, final Duration replyTimeout)
+  throws IOException
+  {
+    if (size < 1) throw new IllegalArgumentException("size must be positive, but was " + size);
+    if (replyTimeout.isNegative() || replyTimeout.isZero()) {
+      throw new IllegalArgumentException("replyTimeout must be positive, but was " + replyTimeout);
+    }
+
+    this.processBuilder = processBuilder;
+    this.replyTimeout = replyTimeout;
+    try {
+      for (var i = 0; i < size; i += 1) this.idle.add(this.start());
+    } catch (final IOException ex) {
+      this.close();
+      throw ex;
+    }
+  }
+
+  /**
+   * Send a request to the next idle compiler, waiting for one to become idle if need be.
+   *
+   * @throws IOException if the compiler could not be started or failed while handling the request
+   */
+  public Reply request(final JsonObject message) throws IOException {
+    final var enqueued = System.nanoTime();
+    synchronized (this) {
+      this.queueDepth += 1;
+    }
+
+    Compiler compiler;
+    try {
+      compiler = this.idle.take();
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for a constraints DSL compiler", ex);
+    } finally {
+      synchronized (this) {
+        this.queueDepth -= 1;
+      }
+    }
+
+    final var started = System.nanoTime();
+    try {
+      if (!compiler.process().isAlive()) compiler = this.restart(compiler);
+
+      final var requestId = this.nextRequestId.incrementAndGet();
+      final var deadline = this.deadline(compiler);
+      try {
+        return compiler.send(Json.createObjectBuilder(message).add("requestId", requestId).build(), requestId);
+      } catch (final IOException ex) {
+        // The compiler can no longer be trusted to answer in step; the next caller to draw it will restart it.
+        compiler.process().destroy();
+        if (deadline.expired().get()) {
+          synchronized (this) {
+            this.timeouts += 1;
+          }
+          throw new IOException(
+              "Constraints DSL compiler did not answer request %d within %s".formatted(requestId, this.replyTimeout),
+              ex);
+        }
+        throw ex;
+      } finally {
+        deadline.kill().cancel(false);
+      }
+    } finally {
+      // Return the compiler to the pool even if it is dead, so that the pool does not shrink.
+      this.idle.add(compiler);
+      synchronized (this) {
+        this.requests += 1;
+        this.totalWaitNanos += started - enqueued;
+        this.totalRequestNanos += System.nanoTime() - started;
+      }
+    }
+  }
+
+  public synchronized Stats stats() {
+    return new Stats(this.queueDepth, this.requests, this.restarts, this.timeouts, this.totalWaitNanos, this.totalRequestNanos);
+  }
+
+  @Override
+  public void close() {
+    synchronized (this.compilers) {
+      for (final var compiler : this.compilers) compiler.process().destroy();
+      this.compilers.clear();
+    }
+    this.watchdog.shutdownNow();
+  }
+
+  private Compiler restart(final Compiler compiler) throws IOException {
+    this.discard(compiler);
+    synchronized (this) {
+      this.restarts += 1;
+    }
+
+    // If the compiler cannot be started, the dead one is returned to the pool, to be restarted by the next caller to draw it.
+    return this.start();
+  }
+
+  private Compiler start() throws IOException {
+    final var process = this.processBuilder.start();
+    final var compiler = new Compiler(process, process.outputWriter(), process.inputReader());
+    synchronized (this.compilers) {
+      this.compilers.add(compiler);
+    }
+
+    final var deadline = this.deadline(compiler);
+    try {
+      compiler.writer().write("ping\n");
+      compiler.writer().flush();
+      if (!Objects.equals(compiler.reader().readLine(), "pong")) {
+        throw new IOException((deadline.expired().get())
+            ? "Node subprocess did not answer its startup ping within " + this.replyTimeout
+            : "Could not create node subprocess");
+      }
+      return compiler;
+    } catch (final IOException ex) {
+      this.discard(compiler);
+      throw ex;
+    } finally {
+      deadline.kill().cancel(false);
+    }
+  }
+
+  private void discard(final Compiler compiler) {
+    compiler.process().destroy();
+    synchronized (this.compilers) {
+      this.compilers.remove(compiler);
+    }
+  }
+
+  /** Kill the compiler unless the returned deadline is cancelled within the reply timeout. */
+  private Deadline deadline(final Compiler compiler) {
+    final var expired = new AtomicBoolean(false);
+    final var kill = this.watchdog.schedule(
+        () -> {
+          expired.set(true);
+          compiler.process().destroyForcibly();
+        },
+        this.replyTimeout.toNanos(),
+        TimeUnit.NANOSECONDS);
+    return new Deadline(kill, expired);
+  }
+
+  private record Deadline(ScheduledFuture<?> kill, AtomicBoolean expired) {}
+
+  private record Compiler(Process process, BufferedWriter writer, BufferedReader reader) {
+    /*
+     * PROTOCOL:
+     *   denote this java program as JAVA, and the node subprocess as NODE
+     *
+     *   JAVA -- stdin --> NODE: { "requestId": 1, "constraintCode": "sourcecode", "missionModelGeneratedCode": "generatedcode" } \n
+     *   NODE -- stdout --> JAVA: one of "success 1\n", "error 1\n", or "panic 1\n"
+     *   NODE -- stdout --> JAVA: payload associated with success, error, or panic, must be exactly one line terminated with \n
+     *
+     *   A panic which is not raised while handling a request (and after which NODE exits) is reported without an id.
+     * */
+    public Reply send(final JsonObject message, final long requestId) throws IOException {
+      this.writer.write(message + "\n");
+      this.writer.flush();
+
+      final var statusLine = this.reader.readLine();
+      if (statusLine == null) throw new IOException("Constraints DSL compiler exited while handling request " + requestId);
+
+      final var parts = statusLine.split(" ", 2);
+      if (parts.length == 2 && !parts[1].equals(String.valueOf(requestId))) {
+        throw new IOException("Constraints DSL compiler answered request %s in place of request %d".formatted(parts[1], requestId));
+      }
+
+      return new Reply(parts[0], this.reader.readLine());
+    }
+  }
+}
@@ -14,6 +14,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 
 public final class GetSimulationResultsAction {
   public sealed interface Response {
@@ -54,49 +55,91 @@ public final class GetSimulationResultsAction {
 
   public Map<String, List<Pair<Duration, SerializedValue>>> getResourceSamples(final PlanId planId)
   throws NoSuchPlanException
+  {
+    return this.getResourceSamples(planId, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty());
+  }
+
+  /**
+   * Get the samples of the given resources (or of every resource, if none are given) within a window of simulation time.
+   *
+   * Only the profile segments overlapping the window are loaded. If a maximum number of samples is given,
+   * each resource's samples are downsampled to about that many points by a {@link ResourceSampleDownsampler}.
+   *
+   * @param startOffset the start of the window, relative to the start of simulation; by default, the start of simulation
+   * @param endOffset the end of the window, relative to the start of simulation; by default, the end of simulation
+   */
+  public Map<String, List<Pair<Duration, SerializedValue>>> getResourceSamples(
+      final PlanId planId,
+      final Optional<Duration> startOffset,
+      final Optional<Duration> endOffset,
+      final Optional<List<String>> resourceNames,
+      final Optional<Integer> maxSamples)
+  throws NoSuchPlanException
   {
     final var revisionData = this.planService.getPlanRevisionData(planId);
     final var simulationResultsHandle$ = this.simulationService.get(planId, revisionData);
     if (simulationResultsHandle$.isEmpty()) return Collections.emptyMap();
-    final var simulationResults = simulationResultsHandle$.get().getSimulationResults();
+    final var simulationResultsHandle = simulationResultsHandle$.get();
+
+    final var start = Duration.max(startOffset.orElse(Duration.ZERO), Duration.ZERO);
+    final var end = Duration.min(endOffset.orElse(simulationResultsHandle.duration()), simulationResultsHandle.duration());
+    if (end.shorterThan(start)) return Collections.emptyMap();
+
+    final var profiles = simulationResultsHandle.getProfiles(resourceNames, start, end);
 
     final var samples = new HashMap<String, List<Pair<Duration, SerializedValue>>>();
 
-    simulationResults.realProfiles.forEach((name, p) -> {
-      var elapsed = Duration.ZERO;
+    profiles.realProfiles().forEach((name, p) -> {
+      var elapsed = start;
       var profile = p.getRight();
 
       final var timeline = new ArrayList<Pair<Duration, SerializedValue>>();
       for (final var piece : profile) {
         final var extent = piece.extent();
-        final var dynamics = piece.dynamics();
-
-        timeline.add(Pair.of(elapsed, SerializedValue.of(
-            dynamics.initial)));
+        final var dynamics$ = piece.dynamics();
+
+        if (dynamics$.isPresent()) {
+          final var dynamics = dynamics$.get();
+          timeline.add(Pair.of(elapsed, SerializedValue.of(
+              dynamics.initial)));
+          timeline.add(Pair.of(elapsed.plus(extent), SerializedValue.of(
+              dynamics.initial + dynamics.rate * extent.ratioOver(Duration.SECONDS))));
+        }
         elapsed = elapsed.plus(extent);
-        timeline.add(Pair.of(elapsed, SerializedValue.of(
-            dynamics.initial + dynamics.rate * extent.ratioOver(Duration.SECONDS))));
       }
 
-      samples.put(name, timeline);
+      samples.put(name, downsample(timeline, start, end, maxSamples));
     });
-    simulationResults.discreteProfiles.forEach((name, p) -> {
-      var elapsed = Duration.ZERO;
+    profiles.discreteProfiles().forEach((name, p) -> {
+      var elapsed = start;
       var profile = p.getRight();
 
       final var timeline = new ArrayList<Pair<Duration, SerializedValue>>();
       for (final var piece : profile) {
         final var extent = piece.extent();
-        final var value = piece.dynamics();
+        final var value$ = piece.dynamics();
 
-        timeline.add(Pair.of(elapsed, value));
+        if (value$.isPresent()) {
+          timeline.add(Pair.of(elapsed, value$.get()));
+          timeline.add(Pair.of(elapsed.plus(extent), value$.get()));
+        }
         elapsed = elapsed.plus(extent);
-        timeline.add(Pair.of(elapsed, value));
       }
 
-      samples.put(name, timeline);
+      samples.put(name, downsample(timeline, start, end, maxSamples));
     });
 
     return samples;
   }
+
+  private static List<Pair<Duration, SerializedValue>> downsample(
+      final List<Pair<Duration, SerializedValue>> samples,
+      final Duration start,
+      final Duration end,
+      final Optional<Integer> maxSamples)
+  {
+    return maxSamples
+        .map(max -> ResourceSampleDownsampler.downsample(samples, start, end, max))
+        .orElse(samples);
+  }
 }
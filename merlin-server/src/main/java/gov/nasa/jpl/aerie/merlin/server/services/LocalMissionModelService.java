@@ -7,6 +7,8 @@ import gov.nasa.jpl.aerie.merlin.driver.MissionModelLoader;
 import gov.nasa.jpl.aerie.merlin.driver.SerializedActivity;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationDriver;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationResultsSink;
+import gov.nasa.jpl.aerie.merlin.driver.engine.SpillFile;
 import gov.nasa.jpl.aerie.merlin.protocol.model.InputType.Parameter;
 import gov.nasa.jpl.aerie.merlin.protocol.model.InputType.ValidationNotice;
 import gov.nasa.jpl.aerie.merlin.protocol.model.ModelType;
@@ -41,18 +43,32 @@ import java.util.function.Consumer;
 public final class LocalMissionModelService implements MissionModelService {
   private static final Logger log = LoggerFactory.getLogger(LocalMissionModelService.class);
 
+  /** The number of mission models whose loaded classes are kept around between requests. */
+  private static final int MODEL_TYPE_CACHE_CAPACITY = 8;
+
   private final Path missionModelDataPath;
   private final MissionModelRepository missionModelRepository;
   private final Instant untruePlanStart;
+  private final Optional<Integer> residentProfileSlabs;
+  private final MissionModelTypeCache modelTypeCache = new MissionModelTypeCache(MODEL_TYPE_CACHE_CAPACITY);
 
+  /**
+   * @param residentProfileSlabs if present, the number of full slabs of each resource profile kept on the heap
+   *   when results are returned all at once, beyond which profiles are spilled to disk; if absent, profiles are never spilled
+   */
   public LocalMissionModelService(
       final Path missionModelDataPath,
       final MissionModelRepository missionModelRepository,
-      final Instant untruePlanStart
+      final Instant untruePlanStart,
+      final Optional<Integer> residentProfileSlabs
   ) {
     this.missionModelDataPath = missionModelDataPath;
     this.missionModelRepository = missionModelRepository;
     this.untruePlanStart = untruePlanStart;
+    this.residentProfileSlabs = residentProfileSlabs;
+
+    // No simulation has started yet, so any spill files present were left by an earlier process.
+    if (residentProfileSlabs.isPresent()) SpillFile.deleteStale(this.spillDirectory());
   }
 
   @Override
@@ -252,7 +268,51 @@ public final class LocalMissionModelService implements MissionModelService {
     }
 
     // TODO: [AERIE-1516] Teardown the mission model after use to release any system resources (e.g. threads).
+    final var missionModel = loadAndInstantiateMissionModel(
+        message.missionModelId(),
+        message.simulationStartTime(),
+        SerializedValue.of(config));
+
+    if (this.residentProfileSlabs.isEmpty()) {
+      return SimulationDriver.simulate(
+          missionModel,
+          message.activityDirectives(),
+          message.simulationStartTime(),
+          message.simulationDuration(),
+          message.planStartTime(),
+          message.planDuration(),
+          simulationExtentConsumer,
+          1);
+    }
+
     return SimulationDriver.simulate(
+        missionModel,
+        message.activityDirectives(),
+        message.simulationStartTime(),
+        message.simulationDuration(),
+        message.planStartTime(),
+        message.planDuration(),
+        simulationExtentConsumer,
+        1,
+        this.spillDirectory(),
+        this.residentProfileSlabs.get());
+  }
+
+  @Override
+  public void runSimulation(
+      final CreateSimulationMessage message,
+      final Consumer<Duration> simulationExtentConsumer,
+      final SimulationResultsSink sink
+  ) throws NoSuchMissionModelException
+  {
+    final var config = message.configuration();
+    if (config.isEmpty()) {
+      log.warn(
+          "No mission model configuration defined for mission model. Simulations will receive an empty set of configuration arguments.");
+    }
+
+    // TODO: [AERIE-1516] Teardown the mission model after use to release any system resources (e.g. threads).
+    SimulationDriver.simulate(
         loadAndInstantiateMissionModel(
             message.missionModelId(),
             message.simulationStartTime(),
@@ -262,13 +322,19 @@ public final class LocalMissionModelService implements MissionModelService {
         message.simulationDuration(),
         message.planStartTime(),
         message.planDuration(),
-        simulationExtentConsumer);
+        simulationExtentConsumer,
+        1,
+        sink);
   }
 
   @Override
   public void refreshModelParameters(final String missionModelId)
   throws NoSuchMissionModelException
   {
+    // Parameters are refreshed whenever a mission model is uploaded or changed,
+    // so any classes loaded for an earlier upload under this ID are stale.
+    this.modelTypeCache.invalidate(missionModelId);
+
     try {
       this.missionModelRepository.updateModelParameters(missionModelId, getModelParameters(missionModelId));
     } catch (final MissionModelRepository.NoSuchMissionModelException ex) {
@@ -318,12 +384,30 @@ public final class LocalMissionModelService implements MissionModelService {
     this.missionModelRepository.updateActivityDirectiveValidations(directive.id(), directive.planId(), directive.argumentsModifiedTime(), notices);
   }
 
+  private Path spillDirectory() {
+    return this.missionModelDataPath.resolve("spill");
+  }
+
   private ModelType<?, ?> loadMissionModelType(final String missionModelId)
   throws NoSuchMissionModelException, MissionModelLoadException
   {
     try {
       final var missionModelJar = this.missionModelRepository.getMissionModel(missionModelId);
-      return MissionModelLoader.loadModelType(missionModelDataPath.resolve(missionModelJar.path), missionModelJar.name, missionModelJar.version);
+      final var jarPath = missionModelDataPath.resolve(missionModelJar.path);
+      final var modelType = this.modelTypeCache.get(
+          missionModelId,
+          jarPath,
+          () -> MissionModelLoader.loadModelType(jarPath, missionModelJar.name, missionModelJar.version));
+
+      final var stats = this.modelTypeCache.stats();
+      log.debug(
+          "Mission model type cache: {} hits, {} misses ({}% hit rate), {} ms mean load time",
+          stats.hits(),
+          stats.misses(),
+          Math.round(100 * stats.hitRate()),
+          Math.round(stats.meanLoadMillis()));
+
+      return modelType;
     } catch (final MissionModelRepository.NoSuchMissionModelException ex) {
       throw new NoSuchMissionModelException(missionModelId, ex);
     } catch (final MissionModelLoader.MissionModelLoadException ex) {
@@ -362,19 +446,10 @@ public final class LocalMissionModelService implements MissionModelService {
       final SerializedValue configuration)
   throws NoSuchMissionModelException, MissionModelLoadException
   {
-    try {
-      final var missionModelJar = this.missionModelRepository.getMissionModel(missionModelId);
-      return MissionModelLoader.loadMissionModel(
-          planStart,
-          configuration,
-          missionModelDataPath.resolve(missionModelJar.path),
-          missionModelJar.name,
-          missionModelJar.version);
-    } catch (final MissionModelRepository.NoSuchMissionModelException ex) {
-      throw new NoSuchMissionModelException(missionModelId, ex);
-    } catch (final MissionModelLoader.MissionModelLoadException ex) {
-      throw new MissionModelLoadException(ex);
-    }
+    return MissionModelLoader.instantiateMissionModel(
+        planStart,
+        configuration,
+        this.loadMissionModelType(missionModelId));
   }
 
   public static class MissionModelLoadException extends RuntimeException {
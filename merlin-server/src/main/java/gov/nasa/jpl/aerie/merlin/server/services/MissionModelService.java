@@ -4,6 +4,7 @@ import gov.nasa.jpl.aerie.merlin.driver.ActivityDirectiveId;
 import gov.nasa.jpl.aerie.merlin.driver.MissionModelLoader;
 import gov.nasa.jpl.aerie.merlin.driver.SerializedActivity;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationResultsSink;
 import gov.nasa.jpl.aerie.merlin.protocol.model.InputType.Parameter;
 import gov.nasa.jpl.aerie.merlin.protocol.model.InputType.ValidationNotice;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
@@ -69,6 +70,9 @@ public interface MissionModelService {
   SimulationResults runSimulation(CreateSimulationMessage message, Consumer<Duration> writer)
           throws NoSuchMissionModelException, MissionModelService.NoSuchActivityTypeException;
 
+  void runSimulation(CreateSimulationMessage message, Consumer<Duration> writer, SimulationResultsSink sink)
+          throws NoSuchMissionModelException, MissionModelService.NoSuchActivityTypeException;
+
   void refreshModelParameters(String missionModelId) throws NoSuchMissionModelException;
   void refreshActivityTypes(String missionModelId) throws NoSuchMissionModelException;
   void refreshActivityValidations(String missionModelId, ActivityDirectiveForValidation directive)
@@ -0,0 +1,136 @@
+package gov.nasa.jpl.aerie.merlin.server.services;
+
+import gov.nasa.jpl.aerie.merlin.driver.MissionModelLoader;
+import gov.nasa.jpl.aerie.merlin.protocol.model.ModelType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A bounded cache of loaded mission model types, so that a request against a mission model
+ * need not reopen its JAR, construct a fresh class loader, and reload (and re-JIT) its classes every time.
+ *
+ * <p>
+ * Entries are keyed by mission model ID and are only reused while the checksum of the model's JAR is unchanged.
+ * The checksum is only recomputed when the JAR's path, size, or modification time changes.
+ * The least recently used entry is evicted once the cache is full.
+ * </p>
+ *
+ * <p>
+ * Evicted class loaders are not closed, since simulations begun with them may still be running;
+ * they are reclaimed once nothing refers to them.
+ * </p>
+ */
+public final class MissionModelTypeCache {
+  public interface Loader {
+    ModelType<?, ?> load() throws MissionModelLoader.MissionModelLoadException;
+  }
+
+  public record Stats(long hits, long misses, long totalLoadNanos) {
+    public double hitRate() {
+      final var lookups = this.hits + this.misses;
+      return (lookups == 0) ? 0.0 : (double) this.hits / lookups;
+    }
+
+    public double meanLoadMillis() {
+      return (this.misses == 0) ? 0.0 : this.totalLoadNanos / 1e6 / this.misses;
+    }
+  }
+
+  private record JarFingerprint(Path path, long size, FileTime lastModified) {}
+
+  private record Entry(JarFingerprint fingerprint, String checksum, ModelType<?, ?> modelType) {}
+
+  private final Map<String, Entry> entries;
+  private long hits = 0;
+  private long misses = 0;
+  private long totalLoadNanos = 0;
+
+  public MissionModelTypeCache(final int capacity) {
+    if (capacity < 1) throw new IllegalArgumentException("capacity must be positive, but was " + capacity);
+
+    this.entries = new LinkedHashMap<>(capacity, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+        return this.size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * Get the model type for a mission model, loading it if no entry exists for the model's current JAR.
+   *
+   * Loading happens outside of the cache's lock, so a slow load does not hold up requests against other models.
+   */
+  public ModelType<?, ?> get(final String missionModelId, final Path jarPath, final Loader loader)
+  throws MissionModelLoader.MissionModelLoadException
+  {
+    final JarFingerprint fingerprint;
+    try {
+      fingerprint = new JarFingerprint(jarPath, Files.size(jarPath), Files.getLastModifiedTime(jarPath));
+    } catch (final IOException ex) {
+      // Leave it to the loader to report an unreadable JAR.
+      return loader.load();
+    }
+
+    final Entry cached;
+    synchronized (this) {
+      cached = this.entries.get(missionModelId);
+      if (cached != null && cached.fingerprint().equals(fingerprint)) {
+        this.hits += 1;
+        return cached.modelType();
+      }
+    }
+
+    final var checksum = checksum(jarPath);
+    if (cached != null && checksum != null && Objects.equals(cached.checksum(), checksum)) {
+      // The file was touched, but its contents are the same.
+      synchronized (this) {
+        this.entries.put(missionModelId, new Entry(fingerprint, checksum, cached.modelType()));
+        this.hits += 1;
+      }
+      return cached.modelType();
+    }
+
+    final var start = System.nanoTime();
+    final var modelType = loader.load();
+    final var elapsed = System.nanoTime() - start;
+
+    synchronized (this) {
+      if (checksum != null) this.entries.put(missionModelId, new Entry(fingerprint, checksum, modelType));
+      this.misses += 1;
+      this.totalLoadNanos += elapsed;
+    }
+    return modelType;
+  }
+
+  public synchronized void invalidate(final String missionModelId) {
+    this.entries.remove(missionModelId);
+  }
+
+  public synchronized Stats stats() {
+    return new Stats(this.hits, this.misses, this.totalLoadNanos);
+  }
+
+  private static String checksum(final Path jarPath) {
+    try (final var input = new DigestInputStream(Files.newInputStream(jarPath), MessageDigest.getInstance("SHA-256"))) {
+      input.transferTo(OutputStream.nullOutputStream());
+      return HexFormat.of().formatHex(input.getMessageDigest().digest());
+    } catch (final IOException ex) {
+      return null;
+    } catch (final NoSuchAlgorithmException ex) {
+      // Every Java platform is required to support SHA-256.
+      throw new Error(ex);
+    }
+  }
+}
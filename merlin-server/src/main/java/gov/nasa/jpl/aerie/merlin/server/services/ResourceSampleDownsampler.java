@@ -0,0 +1,88 @@
+package gov.nasa.jpl.aerie.merlin.server.services;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Reduces the samples of a resource to a bounded number of points, while preserving the shape of its plot.
+ *
+ * <p>
+ *   The window is divided into buckets of equal duration. Of the samples within each bucket, only the first, the last,
+ *   and those with the least and greatest values are kept (the "M4" aggregation), so that every extremum and every
+ *   step of the resource remains visible when the result is drawn at no more than one bucket per pixel.
+ * </p>
+ *
+ * <p>
+ *   Samples whose values are not numeric cannot be ranked; for those, only the first and last samples of each bucket are kept.
+ * </p>
+ */
+public final class ResourceSampleDownsampler {
+  private ResourceSampleDownsampler() {}
+
+  /**
+   * Downsample a resource's samples, which must be ordered by time and lie within the window `[start, end]`.
+   *
+   * @param maxSamples the approximate number of samples to keep, which must be positive
+   * @return at most `max(maxSamples, 4)` of the given samples, in order; or the samples themselves if there are few enough.
+   */
+  public static List<Pair<Duration, SerializedValue>> downsample(
+      final List<Pair<Duration, SerializedValue>> samples,
+      final Duration start,
+      final Duration end,
+      final int maxSamples
+  ) {
+    if (maxSamples < 1) throw new IllegalArgumentException("maxSamples must be positive, but was " + maxSamples);
+    if (samples.size() <= maxSamples) return samples;
+
+    final var numeric = samples.stream().allMatch($ -> $.getRight().asReal().isPresent());
+    final var bucketCount = Math.max(1, maxSamples / ((numeric) ? 4 : 2));
+    final var width = end.minus(start);
+
+    final var downsampled = new ArrayList<Pair<Duration, SerializedValue>>(bucketCount * ((numeric) ? 4 : 2));
+    var index = 0;
+    while (index < samples.size()) {
+      final var bucket = bucketOf(samples.get(index).getLeft(), start, width, bucketCount);
+
+      var first = index;
+      var last = index;
+      var min = index;
+      var max = index;
+      var minValue = (numeric) ? samples.get(index).getRight().asReal().get() : 0.0;
+      var maxValue = minValue;
+      for (index += 1; index < samples.size(); index += 1) {
+        if (bucketOf(samples.get(index).getLeft(), start, width, bucketCount) != bucket) break;
+
+        last = index;
+        if (!numeric) continue;
+
+        final double value = samples.get(index).getRight().asReal().get();
+        if (value < minValue) {
+          min = index;
+          minValue = value;
+        }
+        if (value > maxValue) {
+          max = index;
+          maxValue = value;
+        }
+      }
+
+      // Keep the chosen samples in their original order, without repeating any.
+      final var kept = new TreeSet<Integer>(List.of(first, min, max, last));
+      for (final var i : kept) downsampled.add(samples.get(i));
+    }
+
+    return downsampled;
+  }
+
+  private static long bucketOf(final Duration time, final Duration start, final Duration width, final int bucketCount) {
+    if (!width.isPositive()) return 0;
+
+    final var bucket = (long) (time.minus(start).ratioOver(width) * bucketCount);
+    return Math.max(0, Math.min(bucketCount - 1, bucket));
+  }
+}
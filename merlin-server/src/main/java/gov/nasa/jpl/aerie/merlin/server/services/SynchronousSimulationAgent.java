@@ -12,6 +12,7 @@ import gov.nasa.jpl.aerie.merlin.server.models.PlanId;
 import javax.json.Json;
 import java.time.temporal.ChronoUnit;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 public record SynchronousSimulationAgent (
@@ -55,7 +56,6 @@ public record SynchronousSimulationAgent (
         plan.simulationStartTimestamp.toInstant().until(plan.simulationEndTimestamp.toInstant(), ChronoUnit.MICROS),
         Duration.MICROSECONDS);
 
-    final SimulationResults results;
     try {
       // Validate plan activity construction
       final var failures = this.missionModelService.validateActivityInstantiations(
@@ -72,19 +72,30 @@ public record SynchronousSimulationAgent (
         return;
       }
 
-      try (final var extentListener = FixedRateListener.callAtFixedRate(
-          writer::reportSimulationExtent,
+      // Results are written as the simulation produces them, and flushed whenever progress is reported,
+      //   so that they become visible incrementally and need not all be held in memory.
+      // The sink is not thread-safe, so the flush itself happens on the simulation thread.
+      final var sink = writer.streamResults(plan.simulationStartTimestamp.toInstant());
+      final var flushRequested = new AtomicBoolean(false);
+      try (final var extentListener = FixedRateListener.<Duration>callAtFixedRate(
+          extent -> {
+            writer.reportSimulationExtent(extent);
+            flushRequested.set(true);
+          },
           Duration.ZERO,
           simulationProgressPollPeriod)
       ) {
-        results = this.missionModelService.runSimulation(new CreateSimulationMessage(
+        this.missionModelService.runSimulation(new CreateSimulationMessage(
             plan.missionModelId,
             plan.simulationStartTimestamp.toInstant(),
             simDuration,
             plan.startTimestamp.toInstant(),
             planDuration,
             plan.activityDirectives,
-            plan.configuration), extentListener::updateValue);
+            plan.configuration), extent -> {
+              extentListener.updateValue(extent);
+              if (flushRequested.getAndSet(false)) sink.flush();
+            }, sink);
       }
     } catch (SimulationException ex) {
       writer.failWith(b -> b
@@ -111,6 +122,6 @@ public record SynchronousSimulationAgent (
       return;
     }
 
-    writer.succeedWith(results);
+    writer.succeedWithStreamedResults();
   }
 }
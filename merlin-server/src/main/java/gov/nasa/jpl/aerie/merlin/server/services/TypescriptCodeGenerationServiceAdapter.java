@@ -6,14 +6,39 @@ import gov.nasa.jpl.aerie.merlin.protocol.types.ValueSchema;
 import gov.nasa.jpl.aerie.merlin.server.exceptions.NoSuchPlanException;
 import gov.nasa.jpl.aerie.merlin.server.models.PlanId;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 public class TypescriptCodeGenerationServiceAdapter {
+  private static final int GENERATED_TYPES_CACHE_CAPACITY = 32;
+
+  /**
+   * Generated TypeScript, along with a checksum of it, by which the results of compiling against it may be cached.
+   */
+  public record GeneratedTypes(String code, String checksum) {}
+
+  // The generated code depends only on these inputs, so plans of the same model whose external datasets
+  //   contribute the same resources share an entry.
+  private record GeneratedTypesKey(
+      Map<String, TypescriptCodeGenerationService.ActivityType> activityTypes,
+      Map<String, ValueSchema> resourceSchemas) {}
+
   private final MissionModelService missionModelService;
   private final PlanService planService;
+  private final Map<GeneratedTypesKey, GeneratedTypes> generatedTypesCache =
+      new LinkedHashMap<>(GENERATED_TYPES_CACHE_CAPACITY, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<GeneratedTypesKey, GeneratedTypes> eldest) {
+          return this.size() > GENERATED_TYPES_CACHE_CAPACITY;
+        }
+      };
 
   public TypescriptCodeGenerationServiceAdapter(final MissionModelService missionModelService, final PlanService planService) {
     this.missionModelService = missionModelService;
@@ -23,10 +48,42 @@ public class TypescriptCodeGenerationServiceAdapter {
   public String generateTypescriptTypes(final String missionModelId, final Optional<PlanId> planId)
   throws MissionModelService.NoSuchMissionModelException, NoSuchPlanException
   {
-    return TypescriptCodeGenerationService
-        .generateTypescriptTypes(
-            activityTypes(missionModelService, missionModelId),
-            resourceSchemas(missionModelService, missionModelId, planService, planId));
+    return this.getGeneratedTypes(missionModelId, planId).code();
+  }
+
+  /**
+   * Get the TypeScript types for a mission model and, if given, the external datasets of a plan.
+   *
+   * The activity types and resource schemas are looked up on every call, but the code is only regenerated when they change.
+   */
+  public GeneratedTypes getGeneratedTypes(final String missionModelId, final Optional<PlanId> planId)
+  throws MissionModelService.NoSuchMissionModelException, NoSuchPlanException
+  {
+    final var key = new GeneratedTypesKey(
+        activityTypes(missionModelService, missionModelId),
+        resourceSchemas(missionModelService, missionModelId, planService, planId));
+
+    synchronized (this.generatedTypesCache) {
+      final var cached = this.generatedTypesCache.get(key);
+      if (cached != null) return cached;
+    }
+
+    final var code = TypescriptCodeGenerationService.generateTypescriptTypes(key.activityTypes(), key.resourceSchemas());
+    final var generated = new GeneratedTypes(code, checksum(code));
+    synchronized (this.generatedTypesCache) {
+      this.generatedTypesCache.put(key, generated);
+    }
+    return generated;
+  }
+
+  private static String checksum(final String code) {
+    try {
+      final var digest = MessageDigest.getInstance("SHA-256").digest(code.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest);
+    } catch (final NoSuchAlgorithmException ex) {
+      // Every Java platform is required to support SHA-256.
+      throw new Error(ex);
+    }
   }
 
   static Map<String, TypescriptCodeGenerationService.ActivityType> activityTypes(final MissionModelService missionModelService, final String missionModelId)
@@ -165,4 +165,29 @@ public final class MerlinParsersTest {
 
     assertThat(hasuraMissionModelEventTriggerP.parse(json).getSuccessOrThrow()).isEqualTo(expected);
   }
+
+  @Test
+  public void testHasuraResourceSamplesActionRejectsNonPositiveMaxSamples() {
+    for (final var maxSamples : List.of(0, -1)) {
+      final var json = Json
+          .createObjectBuilder()
+          .add("action", Json
+              .createObjectBuilder()
+              .add("name", "resourceSamples")
+              .build())
+          .add("input", Json
+              .createObjectBuilder()
+              .add("planId", 1)
+              .add("maxSamples", maxSamples)
+              .build())
+          .add("session_variables", Json
+              .createObjectBuilder()
+              .add("x-hasura-role", "aerie_admin")
+              .build())
+          .add("request_query", "query { someValue }")
+          .build();
+
+      assertThat(hasuraResourceSamplesActionP.parse(json)).matches(JsonParseResult::isFailure);
+    }
+  }
 }
@@ -3,6 +3,7 @@ package gov.nasa.jpl.aerie.merlin.server.mocks;
 import gov.nasa.jpl.aerie.merlin.driver.ActivityDirectiveId;
 import gov.nasa.jpl.aerie.merlin.driver.SerializedActivity;
 import gov.nasa.jpl.aerie.merlin.driver.SimulationResults;
+import gov.nasa.jpl.aerie.merlin.driver.SimulationResultsSink;
 import gov.nasa.jpl.aerie.merlin.protocol.model.InputType.Parameter;
 import gov.nasa.jpl.aerie.merlin.protocol.model.InputType.ValidationNotice;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
@@ -207,6 +208,20 @@ public final class StubMissionModelService implements MissionModelService {
     return SUCCESSFUL_SIMULATION_RESULTS;
   }
 
+  @Override
+  public void runSimulation(
+      final CreateSimulationMessage message,
+      final Consumer<Duration> simulationExtentConsumer,
+      final SimulationResultsSink sink
+  ) throws NoSuchMissionModelException {
+    if (!Objects.equals(message.missionModelId(), EXISTENT_MISSION_MODEL_ID)) {
+      throw new NoSuchMissionModelException(message.missionModelId());
+    }
+
+    sink.topics(SUCCESSFUL_SIMULATION_RESULTS.topics);
+    sink.finish(SUCCESSFUL_SIMULATION_RESULTS.startTime, SUCCESSFUL_SIMULATION_RESULTS.duration);
+  }
+
   @Override
   public void refreshModelParameters(final String missionModelId) throws NoSuchMissionModelException {}
 
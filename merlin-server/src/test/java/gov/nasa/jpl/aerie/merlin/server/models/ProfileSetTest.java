@@ -0,0 +1,42 @@
+package gov.nasa.jpl.aerie.merlin.server.models;
+
+import gov.nasa.jpl.aerie.merlin.driver.engine.ProfileSegment;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.RealDynamics;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class ProfileSetTest {
+  private static final List<ProfileSegment<Optional<RealDynamics>>> profile = List.of(
+      new ProfileSegment<>(Duration.of(10, SECONDS), Optional.of(RealDynamics.linear(0.0, 1.0))),
+      new ProfileSegment<>(Duration.of(10, SECONDS), Optional.empty()),
+      new ProfileSegment<>(Duration.of(10, SECONDS), Optional.of(RealDynamics.constant(5.0))));
+
+  @Test
+  public void windowClipsAndAdvancesSegments() {
+    final var windowed = ProfileSet.window(
+        profile, Duration.ZERO, Duration.of(4, SECONDS), Duration.of(25, SECONDS), ProfileSet::advanceReal);
+
+    assertEquals(List.of(
+        new ProfileSegment<>(Duration.of(6, SECONDS), Optional.of(RealDynamics.linear(4.0, 1.0))),
+        new ProfileSegment<>(Duration.of(10, SECONDS), Optional.<RealDynamics>empty()),
+        new ProfileSegment<>(Duration.of(5, SECONDS), Optional.of(RealDynamics.constant(5.0)))
+    ), windowed);
+  }
+
+  @Test
+  public void windowOfProfileWithLaterOrigin() {
+    // As when only the segments overlapping the window have been read from the database.
+    final var windowed = ProfileSet.window(
+        profile.subList(1, 3), Duration.of(10, SECONDS), Duration.of(22, SECONDS), Duration.of(24, SECONDS), ProfileSet::advanceReal);
+
+    assertEquals(List.of(
+        new ProfileSegment<>(Duration.of(2, SECONDS), Optional.of(RealDynamics.constant(5.0)))
+    ), windowed);
+  }
+}
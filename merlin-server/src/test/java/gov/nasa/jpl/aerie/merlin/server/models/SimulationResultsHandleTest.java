@@ -0,0 +1,96 @@
+package gov.nasa.jpl.aerie.merlin.server.models;
+
+import gov.nasa.jpl.aerie.merlin.driver.SimulatedActivity;
+import gov.nasa.jpl.aerie.merlin.driver.SimulatedActivityId;
+import gov.nasa.jpl.aerie.merlin.driver.timeline.EventGraph;
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class SimulationResultsHandleTest {
+  private static final Instant simulationStart = Instant.parse("2020-01-01T00:00:00Z");
+
+  private static SimulatedActivity activity(
+      final String type,
+      final long startSeconds,
+      final long durationSeconds,
+      final Long parentId,
+      final List<Long> childIds
+  ) {
+    return new SimulatedActivity(
+        type,
+        Map.of(),
+        simulationStart.plusSeconds(startSeconds),
+        Duration.of(durationSeconds, SECONDS),
+        (parentId == null) ? null : new SimulatedActivityId(parentId),
+        childIds.stream().map(SimulatedActivityId::new).toList(),
+        Optional.empty(),
+        SerializedValue.NULL);
+  }
+
+  private static final Map<SimulatedActivityId, SimulatedActivity> activities = Map.of(
+      new SimulatedActivityId(1), activity("Parent", 0, 30, null, List.of(2L, 3L)),
+      new SimulatedActivityId(2), activity("Child", 0, 5, 1L, List.of()),
+      new SimulatedActivityId(3), activity("Child", 20, 10, 1L, List.of()),
+      new SimulatedActivityId(4), activity("Other", 12, 3, null, List.of()));
+
+  @Test
+  public void activitiesOverlappingWindowAreKept() {
+    final var filtered = SimulationResultsHandle.filterActivities(
+        activities, simulationStart, Optional.empty(), Duration.of(10, SECONDS), Duration.of(20, SECONDS));
+
+    // Activity 2 ends before the window; activity 3 starts at its end.
+    assertEquals(Set.of(1L, 3L, 4L), ids(filtered.keySet()));
+    assertEquals(List.of(new SimulatedActivityId(3)), filtered.get(new SimulatedActivityId(1)).childIds());
+    assertEquals(new SimulatedActivityId(1), filtered.get(new SimulatedActivityId(3)).parentId());
+  }
+
+  @Test
+  public void activitiesOfOtherTypesAreOmitted() {
+    final var filtered = SimulationResultsHandle.filterActivities(
+        activities, simulationStart, Optional.of(Set.of("Parent", "Other")), Duration.ZERO, Duration.of(30, SECONDS));
+
+    assertEquals(Set.of(1L, 4L), ids(filtered.keySet()));
+    assertEquals(List.of(), filtered.get(new SimulatedActivityId(1)).childIds());
+  }
+
+  @Test
+  public void eventsAreRestrictedToWindowAndTopics() {
+    final var a = EventGraph.atom(Pair.of(0, SerializedValue.of("a")));
+    final var b = EventGraph.atom(Pair.of(1, SerializedValue.of("b")));
+    final var c = EventGraph.atom(Pair.of(0, SerializedValue.of("c")));
+
+    final var events = new TreeMap<Duration, List<EventGraph<Pair<Integer, SerializedValue>>>>();
+    events.put(Duration.ZERO, List.of(a));
+    events.put(Duration.of(5, SECONDS), List.of(EventGraph.sequentially(a, EventGraph.concurrently(b, c)), b));
+    events.put(Duration.of(15, SECONDS), List.of(c));
+
+    final var windowed = SimulationResultsHandle.filterEvents(
+        events, Optional.empty(), Duration.of(5, SECONDS), Duration.of(10, SECONDS));
+    assertEquals(Set.of(Duration.of(5, SECONDS)), windowed.keySet());
+    assertEquals(events.get(Duration.of(5, SECONDS)), windowed.get(Duration.of(5, SECONDS)));
+
+    // Events on other topics are dropped, along with any transaction left empty, keeping the rest in causal order.
+    final var restricted = SimulationResultsHandle.filterEvents(
+        events, Optional.of(Set.of(0)), Duration.of(5, SECONDS), Duration.of(15, SECONDS));
+    assertEquals(Map.of(
+        Duration.of(5, SECONDS), List.of(EventGraph.sequentially(a, c)),
+        Duration.of(15, SECONDS), List.of(c)
+    ), restricted);
+  }
+
+  private static Set<Long> ids(final Set<SimulatedActivityId> ids) {
+    return Set.copyOf(ids.stream().map(SimulatedActivityId::id).toList());
+  }
+}
@@ -0,0 +1,74 @@
+package gov.nasa.jpl.aerie.merlin.server.remotes.postgres;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public final class SimulationResultsCacheTest {
+  @Test
+  public void sharesEntryForDataset() {
+    final var cache = new SimulationResultsCache(1000);
+
+    final var first = cache.get(1);
+    assertSame(first, cache.get(1));
+    assertNotSame(first, cache.get(2));
+  }
+
+  @Test
+  public void evictsLeastRecentlyUsedEntriesOverCapacity() {
+    final var cache = new SimulationResultsCache(1000);
+
+    final var first = cache.get(1);
+    cache.resize(1, first, 400);
+    final var second = cache.get(2);
+    cache.resize(2, second, 400);
+
+    // Touch the first entry, so that the second is the least recently used.
+    cache.get(1);
+    final var third = cache.get(3);
+    cache.resize(3, third, 400);
+
+    assertSame(first, cache.get(1));
+    assertSame(third, cache.get(3));
+    assertNotSame(second, cache.get(2));
+    assertEquals(new SimulationResultsCache.Stats(0, 0, 1, 800), cache.stats());
+  }
+
+  @Test
+  public void evictsEntryLargerThanCapacity() {
+    final var cache = new SimulationResultsCache(1000);
+
+    final var entry = cache.get(1);
+    cache.resize(1, entry, 2000);
+
+    assertNotSame(entry, cache.get(1));
+    assertEquals(0, cache.stats().bytes());
+  }
+
+  @Test
+  public void invalidatedEntryIsNotReused() {
+    final var cache = new SimulationResultsCache(1000);
+
+    final var entry = cache.get(1);
+    cache.resize(1, entry, 400);
+    cache.invalidate(1);
+
+    // A late resize of the invalidated entry must not be counted against its replacement.
+    final var replacement = cache.get(1);
+    cache.resize(1, entry, 600);
+
+    assertNotSame(entry, replacement);
+    assertEquals(0, cache.stats().bytes());
+  }
+
+  @Test
+  public void zeroCapacityRetainsNothing() {
+    final var cache = new SimulationResultsCache(0);
+
+    assertFalse(cache.retainsEntries());
+    assertNotSame(cache.get(1), cache.get(1));
+  }
+}
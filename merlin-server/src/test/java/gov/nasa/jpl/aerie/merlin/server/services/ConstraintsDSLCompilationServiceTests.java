@@ -55,10 +55,14 @@ import org.junit.jupiter.api.TestInstance;
 
 import java.io.IOException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.fail;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -1275,4 +1279,49 @@ class ConstraintsDSLCompilationServiceTests {
     );
   }
 
+  @Test
+  void testRepeatedCompilationIsCached() {
+    final var constraint = """
+        export default () => {
+          return Real.Resource("state of charge").equal(Real.Value(-1.0))
+        }
+        """;
+
+    final var first = assertDoesNotThrow(() -> constraintsDSLCompilationService.compileConstraintsDSL(MISSION_MODEL_ID, Optional.of(PLAN_ID), constraint));
+    final var before = constraintsDSLCompilationService.stats();
+    final var second = assertDoesNotThrow(() -> constraintsDSLCompilationService.compileConstraintsDSL(MISSION_MODEL_ID, Optional.of(PLAN_ID), constraint));
+    final var after = constraintsDSLCompilationService.stats();
+
+    assertSame(first, second);
+    assertEquals(before.hits() + 1, after.hits());
+    assertEquals(before.misses(), after.misses());
+  }
+
+  @Test
+  void testConcurrentCompilationsAcrossCompilerProcesses() throws Exception {
+    final var service = new ConstraintsDSLCompilationService(
+        new TypescriptCodeGenerationServiceAdapter(new StubMissionModelService(), new StubPlanService()),
+        2);
+    try (final var executor = Executors.newFixedThreadPool(4)) {
+      final var futures = new ArrayList<Future<ConstraintsDSLCompilationService.ConstraintsDSLCompilationResult>>();
+      for (var i = 0; i < 4; i += 1) {
+        final var constraint = """
+            export default () => {
+              return Real.Resource("state of charge").equal(Real.Value(%d.0))
+            }
+            """.formatted(i);
+        futures.add(executor.submit(() -> service.compileConstraintsDSL(MISSION_MODEL_ID, Optional.of(PLAN_ID), constraint)));
+      }
+
+      for (var i = 0; i < 4; i += 1) {
+        assertEquals(
+            new ConstraintsDSLCompilationService.ConstraintsDSLCompilationResult.Success(
+                new ViolationsOfWindows(new Equal<>(new RealResource("state of charge"), new RealValue((double) i)))),
+            futures.get(i).get());
+      }
+    } finally {
+      service.close();
+    }
+  }
+
 }
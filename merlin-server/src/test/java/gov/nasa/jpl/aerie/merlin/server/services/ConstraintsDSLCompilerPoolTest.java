@@ -0,0 +1,59 @@
+package gov.nasa.jpl.aerie.merlin.server.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.json.Json;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class ConstraintsDSLCompilerPoolTest {
+  private static final Duration TIMEOUT = Duration.ofMillis(500);
+
+  /** A stand-in for the compiler, which answers its startup ping and then echoes each request's id. */
+  private static final String ECHO = """
+      read ping; echo pong
+      while read line; do
+        echo "success $(echo "$line" | sed 's/[^0-9]//g')"
+        echo payload
+      done
+      """;
+
+  private static ProcessBuilder compiler(final String script) {
+    return new ProcessBuilder("sh", "-c", script);
+  }
+
+  @Test
+  public void hungCompilerIsKilledAndRestarted(@TempDir final Path directory) throws IOException {
+    // The first compiler to be started hangs on its first request; every other compiler answers.
+    final var marker = directory.resolve("hung");
+    final var script = """
+        if [ ! -e "%s" ]; then
+          touch "%s"
+          read ping; echo pong
+          read line; exec sleep 60
+        fi
+        """.formatted(marker, marker) + ECHO;
+
+    try (final var pool = new ConstraintsDSLCompilerPool(compiler(script), 1, TIMEOUT)) {
+      final var message = Json.createObjectBuilder().build();
+
+      final var ex = assertThrows(IOException.class, () -> pool.request(message));
+      assertTrue(ex.getMessage().contains("did not answer request 1"), ex.getMessage());
+
+      assertEquals(new ConstraintsDSLCompilerPool.Reply("success", "payload"), pool.request(message));
+      assertEquals(1, pool.stats().timeouts());
+      assertEquals(1, pool.stats().restarts());
+    }
+  }
+
+  @Test
+  public void compilerWhichDoesNotAnswerItsPingIsNotWaitedOn() {
+    assertThrows(IOException.class, () -> new ConstraintsDSLCompilerPool(compiler("exec sleep 60"), 1, TIMEOUT));
+  }
+}
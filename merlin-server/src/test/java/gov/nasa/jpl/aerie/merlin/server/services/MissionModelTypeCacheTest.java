@@ -0,0 +1,94 @@
+package gov.nasa.jpl.aerie.merlin.server.services;
+
+import gov.nasa.jpl.aerie.merlin.protocol.model.ModelType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public final class MissionModelTypeCacheTest {
+  private static ModelType<?, ?> newModelType() {
+    return (ModelType<?, ?>) Proxy.newProxyInstance(
+        ModelType.class.getClassLoader(),
+        new Class<?>[] { ModelType.class },
+        (proxy, method, args) -> {
+          throw new UnsupportedOperationException();
+        });
+  }
+
+  private static Path newJar(final String contents) throws IOException {
+    final var jar = Files.createTempFile("model", ".jar");
+    jar.toFile().deleteOnExit();
+    Files.writeString(jar, contents);
+    return jar;
+  }
+
+  @Test
+  public void reusesLoadedModelTypeWhileJarIsUnchanged() throws Exception {
+    final var cache = new MissionModelTypeCache(2);
+    final var jar = newJar("model");
+
+    final var first = cache.get("1", jar, MissionModelTypeCacheTest::newModelType);
+    final var second = cache.get("1", jar, MissionModelTypeCacheTest::newModelType);
+
+    assertSame(first, second);
+    assertEquals(new MissionModelTypeCache.Stats(1, 1, cache.stats().totalLoadNanos()), cache.stats());
+  }
+
+  @Test
+  public void reusesLoadedModelTypeWhenJarIsTouchedButUnchanged() throws Exception {
+    final var cache = new MissionModelTypeCache(2);
+    final var jar = newJar("model");
+
+    final var first = cache.get("1", jar, MissionModelTypeCacheTest::newModelType);
+    Files.setLastModifiedTime(jar, FileTime.from(Instant.now().plusSeconds(60)));
+
+    assertSame(first, cache.get("1", jar, MissionModelTypeCacheTest::newModelType));
+  }
+
+  @Test
+  public void reloadsWhenJarContentsChange() throws Exception {
+    final var cache = new MissionModelTypeCache(2);
+    final var jar = newJar("model");
+
+    final var first = cache.get("1", jar, MissionModelTypeCacheTest::newModelType);
+    Files.writeString(jar, "a different model");
+
+    assertNotSame(first, cache.get("1", jar, MissionModelTypeCacheTest::newModelType));
+  }
+
+  @Test
+  public void reloadsAfterInvalidation() throws Exception {
+    final var cache = new MissionModelTypeCache(2);
+    final var jar = newJar("model");
+
+    final var first = cache.get("1", jar, MissionModelTypeCacheTest::newModelType);
+    cache.invalidate("1");
+
+    assertNotSame(first, cache.get("1", jar, MissionModelTypeCacheTest::newModelType));
+  }
+
+  @Test
+  public void evictsLeastRecentlyUsedModel() throws Exception {
+    final var cache = new MissionModelTypeCache(2);
+    final var jar1 = newJar("model 1");
+    final var jar2 = newJar("model 2");
+    final var jar3 = newJar("model 3");
+
+    final var first = cache.get("1", jar1, MissionModelTypeCacheTest::newModelType);
+    final var second = cache.get("2", jar2, MissionModelTypeCacheTest::newModelType);
+    cache.get("1", jar1, MissionModelTypeCacheTest::newModelType);
+    cache.get("3", jar3, MissionModelTypeCacheTest::newModelType);
+
+    assertSame(first, cache.get("1", jar1, MissionModelTypeCacheTest::newModelType));
+    assertNotSame(second, cache.get("2", jar2, MissionModelTypeCacheTest::newModelType));
+  }
+}
@@ -0,0 +1,62 @@
+package gov.nasa.jpl.aerie.merlin.server.services;
+
+import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
+import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class ResourceSampleDownsamplerTest {
+  private static List<Pair<Duration, SerializedValue>> sine(final int count) {
+    final var samples = new ArrayList<Pair<Duration, SerializedValue>>();
+    for (var i = 0; i < count; i += 1) {
+      samples.add(Pair.of(Duration.of(i, SECONDS), SerializedValue.of(Math.sin(i / 10.0))));
+    }
+    return samples;
+  }
+
+  @Test
+  public void fewSamplesAreUnchanged() {
+    final var samples = sine(10);
+    assertSame(samples, ResourceSampleDownsampler.downsample(samples, Duration.ZERO, Duration.of(10, SECONDS), 100));
+  }
+
+  @Test
+  public void extremaArePreserved() {
+    final var samples = sine(10_000);
+    final var downsampled = ResourceSampleDownsampler.downsample(samples, Duration.ZERO, Duration.of(10_000, SECONDS), 400);
+
+    assertTrue(downsampled.size() <= 400);
+    assertEquals(samples.get(0), downsampled.get(0));
+    assertEquals(samples.get(samples.size() - 1), downsampled.get(downsampled.size() - 1));
+
+    final var max = samples.stream().mapToDouble($ -> $.getRight().asReal().get()).max().getAsDouble();
+    final var min = samples.stream().mapToDouble($ -> $.getRight().asReal().get()).min().getAsDouble();
+    assertTrue(downsampled.stream().anyMatch($ -> $.getRight().asReal().get() == max));
+    assertTrue(downsampled.stream().anyMatch($ -> $.getRight().asReal().get() == min));
+
+    for (var i = 1; i < downsampled.size(); i += 1) {
+      assertTrue(downsampled.get(i - 1).getLeft().shorterThan(downsampled.get(i).getLeft()));
+    }
+  }
+
+  @Test
+  public void nonNumericSamplesKeepBucketBoundaries() {
+    final var samples = new ArrayList<Pair<Duration, SerializedValue>>();
+    for (var i = 0; i < 100; i += 1) {
+      samples.add(Pair.of(Duration.of(i, SECONDS), SerializedValue.of((i % 2 == 0) ? "on" : "off")));
+    }
+    final var downsampled = ResourceSampleDownsampler.downsample(samples, Duration.ZERO, Duration.of(100, SECONDS), 10);
+
+    assertEquals(10, downsampled.size());
+    assertEquals(samples.get(0), downsampled.get(0));
+    assertEquals(samples.get(99), downsampled.get(9));
+  }
+}
@@ -20,7 +20,9 @@ import io.javalin.Javalin;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Optional;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 
 public final class MerlinWorkerAppDriver {
   public static void main(String[] args) throws InterruptedException {
@@ -38,7 +40,9 @@ public final class MerlinWorkerAppDriver {
     hikariConfig.addDataSourceProperty("applicationName", "Merlin Server");
     hikariConfig.setUsername(postgresStore.user());
     hikariConfig.setPassword(postgresStore.password());
-    hikariConfig.setMaximumPoolSize(2);
+    // One connection is held by the notification listener,
+    //   and each simulation slot may hold one to stream results while another reports progress.
+    hikariConfig.setMaximumPoolSize(1 + 2 * configuration.simulationSlots());
 
     hikariConfig.setConnectionInitSql("set time zone 'UTC'");
 
@@ -47,12 +51,14 @@ public final class MerlinWorkerAppDriver {
     final var stores = new Stores(
         new PostgresPlanRepository(hikariDataSource),
         new PostgresMissionModelRepository(hikariDataSource),
-        new PostgresResultsCellRepository(hikariDataSource));
+        new PostgresResultsCellRepository(hikariDataSource, PostgresResultsCellRepository.ResultsWriteMode.COPY));
 
     final var missionModelController = new LocalMissionModelService(
         configuration.merlinFileStore(),
         stores.missionModels(),
-        configuration.untruePlanStart()
+        configuration.untruePlanStart(),
+        // The worker streams results as they are produced, so they are never held all at once.
+        Optional.empty()
     );
     final var planController = new LocalPlanService(stores.plans());
     final var simulationAgent = new SynchronousSimulationAgent(planController, missionModelController, configuration.simulationProgressPollPeriodMillis());
@@ -64,13 +70,28 @@ public final class MerlinWorkerAppDriver {
     final var app = Javalin.create().start(8080);
     app.get("/health", ctx -> ctx.status(200));
 
+    // Only claim a simulation once a slot is free to run it, so that other workers may pick it up in the meantime.
+    // Mission model types stay loaded across simulations, so repeated simulations of a model skip its startup cost.
+    final var slots = new Semaphore(configuration.simulationSlots());
+    final var executor = Executors.newFixedThreadPool(configuration.simulationSlots());
+
     while (true) {
+      slots.acquire();
       final var notification = notificationQueue.take();
       final var planId = new PlanId(notification.planId());
       final var datasetId = notification.datasetId();
 
-      final Optional<ResultsProtocol.OwnerRole> owner = stores.results().claim(planId, datasetId);
-      if (owner.isEmpty()) continue;
+      final Optional<ResultsProtocol.OwnerRole> owner;
+      try {
+        owner = stores.results().claim(planId, datasetId);
+      } catch (final Throwable ex) {
+        slots.release();
+        throw ex;
+      }
+      if (owner.isEmpty()) {
+        slots.release();
+        continue;
+      }
 
       final var revisionData = new PostgresPlanRevisionData(
           notification.modelRevision(),
@@ -78,15 +99,30 @@ public final class MerlinWorkerAppDriver {
           notification.simulationRevision(),
           notification.simulationTemplateRevision());
       final ResultsProtocol.WriterRole writer = owner.get();
-      try {
-        simulationAgent.simulate(planId, revisionData, writer);
-      } catch (final Throwable ex) {
-        ex.printStackTrace(System.err);
-        writer.failWith(b -> b
-            .type("UNEXPECTED_SIMULATION_EXCEPTION")
-            .message("Something went wrong while simulating")
-            .trace(ex));
-      }
+      executor.execute(() -> {
+        try {
+          simulate(simulationAgent, planId, revisionData, writer);
+        } finally {
+          slots.release();
+        }
+      });
+    }
+  }
+
+  private static void simulate(
+      final SynchronousSimulationAgent simulationAgent,
+      final PlanId planId,
+      final PostgresPlanRevisionData revisionData,
+      final ResultsProtocol.WriterRole writer
+  ) {
+    try {
+      simulationAgent.simulate(planId, revisionData, writer);
+    } catch (final Throwable ex) {
+      ex.printStackTrace(System.err);
+      writer.failWith(b -> b
+          .type("UNEXPECTED_SIMULATION_EXCEPTION")
+          .message("Something went wrong while simulating")
+          .trace(ex));
     }
   }
 
@@ -104,7 +140,8 @@ public final class MerlinWorkerAppDriver {
                           getEnv("MERLIN_WORKER_DB_PASSWORD", ""),
                           getEnv("MERLIN_WORKER_DB", "aerie_merlin")),
         Integer.parseInt(getEnv("SIMULATION_PROGRESS_POLL_PERIOD_MILLIS", "5000")),
-        Instant.parse(getEnv("UNTRUE_PLAN_START", ""))
+        Instant.parse(getEnv("UNTRUE_PLAN_START", "")),
+        Integer.parseInt(getEnv("MERLIN_WORKER_SIMULATION_SLOTS", "1"))
     );
   }
 }
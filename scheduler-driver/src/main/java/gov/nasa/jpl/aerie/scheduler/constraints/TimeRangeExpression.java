@@ -15,6 +15,7 @@ import gov.nasa.jpl.aerie.scheduler.model.Plan;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import java.util.function.Function;
 
 /**
@@ -105,6 +106,23 @@ public class TimeRangeExpression {
     return inter;
   }
 
+  /**
+   * adds the names of the resources read while computing this range to the given set
+   *
+   * filters and transformers may read simulation results in ways that cannot be inspected ahead of time
+   *
+   * @param names IN/OUT the set to which resource names are added
+   * @return true if every resource the expression may read has been added, false if it may read any resource
+   */
+  public boolean extractResources(final Set<String> names) {
+    var complete = filtersAndTransformers.isEmpty();
+    for (var otherExpr : timeRangeExpressions) complete &= otherExpr.extractResources(names);
+    for (var expr : stateExpr) expr.extractResources(names);
+    names.addAll(constantsStates);
+    if (actTemplate != null) actTemplate.extractResources(names);
+    return complete;
+  }
+
   public void setName(String name) {
     this.name = name;
   }
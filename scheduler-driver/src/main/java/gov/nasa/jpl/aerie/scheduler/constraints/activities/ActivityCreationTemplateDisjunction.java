@@ -12,6 +12,7 @@ import gov.nasa.jpl.aerie.scheduler.simulation.SimulationFacade;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public class ActivityCreationTemplateDisjunction extends ActivityCreationTemplate {
 
@@ -80,6 +81,11 @@ public class ActivityCreationTemplateDisjunction extends ActivityCreationTemplat
     return false;
   }
 
+  @Override
+  public void extractResources(final Set<String> names) {
+    activityCreationTemplates.forEach($ -> $.extractResources(names));
+  }
+
   /**
    * Builder for creating disjunction of activity creation templates
    */
@@ -607,7 +607,10 @@ public class ActivityExpression implements Expression<Spans> {
     );  }
 
   @Override
-  public void extractResources(final Set<String> names) { }
+  public void extractResources(final Set<String> names) {
+    if (this.duration != null) this.duration.extractResources(names);
+    if (this.arguments != null) this.arguments.values().forEach($ -> $.extractResources(names));
+  }
 
 
   /**
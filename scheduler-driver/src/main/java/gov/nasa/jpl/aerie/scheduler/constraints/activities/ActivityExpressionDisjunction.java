@@ -7,6 +7,7 @@ import gov.nasa.jpl.aerie.scheduler.NotNull;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class ActivityExpressionDisjunction extends ActivityExpression {
 
@@ -39,6 +40,11 @@ public class ActivityExpressionDisjunction extends ActivityExpression {
     return false;
   }
 
+  @Override
+  public void extractResources(final Set<String> names) {
+    actExpressions.forEach($ -> $.extractResources(names));
+  }
+
   public static class OrBuilder extends AbstractBuilder<OrBuilder, ActivityExpressionDisjunction> {
 
     @Override
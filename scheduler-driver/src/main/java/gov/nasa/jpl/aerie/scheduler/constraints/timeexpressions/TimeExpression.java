@@ -10,6 +10,7 @@ import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * class allowing to define dynamic expressions of timepoints, relative to time anchors
@@ -25,6 +26,18 @@ public abstract class TimeExpression {
    */
   public abstract Interval computeTime(final SimulationResults simulationResults, final Plan plan, final Interval interval);
 
+  /**
+   * adds the names of the resources read while computing this expression to the given set
+   *
+   * expressions relative to anchors or constants read no resources
+   *
+   * @param names IN/OUT the set to which resource names are added
+   * @return true if every resource the expression may read has been added, false if it may read any resource
+   */
+  public boolean extractResources(final Set<String> names) {
+    return true;
+  }
+
 
   protected final List<Pair<TimeUtility.Operator, Duration>> operations = new ArrayList<>();
 
@@ -6,6 +6,8 @@ import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import gov.nasa.jpl.aerie.scheduler.TimeUtility;
 import gov.nasa.jpl.aerie.scheduler.model.Plan;
 
+import java.util.Set;
+
 public class TimeExpressionBefore extends TimeExpression {
 
   protected final String name;
@@ -31,4 +33,9 @@ public class TimeExpressionBefore extends TimeExpression {
         Interval.between(from, res) :
         Interval.between(res, from);
   }
+
+  @Override
+  public boolean extractResources(final Set<String> names) {
+    return expr.extractResources(names);
+  }
 }
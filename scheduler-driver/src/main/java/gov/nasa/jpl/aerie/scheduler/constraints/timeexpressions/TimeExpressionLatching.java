@@ -7,6 +7,7 @@ import gov.nasa.jpl.aerie.scheduler.model.Plan;
 import gov.nasa.jpl.aerie.scheduler.constraints.TimeRangeExpression;
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -49,4 +50,12 @@ public class TimeExpressionLatching extends TimeExpression {
     }
     return null;
   }
+
+  @Override
+  public boolean extractResources(final Set<String> names) {
+    var complete = resetWindowsExpression.extractResources(names);
+    complete &= expr1.extractResources(names);
+    complete &= expr2.extractResources(names);
+    return complete;
+  }
 }
@@ -11,6 +11,7 @@ import gov.nasa.jpl.aerie.scheduler.model.SchedulingActivityDirective;
 import gov.nasa.jpl.aerie.scheduler.simulation.SimulationFacade;
 
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * describes the desired existence of an activity matching a given template/preset
@@ -100,6 +101,13 @@ public class ActivityTemplateGoal extends ActivityExistentialGoal {
     return desiredActTemplate.getType().getStateConstraints();
   }
 
+  @Override
+  public boolean extractResources(final Set<String> names) {
+    if (desiredActTemplate != null) desiredActTemplate.extractResources(names);
+    if (matchActTemplate != null) matchActTemplate.extractResources(names);
+    return super.extractResources(names);
+  }
+
   /**
    * creates a new activity instance that will increase this goal's satisfaction
    *
@@ -21,6 +21,7 @@ import gov.nasa.jpl.aerie.scheduler.model.SchedulingActivityDirective;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * describes the desired coexistence of an activity with another
@@ -305,6 +306,16 @@ public class CoexistenceGoal extends ActivityTemplateGoal {
     }
   }
 
+  @Override
+  public boolean extractResources(final Set<String> names) {
+    if (expr != null) expr.extractResources(names);
+    var complete = super.extractResources(names);
+    if (startExpr != null) complete &= startExpr.extractResources(names);
+    if (endExpr != null) complete &= endExpr.extractResources(names);
+    // duration expressions may query arbitrary resource states
+    return complete && durExpr == null;
+  }
+
   /**
    * ctor creates an empty goal without details
    *
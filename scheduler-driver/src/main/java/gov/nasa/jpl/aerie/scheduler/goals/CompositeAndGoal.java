@@ -2,6 +2,7 @@ package gov.nasa.jpl.aerie.scheduler.goals;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Class representing a conjunction of goal as a goal
@@ -38,5 +39,12 @@ public class CompositeAndGoal extends Goal {
     return goals;
   }
 
+  @Override
+  public boolean extractResources(final Set<String> names) {
+    var complete = super.extractResources(names);
+    for (final var goal : goals) complete &= goal.extractResources(names);
+    return complete;
+  }
+
 
 }
@@ -13,6 +13,7 @@ import gov.nasa.jpl.aerie.scheduler.model.PlanningHorizon;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * describes some criteria that is desired in the solution plans
@@ -291,6 +292,21 @@ public class Goal {
     return resourceConstraints;
   }
 
+  /**
+   * adds the names of the resources this goal reads while it is evaluated to the given set
+   *
+   * goals which read simulation results in ways that cannot be inspected ahead of time
+   * (eg through arbitrary code) report that their resources are unknown
+   *
+   * @param names IN/OUT the set to which resource names are added
+   * @return true if every resource the goal may read has been added, false if the goal may read any resource
+   */
+  public boolean extractResources(final Set<String> names) {
+    if (temporalContext != null) temporalContext.extractResources(names);
+    if (resourceConstraints != null) resourceConstraints.extractResources(names);
+    return true;
+  }
+
   /**
    * ctor creates a new empty goal without identification
    *
@@ -8,6 +8,7 @@ import org.apache.commons.lang3.NotImplementedException;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class OptionGoal extends Goal {
 
@@ -27,6 +28,13 @@ public class OptionGoal extends Goal {
     return optimizer;
   }
 
+  @Override
+  public boolean extractResources(final Set<String> names) {
+    var complete = super.extractResources(names);
+    for (final var goal : goals) complete &= goal.extractResources(names);
+    return complete;
+  }
+
   @Override
   public java.util.Collection<Conflict> getConflicts(Plan plan, final SimulationResults simulationResults) {
     throw new NotImplementedException("Conflict detection is performed at solver level");
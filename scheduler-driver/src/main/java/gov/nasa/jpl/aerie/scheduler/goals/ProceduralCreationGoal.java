@@ -13,6 +13,7 @@ import gov.nasa.jpl.aerie.scheduler.conflicts.MissingAssociationConflict;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.function.Function;
+import java.util.Set;
 
 /**
  * describes the desired existence of a set of externally generated activities
@@ -169,6 +170,17 @@ public class ProceduralCreationGoal extends ActivityExistentialGoal {
    */
   protected ProceduralCreationGoal() { }
 
+  /**
+   * {@inheritDoc}
+   *
+   * the generator is arbitrary code, so the resources it reads cannot be known ahead of time
+   */
+  @Override
+  public boolean extractResources(final Set<String> names) {
+    super.extractResources(names);
+    return false;
+  }
+
   /**
    * specifies the procedure used to generate desired activities
    *
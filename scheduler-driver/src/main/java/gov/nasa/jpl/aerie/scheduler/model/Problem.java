@@ -12,8 +12,10 @@ import gov.nasa.jpl.aerie.scheduler.simulation.SimulationResultsConverter;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * description of a planning problem to be solved
@@ -168,6 +170,28 @@ public class Problem {
     return Collections.unmodifiableList(goalsOrderedByPriority);
   }
 
+  /**
+   * gathers the resources that the goals, global constraints, and activity type constraints of this problem read
+   *
+   * the simulation only needs to track these resources while scheduling
+   *
+   * @return the names of the resources read, or empty if some part of the problem may read any resource
+   */
+  public Optional<Set<String>> getReferencedResources() {
+    final var names = new HashSet<String>();
+    for (final var goal : goalsOrderedByPriority) {
+      if (!goal.extractResources(names)) return Optional.empty();
+    }
+    for (final var constraint : globalConstraints) {
+      if (!(constraint instanceof SchedulingCondition condition)) return Optional.empty();
+      condition.expression().extractResources(names);
+    }
+    for (final var actType : actTypeByName.values()) {
+      if (actType.getStateConstraints() != null) actType.getStateConstraints().extractResources(names);
+    }
+    return Optional.of(names);
+  }
+
   private void failIfActivityTypeAbsent(String name){
     if (!this.actTypeByName.containsKey(name)) {
       throw new IllegalArgumentException(
@@ -12,6 +12,7 @@ import gov.nasa.jpl.aerie.merlin.driver.engine.TaskId;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.LiveCells;
 import gov.nasa.jpl.aerie.merlin.driver.timeline.TemporalEventSource;
 import gov.nasa.jpl.aerie.merlin.protocol.driver.Topic;
+import gov.nasa.jpl.aerie.merlin.protocol.model.Task;
 import gov.nasa.jpl.aerie.merlin.protocol.model.TaskFactory;
 import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import gov.nasa.jpl.aerie.merlin.protocol.types.InstantiationException;
@@ -23,11 +24,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 
 public class ResumableSimulationDriver<Model> implements AutoCloseable {
   private static final Logger logger = LoggerFactory.getLogger(ResumableSimulationDriver.class);
@@ -43,6 +49,9 @@ public class ResumableSimulationDriver<Model> implements AutoCloseable {
 
   private final Topic<ActivityDirectiveId> activityTopic = new Topic<>();
 
+  //the resources whose profiles are tracked by the simulation; any others are never sampled
+  private Predicate<String> resourceFilter = $ -> true;
+
   //mapping each activity name to its task id (in String form) in the simulation engine
   private final Map<ActivityDirectiveId, TaskId> plannedDirectiveToTask;
 
@@ -55,14 +64,71 @@ public class ResumableSimulationDriver<Model> implements AutoCloseable {
   private final Map<ActivityDirectiveId, ActivityDirective> activitiesInserted = new HashMap<>();
 
   //counts the number of simulation restarts, used as performance metric in the scheduler
-  //effectively counting the number of calls to initSimulation()
+  //effectively counting the number of times the simulation had to be rewound, whether to a checkpoint or to the start
   private int countSimulationRestarts;
+  //counts the number of simulation restarts which were served from a checkpoint rather than from the start
+  private int countCheckpointRestores;
+
+  private final CheckpointPolicy checkpointPolicy;
+  //snapshots of the simulation taken along the way, in increasing order of time
+  private final List<Checkpoint> checkpoints = new ArrayList<>();
+  //cleared once we discover a task that cannot be duplicated, since no later checkpoint could succeed either
+  private boolean checkpointsSupported = true;
+
+  /**
+   * How often the driver snapshots the simulation, and how many snapshots it may hold onto at once.
+   *
+   * When an activity is inserted (or removed) before the current simulation time, the driver resumes from the latest
+   * checkpoint preceding the change instead of restarting from the beginning of the plan.
+   * Every checkpoint holds a full copy of the simulation state, so `maxCheckpoints` bounds the memory spent on them.
+   *
+   * @param cadence the minimum amount of simulated time between two checkpoints
+   * @param maxCheckpoints the maximum number of checkpoints retained at once; zero disables checkpointing
+   */
+  public record CheckpointPolicy(Duration cadence, int maxCheckpoints) {
+    public CheckpointPolicy {
+      if (cadence.isNegative()) throw new IllegalArgumentException("Checkpoint cadence must not be negative");
+      if (maxCheckpoints < 0) throw new IllegalArgumentException("Maximum number of checkpoints must not be negative");
+    }
+
+    public static CheckpointPolicy disabled() {
+      return new CheckpointPolicy(Duration.MAX_VALUE, 0);
+    }
+
+    /** Spread up to `count` checkpoints evenly across the given horizon. */
+    public static CheckpointPolicy evenlySpaced(final Duration horizon, final int count) {
+      if (count <= 0) return disabled();
+      return new CheckpointPolicy(Duration.max(horizon.dividedBy(count), Duration.EPSILON), count);
+    }
+
+    public boolean isEnabled() {
+      return this.maxCheckpoints > 0;
+    }
+  }
+
+  private static final int DEFAULT_CHECKPOINT_COUNT = 16;
+
+  /** A snapshot of the simulation, taken once every job up to and including `time` has been performed. */
+  private record Checkpoint(
+      Duration time,
+      SimulationEngine engine,
+      TemporalEventSource timeline,
+      LiveCells cells,
+      Map<ActivityDirectiveId, TaskId> plannedDirectiveToTask,
+      Set<ActivityDirectiveId> scheduledDirectives
+  ) {}
 
   public ResumableSimulationDriver(MissionModel<Model> missionModel, Duration planDuration){
+    this(missionModel, planDuration, CheckpointPolicy.evenlySpaced(planDuration, DEFAULT_CHECKPOINT_COUNT));
+  }
+
+  public ResumableSimulationDriver(MissionModel<Model> missionModel, Duration planDuration, CheckpointPolicy checkpointPolicy){
     this.missionModel = missionModel;
     plannedDirectiveToTask = new HashMap<>();
     this.planDuration = planDuration;
+    this.checkpointPolicy = checkpointPolicy;
     countSimulationRestarts = 0;
+    countCheckpointRestores = 0;
     initSimulation();
   }
 
@@ -71,21 +137,29 @@ public class ResumableSimulationDriver<Model> implements AutoCloseable {
 
   /*package-private*/ void initSimulation(){
     logger.warn("Reinitialization of the scheduling simulation");
+    resetSimulation();
+    countSimulationRestarts++;
+  }
+
+  private void resetSimulation(){
     plannedDirectiveToTask.clear();
     lastSimResults = null;
     lastSimResultsEnd = Duration.ZERO;
     if (this.engine != null) this.engine.close();
+    discardCheckpointsAfter(Duration.MIN_VALUE);
     this.engine = new SimulationEngine();
+    if (checkpointPolicy.isEnabled()) this.engine.allowTaskDuplication();
     batch = null;
     /* The top-level simulation timeline. */
     this.timeline = new TemporalEventSource();
     this.cells = new LiveCells(timeline, missionModel.getInitialCells());
     curTime = Duration.MIN_VALUE;
 
-    // Begin tracking all resources.
+    // Begin tracking the requested resources.
     for (final var entry : missionModel.getResources().entrySet()) {
       final var name = entry.getKey();
       final var resource = entry.getValue();
+      if (!resourceFilter.test(name)) continue;
       engine.trackResource(name, resource, Duration.ZERO);
     }
 
@@ -96,7 +170,57 @@ public class ResumableSimulationDriver<Model> implements AutoCloseable {
         batch = engine.extractNextJobs(Duration.MAX_VALUE);
       }
     }
-    countSimulationRestarts++;
+  }
+
+  private boolean hasSimulated(){
+    return !curTime.isNegative() || !activitiesInserted.isEmpty();
+  }
+
+  /**
+   * Only track the profiles of the given resources, so that no other resource is sampled during simulation.
+   *
+   * The restriction applies immediately if nothing has been simulated yet, and otherwise from the next time
+   * the simulation restarts from the beginning of the plan. Until then, results may include other resources as well.
+   * @param names the names of the resources to track
+   */
+  public void restrictTrackedResources(final Collection<String> names){
+    final var tracked = Set.copyOf(names);
+    this.resourceFilter = tracked::contains;
+    if (!hasSimulated()) resetSimulation();
+  }
+
+  /**
+   * Begin tracking any of the given resources which are not yet tracked.
+   *
+   * The profile of a resource cannot be recovered for time that has already been simulated without it,
+   * so if any resource is newly tracked, the simulation is restarted from the beginning of the plan
+   * and brought back to the current simulation time.
+   * @param names the names of the resources to track
+   */
+  public void ensureResourcesTracked(final Collection<String> names){
+    final var missing = new HashSet<String>();
+    for (final var name : names) {
+      if (missionModel.getResources().containsKey(name) && !resourceFilter.test(name)) missing.add(name);
+    }
+    if (missing.isEmpty()) return;
+
+    final var filter = this.resourceFilter;
+    this.resourceFilter = name -> filter.test(name) || missing.contains(name);
+    if (!hasSimulated()) {
+      resetSimulation();
+      return;
+    }
+
+    logger.info("Backfilling the profiles of {} untracked resources", missing.size());
+    final var simulatedUntil = curTime;
+    initSimulation();
+    simulateSchedule(new HashMap<>(activitiesInserted));
+    if (simulatedUntil.longerThan(curTime)) simulateUntil(simulatedUntil);
+  }
+
+  /** Begin tracking every resource of the mission model, backfilling the profiles of any which were not tracked. */
+  public void trackAllResources(){
+    ensureResourcesTracked(missionModel.getResources().keySet());
   }
 
   /**
@@ -107,9 +231,146 @@ public class ResumableSimulationDriver<Model> implements AutoCloseable {
     return countSimulationRestarts;
   }
 
+  /**
+   * Return the number of simulation restarts which resumed from a checkpoint instead of from the start
+   * @return the number of checkpoint restores
+   */
+  public int getCountCheckpointRestores(){
+    return countCheckpointRestores;
+  }
+
   @Override
   public void close() {
     this.engine.close();
+    discardCheckpointsAfter(Duration.MIN_VALUE);
+  }
+
+  /** Snapshot the simulation if the checkpoint policy calls for it. Must only be called between batches. */
+  private void maybeTakeCheckpoint() {
+    if (!this.checkpointPolicy.isEnabled() || !this.checkpointsSupported) return;
+    if (curTime.isNegative()) return;
+
+    // Only snapshot once every job at the current time has been performed,
+    //   so that a restored simulation can accept new tasks at any later time.
+    final var nextJobTime = engine.timeOfNextJobs();
+    if (nextJobTime.isPresent() && nextJobTime.get().noLongerThan(curTime)) return;
+
+    if (!checkpoints.isEmpty()) {
+      final var lastCheckpointTime = checkpoints.get(checkpoints.size() - 1).time();
+      if (curTime.minus(lastCheckpointTime).shorterThan(checkpointPolicy.cadence())) return;
+    }
+
+    final var engineCopy = engine.duplicate();
+    if (engineCopy.isEmpty()) {
+      logger.warn("The mission model has a task which cannot be duplicated; simulation checkpoints are disabled");
+      this.checkpointsSupported = false;
+      return;
+    }
+
+    final var timelineCopy = this.timeline.duplicate();
+    checkpoints.add(new Checkpoint(
+        curTime,
+        engineCopy.get(),
+        timelineCopy,
+        this.cells.duplicate(timelineCopy),
+        Map.copyOf(plannedDirectiveToTask),
+        Set.copyOf(activitiesInserted.keySet())));
+
+    if (checkpoints.size() > checkpointPolicy.maxCheckpoints()) evictCheckpoint();
+  }
+
+  /** Drop the checkpoint whose loss leaves the smallest gap between its neighbors, preferring to keep the newest. */
+  private void evictCheckpoint() {
+    var victim = 0;
+    var smallestGap = Duration.MAX_VALUE;
+    for (var i = 1; i < checkpoints.size() - 1; i++) {
+      final var gap = checkpoints.get(i + 1).time().minus(checkpoints.get(i - 1).time());
+      if (gap.shorterThan(smallestGap)) {
+        smallestGap = gap;
+        victim = i;
+      }
+    }
+    checkpoints.remove(victim).engine().close();
+  }
+
+  private void discardCheckpointsAfter(final Duration time) {
+    while (!checkpoints.isEmpty() && checkpoints.get(checkpoints.size() - 1).time().longerThan(time)) {
+      checkpoints.remove(checkpoints.size() - 1).engine().close();
+    }
+  }
+
+  /**
+   * Find the latest checkpoint from which the current set of directives can be simulated,
+   * given the directives that have been removed since they were last simulated.
+   */
+  private Optional<Checkpoint> findCheckpoint(final Set<ActivityDirectiveId> removedDirectives) {
+    for (var i = checkpoints.size() - 1; i >= 0; i--) {
+      final var checkpoint = checkpoints.get(i);
+
+      // A removed directive which had already been handed to the engine would still be simulated.
+      if (removedDirectives.stream().anyMatch(checkpoint.scheduledDirectives()::contains)) continue;
+
+      final var pending = new HashMap<>(activitiesInserted);
+      pending.keySet().removeAll(checkpoint.scheduledDirectives());
+
+      // Every pending directive must not be anchored to a directive which is already underway in the checkpoint
+      //   (since that directive would not know to start it), and must start strictly after the checkpoint.
+      final var anchorsArePending = pending.values().stream().allMatch(directive ->
+          directive.anchorId() == null || pending.containsKey(directive.anchorId()));
+      if (!anchorsArePending) continue;
+
+      final var startsAreLater = pending.values().stream().allMatch(directive ->
+          earliestPossibleStart(directive, pending).longerThan(checkpoint.time()));
+      if (startsAreLater) return Optional.of(checkpoint);
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * A lower bound on the start time of a directive, given the directives it may be anchored to.
+   * An activity anchored to the end of another starts no earlier than it would if it were anchored to its start.
+   */
+  private Duration earliestPossibleStart(ActivityDirective directive, final Map<ActivityDirectiveId, ActivityDirective> directives) {
+    var start = directive.startOffset();
+    while (directive.anchorId() != null) {
+      directive = directives.get(directive.anchorId());
+      start = start.plus(directive.startOffset());
+    }
+    return directive.anchoredToStart() ? start : start.plus(planDuration);
+  }
+
+  /**
+   * Rewind the simulation to the latest usable checkpoint, or to the very beginning if there is none.
+   * @return the directives which have not yet been handed to the engine, and must be scheduled anew
+   */
+  private Map<ActivityDirectiveId, ActivityDirective> rewind(final Set<ActivityDirectiveId> removedDirectives) {
+    final var checkpoint$ = findCheckpoint(removedDirectives);
+    final var engine$ = checkpoint$.flatMap(checkpoint -> checkpoint.engine().duplicate());
+    if (engine$.isEmpty()) {
+      initSimulation();
+      return new HashMap<>(activitiesInserted);
+    }
+
+    final var checkpoint = checkpoint$.get();
+    logger.info("Resuming the scheduling simulation from its checkpoint at {}", checkpoint.time());
+    discardCheckpointsAfter(checkpoint.time());
+
+    this.engine.close();
+    this.engine = engine$.get();
+    this.timeline = checkpoint.timeline().duplicate();
+    this.cells = checkpoint.cells().duplicate(this.timeline);
+    plannedDirectiveToTask.clear();
+    plannedDirectiveToTask.putAll(checkpoint.plannedDirectiveToTask());
+    curTime = checkpoint.time();
+    batch = null;
+    lastSimResults = null;
+    lastSimResultsEnd = Duration.ZERO;
+    countSimulationRestarts++;
+    countCheckpointRestores++;
+
+    final var pending = new HashMap<>(activitiesInserted);
+    pending.keySet().removeAll(checkpoint.scheduledDirectives());
+    return pending;
   }
 
   private void simulateUntil(Duration endTime){
@@ -126,6 +387,7 @@ public class ResumableSimulationDriver<Model> implements AutoCloseable {
         // Run the jobs in this batch.
         final var commit = engine.performJobs(batch.jobs(), cells, curTime, Duration.MAX_VALUE);
         timeline.add(commit);
+        maybeTakeCheckpoint();
 
         batch = engine.extractNextJobs(Duration.MAX_VALUE);
       }
@@ -156,17 +418,38 @@ public class ResumableSimulationDriver<Model> implements AutoCloseable {
   }
 
   public void simulateActivities(@NotNull Map<ActivityDirectiveId, ActivityDirective> activitiesToSimulate) {
-    if(activitiesToSimulate.isEmpty()) return;
+    removeAndSimulateActivities(Set.of(), activitiesToSimulate);
+  }
 
+  /**
+   * Remove previously simulated activity directives and simulate new ones.
+   *
+   * If the change affects the simulation before the current simulation time, the simulation is rewound
+   * to the latest checkpoint preceding the change (or to the beginning of the plan, if there is none).
+   * @param activitiesToRemove the ids of the directives to remove from simulation
+   * @param activitiesToSimulate the directives to add to simulation
+   */
+  public void removeAndSimulateActivities(
+      @NotNull Set<ActivityDirectiveId> activitiesToRemove,
+      @NotNull Map<ActivityDirectiveId, ActivityDirective> activitiesToSimulate)
+  {
+    final var removedDirectives = new HashSet<>(activitiesToRemove);
+    removedDirectives.retainAll(activitiesInserted.keySet());
+    if(activitiesToSimulate.isEmpty() && removedDirectives.isEmpty()) return;
+
+    activitiesInserted.keySet().removeAll(removedDirectives);
     activitiesInserted.putAll(activitiesToSimulate);
 
-    final HashMap<ActivityDirectiveId, List<Pair<ActivityDirectiveId, Duration>>> resolved = new StartOffsetReducer(planDuration, activitiesToSimulate).compute();
-    resolved.get(null).sort(Comparator.comparing(Pair::getRight));
-    final var earliestStartOffset = resolved.get(null).get(0);
+    var mustRewind = !removedDirectives.isEmpty();
+    if (!activitiesToSimulate.isEmpty()) {
+      final HashMap<ActivityDirectiveId, List<Pair<ActivityDirectiveId, Duration>>> resolved = new StartOffsetReducer(planDuration, activitiesToSimulate).compute();
+      resolved.get(null).sort(Comparator.comparing(Pair::getRight));
+      final var earliestStartOffset = resolved.get(null).get(0);
+      mustRewind |= earliestStartOffset.getRight().noLongerThan(curTime);
+    }
 
-    if(earliestStartOffset.getRight().noLongerThan(curTime)){
-      initSimulation();
-      simulateSchedule(activitiesInserted);
+    if(mustRewind){
+      simulateSchedule(rewind(removedDirectives));
     } else {
       simulateSchedule(activitiesToSimulate);
     }
@@ -215,8 +498,11 @@ public class ResumableSimulationDriver<Model> implements AutoCloseable {
 
   private void simulateSchedule(final Map<ActivityDirectiveId, ActivityDirective> schedule)
   {
-    if (schedule.isEmpty()) {
-      throw new IllegalArgumentException("simulateSchedule() called with empty schedule, use simulateUntil() instead");
+    // After a rewind, every remaining directive may already be underway in the restored engine.
+    // There is nothing to catch up on if there are no directives at all.
+    if (schedule.isEmpty() && plannedDirectiveToTask.isEmpty()) {
+      lastSimResults = null;
+      return;
     }
 
     // Get all activities as close as possible to absolute time, then schedule all activities.
@@ -254,6 +540,7 @@ public class ResumableSimulationDriver<Model> implements AutoCloseable {
       // Run the jobs in this batch.
       final var commit = engine.performJobs(batch.jobs(), cells, curTime, Duration.MAX_VALUE);
       timeline.add(commit);
+      maybeTakeCheckpoint();
 
       // all tasks are complete : do not exit yet, there might be event triggered at the same time
       if (!plannedDirectiveToTask.isEmpty() && plannedDirectiveToTask
@@ -328,17 +615,18 @@ public class ResumableSimulationDriver<Model> implements AutoCloseable {
   )
   {
     // Emit the current activity (defined by directiveId)
+    // The continuations below only close over immutable data, so they can be shared by checkpointed copies of the simulation.
     return executor -> scheduler0 -> TaskStatus.calling((TaskFactory<Output>) (executor1 -> scheduler1 -> {
       scheduler1.emit(directiveId, activityTopic);
       return task.create(executor1).step(scheduler1);
-    }), scheduler2 -> {
+    }), Task.stateless(scheduler2 -> {
       // When the current activity finishes, get the list of the activities that needed this activity to finish to know their start time
       final List<Pair<ActivityDirectiveId, Duration>> dependents = resolved.get(directiveId) == null ? List.of() : resolved.get(directiveId);
       // Iterate over the dependents
       for (final var dependent : dependents) {
         scheduler2.spawn(executor2 -> scheduler3 ->
             // Delay until the dependent starts
-            TaskStatus.delayed(dependent.getRight(), scheduler4 -> {
+            TaskStatus.delayed(dependent.getRight(), Task.stateless(scheduler4 -> {
               final var dependentDirectiveId = dependent.getLeft();
               final var serializedDependentDirective = schedule.get(dependentDirectiveId).serializedActivity();
 
@@ -363,9 +651,9 @@ public class ResumableSimulationDriver<Model> implements AutoCloseable {
                   activityTopic
               ));
               return TaskStatus.completed(Unit.UNIT);
-            }));
+            })));
       }
       return TaskStatus.completed(Unit.UNIT);
-    });
+    }));
   }
 }
@@ -21,9 +21,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * A facade for simulating plans and processing simulation results.
@@ -37,14 +39,12 @@ public class SimulationFacade implements AutoCloseable{
   // planning horizon
   private final PlanningHorizon planningHorizon;
   private Map<String, ActivityType> activityTypes;
-  private ResumableSimulationDriver<?> driver;
+  private final ResumableSimulationDriver<?> driver;
   private int itSimActivityId;
 
   private final Map<SchedulingActivityDirectiveId, ActivityDirectiveId>
       planActDirectiveIdToSimulationActivityDirectiveId = new HashMap<>();
   private final Map<SchedulingActivityDirective, ActivityDirective> insertedActivities;
-  //counts the total number of simulation restarts, used as performance metric in the scheduler
-  private int pastSimulationRestarts;
 
   public SimulationData lastSimulationData;
 
@@ -100,7 +100,6 @@ public class SimulationFacade implements AutoCloseable{
     this.itSimActivityId = 0;
     this.insertedActivities = new HashMap<>();
     this.activityTypes = new HashMap<>();
-    this.pastSimulationRestarts = 0;
     this.initialPlan = new ArrayList<>();
     this.initialSimulationResults = Optional.empty();
   }
@@ -110,6 +109,49 @@ public class SimulationFacade implements AutoCloseable{
     driver.close();
   }
 
+  /**
+   * Only track the profiles of the given resources while simulating, so that no other resource is sampled.
+   * Results only include the tracked resources, unless they are requested with {@link #computeSimulationResultsWithAllResourcesUntil(Duration)};
+   * reading the profile of any other resource from the results for constraint evaluation throws.
+   * @param names the names of the resources to track
+   */
+  public void restrictTrackedResources(final Collection<String> names){
+    driver.restrictTrackedResources(names);
+  }
+
+  /**
+   * Simulate the activities of the initial plan which have not been simulated yet, so that every activity of the plan
+   * has a counterpart in simulation (see {@link #getActivityIdCorrespondence()}).
+   */
+  public void simulateInitialPlan() throws SimulationException {
+    if(initialPlan.isEmpty()) return;
+    final var toSimulate = new ArrayList<>(this.initialPlan);
+    this.initialPlan.clear();
+    this.insertActivitiesIntoSimulation(toSimulate);
+  }
+
+  /**
+   * Get the results of simulating the plan until the given time, with the profile of every resource,
+   * for a consumer which may read any resource.
+   *
+   * Initial simulation results which are still valid already hold every profile, and are returned as they are.
+   * Otherwise, the results of the last simulation are extended to the given time; the plan is only simulated again
+   * from its start if some resources were not tracked.
+   * @param endTime the time until which the plan is simulated
+   * @return the simulation results, with the profile of every resource
+   */
+  public SimulationResults computeSimulationResultsWithAllResourcesUntil(final Duration endTime) throws SimulationException {
+    simulateInitialPlan();
+    if(!initialPlanHasBeenModified && initialSimulationResults.isPresent()) return this.initialSimulationResults.get().driverResults();
+    try {
+      driver.trackAllResources();
+    } catch (Exception e){
+      throw new SimulationException("An exception happened during simulation", e);
+    }
+    computeSimulationResultsUntil(endTime);
+    return lastSimulationData.driverResults();
+  }
+
   /**
    * Adds a set of activities that will not be simulated yet. They will be simulated at the latest possible time, when it cannot be avoided.
    * This is to allow the use of initial simulation results in PrioritySolver.
@@ -183,34 +225,20 @@ public class SimulationFacade implements AutoCloseable{
       final Collection<SchedulingActivityDirective> activitiesToRemove,
       final Collection<SchedulingActivityDirective> activitiesToAdd) throws SimulationException
   {
-    var atLeastOneActualRemoval = false;
+    final var removedDirectives = new HashSet<ActivityDirectiveId>();
     for(final var act: activitiesToRemove){
       if(insertedActivities.containsKey(act)){
-        atLeastOneActualRemoval = true;
         insertedActivities.remove(act);
+        removedDirectives.add(planActDirectiveIdToSimulationActivityDirectiveId.remove(act.getId()));
       }
     }
     var allActivitiesToSimulate = new ArrayList<>(activitiesToAdd);
     if(!initialPlan.isEmpty()) allActivitiesToSimulate.addAll(this.initialPlan);
     this.initialPlan.clear();
     allActivitiesToSimulate = new ArrayList<>(allActivitiesToSimulate.stream().filter(a -> !insertedActivities.containsKey(a)).toList());
-    Duration earliestActStartTime = Duration.MAX_VALUE;
-    for(final var act: activitiesToAdd){
-      earliestActStartTime = Duration.min(earliestActStartTime, act.startOffset());
-    }
-    if(allActivitiesToSimulate.isEmpty() && !atLeastOneActualRemoval) return;
-    //reset resumable simulation
-    if(atLeastOneActualRemoval || earliestActStartTime.noLongerThan(this.driver.getCurrentSimulationEndTime())){
-      allActivitiesToSimulate.addAll(insertedActivities.keySet());
-      insertedActivities.clear();
-      planActDirectiveIdToSimulationActivityDirectiveId.clear();
-      if (driver != null) {
-        this.pastSimulationRestarts += driver.getCountSimulationRestarts();
-        driver.close();
-      }
-      driver = new ResumableSimulationDriver<>(missionModel, planningHorizon.getAerieHorizonDuration());
-    }
-    simulateActivities(allActivitiesToSimulate);
+    if(allActivitiesToSimulate.isEmpty() && removedDirectives.isEmpty()) return;
+    //the driver rewinds the simulation (to a checkpoint if possible) when a change precedes the current simulation time
+    simulateActivities(removedDirectives, allActivitiesToSimulate);
   }
 
   public void removeActivitiesFromSimulation(final Collection<SchedulingActivityDirective> activities)
@@ -224,7 +252,7 @@ public class SimulationFacade implements AutoCloseable{
    * @return the number of simulation restarts
    */
   public int countSimulationRestarts(){
-    return this.driver.getCountSimulationRestarts() + this.pastSimulationRestarts;
+    return this.driver.getCountSimulationRestarts();
   }
 
   public void insertActivitiesIntoSimulation(final Collection<SchedulingActivityDirective> activities)
@@ -255,11 +283,14 @@ public class SimulationFacade implements AutoCloseable{
     this.planActDirectiveIdToSimulationActivityDirectiveId.put(replacement.id(), simulationId);
   }
 
-  private void simulateActivities(final Collection<SchedulingActivityDirective> activities) throws SimulationException {
+  private void simulateActivities(
+      final Set<ActivityDirectiveId> removedDirectives,
+      final Collection<SchedulingActivityDirective> activities) throws SimulationException
+  {
     final var activitiesSortedByStartTime =
         activities.stream().filter(activity -> !(insertedActivities.containsKey(activity)))
                   .sorted(Comparator.comparing(SchedulingActivityDirective::startOffset)).toList();
-    if(activitiesSortedByStartTime.isEmpty()) return;
+    if(activitiesSortedByStartTime.isEmpty() && removedDirectives.isEmpty()) return;
     final Map<ActivityDirectiveId, ActivityDirective> directivesToSimulate = new HashMap<>();
 
     for(final var activity : activitiesSortedByStartTime){
@@ -275,7 +306,7 @@ public class SimulationFacade implements AutoCloseable{
       insertedActivities.put(activity, activityDirective);
     }
     try {
-    driver.simulateActivities(directivesToSimulate);
+    driver.removeAndSimulateActivities(removedDirectives, directivesToSimulate);
     } catch(Exception e){
       throw new SimulationException("An exception happened during simulation", e);
     }
@@ -288,17 +319,19 @@ public class SimulationFacade implements AutoCloseable{
   }
 
   public void computeSimulationResultsUntil(final Duration endTime) throws SimulationException {
-    if(!initialPlan.isEmpty()){
-      final var toSimulate = new ArrayList<>(this.initialPlan);
-      this.initialPlan.clear();
-      this.insertActivitiesIntoSimulation(toSimulate);
-    }
+    simulateInitialPlan();
     try {
       final var results = driver.getSimulationResultsUpTo(this.planningHorizon.getStartInstant(), endTime);
       //compare references
       if(lastSimulationData == null || results != lastSimulationData.driverResults()) {
         //simulation results from the last simulation, as converted for use by the constraint evaluation engine
-        this.lastSimulationData = new SimulationData(results, SimulationResultsConverter.convertToConstraintModelResults(results), this.insertedActivities.keySet());
+        final var untrackedResources = new HashSet<>(this.missionModel.getResources().keySet());
+        untrackedResources.removeAll(results.realProfiles.keySet());
+        untrackedResources.removeAll(results.discreteProfiles.keySet());
+        this.lastSimulationData = new SimulationData(
+            results,
+            SimulationResultsConverter.convertToConstraintModelResults(results, untrackedResources),
+            this.insertedActivities.keySet());
       }
     } catch (Exception e){
       throw new SimulationException("An exception happened during simulation", e);
@@ -1,5 +1,6 @@
 package gov.nasa.jpl.aerie.scheduler.simulation;
 
+import com.google.common.collect.ForwardingMap;
 import com.google.common.collect.Maps;
 import gov.nasa.jpl.aerie.constraints.model.DiscreteProfile;
 import gov.nasa.jpl.aerie.constraints.model.LinearProfile;
@@ -10,6 +11,8 @@ import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MICROSECONDS;
@@ -23,6 +26,24 @@ public class SimulationResultsConverter {
    * @return the same results rearranged to be suitable for use by the constraint evaluation engine
    */
   public static gov.nasa.jpl.aerie.constraints.model.SimulationResults convertToConstraintModelResults(SimulationResults driverResults){
+    return convertToConstraintModelResults(driverResults, Set.of());
+  }
+
+  /**
+   * convert a simulation driver SimulationResult to a constraint evaluation engine SimulationResult,
+   * for a simulation which did not track some of the resources of the mission model
+   *
+   * looking up the profile of an untracked resource in the converted results throws, rather than
+   * letting the reader take the resource for one which does not exist
+   *
+   * @param driverResults the recorded results of a simulation run from the simulation driver
+   * @param untrackedResources the names of the resources of the mission model which were not tracked during simulation
+   * @return the same results rearranged to be suitable for use by the constraint evaluation engine
+   */
+  public static gov.nasa.jpl.aerie.constraints.model.SimulationResults convertToConstraintModelResults(
+      SimulationResults driverResults,
+      Set<String> untrackedResources)
+  {
     final var activities =  driverResults.simulatedActivities.entrySet().stream()
                                                              .map(e -> convertToConstraintModelActivityInstance(e.getKey().id(), e.getValue(), driverResults.startTime))
                                                              .collect(Collectors.toList());
@@ -30,11 +51,47 @@ public class SimulationResultsConverter {
         driverResults.startTime,
         Interval.betweenClosedOpen(Duration.ZERO, driverResults.duration),
         activities,
-        Maps.transformValues(driverResults.realProfiles, $ -> LinearProfile.fromSimulatedProfile($.getRight())),
-        Maps.transformValues(driverResults.discreteProfiles, $ -> DiscreteProfile.fromSimulatedProfile($.getRight()))
+        failOnUntrackedResources(
+            Maps.transformValues(driverResults.realProfiles, $ -> LinearProfile.fromSimulatedProfile($.getRight())),
+            untrackedResources),
+        failOnUntrackedResources(
+            Maps.transformValues(driverResults.discreteProfiles, $ -> DiscreteProfile.fromSimulatedProfile($.getRight())),
+            untrackedResources)
     );
   }
 
+  private static <Profile> Map<String, Profile> failOnUntrackedResources(
+      final Map<String, Profile> profiles,
+      final Set<String> untrackedResources)
+  {
+    if (untrackedResources.isEmpty()) return profiles;
+    return new ForwardingMap<>() {
+      @Override
+      protected Map<String, Profile> delegate() {
+        return profiles;
+      }
+
+      @Override
+      public boolean containsKey(final Object name) {
+        ensureTracked(name);
+        return super.containsKey(name);
+      }
+
+      @Override
+      public Profile get(final Object name) {
+        ensureTracked(name);
+        return super.get(name);
+      }
+
+      private void ensureTracked(final Object name) {
+        if (untrackedResources.contains(name)) {
+          throw new IllegalStateException(
+              "The profile of resource `%s` was read, but the resource was not tracked during simulation".formatted(name));
+        }
+      }
+    };
+  }
+
   /**
    * convert an activity entry output by the simulation driver to one suitable for the constraint evaluation engine
    *
@@ -1,5 +1,6 @@
 package gov.nasa.jpl.aerie.scheduler;
 
+import gov.nasa.jpl.aerie.constraints.model.EvaluationEnvironment;
 import gov.nasa.jpl.aerie.constraints.time.Interval;
 import gov.nasa.jpl.aerie.constraints.time.Segment;
 import gov.nasa.jpl.aerie.constraints.time.Windows;
@@ -22,8 +23,12 @@ import gov.nasa.jpl.aerie.merlin.protocol.types.Duration;
 import gov.nasa.jpl.aerie.merlin.protocol.types.SerializedValue;
 import gov.nasa.jpl.aerie.scheduler.constraints.activities.ActivityCreationTemplate;
 import gov.nasa.jpl.aerie.scheduler.constraints.activities.ActivityExpression;
+import gov.nasa.jpl.aerie.scheduler.constraints.TimeRangeExpression;
+import gov.nasa.jpl.aerie.scheduler.constraints.filters.Filters;
 import gov.nasa.jpl.aerie.scheduler.constraints.timeexpressions.TimeAnchor;
+import gov.nasa.jpl.aerie.scheduler.constraints.timeexpressions.TimeExpression;
 import gov.nasa.jpl.aerie.scheduler.constraints.timeexpressions.TimeExpressionConstant;
+import gov.nasa.jpl.aerie.scheduler.constraints.timeexpressions.TimeExpressionLatching;
 import gov.nasa.jpl.aerie.scheduler.goals.CoexistenceGoal;
 import gov.nasa.jpl.aerie.scheduler.constraints.resources.StateQueryParam;
 import gov.nasa.jpl.aerie.scheduler.goals.ChildCustody;
@@ -43,6 +48,8 @@ import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 
 import static com.google.common.truth.Truth.assertThat;
@@ -51,6 +58,7 @@ import static gov.nasa.jpl.aerie.constraints.time.Interval.Inclusivity.Inclusive
 import static gov.nasa.jpl.aerie.constraints.time.Interval.interval;
 import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.SECONDS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class SimulationFacadeTest {
@@ -198,6 +206,36 @@ public class SimulationFacadeTest {
     assertEquals(1, problem.getSimulationFacade().countSimulationRestarts());
   }
 
+  @Test
+  public void readingUntrackedResourceFails() throws SimulationFacade.SimulationException {
+    facade.restrictTrackedResources(List.of(getPlantRes().name));
+    facade.insertActivitiesIntoSimulation(makeTestPlanP0B1().getActivities());
+    facade.computeSimulationResultsUntil(tEnd);
+    final var results = facade.getLatestConstraintSimulationResults().get();
+    assertThrows(
+        IllegalStateException.class,
+        () -> getFruitRes().evaluate(results, entireHorizon, new EvaluationEnvironment()));
+  }
+
+  @Test
+  public void resultsWithAllResourcesReuseUnrestrictedSimulation() throws SimulationFacade.SimulationException {
+    facade.insertActivitiesIntoSimulation(makeTestPlanP0B1().getActivities());
+    facade.computeSimulationResultsUntil(tEnd);
+    final var results = facade.computeSimulationResultsWithAllResourcesUntil(tEnd);
+    assertTrue(results.realProfiles.containsKey(getFruitRes().name));
+    assertEquals(1, facade.countSimulationRestarts());
+  }
+
+  @Test
+  public void resultsWithAllResourcesBackfillRestrictedSimulation() throws SimulationFacade.SimulationException {
+    facade.restrictTrackedResources(List.of(getPlantRes().name));
+    facade.insertActivitiesIntoSimulation(makeTestPlanP0B1().getActivities());
+    facade.computeSimulationResultsUntil(tEnd);
+    final var results = facade.computeSimulationResultsWithAllResourcesUntil(tEnd);
+    assertTrue(results.realProfiles.containsKey(getFruitRes().name));
+    assertEquals(2, facade.countSimulationRestarts());
+  }
+
   @Test
   public void whenValueAboveDoubleOnSimplePlan() throws SimulationFacade.SimulationException {
     facade.insertActivitiesIntoSimulation(makeTestPlanP0B1().getActivities());
@@ -301,6 +339,38 @@ public class SimulationFacadeTest {
     assertEquals(2, problem.getSimulationFacade().countSimulationRestarts());
   }
 
+  private CoexistenceGoal makeLatchingCoexistenceGoal(final TimeRangeExpression resetWindows) {
+    return new CoexistenceGoal.Builder()
+        .forAllTimeIn(new WindowsWrapperExpression(new Windows(false).set(horizon.getHor(), true)))
+        .thereExistsOne(new ActivityCreationTemplate.Builder()
+                            .ofType(problem.getActivityType("PeelBanana"))
+                            .withArgument("peelDirection", SerializedValue.of("fromStem"))
+                            .build())
+        .forEach(new SpansFromWindows(new LessThanOrEqual(new RealResource("/peel"), new RealValue(3.0))))
+        .owned(ChildCustody.Jointly)
+        .startsAt(new TimeExpressionLatching(TimeExpression.atStart(), TimeExpression.afterStart(), resetWindows))
+        .aliasForAnchors("its a me")
+        .withinPlanHorizon(horizon)
+        .build();
+  }
+
+  @Test
+  public void latchingStartExpressionResourcesAreTracked() {
+    final var resetWindows = TimeRangeExpression.of(new LessThanOrEqual(getFruitRes(), new RealValue(2.9)));
+    problem.setGoals(List.of(makeLatchingCoexistenceGoal(resetWindows)));
+    assertEquals(Optional.of(Set.of("/peel", getFruitRes().name)), problem.getReferencedResources());
+  }
+
+  @Test
+  public void filteredStartExpressionTracksAllResources() {
+    final var resetWindows = new TimeRangeExpression.Builder()
+        .from(new LessThanOrEqual(getFruitRes(), new RealValue(2.9)))
+        .thenFilter(Filters.minDuration(Duration.of(1, SECONDS)))
+        .build();
+    problem.setGoals(List.of(makeLatchingCoexistenceGoal(resetWindows)));
+    assertEquals(Optional.empty(), problem.getReferencedResources());
+  }
+
   @Test
   public void testProceduralGoalWithResourceConstraint() {
     problem.setInitialPlan(makeTestPlanP0B1());
@@ -11,10 +11,14 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ThreadPoolExecutor;
 
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.HOURS;
 import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MICROSECOND;
+import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.MINUTES;
 import static gov.nasa.jpl.aerie.merlin.protocol.types.Duration.SECONDS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
@@ -113,6 +117,73 @@ public class ResumableSimulationTest {
     }
   }
 
+  @Test
+  public void restrictedResourcesAreBackfilled(){
+    final var acts = getActivities();
+    final var fooMissionModel = SimulationUtility.getFooMissionModel();
+    final var restricted = new ResumableSimulationDriver<>(fooMissionModel, tenHours);
+    restricted.restrictTrackedResources(List.of("/utcClock"));
+    for (var act : acts) {
+      restricted.simulateActivity(act.start, act.activity, null, true, act.id);
+    }
+    final var now = Instant.now();
+    //only the requested resources are tracked
+    final var restrictedResults = restricted.getSimulationResults(now);
+    assertEquals(Set.of("/utcClock"), restrictedResults.realProfiles.keySet());
+    assertTrue(restrictedResults.discreteProfiles.isEmpty());
+
+    //tracking every resource re-simulates the plan, so that the profiles cover the same period as before
+    restricted.trackAllResources();
+    final var fullResults = restricted.getSimulationResults(now);
+    final var expected = resumableSimulationDriver.getSimulationResults(now);
+    assertEquals(expected.realProfiles, fullResults.realProfiles);
+    assertEquals(expected.discreteProfiles, fullResults.discreteProfiles);
+  }
+
+  @Test
+  public void rewindingToCheckpointsMatchesFreshSimulation(){
+    final var longActivity = new TestSimulatedActivity(
+        Duration.of(0, SECONDS),
+        new SerializedActivity("ControllableDurationActivity", Map.of("duration", SerializedValue.of(Duration.of(8, HOURS).in(MICROSECOND)))),
+        new ActivityDirectiveId(1));
+    final var lateActivity = new TestSimulatedActivity(
+        Duration.of(6, HOURS),
+        new SerializedActivity("BasicActivity", Map.of()),
+        new ActivityDirectiveId(2));
+    final var firstInsertion = new TestSimulatedActivity(
+        Duration.of(4, HOURS),
+        new SerializedActivity("BasicActivity", Map.of()),
+        new ActivityDirectiveId(3));
+    final var secondInsertion = new TestSimulatedActivity(
+        Duration.of(270, MINUTES),
+        new SerializedActivity("BasicActivity", Map.of()),
+        new ActivityDirectiveId(4));
+    final var acts = List.of(longActivity, lateActivity, firstInsertion, secondInsertion);
+
+    final var fooMissionModel = SimulationUtility.getFooMissionModel();
+    final var resumed = new ResumableSimulationDriver<>(fooMissionModel, tenHours);
+    resumed.simulateActivity(longActivity.start, longActivity.activity, null, true, longActivity.id);
+    resumed.simulateActivity(lateActivity.start, lateActivity.activity, null, true, lateActivity.id);
+    //both insertions precede the current simulation time, so each one resumes from a checkpoint;
+    //the second resumes from a checkpoint taken after the first had already resumed
+    resumed.simulateActivity(firstInsertion.start, firstInsertion.activity, null, true, firstInsertion.id);
+    resumed.simulateActivity(secondInsertion.start, secondInsertion.activity, null, true, secondInsertion.id);
+    assertEquals(2, resumed.getCountCheckpointRestores());
+
+    final var fresh = new ResumableSimulationDriver<>(fooMissionModel, tenHours, ResumableSimulationDriver.CheckpointPolicy.disabled());
+    for (final var act : acts) {
+      fresh.simulateActivity(act.start, act.activity, null, true, act.id);
+    }
+
+    final var now = Instant.now();
+    final var expected = fresh.getSimulationResultsUpTo(now, tenHours);
+    final var actual = resumed.getSimulationResultsUpTo(now, tenHours);
+    assertEquals(expected.realProfiles, actual.realProfiles);
+    assertEquals(expected.discreteProfiles, actual.discreteProfiles);
+    assertEquals(expected.simulatedActivities, actual.simulatedActivities);
+    assertEquals(expected.unfinishedActivities, actual.unfinishedActivities);
+  }
+
   private static ThreadPoolExecutor unsafeGetExecutor(final ResumableSimulationDriver<?> driver) {
     try {
       final var engineField = ResumableSimulationDriver.class.getDeclaredField("engine");
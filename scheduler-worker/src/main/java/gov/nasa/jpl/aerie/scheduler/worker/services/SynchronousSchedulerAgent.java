@@ -207,6 +207,8 @@ public record SynchronousSchedulerAgent(
           goals.put(goal, compiledGoal.getKey().id());
         }
         problem.setGoals(orderedGoals);
+        //only the resources read while scheduling need to be tracked, until the final results are stored
+        problem.getReferencedResources().ifPresent(simulationFacade::restrictTrackedResources);
 
         final var scheduler = createScheduler(planMetadata, problem, specification.analysisOnly());
         //run the scheduler to find a solution to the posed problem, if any
@@ -283,9 +285,9 @@ public record SynchronousSchedulerAgent(
                                                      final Map<SchedulingActivityDirective, ActivityDirectiveId> schedDirectiveToMerlinId)
   throws PlanServiceException, IOException
   {
-    //finish simulation until end of horizon before posting results
+    //every activity of the plan must have a counterpart in simulation before the two can be matched
     try {
-      simulationFacade.computeSimulationResultsUntil(planningHorizon.getEndAerie());
+      simulationFacade.simulateInitialPlan();
     } catch (SimulationFacade.SimulationException e) {
       throw new RuntimeException("Error while running simulation before storing simulation results after scheduling", e);
     }
@@ -300,8 +302,15 @@ public record SynchronousSchedulerAgent(
             Map.Entry::getValue,
             (a) -> schedID_to_MerlinID.get(a.getKey())));
     if(simID_to_MerlinID.values().containsAll(schedDirectiveToMerlinId.values()) && schedDirectiveToMerlinId.values().containsAll(simID_to_MerlinID.values())){
+      //finish simulation until end of horizon before posting results, with the profile of every resource
+      final SimulationResults simulationResults;
+      try {
+        simulationResults = simulationFacade.computeSimulationResultsWithAllResourcesUntil(planningHorizon.getEndAerie());
+      } catch (SimulationFacade.SimulationException e) {
+        throw new RuntimeException("Error while running simulation before storing simulation results after scheduling", e);
+      }
       return Optional.of(planService.storeSimulationResults(planMetadata,
-                                                simulationFacade.getLatestDriverSimulationResults(),
+                                                simulationResults,
                                                             simID_to_MerlinID));
     } else{
       //schedule in simulation is inconsistent with current state of the plan (user probably disabled simulation for some of the goals)